@@ -0,0 +1,79 @@
+package org.wildfly.extras.creaper.benchmarks;
+
+import org.jboss.dmr.ModelNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wildfly.extras.creaper.core.online.Constants;
+import org.wildfly.extras.creaper.core.online.ModelNodeResult;
+import org.wildfly.extras.creaper.core.online.OnlineManagementClient;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executing operations against a stub client in managed domain and in standalone mode. The difference is mostly
+ * the cost of adjusting the operations for the default profile and host.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DomainOperationBenchmark {
+    private OnlineManagementClient domainClient;
+    private OnlineManagementClient standaloneClient;
+    private ModelNode operation;
+    private ModelNode composite;
+
+    @Setup
+    public void setUp() throws IOException {
+        domainClient = StubModelControllerClient.onlineClient(true);
+        standaloneClient = StubModelControllerClient.onlineClient(false);
+
+        operation = new ModelNode();
+        operation.get(Constants.OP).set("write-attribute");
+        operation.get(Constants.OP_ADDR).add("subsystem", "logging").add("logger", "com.example");
+        operation.get("name").set("level");
+        operation.get("value").set("DEBUG");
+
+        composite = OperationsBenchmark.compositeOperation(50);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        domainClient.close();
+        standaloneClient.close();
+    }
+
+    // operations are adjusted in place, so each invocation needs a fresh copy
+
+    @Benchmark
+    public ModelNodeResult executeInDomain() throws IOException {
+        return domainClient.execute(operation.clone());
+    }
+
+    @Benchmark
+    public ModelNodeResult executeInStandalone() throws IOException {
+        return standaloneClient.execute(operation.clone());
+    }
+
+    @Benchmark
+    public ModelNodeResult executeCompositeInDomain() throws IOException {
+        return domainClient.execute(composite.clone());
+    }
+
+    @Benchmark
+    public ModelNodeResult executeCompositeInStandalone() throws IOException {
+        return standaloneClient.execute(composite.clone());
+    }
+}
@@ -0,0 +1,96 @@
+package org.wildfly.extras.creaper.benchmarks;
+
+import com.google.common.io.Files;
+import com.google.common.io.Resources;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wildfly.extras.creaper.commands.logging.LogLevel;
+import org.wildfly.extras.creaper.commands.logging.Logging;
+import org.wildfly.extras.creaper.core.CommandFailedException;
+import org.wildfly.extras.creaper.core.ManagementClient;
+import org.wildfly.extras.creaper.core.offline.OfflineCommand;
+import org.wildfly.extras.creaper.core.offline.OfflineManagementClient;
+import org.wildfly.extras.creaper.core.offline.OfflineOptions;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Offline commands implemented using {@code GroovyXmlTransform}, applied to a large configuration file.
+ * Each invocation adds a logger and removes it again, so that the file doesn't grow.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GroovyXmlTransformBenchmark {
+    @Param({"standalone-large.xml", "domain-large.xml"})
+    public String configurationFile;
+
+    private File tmpDir;
+    private OfflineManagementClient client;
+    private OfflineManagementClient sessionClient;
+
+    private OfflineCommand addLogger;
+    private OfflineCommand removeLogger;
+
+    @Setup
+    public void setUp() throws IOException {
+        tmpDir = Files.createTempDir();
+        File file = new File(tmpDir, configurationFile);
+        Resources.asByteSource(Resources.getResource(GroovyXmlTransformBenchmark.class, configurationFile))
+                .copyTo(Files.asByteSink(file));
+
+        client = ManagementClient.offline(options(file).build());
+        sessionClient = ManagementClient.offline(options(file).inMemorySession().build());
+
+        addLogger = Logging.logger().add("org.wildfly.extras.creaper.benchmark")
+                .level(LogLevel.DEBUG)
+                .handlers("CONSOLE")
+                .build();
+        removeLogger = Logging.logger().remove("org.wildfly.extras.creaper.benchmark");
+    }
+
+    private OfflineOptions.OptionalOfflineOptions options(File file) {
+        if (configurationFile.startsWith("domain")) {
+            return OfflineOptions.domain().forProfile("full-ha").build().configurationFile(file);
+        }
+        return OfflineOptions.standalone().configurationFile(file);
+    }
+
+    @TearDown
+    public void tearDown() {
+        File[] files = tmpDir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        tmpDir.delete();
+    }
+
+    /** Each command parses and writes the entire file. */
+    @Benchmark
+    public void addAndRemoveLogger() throws CommandFailedException {
+        client.apply(addLogger, removeLogger);
+    }
+
+    /** The file is only parsed and written once for both commands. */
+    @Benchmark
+    public void addAndRemoveLoggerInSession() throws CommandFailedException {
+        sessionClient.apply(addLogger, removeLogger);
+    }
+}
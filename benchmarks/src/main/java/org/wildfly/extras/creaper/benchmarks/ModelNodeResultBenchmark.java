@@ -0,0 +1,84 @@
+package org.wildfly.extras.creaper.benchmarks;
+
+import org.jboss.dmr.ModelNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wildfly.extras.creaper.core.online.Constants;
+import org.wildfly.extras.creaper.core.online.ModelNodeResult;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Wrapping raw results and accessing their values, as done after every executed operation. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ModelNodeResultBenchmark {
+    private static final int SIZE = 100;
+
+    private ModelNode rawListResult;
+    private ModelNodeResult listResult;
+    private ModelNodeResult compositeResult;
+
+    @Setup
+    public void setUp() {
+        rawListResult = new ModelNode();
+        rawListResult.get(Constants.OUTCOME).set(Constants.SUCCESS);
+        rawListResult.get(Constants.RESULT).setEmptyList();
+        for (int i = 0; i < SIZE; i++) {
+            rawListResult.get(Constants.RESULT).add("com.example.module" + i);
+        }
+        listResult = new ModelNodeResult(rawListResult);
+
+        ModelNode rawCompositeResult = new ModelNode();
+        rawCompositeResult.get(Constants.OUTCOME).set(Constants.SUCCESS);
+        for (int i = 1; i <= SIZE; i++) {
+            ModelNode step = rawCompositeResult.get(Constants.RESULT, "step-" + i);
+            step.get(Constants.OUTCOME).set(Constants.SUCCESS);
+            step.get(Constants.RESULT).set("DEBUG");
+        }
+        compositeResult = new ModelNodeResult(rawCompositeResult);
+    }
+
+    @Benchmark
+    public ModelNodeResult wrap() {
+        return new ModelNodeResult(rawListResult);
+    }
+
+    @Benchmark
+    public boolean isSuccess() {
+        return listResult.isSuccess();
+    }
+
+    @Benchmark
+    public List<String> stringListValue() {
+        return listResult.stringListValue();
+    }
+
+    @Benchmark
+    public int forAllBatchSteps() {
+        int successful = 0;
+        for (ModelNodeResult step : compositeResult.forAllBatchSteps()) {
+            if (step.isSuccess()) {
+                successful++;
+            }
+        }
+        return successful;
+    }
+
+    @Benchmark
+    public ModelNodeResult forBatchStep() {
+        return compositeResult.forBatchStep(SIZE / 2);
+    }
+}
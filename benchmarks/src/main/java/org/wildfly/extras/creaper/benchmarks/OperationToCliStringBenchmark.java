@@ -0,0 +1,57 @@
+package org.wildfly.extras.creaper.benchmarks;
+
+import org.jboss.dmr.ModelNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wildfly.extras.creaper.core.online.Constants;
+import org.wildfly.extras.creaper.core.online.OperationEvent;
+
+import java.util.concurrent.TimeUnit;
+
+/** Converting operations to CLI strings, which is done for every logged {@link OperationEvent}. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OperationToCliStringBenchmark {
+    private OperationEvent operation;
+    private OperationEvent composite;
+
+    @Setup
+    public void setUp() {
+        ModelNode result = new ModelNode();
+        result.get(Constants.OUTCOME).set(Constants.SUCCESS);
+
+        ModelNode op = new ModelNode();
+        op.get(Constants.OP).set("add");
+        op.get(Constants.OP_ADDR).add("subsystem", "datasources").add("data-source", "AppDS");
+        op.get("jndi-name").set("java:jboss/datasources/AppDS");
+        op.get("connection-url").set("jdbc:h2:mem:app;DB_CLOSE_DELAY=-1");
+        op.get("max-pool-size").set(50);
+        op.get("jta").set(true);
+        op.get("connection-properties").add("a").add("b").add("c");
+        operation = new OperationEvent(op, result, 0, false);
+
+        composite = new OperationEvent(OperationsBenchmark.compositeOperation(50), result, 0, false);
+    }
+
+    @Benchmark
+    public String convertOperation() {
+        return operation.toString();
+    }
+
+    @Benchmark
+    public String convertComposite() {
+        return composite.toString();
+    }
+}
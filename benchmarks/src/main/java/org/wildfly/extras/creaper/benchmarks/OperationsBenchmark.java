@@ -0,0 +1,119 @@
+package org.wildfly.extras.creaper.benchmarks;
+
+import org.jboss.dmr.ModelNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wildfly.extras.creaper.core.online.Constants;
+import org.wildfly.extras.creaper.core.online.ModelNodeResult;
+import org.wildfly.extras.creaper.core.online.OnlineManagementClient;
+import org.wildfly.extras.creaper.core.online.operations.Address;
+import org.wildfly.extras.creaper.core.online.operations.Batch;
+import org.wildfly.extras.creaper.core.online.operations.Operations;
+import org.wildfly.extras.creaper.core.online.operations.Values;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/** Building addresses, values and operations, both directly and through {@link Operations} against a stub client. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OperationsBenchmark {
+    private static final int BATCH_SIZE = 50;
+
+    private Address address;
+    private Values values;
+    private Batch batch;
+    private OnlineManagementClient client;
+    private Operations ops;
+
+    @Setup
+    public void setUp() throws IOException {
+        address = Address.subsystem("datasources").and("data-source", "AppDS");
+        values = Values.of("jndi-name", "java:jboss/datasources/AppDS")
+                .and("driver-name", "h2")
+                .and("connection-url", "jdbc:h2:mem:app;DB_CLOSE_DELAY=-1")
+                .and("min-pool-size", 5)
+                .and("max-pool-size", 50)
+                .and("jta", true);
+        batch = batch(BATCH_SIZE);
+
+        client = StubModelControllerClient.onlineClient(false);
+        ops = new Operations(client);
+    }
+
+    private static Batch batch(int size) {
+        Batch batch = new Batch();
+        for (int i = 0; i < size; i++) {
+            batch.add(Address.subsystem("logging").and("logger", "com.example.module" + i),
+                    Values.of("level", "DEBUG").and("use-parent-handlers", true));
+        }
+        return batch;
+    }
+
+    /** A composite operation with {@code size} steps, like the ones built from {@link #batch(int)}. */
+    static ModelNode compositeOperation(int size) {
+        ModelNode composite = new ModelNode();
+        composite.get(Constants.OP).set(Constants.COMPOSITE);
+        composite.get(Constants.OP_ADDR).setEmptyList();
+        for (int i = 0; i < size; i++) {
+            ModelNode step = new ModelNode();
+            step.get(Constants.OP).set(Constants.ADD);
+            step.get(Constants.OP_ADDR).add("subsystem", "logging").add("logger", "com.example.module" + i);
+            step.get("level").set("DEBUG");
+            step.get("use-parent-handlers").set(true);
+            composite.get(Constants.STEPS).add(step);
+        }
+        return composite;
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        client.close();
+    }
+
+    @Benchmark
+    public Address addressAnd() {
+        return Address.subsystem("undertow")
+                .and("server", "default-server")
+                .and("host", "default-host")
+                .and("location", "/");
+    }
+
+    @Benchmark
+    public Values valuesAnd() {
+        return Values.of("jndi-name", "java:jboss/datasources/AppDS")
+                .and("driver-name", "h2")
+                .and("min-pool-size", 5)
+                .and("max-pool-size", 50)
+                .and("jta", true)
+                .andList("connection-properties", "a", "b", "c");
+    }
+
+    @Benchmark
+    public ModelNodeResult readAttributeAgainstStub() throws IOException {
+        return ops.readAttribute(address, "max-pool-size");
+    }
+
+    @Benchmark
+    public ModelNodeResult addAgainstStub() throws IOException {
+        return ops.add(address, values);
+    }
+
+    @Benchmark
+    public ModelNodeResult batchAgainstStub() throws IOException {
+        return ops.batch(batch);
+    }
+}
@@ -0,0 +1,154 @@
+package org.wildfly.extras.creaper.benchmarks;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import org.jboss.as.controller.client.ModelControllerClient;
+import org.jboss.as.controller.client.Operation;
+import org.jboss.as.controller.client.OperationMessageHandler;
+import org.jboss.as.controller.client.OperationResponse;
+import org.jboss.dmr.ModelNode;
+import org.jboss.threads.AsyncFuture;
+import org.jboss.threads.AsyncFutureTask;
+import org.wildfly.extras.creaper.core.ManagementClient;
+import org.wildfly.extras.creaper.core.online.OnlineManagementClient;
+import org.wildfly.extras.creaper.core.online.OnlineOptions;
+
+import java.io.IOException;
+
+/**
+ * A {@code ModelControllerClient} that doesn't connect anywhere and answers every operation immediately
+ * with a canned result. It answers the operations performed when an {@code OnlineManagementClient} is created
+ * (root {@code read-resource} and {@code read-children-types}), so that it can be
+ * {@link OnlineOptions.ConnectionOnlineOptions#wrap(ModelControllerClient) wrapped}, and for all other operations,
+ * it returns a successful result with a simple string value. Composite operations get a result for each step.
+ * Asynchronous operations are executed right away and return an already completed future.
+ */
+public final class StubModelControllerClient implements ModelControllerClient {
+    private final boolean domain;
+
+    public StubModelControllerClient(boolean domain) {
+        this.domain = domain;
+    }
+
+    /** Creates an {@code OnlineManagementClient} that wraps a new stub client. */
+    public static OnlineManagementClient onlineClient(boolean domain) throws IOException {
+        StubModelControllerClient stub = new StubModelControllerClient(domain);
+        OnlineOptions options = domain
+                ? OnlineOptions.domain().forProfile("default").forHost("master").build().wrap(stub)
+                : OnlineOptions.standalone().wrap(stub);
+        return ManagementClient.online(options);
+    }
+
+    @Override
+    public ModelNode execute(ModelNode operation) throws IOException {
+        ModelNode result = new ModelNode();
+        result.get("outcome").set("success");
+        result.get("result").set(resultFor(operation));
+        return result;
+    }
+
+    private ModelNode resultFor(ModelNode operation) {
+        String operationName = operation.get("operation").asString();
+        ModelNode result = new ModelNode();
+        if ("composite".equals(operationName)) {
+            int i = 1;
+            for (ModelNode step : operation.get("steps").asList()) {
+                ModelNode stepResult = result.get("step-" + i);
+                stepResult.get("outcome").set("success");
+                stepResult.get("result").set(resultFor(step));
+                i++;
+            }
+        } else if ("read-resource".equals(operationName) && operation.get("address").asList().isEmpty()) {
+            result.get("management-major-version").set(4);
+            result.get("management-minor-version").set(1);
+            result.get("management-micro-version").set(0);
+            result.get("product-name").set("WildFly Full");
+            result.get("release-version").set("2.2.0.Final");
+        } else if ("read-children-types".equals(operationName)) {
+            if (domain) {
+                result.add("host");
+                result.add("profile");
+                result.add("server-group");
+            } else {
+                result.add("deployment");
+                result.add("interface");
+                result.add("socket-binding-group");
+                result.add("subsystem");
+            }
+        } else {
+            result.set("stub");
+        }
+        return result;
+    }
+
+    @Override
+    public ModelNode execute(Operation operation) throws IOException {
+        return execute(operation.getOperation());
+    }
+
+    @Override
+    public ModelNode execute(ModelNode operation, OperationMessageHandler messageHandler) throws IOException {
+        return execute(operation);
+    }
+
+    @Override
+    public ModelNode execute(Operation operation, OperationMessageHandler messageHandler) throws IOException {
+        return execute(operation);
+    }
+
+    @Override
+    public OperationResponse executeOperation(Operation operation, OperationMessageHandler messageHandler)
+            throws IOException {
+        return OperationResponse.Factory.createSimple(execute(operation));
+    }
+
+    @Override
+    public AsyncFuture<ModelNode> executeAsync(ModelNode operation, OperationMessageHandler messageHandler) {
+        CompletedFuture<ModelNode> result = new CompletedFuture<ModelNode>();
+        try {
+            result.complete(execute(operation));
+        } catch (IOException e) {
+            result.fail(e);
+        }
+        return result;
+    }
+
+    @Override
+    public AsyncFuture<ModelNode> executeAsync(Operation operation, OperationMessageHandler messageHandler) {
+        return executeAsync(operation.getOperation(), messageHandler);
+    }
+
+    @Override
+    public AsyncFuture<OperationResponse> executeOperationAsync(Operation operation,
+                                                                OperationMessageHandler messageHandler) {
+        CompletedFuture<OperationResponse> result = new CompletedFuture<OperationResponse>();
+        try {
+            result.complete(executeOperation(operation, messageHandler));
+        } catch (IOException e) {
+            result.fail(e);
+        }
+        return result;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private static final class CompletedFuture<T> extends AsyncFutureTask<T> {
+        CompletedFuture() {
+            super(MoreExecutors.directExecutor());
+        }
+
+        void complete(T result) {
+            setResult(result);
+        }
+
+        void fail(Exception e) {
+            setFailed(e);
+        }
+
+        @Override
+        public void asyncCancel(boolean interruptionDesired) {
+            // already completed
+        }
+    }
+}
@@ -63,7 +63,7 @@ public final class ChangeAuditLogger implements OnlineCommand, OfflineCommand {
         if (logReadOnly != null) {
             batch.writeAttribute(loggerAddress, "log-read-only", logReadOnly);
         }
-        ops.batch(batch);
+        ops.batchIfChanged(batch);
     }
 
     @Override
@@ -12,6 +12,7 @@ import com.google.common.io.Files;
 import org.wildfly.extras.creaper.core.CommandFailedException;
 import org.wildfly.extras.creaper.core.offline.OfflineCommand;
 import org.wildfly.extras.creaper.core.offline.OfflineCommandContext;
+import org.wildfly.extras.creaper.core.offline.OfflineFiles;
 
 import java.io.File;
 import java.io.IOException;
@@ -103,6 +104,14 @@ public final class PropertiesFileAuth {
         return new File(ctx.options.configurationDirectory(), fileName);
     }
 
+    private static void writeLines(File file, List<String> lines, OfflineCommandContext ctx) throws IOException {
+        StringBuilder content = new StringBuilder();
+        for (String line : lines) {
+            content.append(line).append('\n');
+        }
+        OfflineFiles.write(file, content.toString(), ctx.options.syncWrites);
+    }
+
     private static final Pattern REALM = Pattern.compile("\\$REALM_NAME=(.*?)\\$");
 
     private final class DefineUser implements OfflineCommand {
@@ -133,7 +142,7 @@ public final class PropertiesFileAuth {
             String hashedAuthString = Hashing.md5().hashString(authString, Charsets.UTF_8).toString();
             lines.add(username + "=" + hashedAuthString);
 
-            Files.asCharSink(file, Charsets.UTF_8).writeLines(lines, "\n");
+            writeLines(file, lines, ctx);
         }
 
         @Override
@@ -156,7 +165,7 @@ public final class PropertiesFileAuth {
 
             Iterables.removeIf(lines, Predicates.containsPattern("^" + Pattern.quote(username) + "="));
 
-            Files.asCharSink(file, Charsets.UTF_8).writeLines(lines, "\n");
+            writeLines(file, lines, ctx);
         }
 
         @Override
@@ -198,7 +207,7 @@ public final class PropertiesFileAuth {
             Iterables.removeIf(lines, Predicates.containsPattern("^" + Pattern.quote(username) + "="));
             lines.add(username + "=" + Joiner.on(',').join(allRolesOrGroupsForUser));
 
-            Files.asCharSink(file, Charsets.UTF_8).writeLines(lines, "\n");
+            writeLines(file, lines, ctx);
         }
 
         @Override
@@ -1,8 +1,13 @@
 package org.wildfly.extras.creaper.commands.deployments;
 
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
 import org.jboss.as.controller.client.OperationBuilder;
 import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.Property;
+import org.jboss.logging.Logger;
 import org.wildfly.extras.creaper.core.online.Constants;
+import org.wildfly.extras.creaper.core.online.ModelNodeResult;
 import org.wildfly.extras.creaper.core.online.OnlineCommand;
 import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
@@ -10,12 +15,15 @@ import org.wildfly.extras.creaper.core.online.operations.Operations;
 
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEPLOY;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ENABLED;
@@ -24,16 +32,28 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ENA
  * Command which takes care about deploying specified deployment under specified deployment name.
  * <p/>
  * In case of domain it is deployed by default to all server groups
+ * <p/>
+ * When deploying a file, its SHA-1 hash is computed first. If a deployment of the same name and with the same
+ * content already exists, the content isn't uploaded again; the deployment is only deployed (in case of domain,
+ * added to the server groups that don't have it yet and deployed in those where it's disabled). If the server
+ * already has the same content under a different deployment name, the content is referenced by its hash instead
+ * of being uploaded.
+ * <p/>
+ * This means that redeploying identical content under the same name silently succeeds. Previously, it failed
+ * because the deployment already existed. Use {@link Undeploy} first if the deployment must be replaced anyway.
  */
 public final class Deploy implements OnlineCommand {
+    private static final Logger log = Logger.getLogger(Deploy.class);
 
     private final String deploymentName;
-    private final InputStream deploymentInputStream;
+    private final File deploymentFile; // null if deploying an input stream
+    private final InputStream deploymentInputStream; // null if deploying a file
     private final boolean autoCloseInputStream;
     private final List<String> serverGroups;
 
-    private Deploy(InputStream deploymentInputStream, Builder deployCmdOptions) {
-        this.deploymentInputStream = deploymentInputStream;
+    private Deploy(Builder deployCmdOptions) {
+        this.deploymentFile = deployCmdOptions.deploymentFile;
+        this.deploymentInputStream = deployCmdOptions.deploymentInputStream;
         this.deploymentName = deployCmdOptions.deploymentName;
         this.autoCloseInputStream = deployCmdOptions.autoCloseInputStream;
         this.serverGroups = deployCmdOptions.serverGroups;
@@ -43,9 +63,28 @@ public final class Deploy implements OnlineCommand {
     public void apply(OnlineCommandContext ctx) throws Exception {
         Operations ops = new Operations(ctx.client);
 
+        byte[] hash = null;
+        ModelNode existingDeployments = new ModelNode();
+        if (deploymentFile != null) {
+            long start = System.nanoTime();
+            hash = Files.hash(deploymentFile, Hashing.sha1()).asBytes();
+            log.debugf("Computed SHA-1 of %s in %d ms", deploymentFile,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+            existingDeployments = ctx.client.execute(readDeploymentsOperation()).get(Constants.RESULT);
+        }
+
+        boolean sameDeploymentExists = hash != null && existingDeployments.hasDefined(deploymentName)
+                && hasContent(existingDeployments.get(deploymentName), hash);
+        boolean sameContentExists = sameDeploymentExists || hash != null && anyHasContent(existingDeployments, hash);
+
         // deploy and add to server groups
         ModelNode content = new ModelNode();
-        content.get(Constants.INPUT_STREAM_INDEX).set(0);
+        if (sameContentExists) {
+            content.get(Constants.HASH).set(hash);
+        } else {
+            content.get(Constants.INPUT_STREAM_INDEX).set(0);
+        }
 
         ModelNode deployRequest;
 
@@ -55,34 +94,122 @@ public final class Deploy implements OnlineCommand {
                 groups = ops.readChildrenNames(Address.root(), Constants.SERVER_GROUP)
                         .stringListValue(Collections.<String>emptyList());
 
+            Map<String, Boolean> groupsWithDeployment = sameDeploymentExists
+                    ? readServerGroupsWithDeployment(ctx) : Collections.<String, Boolean>emptyMap();
+
             List<ModelNode> groupDeploymentAddresses = new ArrayList<ModelNode>(groups.size());
+            List<ModelNode> disabledGroupDeploymentAddresses = new ArrayList<ModelNode>();
             for (String serverGroup : groups) {
                 ModelNode mn = new ModelNode();
                 mn.add(Constants.SERVER_GROUP, serverGroup);
                 mn.add(Constants.DEPLOYMENT, deploymentName);
-                groupDeploymentAddresses.add(mn);
+
+                Boolean enabled = groupsWithDeployment.get(serverGroup);
+                if (enabled == null) {
+                    groupDeploymentAddresses.add(mn);
+                } else if (!enabled) {
+                    disabledGroupDeploymentAddresses.add(mn);
+                }
             }
-            deployRequest = createDeploymentOperation(content,
+            deployRequest = createDeploymentOperation(sameDeploymentExists ? null : content,
                     groupDeploymentAddresses.toArray(new ModelNode[groupDeploymentAddresses.size()]));
+            for (ModelNode groupDeploymentAddress : disabledGroupDeploymentAddresses) {
+                deployRequest.get(Constants.STEPS).add(getEmptyOperation(DEPLOY, groupDeploymentAddress));
+            }
         } else {
-            deployRequest = createDeploymentOperation(content);
-            ModelNode deployStep = deployRequest.get(Constants.STEPS).add();
-            ModelNode deploymentAddress = new ModelNode();
-            deploymentAddress.add(Constants.DEPLOYMENT, deploymentName);
-            deployStep.set(getEmptyOperation(DEPLOY, deploymentAddress));
+            deployRequest = createDeploymentOperation(sameDeploymentExists ? null : content);
+            if (!sameDeploymentExists || !existingDeployments.get(deploymentName, ENABLED).asBoolean(false)) {
+                ModelNode deployStep = deployRequest.get(Constants.STEPS).add();
+                ModelNode deploymentAddress = new ModelNode();
+                deploymentAddress.add(Constants.DEPLOYMENT, deploymentName);
+                deployStep.set(getEmptyOperation(DEPLOY, deploymentAddress));
+            }
+        }
+
+        if (sameContentExists) {
+            if (!deployRequest.get(Constants.STEPS).asList().isEmpty()) {
+                ctx.client.execute(deployRequest);
+            }
+            log.infof("Content of deployment %s is already present on the server, skipped upload of %d bytes",
+                    deploymentName, deploymentFile.length());
+            return;
         }
 
         OperationBuilder builder = new OperationBuilder(deployRequest, autoCloseInputStream);
-        builder.addInputStream(deploymentInputStream);
+        builder.addInputStream(deploymentInputStream != null ? deploymentInputStream
+                : new FileInputStream(deploymentFile));
         ctx.client.execute(builder.build());
     }
 
+    /**
+     * Server groups that already have the deployment, mapped to whether it's enabled there. A single wildcard read
+     * instead of checking each server group separately.
+     */
+    private Map<String, Boolean> readServerGroupsWithDeployment(OnlineCommandContext ctx) throws IOException {
+        ModelNode op = new ModelNode();
+        op.get(Constants.OP).set(Constants.READ_RESOURCE_OPERATION);
+        op.get(Constants.OP_ADDR).add(Constants.SERVER_GROUP, "*").add(Constants.DEPLOYMENT, deploymentName);
+
+        Map<String, Boolean> result = new HashMap<String, Boolean>();
+        ModelNodeResult response = ctx.client.execute(op);
+        if (!response.isSuccess() || !response.hasDefined(Constants.RESULT)) {
+            return result;
+        }
+        for (ModelNode item : response.get(Constants.RESULT).asList()) {
+            if (!Constants.SUCCESS.equals(item.get(Constants.OUTCOME).asString())) {
+                continue;
+            }
+            boolean enabled = item.get(Constants.RESULT).hasDefined(ENABLED)
+                    && item.get(Constants.RESULT, ENABLED).asBoolean();
+            for (Property segment : item.get(Constants.OP_ADDR).asPropertyList()) {
+                if (Constants.SERVER_GROUP.equals(segment.getName())) {
+                    result.put(segment.getValue().asString(), enabled);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static ModelNode readDeploymentsOperation() {
+        ModelNode op = new ModelNode();
+        op.get(Constants.OP).set(Constants.READ_CHILDREN_RESOURCES);
+        op.get(Constants.OP_ADDR).setEmptyList();
+        op.get(Constants.CHILD_TYPE).set(Constants.DEPLOYMENT);
+        return op;
+    }
+
+    private static boolean hasContent(ModelNode deployment, byte[] hash) {
+        if (!deployment.hasDefined(Constants.CONTENT)) {
+            return false;
+        }
+        for (ModelNode content : deployment.get(Constants.CONTENT).asList()) {
+            if (content.hasDefined(Constants.HASH) && Arrays.equals(hash, content.get(Constants.HASH).asBytes())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean anyHasContent(ModelNode deployments, byte[] hash) {
+        if (!deployments.isDefined()) {
+            return false;
+        }
+        for (String name : deployments.keys()) {
+            if (hasContent(deployments.get(name), hash)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private ModelNode createDeploymentOperation(ModelNode content, ModelNode... serverGroupAddresses) {
         ModelNode composite = getEmptyOperation(Constants.COMPOSITE, new ModelNode().setEmptyList());
-        ModelNode steps = composite.get(Constants.STEPS);
-        ModelNode step1 = steps.add();
-        step1.set(getEmptyOperation(Constants.ADD, new ModelNode().add(Constants.DEPLOYMENT, deploymentName)));
-        step1.get(Constants.CONTENT).add(content);
+        ModelNode steps = composite.get(Constants.STEPS).setEmptyList();
+        if (content != null) {
+            ModelNode step1 = steps.add();
+            step1.set(getEmptyOperation(Constants.ADD, new ModelNode().add(Constants.DEPLOYMENT, deploymentName)));
+            step1.get(Constants.CONTENT).add(content);
+        }
         if (serverGroupAddresses != null) {
             for (ModelNode serverGroup : serverGroupAddresses) {
                 ModelNode sg = steps.add();
@@ -133,15 +260,7 @@ public final class Deploy implements OnlineCommand {
         }
 
         public Deploy build() {
-            InputStream inputStream = deploymentInputStream;
-            if (deploymentInputStream == null && deploymentFile != null) {
-                try {
-                    inputStream = new FileInputStream(deploymentFile);
-                } catch (FileNotFoundException ex) {
-                    throw new IllegalArgumentException(ex);
-                }
-            }
-            return new Deploy(inputStream, this);
+            return new Deploy(this);
         }
 
 
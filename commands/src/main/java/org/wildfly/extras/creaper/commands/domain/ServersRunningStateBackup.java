@@ -6,7 +6,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.admin.DomainAdministration;
 
 import java.io.IOException;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -31,11 +30,7 @@ public final class ServersRunningStateBackup {
             }
 
             DomainAdministration domainAdministration = new DomainAdministration(ctx.client);
-            Map<String, List<String>> runningServers = new HashMap<String, List<String>>();
-            for (String host : domainAdministration.hosts()) {
-                runningServers.put(host, domainAdministration.allRunningServers());
-            }
-            ServersRunningStateBackup.this.runningServersOnHosts = runningServers;
+            ServersRunningStateBackup.this.runningServersOnHosts = domainAdministration.runningServersByHost();
         }
 
         @Override
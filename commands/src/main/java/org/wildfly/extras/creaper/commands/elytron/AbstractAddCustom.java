@@ -13,7 +13,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public abstract class AbstractAddCustom implements OnlineCommand, OfflineCommand {
 
@@ -41,7 +40,7 @@ public abstract class AbstractAddCustom implements OnlineCommand, OfflineCommand
         Address address = Address.subsystem("elytron").and(getCustomTypeName(), name);
         if (replaceExisting) {
             ops.removeIfExists(address);
-            new Administration(ctx.client).reloadIfRequired();
+            ctx.reloadIfRequired();
         }
 
         ops.add(address, Values.empty()
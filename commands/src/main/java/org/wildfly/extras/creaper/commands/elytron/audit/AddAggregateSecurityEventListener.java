@@ -9,7 +9,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public final class AddAggregateSecurityEventListener implements OnlineCommand {
 
@@ -33,7 +32,7 @@ public final class AddAggregateSecurityEventListener implements OnlineCommand {
         Address listenerAddress = Address.subsystem("elytron").and("aggregate-security-event-listener", name);
         if (replaceExisting) {
             ops.removeIfExists(listenerAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            ctx.reloadIfRequired();
         }
 
         ops.add(listenerAddress, Values.empty()
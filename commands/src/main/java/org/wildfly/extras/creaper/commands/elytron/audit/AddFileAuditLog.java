@@ -6,7 +6,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public final class AddFileAuditLog implements OnlineCommand {
 
@@ -36,7 +35,7 @@ public final class AddFileAuditLog implements OnlineCommand {
         Address fileAuditAddress = Address.subsystem("elytron").and("file-audit-log", name);
         if (replaceExisting) {
             ops.removeIfExists(fileAuditAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            ctx.reloadIfRequired();
         }
 
         ops.add(fileAuditAddress, Values.empty()
@@ -6,7 +6,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public final class AddSyslogAuditLog implements OnlineCommand {
 
@@ -40,7 +39,7 @@ public final class AddSyslogAuditLog implements OnlineCommand {
         Address syslogAuditAddress = Address.subsystem("elytron").and("syslog-audit-log", name);
         if (replaceExisting) {
             ops.removeIfExists(syslogAuditAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            ctx.reloadIfRequired();
         }
 
         ops.add(syslogAuditAddress, Values.empty()
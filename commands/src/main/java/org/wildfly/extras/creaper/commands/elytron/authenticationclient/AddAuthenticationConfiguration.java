@@ -13,7 +13,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public final class AddAuthenticationConfiguration implements OnlineCommand {
 
@@ -63,7 +62,7 @@ public final class AddAuthenticationConfiguration implements OnlineCommand {
         Address realmAddress = Address.subsystem("elytron").and("authentication-configuration", name);
         if (replaceExisting) {
             ops.removeIfExists(realmAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            ctx.reloadIfRequired();
         }
 
         ModelNode mechanismPropertiesNode = null;
@@ -11,7 +11,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public final class AddAuthenticationContext implements OnlineCommand {
 
@@ -37,7 +36,7 @@ public final class AddAuthenticationContext implements OnlineCommand {
         Address realmAddress = Address.subsystem("elytron").and("authentication-context", name);
         if (replaceExisting) {
             ops.removeIfExists(realmAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            ctx.reloadIfRequired();
         }
 
         List<ModelNode> matchRulesNodeList = null;
@@ -10,7 +10,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public final class AddCredentialStore implements OnlineCommand {
 
@@ -52,7 +51,7 @@ public final class AddCredentialStore implements OnlineCommand {
         Address credentialStoreAddress = Address.subsystem("elytron").and("credential-store", name);
         if (replaceExisting) {
             ops.removeIfExists(credentialStoreAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            ctx.reloadIfRequired();
         }
 
         ops.add(credentialStoreAddress, Values.empty()
@@ -11,7 +11,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public final class AddCredentialStoreAlias implements OnlineCommand {
 
@@ -42,7 +41,7 @@ public final class AddCredentialStoreAlias implements OnlineCommand {
             if (aliasExists(ops, credentialStoreAddress, alias)) {
                 ops.invoke("remove-alias", credentialStoreAddress, Values.empty().and("alias", alias));
             }
-            new Administration(ctx.client).reloadIfRequired();
+            ctx.reloadIfRequired();
         }
 
         ops.invoke("add-alias", credentialStoreAddress, Values.empty()
@@ -12,7 +12,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public final class AddDirContext implements OnlineCommand {
 
@@ -59,7 +58,7 @@ public final class AddDirContext implements OnlineCommand {
                 .and("dir-context", name);
         if (replaceExisting) {
             ops.removeIfExists(dirContextAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            ctx.reloadIfRequired();
         }
 
         ModelNode propertiesNode = null;
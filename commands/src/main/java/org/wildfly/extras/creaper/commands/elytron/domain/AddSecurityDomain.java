@@ -4,15 +4,18 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import org.jboss.dmr.ModelNode;
+import org.wildfly.extras.creaper.commands.foundation.offline.xml.GroovyXmlTransform;
+import org.wildfly.extras.creaper.commands.foundation.offline.xml.Subtree;
 import org.wildfly.extras.creaper.core.ServerVersion;
+import org.wildfly.extras.creaper.core.offline.OfflineCommand;
+import org.wildfly.extras.creaper.core.offline.OfflineCommandContext;
 import org.wildfly.extras.creaper.core.online.OnlineCommand;
 import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
-public final class AddSecurityDomain implements OnlineCommand {
+public final class AddSecurityDomain implements OnlineCommand, OfflineCommand {
 
     private final String name;
     private final String defaultRealm;
@@ -56,7 +59,7 @@ public final class AddSecurityDomain implements OnlineCommand {
         Address securityDomainAddress = Address.subsystem("elytron").and("security-domain", name);
         if (replaceExisting) {
             ops.removeIfExists(securityDomainAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            ctx.reloadIfRequired();
         }
 
         List<ModelNode> realmsModelNodeList = new ArrayList<ModelNode>();
@@ -91,6 +94,31 @@ public final class AddSecurityDomain implements OnlineCommand {
                 .andListOptional(String.class, "outflow-security-domains", outflowSecurityDomains));
     }
 
+    @Override
+    public void apply(OfflineCommandContext ctx) throws Exception {
+        if (ctx.version.lessThan(ServerVersion.VERSION_5_0_0)) {
+            throw new AssertionError("Elytron is available since WildFly 11.");
+        }
+
+        ctx.client.apply(GroovyXmlTransform.of(AddSecurityDomain.class)
+                .subtree("elytronSubsystem", Subtree.subsystem("elytron"))
+                .parameter("atrName", name)
+                .parameter("atrDefaultRealm", defaultRealm)
+                .parameter("atrPreRealmPrincipalTransformer", preRealmPrincipalTransformer)
+                .parameter("atrPostRealmPrincipalTransformer", postRealmPrincipalTransformer)
+                .parameter("atrPrincipalDecoder", principalDecoder)
+                .parameter("atrRealmMapper", realmMapper)
+                .parameter("atrRoleMapper", roleMapper)
+                .parameter("atrPermissionMapper", permissionMapper)
+                .parameter("atrTrustedSecurityDomains", trustedSecurityDomains)
+                .parameter("atrOutflowAnonymous", outflowAnonymous)
+                .parameter("atrOutflowSecurityDomains", outflowSecurityDomains)
+                .parameter("atrSecurityEventListener", securityEventListener)
+                .parameter("atrRealms", realms)
+                .parameter("atrReplaceExisting", replaceExisting)
+                .build());
+    }
+
     public static final class Builder {
 
         private final String name;
@@ -4,15 +4,18 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import org.wildfly.extras.creaper.commands.foundation.offline.xml.GroovyXmlTransform;
+import org.wildfly.extras.creaper.commands.foundation.offline.xml.Subtree;
 import org.wildfly.extras.creaper.core.ServerVersion;
+import org.wildfly.extras.creaper.core.offline.OfflineCommand;
+import org.wildfly.extras.creaper.core.offline.OfflineCommandContext;
 import org.wildfly.extras.creaper.core.online.OnlineCommand;
 import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
-public final class AddAggregateHttpServerMechanismFactory implements OnlineCommand {
+public final class AddAggregateHttpServerMechanismFactory implements OnlineCommand, OfflineCommand {
 
     private final String name;
     private final List<String> httpServerMechanismFactories;
@@ -35,13 +38,27 @@ public final class AddAggregateHttpServerMechanismFactory implements OnlineComma
                 .and("aggregate-http-server-mechanism-factory", name);
         if (replaceExisting) {
             ops.removeIfExists(factoryAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            ctx.reloadIfRequired();
         }
 
         ops.add(factoryAddress, Values.empty()
                 .andList(String.class, "http-server-mechanism-factories", httpServerMechanismFactories));
     }
 
+    @Override
+    public void apply(OfflineCommandContext ctx) throws Exception {
+        if (ctx.version.lessThan(ServerVersion.VERSION_5_0_0)) {
+            throw new AssertionError("Elytron is available since WildFly 11.");
+        }
+
+        ctx.client.apply(GroovyXmlTransform.of(AddAggregateHttpServerMechanismFactory.class)
+                .subtree("elytronSubsystem", Subtree.subsystem("elytron"))
+                .parameter("atrName", name)
+                .parameter("atrHttpServerMechanismFactories", httpServerMechanismFactories)
+                .parameter("atrReplaceExisting", replaceExisting)
+                .build());
+    }
+
     public static final class Builder {
 
         private final String name;
@@ -5,15 +5,18 @@ import java.util.Collections;
 import java.util.List;
 import org.jboss.dmr.ModelNode;
 import org.wildfly.extras.creaper.commands.elytron.Property;
+import org.wildfly.extras.creaper.commands.foundation.offline.xml.GroovyXmlTransform;
+import org.wildfly.extras.creaper.commands.foundation.offline.xml.Subtree;
 import org.wildfly.extras.creaper.core.ServerVersion;
+import org.wildfly.extras.creaper.core.offline.OfflineCommand;
+import org.wildfly.extras.creaper.core.offline.OfflineCommandContext;
 import org.wildfly.extras.creaper.core.online.OnlineCommand;
 import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
-public final class AddConfigurableHttpServerMechanismFactory implements OnlineCommand {
+public final class AddConfigurableHttpServerMechanismFactory implements OnlineCommand, OfflineCommand {
 
     private final String name;
     private final String httpServerMechanismFactory;
@@ -40,7 +43,7 @@ public final class AddConfigurableHttpServerMechanismFactory implements OnlineCo
                 .and("configurable-http-server-mechanism-factory", name);
         if (replaceExisting) {
             ops.removeIfExists(factoryAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            ctx.reloadIfRequired();
         }
 
         List<ModelNode> filterNodeList = null;
@@ -73,6 +76,22 @@ public final class AddConfigurableHttpServerMechanismFactory implements OnlineCo
 
     }
 
+    @Override
+    public void apply(OfflineCommandContext ctx) throws Exception {
+        if (ctx.version.lessThan(ServerVersion.VERSION_5_0_0)) {
+            throw new AssertionError("Elytron is available since WildFly 11.");
+        }
+
+        ctx.client.apply(GroovyXmlTransform.of(AddConfigurableHttpServerMechanismFactory.class)
+                .subtree("elytronSubsystem", Subtree.subsystem("elytron"))
+                .parameter("atrName", name)
+                .parameter("atrHttpServerMechanismFactory", httpServerMechanismFactory)
+                .parameter("atrProperties", properties)
+                .parameter("atrFilters", filters)
+                .parameter("atrReplaceExisting", replaceExisting)
+                .build());
+    }
+
     public static final class Builder {
 
         private final String name;
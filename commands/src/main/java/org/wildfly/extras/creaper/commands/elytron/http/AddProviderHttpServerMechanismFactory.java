@@ -1,14 +1,17 @@
 package org.wildfly.extras.creaper.commands.elytron.http;
 
+import org.wildfly.extras.creaper.commands.foundation.offline.xml.GroovyXmlTransform;
+import org.wildfly.extras.creaper.commands.foundation.offline.xml.Subtree;
 import org.wildfly.extras.creaper.core.ServerVersion;
+import org.wildfly.extras.creaper.core.offline.OfflineCommand;
+import org.wildfly.extras.creaper.core.offline.OfflineCommandContext;
 import org.wildfly.extras.creaper.core.online.OnlineCommand;
 import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
-public final class AddProviderHttpServerMechanismFactory implements OnlineCommand {
+public final class AddProviderHttpServerMechanismFactory implements OnlineCommand, OfflineCommand {
 
     private final String name;
     private final String providers;
@@ -31,13 +34,27 @@ public final class AddProviderHttpServerMechanismFactory implements OnlineComman
                 .and("provider-http-server-mechanism-factory", name);
         if (replaceExisting) {
             ops.removeIfExists(factoryAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            ctx.reloadIfRequired();
         }
 
         ops.add(factoryAddress, Values.empty()
                 .andOptional("providers", providers));
     }
 
+    @Override
+    public void apply(OfflineCommandContext ctx) throws Exception {
+        if (ctx.version.lessThan(ServerVersion.VERSION_5_0_0)) {
+            throw new AssertionError("Elytron is available since WildFly 11.");
+        }
+
+        ctx.client.apply(GroovyXmlTransform.of(AddProviderHttpServerMechanismFactory.class)
+                .subtree("elytronSubsystem", Subtree.subsystem("elytron"))
+                .parameter("atrName", name)
+                .parameter("atrProviders", providers)
+                .parameter("atrReplaceExisting", replaceExisting)
+                .build());
+    }
+
     public static final class Builder {
 
         private final String name;
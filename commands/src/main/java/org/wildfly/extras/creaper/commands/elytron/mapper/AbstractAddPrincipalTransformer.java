@@ -3,9 +3,10 @@ package org.wildfly.extras.creaper.commands.elytron.mapper;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import org.wildfly.extras.creaper.core.offline.OfflineCommand;
 import org.wildfly.extras.creaper.core.online.OnlineCommand;
 
-abstract class AbstractAddPrincipalTransformer implements OnlineCommand {
+abstract class AbstractAddPrincipalTransformer implements OnlineCommand, OfflineCommand {
     protected final String name;
     protected final List<String> principalTransformers;
     protected final boolean replaceExisting;
@@ -1,11 +1,13 @@
 package org.wildfly.extras.creaper.commands.elytron.mapper;
 
+import org.wildfly.extras.creaper.commands.foundation.offline.xml.GroovyXmlTransform;
+import org.wildfly.extras.creaper.commands.foundation.offline.xml.Subtree;
 import org.wildfly.extras.creaper.core.ServerVersion;
+import org.wildfly.extras.creaper.core.offline.OfflineCommandContext;
 import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public class AddChainedPrincipalTransformer extends AbstractAddPrincipalTransformer {
 
@@ -24,13 +26,27 @@ public class AddChainedPrincipalTransformer extends AbstractAddPrincipalTransfor
                 .and("chained-principal-transformer", name);
         if (replaceExisting) {
             ops.removeIfExists(aggregatePrincipalTransformerAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            ctx.reloadIfRequired();
         }
 
         ops.add(aggregatePrincipalTransformerAddress, Values.empty()
                 .andList(String.class, "principal-transformers", principalTransformers));
     }
 
+    @Override
+    public void apply(OfflineCommandContext ctx) throws Exception {
+        if (ctx.version.lessThan(ServerVersion.VERSION_5_0_0)) {
+            throw new AssertionError("Elytron is available since WildFly 11.");
+        }
+
+        ctx.client.apply(GroovyXmlTransform.of(AddChainedPrincipalTransformer.class)
+                .subtree("elytronSubsystem", Subtree.subsystem("elytron"))
+                .parameter("atrName", name)
+                .parameter("atrPrincipalTransformers", principalTransformers)
+                .parameter("atrReplaceExisting", replaceExisting)
+                .build());
+    }
+
     public static final class Builder extends AbstractAddPrincipalTransformer.Builder<Builder> {
 
         public Builder(String name) {
@@ -1,11 +1,13 @@
 package org.wildfly.extras.creaper.commands.elytron.mapper;
 
+import org.wildfly.extras.creaper.commands.foundation.offline.xml.GroovyXmlTransform;
+import org.wildfly.extras.creaper.commands.foundation.offline.xml.Subtree;
 import org.wildfly.extras.creaper.core.ServerVersion;
+import org.wildfly.extras.creaper.core.offline.OfflineCommandContext;
 import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public final class AddConcatenatingPrincipalDecoder extends AbstractAddPrincipalDecoder {
 
@@ -27,7 +29,7 @@ public final class AddConcatenatingPrincipalDecoder extends AbstractAddPrincipal
                 .and("concatenating-principal-decoder", name);
         if (replaceExisting) {
             ops.removeIfExists(constantPrincipalDecoderAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            ctx.reloadIfRequired();
         }
 
         ops.add(constantPrincipalDecoderAddress, Values.empty()
@@ -35,6 +37,21 @@ public final class AddConcatenatingPrincipalDecoder extends AbstractAddPrincipal
                 .andOptional("joiner", joiner));
     }
 
+    @Override
+    public void apply(OfflineCommandContext ctx) throws Exception {
+        if (ctx.version.lessThan(ServerVersion.VERSION_5_0_0)) {
+            throw new AssertionError("Elytron is available since WildFly 11.");
+        }
+
+        ctx.client.apply(GroovyXmlTransform.of(AddConcatenatingPrincipalDecoder.class)
+                .subtree("elytronSubsystem", Subtree.subsystem("elytron"))
+                .parameter("atrName", name)
+                .parameter("atrPrincipalDecoders", principalDecoders)
+                .parameter("atrJoiner", joiner)
+                .parameter("atrReplaceExisting", replaceExisting)
+                .build());
+    }
+
     public static final class Builder extends AbstractAddPrincipalDecoder.Builder<Builder> {
 
         private String joiner;
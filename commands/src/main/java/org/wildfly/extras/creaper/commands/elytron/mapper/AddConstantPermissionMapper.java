@@ -4,15 +4,18 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import org.jboss.dmr.ModelNode;
+import org.wildfly.extras.creaper.commands.foundation.offline.xml.GroovyXmlTransform;
+import org.wildfly.extras.creaper.commands.foundation.offline.xml.Subtree;
 import org.wildfly.extras.creaper.core.ServerVersion;
+import org.wildfly.extras.creaper.core.offline.OfflineCommand;
+import org.wildfly.extras.creaper.core.offline.OfflineCommandContext;
 import org.wildfly.extras.creaper.core.online.OnlineCommand;
 import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
-public final class AddConstantPermissionMapper implements OnlineCommand {
+public final class AddConstantPermissionMapper implements OnlineCommand, OfflineCommand {
 
     private final String name;
     private final List<Permission> permissions;
@@ -34,7 +37,7 @@ public final class AddConstantPermissionMapper implements OnlineCommand {
         Address mapperAddress = Address.subsystem("elytron").and("constant-permission-mapper", name);
         if (replaceExisting) {
             ops.removeIfExists(mapperAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            ctx.reloadIfRequired();
         }
 
         List<ModelNode> mechanismConfigurationsNodeList = null;
@@ -55,6 +58,20 @@ public final class AddConstantPermissionMapper implements OnlineCommand {
                 .andListOptional(ModelNode.class, "permissions", mechanismConfigurationsNodeList));
     }
 
+    @Override
+    public void apply(OfflineCommandContext ctx) throws Exception {
+        if (ctx.version.lessThan(ServerVersion.VERSION_5_0_0)) {
+            throw new AssertionError("Elytron is available since WildFly 11.");
+        }
+
+        ctx.client.apply(GroovyXmlTransform.of(AddConstantPermissionMapper.class)
+                .subtree("elytronSubsystem", Subtree.subsystem("elytron"))
+                .parameter("atrName", name)
+                .parameter("atrPermissions", permissions)
+                .parameter("atrReplaceExisting", replaceExisting)
+                .build());
+    }
+
     private void addOptionalToModelNode(ModelNode node, String name, String value) {
         if (value != null && !value.isEmpty()) {
             node.add(name, value);
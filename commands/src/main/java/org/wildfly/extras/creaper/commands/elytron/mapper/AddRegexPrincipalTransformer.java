@@ -1,14 +1,17 @@
 package org.wildfly.extras.creaper.commands.elytron.mapper;
 
+import org.wildfly.extras.creaper.commands.foundation.offline.xml.GroovyXmlTransform;
+import org.wildfly.extras.creaper.commands.foundation.offline.xml.Subtree;
 import org.wildfly.extras.creaper.core.ServerVersion;
+import org.wildfly.extras.creaper.core.offline.OfflineCommand;
+import org.wildfly.extras.creaper.core.offline.OfflineCommandContext;
 import org.wildfly.extras.creaper.core.online.OnlineCommand;
 import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
-public final class AddRegexPrincipalTransformer implements OnlineCommand {
+public final class AddRegexPrincipalTransformer implements OnlineCommand, OfflineCommand {
 
     private final String name;
     private final String pattern;
@@ -35,7 +38,7 @@ public final class AddRegexPrincipalTransformer implements OnlineCommand {
                 .and("regex-principal-transformer", name);
         if (replaceExisting) {
             ops.removeIfExists(regexPrincipalTransformerAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            ctx.reloadIfRequired();
         }
 
         ops.add(regexPrincipalTransformerAddress, Values.empty()
@@ -44,6 +47,22 @@ public final class AddRegexPrincipalTransformer implements OnlineCommand {
                 .andOptional("replace-all", replaceAll));
     }
 
+    @Override
+    public void apply(OfflineCommandContext ctx) throws Exception {
+        if (ctx.version.lessThan(ServerVersion.VERSION_5_0_0)) {
+            throw new AssertionError("Elytron is available since WildFly 11.");
+        }
+
+        ctx.client.apply(GroovyXmlTransform.of(AddRegexPrincipalTransformer.class)
+                .subtree("elytronSubsystem", Subtree.subsystem("elytron"))
+                .parameter("atrName", name)
+                .parameter("atrPattern", pattern)
+                .parameter("atrReplacement", replacement)
+                .parameter("atrReplaceAll", replaceAll)
+                .parameter("atrReplaceExisting", replaceExisting)
+                .build());
+    }
+
     public static final class Builder {
 
         private final String name;
@@ -4,15 +4,18 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import org.jboss.dmr.ModelNode;
+import org.wildfly.extras.creaper.commands.foundation.offline.xml.GroovyXmlTransform;
+import org.wildfly.extras.creaper.commands.foundation.offline.xml.Subtree;
 import org.wildfly.extras.creaper.core.ServerVersion;
+import org.wildfly.extras.creaper.core.offline.OfflineCommand;
+import org.wildfly.extras.creaper.core.offline.OfflineCommandContext;
 import org.wildfly.extras.creaper.core.online.OnlineCommand;
 import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
-public final class AddSimplePermissionMapper implements OnlineCommand {
+public final class AddSimplePermissionMapper implements OnlineCommand, OfflineCommand {
 
     private final String name;
     private final MappingMode mappingMode;
@@ -36,7 +39,7 @@ public final class AddSimplePermissionMapper implements OnlineCommand {
         Address mapperAddress = Address.subsystem("elytron").and("simple-permission-mapper", name);
         if (replaceExisting) {
             ops.removeIfExists(mapperAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            ctx.reloadIfRequired();
         }
 
         List<ModelNode> permissionMappingsModelNodeList = null;
@@ -90,6 +93,21 @@ public final class AddSimplePermissionMapper implements OnlineCommand {
                 .andListOptional(ModelNode.class, "permission-mappings", permissionMappingsModelNodeList));
     }
 
+    @Override
+    public void apply(OfflineCommandContext ctx) throws Exception {
+        if (ctx.version.lessThan(ServerVersion.VERSION_5_0_0)) {
+            throw new AssertionError("Elytron is available since WildFly 11.");
+        }
+
+        ctx.client.apply(GroovyXmlTransform.of(AddSimplePermissionMapper.class)
+                .subtree("elytronSubsystem", Subtree.subsystem("elytron"))
+                .parameter("atrName", name)
+                .parameter("atrMappingMode", mappingMode == null ? null : mappingMode.name())
+                .parameter("atrPermissionMappings", permissionMappings)
+                .parameter("atrReplaceExisting", replaceExisting)
+                .build());
+    }
+
 
     public static final class Builder {
 
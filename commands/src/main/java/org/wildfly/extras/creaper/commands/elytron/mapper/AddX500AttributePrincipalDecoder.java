@@ -3,16 +3,19 @@ package org.wildfly.extras.creaper.commands.elytron.mapper;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import org.wildfly.extras.creaper.commands.foundation.offline.xml.GroovyXmlTransform;
+import org.wildfly.extras.creaper.commands.foundation.offline.xml.Subtree;
 import org.wildfly.extras.creaper.core.ServerVersion;
 
+import org.wildfly.extras.creaper.core.offline.OfflineCommand;
+import org.wildfly.extras.creaper.core.offline.OfflineCommandContext;
 import org.wildfly.extras.creaper.core.online.OnlineCommand;
 import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
-public final class AddX500AttributePrincipalDecoder implements OnlineCommand {
+public final class AddX500AttributePrincipalDecoder implements OnlineCommand, OfflineCommand {
 
     private final String name;
     private final String oid;
@@ -51,7 +54,7 @@ public final class AddX500AttributePrincipalDecoder implements OnlineCommand {
                 .and("x500-attribute-principal-decoder", name);
         if (replaceExisting) {
             ops.removeIfExists(x500AttributePrincipalDecoderAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            ctx.reloadIfRequired();
         }
 
         ops.add(x500AttributePrincipalDecoderAddress, Values.empty()
@@ -67,6 +70,28 @@ public final class AddX500AttributePrincipalDecoder implements OnlineCommand {
 
     }
 
+    @Override
+    public void apply(OfflineCommandContext ctx) throws Exception {
+        if (ctx.version.lessThan(ServerVersion.VERSION_5_0_0)) {
+            throw new AssertionError("Elytron is available since WildFly 11.");
+        }
+
+        ctx.client.apply(GroovyXmlTransform.of(AddX500AttributePrincipalDecoder.class)
+                .subtree("elytronSubsystem", Subtree.subsystem("elytron"))
+                .parameter("atrName", name)
+                .parameter("atrOid", oid)
+                .parameter("atrAttributeName", attributeName)
+                .parameter("atrJoiner", joiner)
+                .parameter("atrStartSegment", startSegment)
+                .parameter("atrMaximumSegments", maximumSegments)
+                .parameter("atrReverse", reverse)
+                .parameter("atrConvert", convert)
+                .parameter("atrRequiredOids", requiredOids)
+                .parameter("atrRequiredAttributes", requiredAttributes)
+                .parameter("atrReplaceExisting", replaceExisting)
+                .build());
+    }
+
     public static final class Builder {
 
         private final String name;
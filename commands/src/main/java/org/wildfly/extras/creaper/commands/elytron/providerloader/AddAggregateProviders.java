@@ -9,7 +9,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public class AddAggregateProviders implements OnlineCommand {
 
@@ -33,7 +32,7 @@ public class AddAggregateProviders implements OnlineCommand {
         Address aggregatepProvidersAddress = Address.subsystem("elytron").and("aggregate-providers", name);
         if (replaceExisting) {
             ops.removeIfExists(aggregatepProvidersAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            ctx.reloadIfRequired();
         }
 
         ops.add(aggregatepProvidersAddress, Values.empty()
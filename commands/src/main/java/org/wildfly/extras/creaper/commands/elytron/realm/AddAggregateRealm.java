@@ -1,14 +1,17 @@
 package org.wildfly.extras.creaper.commands.elytron.realm;
 
+import org.wildfly.extras.creaper.commands.foundation.offline.xml.GroovyXmlTransform;
+import org.wildfly.extras.creaper.commands.foundation.offline.xml.Subtree;
 import org.wildfly.extras.creaper.core.ServerVersion;
+import org.wildfly.extras.creaper.core.offline.OfflineCommand;
+import org.wildfly.extras.creaper.core.offline.OfflineCommandContext;
 import org.wildfly.extras.creaper.core.online.OnlineCommand;
 import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
-public final class AddAggregateRealm implements OnlineCommand {
+public final class AddAggregateRealm implements OnlineCommand, OfflineCommand {
 
     private final String name;
     private final String authenticationRealm;
@@ -32,7 +35,7 @@ public final class AddAggregateRealm implements OnlineCommand {
         Address securityRealmAddress = Address.subsystem("elytron").and("aggregate-realm", name);
         if (replaceExisting) {
             ops.removeIfExists(securityRealmAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            ctx.reloadIfRequired();
         }
 
         ops.add(securityRealmAddress, Values.empty()
@@ -40,6 +43,21 @@ public final class AddAggregateRealm implements OnlineCommand {
             .and("authorization-realm", authorizationRealm));
     }
 
+    @Override
+    public void apply(OfflineCommandContext ctx) throws Exception {
+        if (ctx.version.lessThan(ServerVersion.VERSION_5_0_0)) {
+            throw new AssertionError("Elytron is available since WildFly 11.");
+        }
+
+        ctx.client.apply(GroovyXmlTransform.of(AddAggregateRealm.class)
+                .subtree("elytronSubsystem", Subtree.subsystem("elytron"))
+                .parameter("atrName", name)
+                .parameter("atrAuthenticationRealm", authenticationRealm)
+                .parameter("atrAuthorizationRealm", authorizationRealm)
+                .parameter("atrReplaceExisting", replaceExisting)
+                .build());
+    }
+
     public static final class Builder {
 
         private final String name;
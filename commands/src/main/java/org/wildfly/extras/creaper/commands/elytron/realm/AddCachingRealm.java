@@ -10,7 +10,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public final class AddCachingRealm implements OnlineCommand, OfflineCommand {
 
@@ -38,7 +37,7 @@ public final class AddCachingRealm implements OnlineCommand, OfflineCommand {
         Address securityRealmAddress = Address.subsystem("elytron").and("caching-realm", name);
         if (replaceExisting) {
             ops.removeIfExists(securityRealmAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            ctx.reloadIfRequired();
         }
 
         ops.add(securityRealmAddress, Values.empty()
@@ -1,14 +1,17 @@
 package org.wildfly.extras.creaper.commands.elytron.realm;
 
+import org.wildfly.extras.creaper.commands.foundation.offline.xml.GroovyXmlTransform;
+import org.wildfly.extras.creaper.commands.foundation.offline.xml.Subtree;
 import org.wildfly.extras.creaper.core.ServerVersion;
+import org.wildfly.extras.creaper.core.offline.OfflineCommand;
+import org.wildfly.extras.creaper.core.offline.OfflineCommandContext;
 import org.wildfly.extras.creaper.core.online.OnlineCommand;
 import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
-public final class AddFilesystemRealm implements OnlineCommand {
+public final class AddFilesystemRealm implements OnlineCommand, OfflineCommand {
 
     private final String name;
     private final Integer levels;
@@ -36,7 +39,7 @@ public final class AddFilesystemRealm implements OnlineCommand {
         Address securityRealmAddress = Address.subsystem("elytron").and("filesystem-realm", name);
         if (replaceExisting) {
             ops.removeIfExists(securityRealmAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            ctx.reloadIfRequired();
         }
 
         ops.add(securityRealmAddress, Values.empty()
@@ -45,7 +48,24 @@ public final class AddFilesystemRealm implements OnlineCommand {
                 .andOptional("levels", levels)
                 .andOptional("relative-to", relativeTo));
 
-        new Administration(ctx.client).reloadIfRequired();
+        ctx.reloadIfRequired();
+    }
+
+    @Override
+    public void apply(OfflineCommandContext ctx) throws Exception {
+        if (ctx.version.lessThan(ServerVersion.VERSION_5_0_0)) {
+            throw new AssertionError("Elytron is available since WildFly 11.");
+        }
+
+        ctx.client.apply(GroovyXmlTransform.of(AddFilesystemRealm.class)
+                .subtree("elytronSubsystem", Subtree.subsystem("elytron"))
+                .parameter("atrName", name)
+                .parameter("atrLevels", levels)
+                .parameter("atrEncoded", encoded)
+                .parameter("atrPath", path)
+                .parameter("atrRelativeTo", relativeTo)
+                .parameter("atrReplaceExisting", replaceExisting)
+                .build());
     }
 
 
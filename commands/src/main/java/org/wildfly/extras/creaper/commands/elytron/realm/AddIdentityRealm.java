@@ -3,15 +3,18 @@ package org.wildfly.extras.creaper.commands.elytron.realm;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import org.wildfly.extras.creaper.commands.foundation.offline.xml.GroovyXmlTransform;
+import org.wildfly.extras.creaper.commands.foundation.offline.xml.Subtree;
 import org.wildfly.extras.creaper.core.ServerVersion;
+import org.wildfly.extras.creaper.core.offline.OfflineCommand;
+import org.wildfly.extras.creaper.core.offline.OfflineCommandContext;
 import org.wildfly.extras.creaper.core.online.OnlineCommand;
 import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
-public final class AddIdentityRealm implements OnlineCommand {
+public final class AddIdentityRealm implements OnlineCommand, OfflineCommand {
 
     private final String name;
     private final String identity;
@@ -37,7 +40,7 @@ public final class AddIdentityRealm implements OnlineCommand {
         Address identityRealmAddress = Address.subsystem("elytron").and("identity-realm", name);
         if (replaceExisting) {
             ops.removeIfExists(identityRealmAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            ctx.reloadIfRequired();
         }
 
         ops.add(identityRealmAddress, Values.empty()
@@ -46,6 +49,22 @@ public final class AddIdentityRealm implements OnlineCommand {
                 .andListOptional(String.class, "attribute-values", attributeValues));
     }
 
+    @Override
+    public void apply(OfflineCommandContext ctx) throws Exception {
+        if (ctx.version.lessThan(ServerVersion.VERSION_5_0_0)) {
+            throw new AssertionError("Elytron is available since WildFly 11.");
+        }
+
+        ctx.client.apply(GroovyXmlTransform.of(AddIdentityRealm.class)
+                .subtree("elytronSubsystem", Subtree.subsystem("elytron"))
+                .parameter("atrName", name)
+                .parameter("atrIdentity", identity)
+                .parameter("atrAttributeName", attributeName)
+                .parameter("atrAttributeValues", attributeValues)
+                .parameter("atrReplaceExisting", replaceExisting)
+                .build());
+    }
+
     public static final class Builder {
 
         private final String name;
@@ -11,7 +11,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public final class AddJdbcRealm implements OnlineCommand {
 
@@ -35,7 +34,7 @@ public final class AddJdbcRealm implements OnlineCommand {
         Address jdbcRealmAddress = Address.subsystem("elytron").and("jdbc-realm", name);
         if (replaceExisting) {
             ops.removeIfExists(jdbcRealmAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            ctx.reloadIfRequired();
         }
 
         List<ModelNode> principalQueryNodeList = new ArrayList<ModelNode>();
@@ -10,7 +10,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public final class AddLdapRealm implements OnlineCommand {
 
@@ -40,7 +39,7 @@ public final class AddLdapRealm implements OnlineCommand {
         Address realmAddress = Address.subsystem("elytron").and("ldap-realm", name);
         if (replaceExisting) {
             ops.removeIfExists(realmAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            ctx.reloadIfRequired();
         }
 
         ModelNode identityMappingModelNode = new ModelNode();
@@ -1,14 +1,17 @@
 package org.wildfly.extras.creaper.commands.elytron.realm;
 
+import org.wildfly.extras.creaper.commands.foundation.offline.xml.GroovyXmlTransform;
+import org.wildfly.extras.creaper.commands.foundation.offline.xml.Subtree;
 import org.wildfly.extras.creaper.core.ServerVersion;
+import org.wildfly.extras.creaper.core.offline.OfflineCommand;
+import org.wildfly.extras.creaper.core.offline.OfflineCommandContext;
 import org.wildfly.extras.creaper.core.online.OnlineCommand;
 import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
-public final class AddPropertiesRealm implements OnlineCommand {
+public final class AddPropertiesRealm implements OnlineCommand, OfflineCommand {
 
     private static final String REALM_TYPE = "properties-realm";
 
@@ -44,7 +47,7 @@ public final class AddPropertiesRealm implements OnlineCommand {
         Address securityRealmAddress = Address.subsystem("elytron").and(REALM_TYPE, name);
         if (replaceExisting) {
             ops.removeIfExists(securityRealmAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            ctx.reloadIfRequired();
         }
 
         Values groupsProperties = groupsProperiesPath != null
@@ -62,7 +65,27 @@ public final class AddPropertiesRealm implements OnlineCommand {
                         .andOptional("digest-realm-name", digestRealmName))
                 .andObjectOptional("groups-properties", groupsProperties));
 
-        new Administration(ctx.client).reloadIfRequired();
+        ctx.reloadIfRequired();
+    }
+
+    @Override
+    public void apply(OfflineCommandContext ctx) throws Exception {
+        if (ctx.version.lessThan(ServerVersion.VERSION_5_0_0)) {
+            throw new AssertionError("Elytron is available since WildFly 11.");
+        }
+
+        ctx.client.apply(GroovyXmlTransform.of(AddPropertiesRealm.class)
+                .subtree("elytronSubsystem", Subtree.subsystem("elytron"))
+                .parameter("atrName", name)
+                .parameter("atrGroupsAttribute", groupsAttribute)
+                .parameter("atrUsersPropertiesPath", userProperiesPath)
+                .parameter("atrUsersPropertiesRelativeTo", userPropertiesRelativeTo)
+                .parameter("atrDigestRealmName", digestRealmName)
+                .parameter("atrPlainText", plainText)
+                .parameter("atrGroupsPropertiesPath", groupsProperiesPath)
+                .parameter("atrGroupsPropertiesRelativeTo", groupsPropertiesRelativeTo)
+                .parameter("atrReplaceExisting", replaceExisting)
+                .build());
     }
 
     public static final class Builder {
@@ -10,7 +10,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public final class AddTokenRealm implements OnlineCommand {
 
@@ -39,7 +38,7 @@ public final class AddTokenRealm implements OnlineCommand {
                 .and("token-realm", name);
         if (replaceExisting) {
             ops.removeIfExists(tokenRealmAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            ctx.reloadIfRequired();
         }
 
         Values jwtProperties = jwt != null
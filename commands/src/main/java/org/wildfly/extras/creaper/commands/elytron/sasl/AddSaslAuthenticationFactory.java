@@ -5,15 +5,18 @@ import java.util.Collections;
 import java.util.List;
 import org.jboss.dmr.ModelNode;
 import org.wildfly.extras.creaper.commands.elytron.Mechanism;
+import org.wildfly.extras.creaper.commands.foundation.offline.xml.GroovyXmlTransform;
+import org.wildfly.extras.creaper.commands.foundation.offline.xml.Subtree;
 import org.wildfly.extras.creaper.core.ServerVersion;
+import org.wildfly.extras.creaper.core.offline.OfflineCommand;
+import org.wildfly.extras.creaper.core.offline.OfflineCommandContext;
 import org.wildfly.extras.creaper.core.online.OnlineCommand;
 import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
-public final class AddSaslAuthenticationFactory implements OnlineCommand {
+public final class AddSaslAuthenticationFactory implements OnlineCommand, OfflineCommand {
 
     private final String name;
     private final String securityDomain;
@@ -40,7 +43,7 @@ public final class AddSaslAuthenticationFactory implements OnlineCommand {
                 .and("sasl-authentication-factory", name);
         if (replaceExisting) {
             ops.removeIfExists(factoryAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            ctx.reloadIfRequired();
         }
 
         List<ModelNode> mechanismConfigurationsNodeList = null;
@@ -97,6 +100,22 @@ public final class AddSaslAuthenticationFactory implements OnlineCommand {
 
     }
 
+    @Override
+    public void apply(OfflineCommandContext ctx) throws Exception {
+        if (ctx.version.lessThan(ServerVersion.VERSION_5_0_0)) {
+            throw new AssertionError("Elytron is available since WildFly 11.");
+        }
+
+        ctx.client.apply(GroovyXmlTransform.of(AddSaslAuthenticationFactory.class)
+                .subtree("elytronSubsystem", Subtree.subsystem("elytron"))
+                .parameter("atrName", name)
+                .parameter("atrSaslServerFactory", saslServerFactory)
+                .parameter("atrSecurityDomain", securityDomain)
+                .parameter("atrMechanismConfigurations", mechanismConfigurations)
+                .parameter("atrReplaceExisting", replaceExisting)
+                .build());
+    }
+
     private void addOptionalToModelNode(ModelNode node, String name, String value) {
         if (value != null && !value.isEmpty()) {
             node.add(name, value);
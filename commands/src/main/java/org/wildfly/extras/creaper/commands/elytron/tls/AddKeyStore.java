@@ -11,7 +11,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public final class AddKeyStore implements OnlineCommand, OfflineCommand {
 
@@ -51,7 +50,7 @@ public final class AddKeyStore implements OnlineCommand, OfflineCommand {
         Address keyStoreAddress = Address.subsystem("elytron").and("key-store", name);
         if (replaceExisting) {
             ops.removeIfExists(keyStoreAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            ctx.reloadIfRequired();
         }
 
         ops.add(keyStoreAddress, Values.empty()
@@ -13,7 +13,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public final class AddTrustManager implements OnlineCommand, OfflineCommand {
 
@@ -47,7 +46,7 @@ public final class AddTrustManager implements OnlineCommand, OfflineCommand {
         Address trustManagerAddress = Address.subsystem("elytron").and("trust-manager", name);
         if (replaceExisting) {
             ops.removeIfExists(trustManagerAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            ctx.reloadIfRequired();
         }
 
         ops.add(trustManagerAddress, Values.empty()
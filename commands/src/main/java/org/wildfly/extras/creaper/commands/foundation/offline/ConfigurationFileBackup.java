@@ -5,6 +5,7 @@ import org.jboss.logging.Logger;
 import org.wildfly.extras.creaper.core.CommandFailedException;
 import org.wildfly.extras.creaper.core.offline.OfflineCommand;
 import org.wildfly.extras.creaper.core.offline.OfflineCommandContext;
+import org.wildfly.extras.creaper.core.offline.OfflineFiles;
 
 import java.io.File;
 import java.io.IOException;
@@ -29,6 +30,7 @@ public final class ConfigurationFileBackup {
                         + ConfigurationFileBackup.this.backupFile);
             }
 
+            ctx.session.flush();
             File tempFile = File.createTempFile("creaper-backup", null);
             Files.copy(ctx.configurationFile, tempFile);
             ConfigurationFileBackup.this.backupFile = tempFile;
@@ -47,7 +49,9 @@ public final class ConfigurationFileBackup {
                 throw new CommandFailedException("There's no configuration file backup to restore");
             }
 
-            Files.copy(ConfigurationFileBackup.this.backupFile, ctx.configurationFile);
+            ctx.session.flush();
+            OfflineFiles.write(ctx.configurationFile, Files.toByteArray(ConfigurationFileBackup.this.backupFile),
+                    ctx.options.syncWrites);
             boolean deleted = ConfigurationFileBackup.this.backupFile.delete();
             if (!deleted) {
                 log.errorf("Couldn't delete %s, continuing", ConfigurationFileBackup.this.backupFile);
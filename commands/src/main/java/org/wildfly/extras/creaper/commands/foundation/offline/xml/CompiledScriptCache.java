@@ -0,0 +1,88 @@
+package org.wildfly.extras.creaper.commands.foundation.offline.xml;
+
+import com.google.common.base.Charsets;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Resources;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import groovy.lang.GroovyCodeSource;
+import org.wildfly.extras.creaper.core.CommandFailedException;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * <p>A JVM-wide cache of compiled {@link GroovyXmlTransform} scripts. Each transformation script is compiled only once
+ * and the resulting class is then reused for all subsequent applications of the same script. Compilation is by far
+ * the most expensive part of applying a typical offline command, so this matters a lot when many offline commands
+ * are applied in a row.</p>
+ *
+ * <p>The cache key consists of the script URL and a hash of the script content, so a script that changes on
+ * the classpath (which is rare, but possible in development environments) is recompiled. The cache is bounded
+ * and thread-safe; if multiple threads ask for the same script at the same time, it is only compiled once.</p>
+ */
+public final class CompiledScriptCache {
+    private static final int MAXIMUM_SIZE = 256;
+
+    private static final Cache<String, Class<?>> CACHE = CacheBuilder.newBuilder()
+            .maximumSize(MAXIMUM_SIZE)
+            .recordStats()
+            .build();
+
+    private CompiledScriptCache() {} // avoid instantiation
+
+    static Class<?> compiledClass(TransformationScript script) throws CommandFailedException {
+        URL url = script.url();
+        if (url == null) {
+            throw new CommandFailedException("Couldn't load " + script);
+        }
+
+        final String content;
+        try {
+            content = Resources.toString(url, Charsets.UTF_8);
+        } catch (IOException e) {
+            throw new CommandFailedException("Couldn't load " + script, e);
+        }
+        final String name = url.getPath().substring(url.getPath().lastIndexOf('/') + 1);
+        String key = url.toExternalForm() + "#" + Hashing.sha1().hashString(content, Charsets.UTF_8);
+
+        try {
+            return CACHE.get(key, new Callable<Class<?>>() {
+                @Override
+                public Class<?> call() {
+                    // scripts from different packages can share a file name, so the class loader must not cache
+                    GroovyCodeSource codeSource = new GroovyCodeSource(content, name, "/groovy/script");
+                    codeSource.setCachable(false);
+                    return GroovyHolder.GROOVY.parseClass(codeSource);
+                }
+            });
+        } catch (ExecutionException e) {
+            throw new CommandFailedException(e.getCause());
+        } catch (UncheckedExecutionException e) {
+            throw new CommandFailedException(e.getCause());
+        }
+    }
+
+    /** How many times a compiled script was found in the cache. */
+    public static long hitCount() {
+        return CACHE.stats().hitCount();
+    }
+
+    /** How many times a script had to be compiled, because it wasn't found in the cache. */
+    public static long missCount() {
+        return CACHE.stats().missCount();
+    }
+
+    /** The number of compiled scripts that are currently held in the cache. */
+    public static long size() {
+        return CACHE.size();
+    }
+
+    /** Removes all compiled scripts from the cache. Hit and miss counters are not reset. */
+    public static void clear() {
+        CACHE.invalidateAll();
+    }
+}
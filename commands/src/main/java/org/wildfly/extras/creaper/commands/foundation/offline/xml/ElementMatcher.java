@@ -0,0 +1,57 @@
+package org.wildfly.extras.creaper.commands.foundation.offline.xml;
+
+import java.util.Map;
+
+/** One step of a path used by {@link StreamingXmlTransform} to find an element while streaming the document. */
+final class ElementMatcher {
+    private final String name;
+    private final String attribute; // may be null
+    private final String value; // may be null
+    private final String subsystemName; // may be null
+
+    private ElementMatcher(String name, String attribute, String value, String subsystemName) {
+        this.name = name;
+        this.attribute = attribute;
+        this.value = value;
+        this.subsystemName = subsystemName;
+    }
+
+    static ElementMatcher element(String name) {
+        return new ElementMatcher(name, null, null, null);
+    }
+
+    static ElementMatcher element(String name, String attribute, String value) {
+        return new ElementMatcher(name, attribute, value, null);
+    }
+
+    /**
+     * Same criteria as in the Groovy subtree locators: namespace {@code urn:jboss:domain:NAME:*}
+     * or {@code urn:wildfly:NAME:*}.
+     */
+    static ElementMatcher subsystem(String subsystemName) {
+        return new ElementMatcher("subsystem", null, null, subsystemName);
+    }
+
+    boolean matches(String elementName, Map<String, String> attributes) {
+        if (!name.equals(elementName)) {
+            return false;
+        }
+        if (attribute != null && !value.equals(attributes.get(attribute))) {
+            return false;
+        }
+        if (subsystemName != null) {
+            String xmlns = attributes.get("xmlns");
+            return xmlns != null && (xmlns.startsWith("urn:jboss:domain:" + subsystemName + ":")
+                    || xmlns.startsWith("urn:wildfly:" + subsystemName + ":"));
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        if (subsystemName != null) {
+            return name + "[" + subsystemName + "]";
+        }
+        return attribute == null ? name : name + "[@" + attribute + "='" + value + "']";
+    }
+}
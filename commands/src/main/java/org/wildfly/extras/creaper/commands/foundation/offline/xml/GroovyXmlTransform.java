@@ -1,6 +1,5 @@
 package org.wildfly.extras.creaper.commands.foundation.offline.xml;
 
-import groovy.lang.GroovyCodeSource;
 import groovy.lang.Script;
 import groovy.util.XmlSlurper;
 import groovy.util.slurpersupport.GPathResult;
@@ -8,13 +7,9 @@ import groovy.xml.XmlUtil;
 import org.wildfly.extras.creaper.core.CommandFailedException;
 import org.wildfly.extras.creaper.core.offline.OfflineCommand;
 import org.wildfly.extras.creaper.core.offline.OfflineCommandContext;
+import org.wildfly.extras.creaper.core.offline.OfflineFiles;
 
-import java.io.BufferedWriter;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
-import java.io.Writer;
-import java.net.URL;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -85,19 +80,7 @@ public final class GroovyXmlTransform implements OfflineCommand {
 
     @Override
     public void apply(OfflineCommandContext ctx) throws CommandFailedException, IOException {
-        URL url = script.url();
-        if (url == null) {
-            throw new CommandFailedException("Couldn't load " + script);
-        }
-
-        GroovyCodeSource codeSource;
-        try {
-            codeSource = new GroovyCodeSource(url);
-        } catch (Exception e) {
-            throw new CommandFailedException(e);
-        }
-
-        Class clazz = GroovyHolder.GROOVY.parseClass(codeSource);
+        Class<?> clazz = CompiledScriptCache.compiledClass(script);
         if (!Script.class.isAssignableFrom(clazz)) {
             throw new CommandFailedException("Not a valid Groovy script: " + script);
         }
@@ -116,16 +99,24 @@ public final class GroovyXmlTransform implements OfflineCommand {
         }
 
         if (entireFile) {
+            ctx.session.flush();
             loadedScript.setProperty("file", ctx.configurationFile);
             loadedScript.run();
+        } else if (ctx.session.isActive()) {
+            try {
+                applyInSession(ctx, loadedScript);
+            } catch (Exception e) {
+                throw new CommandFailedException(e);
+            }
         } else {
             try {
                 GPathResult root = new XmlSlurper(false, false).parse(ctx.configurationFile);
                 if (subtrees.isEmpty()) {
                     loadedScript.setProperty("root", root);
                 } else {
+                    SubtreeIndex index = new SubtreeIndex(root);
                     for (Subtree subtree : subtrees.values()) {
-                        subtree.addIfMissing(root, ctx.options);
+                        subtree.addIfMissing(index, ctx.options);
                     }
                     // two things happening here:
                     // 1. nodes might have been added, but to a wrong place (fixing it post facto is easier than adding
@@ -134,23 +125,46 @@ public final class GroovyXmlTransform implements OfflineCommand {
                     String fixedXml = FirstLevelXmlElementOrder.fix(XmlUtil.serialize(root));
                     root = new XmlSlurper(false, false).parseText(fixedXml);
 
+                    index = new SubtreeIndex(root);
                     for (Map.Entry<String, Subtree> subtree : subtrees.entrySet()) {
-                        loadedScript.setProperty(subtree.getKey(), subtree.getValue().locate(root, ctx.options));
+                        loadedScript.setProperty(subtree.getKey(), subtree.getValue().locate(index, ctx.options));
                     }
                 }
 
                 loadedScript.run();
 
-                Writer writer = new BufferedWriter(new OutputStreamWriter(
-                        new FileOutputStream(ctx.configurationFile), "utf-8"));
-                XmlUtil.serialize(root, writer);
-                writer.close();
+                OfflineFiles.write(ctx.configurationFile, XmlUtil.serialize(root), ctx.options.syncWrites);
             } catch (Exception e) {
                 throw new CommandFailedException(e);
             }
         }
     }
 
+    private void applyInSession(OfflineCommandContext ctx, Script loadedScript) throws Exception {
+        SessionDocument document = SessionDocument.get(ctx);
+        if (subtrees.isEmpty()) {
+            loadedScript.setProperty("root", document.root());
+        } else {
+            boolean added = false;
+            for (Subtree subtree : subtrees.values()) {
+                added |= subtree.addIfMissing(document.index(), ctx.options);
+            }
+            if (added) {
+                // outside of a session, first-level element order is fixed right away; here, it is only fixed once,
+                // when the document is written
+                document.subtreesAdded();
+            }
+
+            SubtreeIndex index = document.index();
+            for (Map.Entry<String, Subtree> subtree : subtrees.entrySet()) {
+                loadedScript.setProperty(subtree.getKey(), subtree.getValue().locate(index, ctx.options));
+            }
+        }
+
+        loadedScript.run();
+        document.transformed();
+    }
+
     @Override
     public String toString() {
         return "GroovyXmlTransform " + script.toString();
@@ -0,0 +1,90 @@
+package org.wildfly.extras.creaper.commands.foundation.offline.xml;
+
+import groovy.util.XmlSlurper;
+import groovy.util.slurpersupport.GPathResult;
+import groovy.xml.XmlUtil;
+import org.wildfly.extras.creaper.core.offline.OfflineCommandContext;
+import org.wildfly.extras.creaper.core.offline.OfflineFiles;
+import org.wildfly.extras.creaper.core.offline.OfflineSession;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * The configuration file parsed into memory and shared by all {@link GroovyXmlTransform}s applied
+ * in one {@link OfflineSession}. The file is parsed when the first transformation needs it and written back when
+ * the session is flushed.
+ */
+final class SessionDocument implements OfflineSession.Attachment {
+    private final File file;
+    private final boolean syncWrites;
+    private GPathResult root;
+    private SubtreeIndex index; // built lazily for the current root
+    // XmlSlurper can't see the changes it made, so after running a script, the document must be serialized
+    // and reparsed before it's used again; this is done lazily, in memory
+    private boolean stale;
+    // subtrees were added to the end of the document and their location must be fixed before writing
+    private boolean reorder;
+    private boolean modified;
+
+    private SessionDocument(File file, boolean syncWrites, GPathResult root) {
+        this.file = file;
+        this.syncWrites = syncWrites;
+        this.root = root;
+    }
+
+    static SessionDocument get(OfflineCommandContext ctx) throws Exception {
+        SessionDocument document = ctx.session.get(SessionDocument.class);
+        if (document == null) {
+            GPathResult root = new XmlSlurper(false, false).parse(ctx.configurationFile);
+            document = new SessionDocument(ctx.configurationFile, ctx.options.syncWrites, root);
+            ctx.session.put(SessionDocument.class, document);
+        }
+        return document;
+    }
+
+    GPathResult root() throws Exception {
+        if (stale) {
+            root = new XmlSlurper(false, false).parseText(XmlUtil.serialize(root));
+            index = null;
+            stale = false;
+        }
+        return root;
+    }
+
+    /** Index of the current {@link #root()}. */
+    SubtreeIndex index() throws Exception {
+        GPathResult currentRoot = root();
+        if (index == null) {
+            index = new SubtreeIndex(currentRoot);
+        }
+        return index;
+    }
+
+    /** To be called after subtrees were added to the document. */
+    void subtreesAdded() {
+        stale = true;
+        reorder = true;
+        modified = true;
+    }
+
+    /** To be called after a transformation script was run on the document. */
+    void transformed() {
+        stale = true;
+        modified = true;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (!modified) {
+            return;
+        }
+
+        String xml = XmlUtil.serialize(root);
+        if (reorder) {
+            xml = FirstLevelXmlElementOrder.fix(xml);
+        }
+
+        OfflineFiles.write(file, xml, syncWrites);
+    }
+}
@@ -0,0 +1,539 @@
+package org.wildfly.extras.creaper.commands.foundation.offline.xml;
+
+import com.google.common.base.Charsets;
+import com.google.common.xml.XmlEscapers;
+import org.wildfly.extras.creaper.core.CommandFailedException;
+import org.wildfly.extras.creaper.core.offline.OfflineCommand;
+import org.wildfly.extras.creaper.core.offline.OfflineCommandContext;
+import org.wildfly.extras.creaper.core.offline.OfflineFiles;
+import org.wildfly.extras.creaper.core.offline.OfflineOptions;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * <p>An offline command that performs a single simple change of the configuration file: adding (or replacing)
+ * an element, removing an element or setting an attribute of an element. Unlike {@link GroovyXmlTransform},
+ * the configuration file is never loaded into memory as a tree. It is read in a single pass and everything except
+ * the changed element is copied to the output verbatim, so the rest of the file keeps its formatting, comments etc.
+ * </p>
+ *
+ * <p>The changed element is a child of an element found by a {@link Subtree} (same as with
+ * {@code GroovyXmlTransform}) and optionally a path of {@link Builder#child(String) child elements} under it.
+ * The changed element is identified by its name and a value of a key attribute (such as {@code name}). Missing
+ * subtrees are <i>not</i> created.</p>
+ *
+ * <p>Only the first element matching each step of the path is considered, just like the {@code find} method
+ * of GPath. If the element isn't found, the {@link Builder#otherwise(StreamingXmlTransform) alternative}
+ * transformation is applied; if there's none, the command fails.</p>
+ *
+ * <p>Commands should only prefer this over a {@code GroovyXmlTransform} if {@link #isEnabled(OfflineCommandContext)}
+ * returns {@code true}.</p>
+ */
+public final class StreamingXmlTransform implements OfflineCommand {
+    private static final String DEFAULT_INDENT = "    ";
+
+    private final Subtree subtree;
+    private final List<ElementMatcher> path;
+    private final Mutation mutation;
+    private final StreamingXmlTransform alternative; // may be null
+
+    /**
+     * Whether commands should use a {@code StreamingXmlTransform}, if they can. That is the case when the client
+     * was configured with {@link OfflineOptions.OptionalOfflineOptions#streamingTransforms() streamingTransforms}
+     * and the {@link org.wildfly.extras.creaper.core.offline.OfflineSession in-memory session} isn't active
+     * (if it is, the configuration file is already loaded into memory and transforming it there is cheaper).
+     */
+    public static boolean isEnabled(OfflineCommandContext ctx) {
+        return ctx.options.streamingTransforms && !ctx.session.isActive();
+    }
+
+    public static Builder in(Subtree subtree) {
+        if (subtree == null) {
+            throw new IllegalArgumentException("Subtree must be provided");
+        }
+        return new Builder(subtree);
+    }
+
+    private StreamingXmlTransform(Builder builder) {
+        this.subtree = builder.subtree;
+        this.path = Collections.unmodifiableList(new ArrayList<ElementMatcher>(builder.path));
+        this.mutation = builder.mutation;
+        this.alternative = builder.alternative;
+    }
+
+    @Override
+    public void apply(OfflineCommandContext ctx) throws CommandFailedException, IOException {
+        ctx.session.flush();
+
+        StreamingXmlTransform transform = this;
+        while (transform != null) {
+            byte[] result = transform.transform(ctx);
+            if (result != null) {
+                OfflineFiles.write(ctx.configurationFile, result, ctx.options.syncWrites);
+                return;
+            }
+            transform = transform.alternative;
+        }
+
+        throw new CommandFailedException("Couldn't find the element to change: " + describe());
+    }
+
+    /** Returns {@code null} if the element that should be changed doesn't exist. */
+    private byte[] transform(OfflineCommandContext ctx) throws CommandFailedException, IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream((int) ctx.configurationFile.length() + 1024);
+        Reader in = new BufferedReader(new InputStreamReader(new FileInputStream(ctx.configurationFile),
+                Charsets.UTF_8));
+        try {
+            Writer out = new OutputStreamWriter(bytes, Charsets.UTF_8);
+            boolean found = new Pass(new XmlTokenizer(in), out, ctx.options).run();
+            out.close();
+            return found ? bytes.toByteArray() : null;
+        } finally {
+            in.close();
+        }
+    }
+
+    private String describe() {
+        String result = subtree + "/" + pathString() + "/" + mutation;
+        if (alternative != null) {
+            result += " or " + alternative.describe();
+        }
+        return result;
+    }
+
+    private String pathString() {
+        StringBuilder result = new StringBuilder();
+        for (ElementMatcher step : path) {
+            result.append(step).append("/");
+        }
+        return result.length() > 0 ? result.substring(0, result.length() - 1) : "";
+    }
+
+    @Override
+    public String toString() {
+        return "StreamingXmlTransform " + describe();
+    }
+
+    /** A single pass over the document. */
+    private final class Pass {
+        private final XmlTokenizer tokenizer;
+        private final Writer out;
+        private final OfflineOptions options;
+
+        private List<ElementMatcher> fullPath; // known once the root element is read
+        private int depth; // number of currently open elements
+        private int matched = -1; // level of the deepest open element that matches the path; root is on level 0
+        private boolean targetFound;
+        private boolean targetClosed;
+        private boolean mutationDone;
+        private String targetIndent;
+        private String childIndent;
+        private String lineSeparator;
+        private String pendingText = "";
+
+        Pass(XmlTokenizer tokenizer, Writer out, OfflineOptions options) {
+            this.tokenizer = tokenizer;
+            this.out = out;
+            this.options = options;
+        }
+
+        boolean run() throws CommandFailedException, IOException {
+            XmlTokenizer.Token token;
+            while ((token = tokenizer.next()) != XmlTokenizer.Token.END_OF_DOCUMENT) {
+                if (token == XmlTokenizer.Token.TEXT) {
+                    pendingText += tokenizer.raw();
+                    if (lineSeparator == null && pendingText.contains("\n")) {
+                        lineSeparator = pendingText.contains("\r\n") ? "\r\n" : "\n";
+                    }
+                    continue;
+                }
+
+                if (targetClosed || token == XmlTokenizer.Token.OTHER) {
+                    write(tokenizer.raw());
+                } else if (token == XmlTokenizer.Token.END_TAG) {
+                    endTag();
+                } else {
+                    startTag(token == XmlTokenizer.Token.EMPTY_ELEMENT);
+                }
+            }
+            write("");
+            return targetFound;
+        }
+
+        private void startTag(boolean empty) throws CommandFailedException, IOException {
+            int level = depth;
+            if (!empty) {
+                depth++;
+            }
+
+            if (level == 0) {
+                fullPath = new ArrayList<ElementMatcher>(subtree.streamingPath(tokenizer.name(), options));
+                fullPath.addAll(path);
+            }
+
+            int targetLevel = fullPath.size();
+            if (matched == level - 1 && (level == 0 || level <= targetLevel
+                    && fullPath.get(level - 1).matches(tokenizer.name(), tokenizer.attributes()))) {
+                matched = level;
+                if (level == targetLevel) {
+                    targetFound = true;
+                    targetIndent = indentOf(pendingText);
+                    if (empty) {
+                        emptyTarget();
+                        return;
+                    }
+                }
+                if (empty) {
+                    matched = level - 1;
+                }
+            } else if (matched == targetLevel && level == targetLevel + 1 && !mutationDone) {
+                if (childIndent == null) {
+                    childIndent = indentOf(pendingText);
+                }
+                if (mutation.matches(tokenizer.name(), tokenizer.attributes())) {
+                    mutationDone = true;
+                    mutation.apply(this, empty);
+                    return;
+                }
+            }
+
+            write(tokenizer.raw());
+        }
+
+        private void endTag() throws CommandFailedException, IOException {
+            depth--;
+            if (matched == depth) {
+                if (depth == fullPath.size()) {
+                    if (!mutationDone) {
+                        mutation.applyMissing(this);
+                    }
+                    targetClosed = true;
+                }
+                matched--;
+            }
+            write(tokenizer.raw());
+        }
+
+        /** The target element is {@code <foo/>}, so it doesn't have any children. */
+        private void emptyTarget() throws CommandFailedException, IOException {
+            mutation.applyMissing(this); // adds the element or fails
+            mutationDone = true;
+            targetClosed = true;
+        }
+
+        // --- used by mutations
+
+        /**
+         * Inserts the new element before the end tag of the target element. If the target element is empty
+         * ({@code <foo/>}), it is expanded ({@code <foo><new/></foo>}) and written in its entirety.
+         */
+        void insertBeforeEndTag(String xml) throws IOException {
+            if (tokenizer.token() == XmlTokenizer.Token.EMPTY_ELEMENT) {
+                String tag = tokenizer.raw();
+                String startTag = tag.substring(0, tag.length() - 2).replaceAll("\\s+$", "") + ">";
+                String indent = targetIndent == null ? "" : targetIndent;
+                write(startTag + newLine() + childIndent() + indent(xml, childIndent()) + newLine() + indent
+                        + "</" + tokenizer.name() + ">");
+                return;
+            }
+
+            String text = pendingText;
+            pendingText = "";
+            String indented = childIndent() + indent(xml, childIndent());
+            if (text.contains("\n")) {
+                out.write(newLine() + indented + text);
+            } else if (text.trim().isEmpty()) {
+                out.write(newLine() + indented + newLine() + (targetIndent == null ? "" : targetIndent));
+            } else {
+                out.write(text + xml);
+            }
+        }
+
+        void replaceCurrent(String xml, boolean empty) throws IOException {
+            String indent = indentOf(pendingText);
+            write(indent(xml, indent == null ? childIndent() : indent));
+            if (!empty) {
+                skipCurrent();
+            }
+        }
+
+        void removeCurrent(boolean empty) throws IOException {
+            if (pendingText.trim().isEmpty()) {
+                // the whitespace after the removed element is kept, so it will look like the element was never there
+                pendingText = "";
+            }
+            write("");
+            if (!empty) {
+                skipCurrent();
+            }
+        }
+
+        void rewriteCurrent(String attribute, String value) throws IOException {
+            String tag = tokenizer.raw();
+            String escaped = XmlEscapers.xmlAttributeEscaper().escape(value);
+            Matcher matcher = Pattern.compile("(\\s" + Pattern.quote(attribute) + "\\s*=\\s*)(\"[^\"]*\"|'[^']*')")
+                    .matcher(tag);
+            if (matcher.find()) {
+                tag = tag.substring(0, matcher.start(2)) + "\"" + escaped + "\"" + tag.substring(matcher.end(2));
+            } else {
+                int end = tag.endsWith("/>") ? tag.length() - 2 : tag.length() - 1;
+                while (Character.isWhitespace(tag.charAt(end - 1))) {
+                    end--;
+                }
+                tag = tag.substring(0, end) + " " + attribute + "=\"" + escaped + "\"" + tag.substring(end);
+            }
+            write(tag);
+        }
+
+        private void skipCurrent() throws IOException {
+            int skipDepth = 1;
+            while (skipDepth > 0) {
+                XmlTokenizer.Token token = tokenizer.next();
+                if (token == XmlTokenizer.Token.START_TAG) {
+                    skipDepth++;
+                } else if (token == XmlTokenizer.Token.END_TAG) {
+                    skipDepth--;
+                } else if (token == XmlTokenizer.Token.END_OF_DOCUMENT) {
+                    throw new IOException("Unexpected end of XML document");
+                }
+            }
+            depth--;
+        }
+
+        private void write(String raw) throws IOException {
+            out.write(pendingText);
+            out.write(raw);
+            pendingText = "";
+        }
+
+        private String childIndent() {
+            if (childIndent != null) {
+                return childIndent;
+            }
+            return targetIndent == null ? "" : targetIndent + DEFAULT_INDENT;
+        }
+
+        private String newLine() {
+            return lineSeparator == null ? "\n" : lineSeparator;
+        }
+
+        /** The {@code xml} uses {@code \n} as line separators, each line will be indented by {@code indent}. */
+        private String indent(String xml, String indent) {
+            return xml.replace("\n", newLine() + indent);
+        }
+    }
+
+    /** Returns the whitespace at the start of the last line of the {@code text}, or {@code null}. */
+    private static String indentOf(String text) {
+        int lastNewLine = text.lastIndexOf('\n');
+        if (lastNewLine < 0) {
+            return null;
+        }
+        String indent = text.substring(lastNewLine + 1);
+        return indent.trim().isEmpty() ? indent : null;
+    }
+
+    private abstract static class Mutation {
+        final ElementMatcher element;
+        final String xml; // may be null
+
+        Mutation(ElementMatcher element, String xml) {
+            this.element = element;
+            this.xml = xml;
+        }
+
+        boolean matches(String name, Map<String, String> attributes) {
+            return element.matches(name, attributes);
+        }
+
+        /** Called when the element was found (the tokenizer is positioned on its start tag). */
+        abstract void apply(Pass pass, boolean empty) throws CommandFailedException, IOException;
+
+        /** Called when the element wasn't found (the tokenizer is positioned on the end tag of its parent). */
+        abstract void applyMissing(Pass pass) throws CommandFailedException, IOException;
+    }
+
+    private static final class AddElement extends Mutation {
+        private final boolean replaceExisting;
+
+        AddElement(ElementMatcher element, String xml, boolean replaceExisting) {
+            super(element, xml);
+            this.replaceExisting = replaceExisting;
+        }
+
+        @Override
+        void apply(Pass pass, boolean empty) throws CommandFailedException, IOException {
+            if (!replaceExisting) {
+                throw new CommandFailedException("Element " + element + " already exists");
+            }
+            pass.replaceCurrent(xml, empty);
+        }
+
+        @Override
+        void applyMissing(Pass pass) throws IOException {
+            pass.insertBeforeEndTag(xml);
+        }
+
+        @Override
+        public String toString() {
+            return (replaceExisting ? "add or replace " : "add ") + element;
+        }
+    }
+
+    private static final class RemoveElement extends Mutation {
+        RemoveElement(ElementMatcher element) {
+            super(element, null);
+        }
+
+        @Override
+        void apply(Pass pass, boolean empty) throws IOException {
+            pass.removeCurrent(empty);
+        }
+
+        @Override
+        void applyMissing(Pass pass) throws CommandFailedException {
+            throw new CommandFailedException("Element " + element + " doesn't exist");
+        }
+
+        @Override
+        public String toString() {
+            return "remove " + element;
+        }
+    }
+
+    private static final class SetAttribute extends Mutation {
+        private final String attribute;
+        private final String value;
+
+        SetAttribute(ElementMatcher element, String attribute, String value) {
+            super(element, null);
+            this.attribute = attribute;
+            this.value = value;
+        }
+
+        @Override
+        void apply(Pass pass, boolean empty) throws IOException {
+            pass.rewriteCurrent(attribute, value);
+        }
+
+        @Override
+        void applyMissing(Pass pass) throws CommandFailedException {
+            throw new CommandFailedException("Element " + element + " doesn't exist");
+        }
+
+        @Override
+        public String toString() {
+            return "set " + attribute + " of " + element;
+        }
+    }
+
+    // ---
+
+    public static final class Builder {
+        private final Subtree subtree;
+        private final List<ElementMatcher> path = new ArrayList<ElementMatcher>();
+        private Mutation mutation;
+        private StreamingXmlTransform alternative;
+
+        private Builder(Subtree subtree) {
+            this.subtree = subtree;
+        }
+
+        /** Descend to the first child element named {@code name}. */
+        public Builder child(String name) {
+            checkNotNull(name, "Element name");
+            path.add(ElementMatcher.element(name));
+            return this;
+        }
+
+        /** Descend to the first child element named {@code name} whose {@code attribute} is {@code value}. */
+        public Builder child(String name, String attribute, String value) {
+            checkNotNull(name, "Element name");
+            checkNotNull(attribute, "Attribute name");
+            checkNotNull(value, "Attribute value");
+            path.add(ElementMatcher.element(name, attribute, value));
+            return this;
+        }
+
+        /**
+         * Add the {@code xml} as the last child element. Fails if there already is an element named {@code name}
+         * whose {@code keyAttribute} is {@code keyValue}. The {@code xml} must use {@code \n} as line separator
+         * and must not be indented as a whole (nested elements should be indented relatively to it); it will be
+         * indented the same way as the other child elements.
+         */
+        public Builder addElement(String name, String keyAttribute, String keyValue, String xml) {
+            return mutation(new AddElement(keyElement(name, keyAttribute, keyValue), checkNotNull(xml, "XML"),
+                    false));
+        }
+
+        /** Same as {@link #addElement(String, String, String, String)}, but replaces the existing element. */
+        public Builder replaceElement(String name, String keyAttribute, String keyValue, String xml) {
+            return mutation(new AddElement(keyElement(name, keyAttribute, keyValue), checkNotNull(xml, "XML"),
+                    true));
+        }
+
+        /** Remove the child element named {@code name} whose {@code keyAttribute} is {@code keyValue}. */
+        public Builder removeElement(String name, String keyAttribute, String keyValue) {
+            return mutation(new RemoveElement(keyElement(name, keyAttribute, keyValue)));
+        }
+
+        /**
+         * Set the {@code attribute} of the child element named {@code name} whose {@code keyAttribute} is
+         * {@code keyValue} to {@code value}.
+         */
+        public Builder setAttribute(String name, String keyAttribute, String keyValue, String attribute,
+                                    String value) {
+            checkNotNull(attribute, "Attribute name");
+            checkNotNull(value, "Attribute value");
+            return mutation(new SetAttribute(keyElement(name, keyAttribute, keyValue), attribute, value));
+        }
+
+        /** The {@code alternative} transformation will be applied if the element to change can't be found. */
+        public Builder otherwise(StreamingXmlTransform alternative) {
+            this.alternative = alternative;
+            return this;
+        }
+
+        public StreamingXmlTransform build() {
+            if (mutation == null) {
+                throw new IllegalArgumentException("The change to perform must be specified");
+            }
+            return new StreamingXmlTransform(this);
+        }
+
+        private Builder mutation(Mutation mutation) {
+            if (this.mutation != null) {
+                throw new IllegalArgumentException("Only one change can be performed by a single transformation");
+            }
+            this.mutation = mutation;
+            return this;
+        }
+
+        private static ElementMatcher keyElement(String name, String keyAttribute, String keyValue) {
+            checkNotNull(name, "Element name");
+            checkNotNull(keyAttribute, "Key attribute name");
+            checkNotNull(keyValue, "Key attribute value");
+            return ElementMatcher.element(name, keyAttribute, keyValue);
+        }
+
+        private static String checkNotNull(String value, String description) {
+            if (value == null) {
+                throw new IllegalArgumentException(description + " must be provided");
+            }
+            return value;
+        }
+    }
+}
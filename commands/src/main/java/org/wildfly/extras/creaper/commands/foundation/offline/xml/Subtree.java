@@ -4,6 +4,10 @@ import groovy.lang.Script;
 import groovy.util.slurpersupport.GPathResult;
 import org.wildfly.extras.creaper.core.offline.OfflineOptions;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * <p>This is the primary mechanism used for unifying access to standalone and domain configuration files. The trick is
  * that the transformation script doesn't work on the file, it doesn't even work on the entire XML document (unless
@@ -20,100 +24,119 @@ import org.wildfly.extras.creaper.core.offline.OfflineOptions;
 public final class Subtree {
     private final SubtreeLocator locator;
     private final SubtreeCreator creator;
+    private final String description;
 
-    private Subtree(SubtreeLocator locator, SubtreeCreator creator) {
+    private Subtree(SubtreeLocator locator, SubtreeCreator creator, String description) {
         this.locator = locator;
         this.creator = creator;
+        this.description = description;
     }
 
-    void addIfMissing(GPathResult root, OfflineOptions options) {
-        if (creator != null) {
-            creator.addIfMissing(root, options);
-        }
+    /** @return whether the subtree was missing and had to be added */
+    boolean addIfMissing(SubtreeIndex index, OfflineOptions options) {
+        return creator != null && creator.addIfMissing(index, options);
+    }
+
+    GPathResult locate(SubtreeIndex index, OfflineOptions options) {
+        return locator.locate(index, options);
+    }
+
+    /**
+     * Path from the root element to this subtree, for use by {@link StreamingXmlTransform}. The root element itself
+     * is not included in the path, so the path for {@link #root()} is empty.
+     */
+    List<ElementMatcher> streamingPath(String rootElement, OfflineOptions options) {
+        return locator.streamingPath(Type.of(rootElement), options);
     }
 
-    GPathResult locate(GPathResult root, OfflineOptions options) throws Exception {
-        return locator.locate(root, options);
+    @Override
+    public String toString() {
+        return description;
     }
 
     // ---
 
     public static Subtree root() {
         // document root can't be missing, no point in trying to create it
-        return new Subtree(SubtreeLocator.ROOT, null);
+        return new Subtree(SubtreeLocator.ROOT, null, "root");
     }
 
     public static Subtree extensions() {
-        return new Subtree(StaticSubtreeLocator.EXTENSIONS, SubtreeCreator.EXTENSIONS);
+        return new Subtree(StaticSubtreeLocator.EXTENSIONS, SubtreeCreator.EXTENSIONS, "extensions");
     }
 
     public static Subtree systemProperties() {
-        return new Subtree(StaticSubtreeLocator.SYSTEM_PROPERTIES, SubtreeCreator.SYSTEM_PROPERTIES);
+        return new Subtree(StaticSubtreeLocator.SYSTEM_PROPERTIES, SubtreeCreator.SYSTEM_PROPERTIES,
+                "system-properties");
     }
 
     public static Subtree paths() {
-        return new Subtree(StaticSubtreeLocator.PATHS, SubtreeCreator.PATHS);
+        return new Subtree(StaticSubtreeLocator.PATHS, SubtreeCreator.PATHS, "paths");
     }
 
     public static Subtree management() {
-        return new Subtree(StaticSubtreeLocator.MANAGEMENT, SubtreeCreator.MANAGEMENT);
+        return new Subtree(StaticSubtreeLocator.MANAGEMENT, SubtreeCreator.MANAGEMENT, "management");
     }
 
     // using default profile in domain.xml
     public static Subtree profile() {
-        return new Subtree(ProfileSubtreeLocator.INSTANCE, SubtreeCreator.PROFILE);
+        return new Subtree(ProfileSubtreeLocator.INSTANCE, SubtreeCreator.PROFILE, "profile");
     }
 
     // using default profile in domain.xml
     public static Subtree subsystem(String subsystemName) {
         // can't create subsystem, don't know the version
-        return new Subtree(new SubsystemSubtreeLocator(subsystemName), null);
+        return new Subtree(new SubsystemSubtreeLocator(subsystemName), null, "subsystem " + subsystemName);
     }
 
     public static Subtree interfaces() {
-        return new Subtree(StaticSubtreeLocator.INTERFACES, SubtreeCreator.INTERFACES);
+        return new Subtree(StaticSubtreeLocator.INTERFACES, SubtreeCreator.INTERFACES, "interfaces");
     }
 
     // in domain.xml, tries to guess a corect name based on the default profile
     public static Subtree socketBindingGroup() {
-        return new Subtree(SocketBindingGroupSubtreeLocator.INSTANCE, SubtreeCreator.SOCKET_BINDING_GROUP);
+        return new Subtree(SocketBindingGroupSubtreeLocator.INSTANCE, SubtreeCreator.SOCKET_BINDING_GROUP,
+                "socket-binding-group");
     }
 
     // ---
     // domain only
 
     public static Subtree profiles() {
-        return new Subtree(StaticSubtreeLocator.PROFILES, SubtreeCreator.PROFILES);
+        return new Subtree(StaticSubtreeLocator.PROFILES, SubtreeCreator.PROFILES, "profiles");
     }
 
     public static Subtree subsystemInProfile(String profileName, String subsystemName) {
         // can't create subsystem, don't know the version
-        return new Subtree(new SubsystemInProfileSubtreeLocator(profileName, subsystemName), null);
+        return new Subtree(new SubsystemInProfileSubtreeLocator(profileName, subsystemName), null,
+                "subsystem " + subsystemName + " in profile " + profileName);
     }
 
     public static Subtree socketBindingGroups() {
-        return new Subtree(StaticSubtreeLocator.SOCKET_BINDING_GROUPS, SubtreeCreator.SOCKET_BINDING_GROUPS);
+        return new Subtree(StaticSubtreeLocator.SOCKET_BINDING_GROUPS, SubtreeCreator.SOCKET_BINDING_GROUPS,
+                "socket-binding-groups");
     }
 
     public static Subtree serverGroups() {
-        return new Subtree(StaticSubtreeLocator.SERVER_GROUPS, SubtreeCreator.SERVER_GROUPS);
+        return new Subtree(StaticSubtreeLocator.SERVER_GROUPS, SubtreeCreator.SERVER_GROUPS, "server-groups");
     }
 
     public static Subtree domainController() {
-        return new Subtree(StaticSubtreeLocator.DOMAIN_CONTROLLER, SubtreeCreator.DOMAIN_CONTROLLER);
+        return new Subtree(StaticSubtreeLocator.DOMAIN_CONTROLLER, SubtreeCreator.DOMAIN_CONTROLLER,
+                "domain-controller");
     }
 
     public static Subtree jvms() {
-        return new Subtree(StaticSubtreeLocator.JVMS, SubtreeCreator.JVMS);
+        return new Subtree(StaticSubtreeLocator.JVMS, SubtreeCreator.JVMS, "jvms");
     }
 
     public static Subtree servers() {
-        return new Subtree(StaticSubtreeLocator.SERVERS, SubtreeCreator.SERVERS);
+        return new Subtree(StaticSubtreeLocator.SERVERS, SubtreeCreator.SERVERS, "servers");
     }
 
     // ---
 
-    private enum Type {
+    enum Type {
         DOMAIN("domain.xml"),
         HOST("host.xml"),
         SERVER("standalone.xml"),
@@ -131,7 +154,10 @@ public final class Subtree {
         }
 
         public static Type of(GPathResult root) {
-            String rootElement = root.name();
+            return of(root.name());
+        }
+
+        public static Type of(String rootElement) {
             if ("domain".equals(rootElement)) {
                 return Type.DOMAIN;
             } else if ("host".equals(rootElement)) {
@@ -145,12 +171,20 @@ public final class Subtree {
     }
 
     private interface SubtreeLocator {
-        GPathResult locate(GPathResult root, OfflineOptions options) throws Exception;
+        GPathResult locate(SubtreeIndex index, OfflineOptions options);
+
+        /** Same as {@link #locate(SubtreeIndex, OfflineOptions)}, but without access to the entire document. */
+        List<ElementMatcher> streamingPath(Type type, OfflineOptions options);
 
         SubtreeLocator ROOT = new SubtreeLocator() {
             @Override
-            public GPathResult locate(GPathResult root, OfflineOptions options) {
-                return root;
+            public GPathResult locate(SubtreeIndex index, OfflineOptions options) {
+                return index.root();
+            }
+
+            @Override
+            public List<ElementMatcher> streamingPath(Type type, OfflineOptions options) {
+                return Collections.emptyList();
             }
         };
     }
@@ -170,54 +204,55 @@ public final class Subtree {
         static final SubtreeLocator JVMS = new StaticSubtreeLocator("jvms", Type.HOST);
         static final SubtreeLocator SERVERS = new StaticSubtreeLocator("servers", Type.HOST);
 
-        private final String tagName; // only for a possible exception message
-        private final Class scriptClass;
+        private final String tagName;
         private final Type onlyForType;
 
         StaticSubtreeLocator(String tagName, Type onlyForType) {
-            String script = "root.\"" + tagName + "\"";
             this.tagName = tagName;
-            this.scriptClass = GroovyHolder.GROOVY.parseClass(script);
             this.onlyForType = onlyForType;
         }
 
-        public GPathResult locate(GPathResult root, OfflineOptions options) throws Exception {
-            if (onlyForType != null && onlyForType != Type.of(root)) {
+        @Override
+        public GPathResult locate(SubtreeIndex index, OfflineOptions options) {
+            checkType(index.type());
+            return index.child(tagName);
+        }
+
+        @Override
+        public List<ElementMatcher> streamingPath(Type type, OfflineOptions options) {
+            checkType(type);
+            return Collections.singletonList(ElementMatcher.element(tagName));
+        }
+
+        private void checkType(Type type) {
+            if (onlyForType != null && onlyForType != type) {
                 throw new IllegalArgumentException("Locating '" + tagName + "' is only possible in '" + onlyForType + "'");
             }
-            Script script = (Script) scriptClass.newInstance();
-            script.setProperty("root", root);
-            return (GPathResult) script.run();
         }
     }
 
     private static final class ProfileSubtreeLocator implements SubtreeLocator {
         static final SubtreeLocator INSTANCE = new ProfileSubtreeLocator();
 
-        private static final Class STANDALONE_OR_HOST_SCRIPT_CLASS = GroovyHolder.GROOVY.parseClass("root.profile");
-        private static final Class DOMAIN_SCRIPT_CLASS = GroovyHolder.GROOVY.parseClass("root.profiles.profile.find { it.@name == defaultProfile }");
+        @Override
+        public GPathResult locate(SubtreeIndex index, OfflineOptions options) {
+            if (index.type() == Type.DOMAIN) {
+                return index.domainProfile(options.defaultProfile);
+            }
+            return index.child("profile");
+        }
 
         @Override
-        public GPathResult locate(GPathResult root, OfflineOptions options) throws Exception {
-            boolean domain = Type.of(root) == Type.DOMAIN;
-
-            Script script = (Script) (
-                    domain ? DOMAIN_SCRIPT_CLASS.newInstance() : STANDALONE_OR_HOST_SCRIPT_CLASS.newInstance()
-            );
-            script.setProperty("root", root);
-            if (domain) {
-                script.setProperty("defaultProfile", options.defaultProfile);
+        public List<ElementMatcher> streamingPath(Type type, OfflineOptions options) {
+            if (type == Type.DOMAIN) {
+                return Arrays.asList(ElementMatcher.element("profiles"),
+                        ElementMatcher.element("profile", "name", options.defaultProfile));
             }
-            return (GPathResult) script.run();
+            return Collections.singletonList(ElementMatcher.element("profile"));
         }
     }
 
     private static final class SubsystemSubtreeLocator implements SubtreeLocator {
-        private static final Class STANDALONE_OR_HOST_SCRIPT_CLASS = GroovyHolder.GROOVY.parseClass("root.profile.subsystem.find { it.@xmlns.toString()"
-                + ".startsWith(\"urn:jboss:domain:${subsystemName}:\") || it.@xmlns.toString().startsWith(\"urn:wildfly:${subsystemName}:\")} ");
-        private static final Class DOMAIN_SCRIPT_CLASS = GroovyHolder.GROOVY.parseClass("root.profiles.profile.find { it.@name == defaultProfile }.subsystem"
-                + ".find { it.@xmlns.toString().startsWith(\"urn:jboss:domain:${subsystemName}:\") || it.@xmlns.toString().startsWith(\"urn:wildfly:${subsystemName}:\") }");
-
         private final String subsystemName;
 
         public SubsystemSubtreeLocator(String subsystemName) {
@@ -225,49 +260,55 @@ public final class Subtree {
         }
 
         @Override
-        public GPathResult locate(GPathResult root, OfflineOptions options) throws Exception {
-            boolean domain = Type.of(root) == Type.DOMAIN;
-
-            Script script = (Script) (
-                    domain ? DOMAIN_SCRIPT_CLASS.newInstance() : STANDALONE_OR_HOST_SCRIPT_CLASS.newInstance()
-            );
-            script.setProperty("root", root);
-            script.setProperty("subsystemName", subsystemName);
-            if (domain) {
-                script.setProperty("defaultProfile", options.defaultProfile);
+        public GPathResult locate(SubtreeIndex index, OfflineOptions options) {
+            String jbossPrefix = "urn:jboss:domain:" + subsystemName + ":";
+            String wildflyPrefix = "urn:wildfly:" + subsystemName + ":";
+            if (index.type() == Type.DOMAIN) {
+                return index.domainSubsystem(options.defaultProfile, jbossPrefix, wildflyPrefix);
+            }
+            return index.subsystem(jbossPrefix, wildflyPrefix);
+        }
+
+        @Override
+        public List<ElementMatcher> streamingPath(Type type, OfflineOptions options) {
+            if (type == Type.DOMAIN) {
+                return Arrays.asList(ElementMatcher.element("profiles"),
+                        ElementMatcher.element("profile", "name", options.defaultProfile),
+                        ElementMatcher.subsystem(subsystemName));
             }
-            return (GPathResult) script.run();
+            return Arrays.asList(ElementMatcher.element("profile"), ElementMatcher.subsystem(subsystemName));
         }
     }
 
     private static final class SocketBindingGroupSubtreeLocator implements SubtreeLocator {
         static final SubtreeLocator INSTANCE = new SocketBindingGroupSubtreeLocator();
 
-        private static final Class STANDALONE_OR_HOST_SCRIPT_CLASS = GroovyHolder.GROOVY.parseClass("root.\"socket-binding-group\"");
-        private static final Class DOMAIN_SCRIPT_CLASS = GroovyHolder.GROOVY.parseClass("root.\"socket-binding-groups\".\"socket-binding-group\".find { it.@name == \"${defaultSocketBindingGroup}\" }");
+        @Override
+        public GPathResult locate(SubtreeIndex index, OfflineOptions options) {
+            if (index.type() == Type.DOMAIN) {
+                return index.domainSocketBindingGroup(defaultSocketBindingGroup(options));
+            }
+            return index.child("socket-binding-group");
+        }
 
         @Override
-        public GPathResult locate(GPathResult root, OfflineOptions options) throws Exception {
-            boolean domain = Type.of(root) == Type.DOMAIN;
-
-            Script script = (Script) (
-                    domain ? DOMAIN_SCRIPT_CLASS.newInstance() : STANDALONE_OR_HOST_SCRIPT_CLASS.newInstance()
-            );
-            script.setProperty("root", root);
-            if (domain) {
-                String defaultSocketBindingGroup = options.defaultProfile + "-sockets";
-                if ("default".equals(options.defaultProfile)) {
-                    defaultSocketBindingGroup = "standard-sockets";
-                }
-                script.setProperty("defaultSocketBindingGroup", defaultSocketBindingGroup);
+        public List<ElementMatcher> streamingPath(Type type, OfflineOptions options) {
+            if (type == Type.DOMAIN) {
+                return Arrays.asList(ElementMatcher.element("socket-binding-groups"),
+                        ElementMatcher.element("socket-binding-group", "name", defaultSocketBindingGroup(options)));
+            }
+            return Collections.singletonList(ElementMatcher.element("socket-binding-group"));
+        }
+
+        private static String defaultSocketBindingGroup(OfflineOptions options) {
+            if ("default".equals(options.defaultProfile)) {
+                return "standard-sockets";
             }
-            return (GPathResult) script.run();
+            return options.defaultProfile + "-sockets";
         }
     }
 
     private static final class SubsystemInProfileSubtreeLocator implements SubtreeLocator {
-        private static final Class SCRIPT_CLASS = GroovyHolder.GROOVY.parseClass("root.profiles.profile.find { it.@name == profileName }.subsystem.find { it.@xmlns.toString().startsWith(\"urn:jboss:domain:${subsystemName}:\") }");
-
         private final String profileName;
         private final String subsystemName;
 
@@ -277,17 +318,24 @@ public final class Subtree {
         }
 
         @Override
-        public GPathResult locate(GPathResult root, OfflineOptions options) throws Exception {
+        public GPathResult locate(SubtreeIndex index, OfflineOptions options) {
             if (!options.isDomain) {
                 throw new IllegalArgumentException("Locating a subsystem '" + subsystemName + "' in profile '"
                         + profileName + "' is only possible in domain");
             }
 
-            Script script = (Script) SCRIPT_CLASS.newInstance();
-            script.setProperty("root", root);
-            script.setProperty("profileName", profileName);
-            script.setProperty("subsystemName", subsystemName);
-            return (GPathResult) script.run();
+            return index.domainSubsystem(profileName, "urn:jboss:domain:" + subsystemName + ":");
+        }
+
+        @Override
+        public List<ElementMatcher> streamingPath(Type type, OfflineOptions options) {
+            if (type != Type.DOMAIN) {
+                throw new IllegalArgumentException("Locating a subsystem '" + subsystemName + "' in profile '"
+                        + profileName + "' is only possible in domain");
+            }
+            return Arrays.asList(ElementMatcher.element("profiles"),
+                    ElementMatcher.element("profile", "name", profileName),
+                    ElementMatcher.subsystem(subsystemName));
         }
     }
 
@@ -311,6 +359,7 @@ public final class Subtree {
         static final SubtreeCreator JVMS = new SubtreeCreator("jvms");
         static final SubtreeCreator SERVERS = new SubtreeCreator("servers");
 
+        private final String tagName;
         private final Class scriptClass;
         private final boolean skipInDomain;
 
@@ -319,22 +368,24 @@ public final class Subtree {
         }
 
         private SubtreeCreator(String tagName, boolean skipInDomain) {
-            String script = "if (root.\"" + tagName + "\".isEmpty()) root << { \"" + tagName + "\"() }";
-            this.scriptClass = GroovyHolder.GROOVY.parseClass(script);
+            this.tagName = tagName;
+            this.scriptClass = GroovyHolder.GROOVY.parseClass("root << { \"" + tagName + "\"() }");
             this.skipInDomain = skipInDomain;
         }
 
-        void addIfMissing(GPathResult root, OfflineOptions options) {
-            boolean domain = Type.of(root) == Type.DOMAIN;
-
-            if (skipInDomain && domain) {
-                return;
+        boolean addIfMissing(SubtreeIndex index, OfflineOptions options) {
+            if (skipInDomain && index.type() == Type.DOMAIN) {
+                return false;
+            }
+            if (!index.child(tagName).isEmpty()) {
+                return false;
             }
 
             try {
                 Script script = (Script) scriptClass.newInstance();
-                script.setProperty("root", root);
+                script.setProperty("root", index.root());
                 script.run();
+                return true;
             } catch (Exception e) {
                 throw new RuntimeException(e);
             }
@@ -0,0 +1,147 @@
+package org.wildfly.extras.creaper.commands.foundation.offline.xml;
+
+import groovy.util.slurpersupport.GPathResult;
+import groovy.util.slurpersupport.NoChildren;
+import groovy.util.slurpersupport.NodeChild;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>Index of the parts of a parsed configuration file that {@link Subtree}s most often look for: profiles,
+ * subsystems and socket binding groups. Looking up a subtree in the index is a hash lookup, instead of a linear scan
+ * performed by evaluating a Groovy GPath expression. Each part of the index is built lazily, when it's first needed.
+ * </p>
+ *
+ * <p>The index is only valid for the document it was built for. Changes made by {@code XmlSlurper} aren't visible
+ * until the document is serialized and parsed again anyway, so a parsed document never changes and a new index
+ * is simply built for each parsed document.</p>
+ */
+final class SubtreeIndex {
+    private final GPathResult root;
+    private final Subtree.Type type;
+
+    private Map<String, GPathResult> profiles; // domain only
+    private Map<String, Subsystems> subsystemsByProfile; // domain only
+    private Subsystems subsystems; // standalone or host only
+    private Map<String, GPathResult> socketBindingGroups; // domain only
+
+    SubtreeIndex(GPathResult root) {
+        this.root = root;
+        this.type = Subtree.Type.of(root);
+    }
+
+    GPathResult root() {
+        return root;
+    }
+
+    Subtree.Type type() {
+        return type;
+    }
+
+    /** Same as {@code root."tagName"}. */
+    GPathResult child(String tagName) {
+        return (GPathResult) root.getProperty(tagName);
+    }
+
+    /** Same as {@code root.profiles.profile.find { it.@name == name }}. */
+    GPathResult domainProfile(String name) {
+        if (profiles == null) {
+            profiles = indexByName(child("profiles"), "profile");
+        }
+        return orNoChildren(profiles.get(name), "profile");
+    }
+
+    /**
+     * Same as {@code root.profiles.profile.find { it.@name == profileName }.subsystem.find { ... }}, where the
+     * subsystem is found by its {@code xmlns} attribute, which must start with one of the {@code namespacePrefixes}.
+     */
+    GPathResult domainSubsystem(String profileName, String... namespacePrefixes) {
+        if (subsystemsByProfile == null) {
+            subsystemsByProfile = new HashMap<String, Subsystems>();
+        }
+
+        Subsystems result = subsystemsByProfile.get(profileName);
+        if (result == null) {
+            result = new Subsystems(domainProfile(profileName));
+            subsystemsByProfile.put(profileName, result);
+        }
+        return orNoChildren(result.find(namespacePrefixes), "subsystem");
+    }
+
+    /** Same as {@code root.profile.subsystem.find { ... }}, see {@link #domainSubsystem(String, String...)}. */
+    GPathResult subsystem(String... namespacePrefixes) {
+        if (subsystems == null) {
+            subsystems = new Subsystems(child("profile"));
+        }
+        return orNoChildren(subsystems.find(namespacePrefixes), "subsystem");
+    }
+
+    /** Same as {@code root."socket-binding-groups"."socket-binding-group".find { it.@name == name }}. */
+    GPathResult domainSocketBindingGroup(String name) {
+        if (socketBindingGroups == null) {
+            socketBindingGroups = indexByName(child("socket-binding-groups"), "socket-binding-group");
+        }
+        return orNoChildren(socketBindingGroups.get(name), "socket-binding-group");
+    }
+
+    private static Map<String, GPathResult> indexByName(GPathResult parent, String tagName) {
+        Map<String, GPathResult> result = new HashMap<String, GPathResult>();
+        Iterator<?> iterator = ((GPathResult) parent.getProperty(tagName)).iterator();
+        while (iterator.hasNext()) {
+            NodeChild element = (NodeChild) iterator.next();
+            Object name = element.attributes().get("name");
+            if (name != null && !result.containsKey(name.toString())) {
+                result.put(name.toString(), element);
+            }
+        }
+        return result;
+    }
+
+    /** {@code find} returns {@code NoChildren} if nothing was found, and scripts depend on it (it's Groovy-false). */
+    private GPathResult orNoChildren(GPathResult result, String tagName) {
+        return result != null ? result : new NoChildren(root, tagName, new HashMap<String, String>());
+    }
+
+    /** Subsystems in one profile, indexed by all possible prefixes of their namespace that end with {@code :}. */
+    private static final class Subsystems {
+        private final List<GPathResult> subsystems = new ArrayList<GPathResult>();
+        private final Map<String, Integer> byNamespacePrefix = new HashMap<String, Integer>();
+
+        Subsystems(GPathResult profile) {
+            Iterator<?> iterator = ((GPathResult) profile.getProperty("subsystem")).iterator();
+            while (iterator.hasNext()) {
+                NodeChild subsystem = (NodeChild) iterator.next();
+                Object xmlns = subsystem.attributes().get("xmlns");
+                if (xmlns == null) {
+                    continue;
+                }
+
+                Integer position = subsystems.size();
+                subsystems.add(subsystem);
+                String namespace = xmlns.toString();
+                for (int i = namespace.indexOf(':'); i >= 0; i = namespace.indexOf(':', i + 1)) {
+                    String prefix = namespace.substring(0, i + 1);
+                    if (!byNamespacePrefix.containsKey(prefix)) {
+                        byNamespacePrefix.put(prefix, position);
+                    }
+                }
+            }
+        }
+
+        /** The first subsystem, in document order, whose namespace starts with one of the {@code prefixes}. */
+        GPathResult find(String... prefixes) {
+            Integer first = null;
+            for (String prefix : prefixes) {
+                Integer position = byNamespacePrefix.get(prefix);
+                if (position != null && (first == null || position < first)) {
+                    first = position;
+                }
+            }
+            return first == null ? null : subsystems.get(first);
+        }
+    }
+}
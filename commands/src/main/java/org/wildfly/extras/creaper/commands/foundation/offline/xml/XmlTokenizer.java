@@ -0,0 +1,224 @@
+package org.wildfly.extras.creaper.commands.foundation.offline.xml;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * <p>A minimal pull tokenizer for XML documents, used by {@link StreamingXmlTransform}. Unlike a real XML parser
+ * (such as StAX), it gives access to the exact source text of each token, so that tokens which aren't changed can be
+ * copied to the output character by character.</p>
+ *
+ * <p>The document is assumed to be well-formed; this class only does as much checking as is necessary
+ * to not get lost. Entity references in attribute values are decoded, but entities declared in a DTD are not
+ * supported.</p>
+ */
+final class XmlTokenizer {
+    enum Token {
+        /** character data, including whitespace between elements */
+        TEXT,
+        START_TAG,
+        /** a self-closing element like {@code <foo/>} */
+        EMPTY_ELEMENT,
+        END_TAG,
+        /** comment, processing instruction, CDATA section or a doctype declaration */
+        OTHER,
+        END_OF_DOCUMENT
+    }
+
+    private static final Pattern ATTRIBUTE = Pattern.compile("([^\\s=/<>]+)\\s*=\\s*(?:\"([^\"]*)\"|'([^']*)')");
+    private static final Pattern ENTITY = Pattern.compile("&(#x[0-9a-fA-F]+|#[0-9]+|lt|gt|amp|quot|apos);");
+
+    private final Reader reader;
+    private final StringBuilder raw = new StringBuilder();
+    private int peeked = -2; // -2 means nothing was peeked
+    private Token token;
+    private Map<String, String> attributes; // lazily parsed
+
+    XmlTokenizer(Reader reader) {
+        this.reader = reader;
+    }
+
+    Token next() throws IOException {
+        raw.setLength(0);
+        attributes = null;
+
+        int c = read();
+        if (c == -1) {
+            token = Token.END_OF_DOCUMENT;
+        } else if (c != '<') {
+            raw.append((char) c);
+            while (peek() != -1 && peek() != '<') {
+                raw.append((char) read());
+            }
+            token = Token.TEXT;
+        } else {
+            raw.append('<');
+            int second = readInto();
+            if (second == '/') {
+                readUntil(">");
+                token = Token.END_TAG;
+            } else if (second == '?') {
+                readUntil("?>");
+                token = Token.OTHER;
+            } else if (second == '!') {
+                readMarkupDeclaration();
+                token = Token.OTHER;
+            } else {
+                readTag();
+                token = raw.charAt(raw.length() - 2) == '/' ? Token.EMPTY_ELEMENT : Token.START_TAG;
+            }
+        }
+        return token;
+    }
+
+    Token token() {
+        return token;
+    }
+
+    /** Exact source text of the current token. */
+    String raw() {
+        return raw.toString();
+    }
+
+    /** Name of the current start tag, end tag or empty element, including namespace prefix (if any). */
+    String name() {
+        int start = token == Token.END_TAG ? 2 : 1;
+        int end = start;
+        while (end < raw.length() && !isNameEnd(raw.charAt(end))) {
+            end++;
+        }
+        return raw.substring(start, end);
+    }
+
+    /** Attributes of the current start tag or empty element, with entity references decoded. */
+    Map<String, String> attributes() {
+        if (attributes == null) {
+            attributes = new HashMap<String, String>();
+            Matcher matcher = ATTRIBUTE.matcher(raw);
+            while (matcher.find()) {
+                String value = matcher.group(2) != null ? matcher.group(2) : matcher.group(3);
+                attributes.put(matcher.group(1), decode(value));
+            }
+        }
+        return attributes;
+    }
+
+    static String decode(String value) {
+        if (value.indexOf('&') < 0) {
+            return value;
+        }
+
+        StringBuffer result = new StringBuffer();
+        Matcher matcher = ENTITY.matcher(value);
+        while (matcher.find()) {
+            String entity = matcher.group(1);
+            String replacement;
+            if (entity.startsWith("#x")) {
+                replacement = new String(Character.toChars(Integer.parseInt(entity.substring(2), 16)));
+            } else if (entity.startsWith("#")) {
+                replacement = new String(Character.toChars(Integer.parseInt(entity.substring(1))));
+            } else if ("lt".equals(entity)) {
+                replacement = "<";
+            } else if ("gt".equals(entity)) {
+                replacement = ">";
+            } else if ("amp".equals(entity)) {
+                replacement = "&";
+            } else if ("quot".equals(entity)) {
+                replacement = "\"";
+            } else {
+                replacement = "'";
+            }
+            matcher.appendReplacement(result, Matcher.quoteReplacement(replacement));
+        }
+        matcher.appendTail(result);
+        return result.toString();
+    }
+
+    private static boolean isNameEnd(char c) {
+        return Character.isWhitespace(c) || c == '/' || c == '>';
+    }
+
+    // ---
+
+    private void readTag() throws IOException {
+        char quote = 0;
+        while (true) {
+            int c = readInto();
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '"' || c == '\'') {
+                quote = (char) c;
+            } else if (c == '>') {
+                return;
+            }
+        }
+    }
+
+    private void readMarkupDeclaration() throws IOException {
+        // "<!" was already read
+        int c = readInto();
+        if (c == '-') {
+            readUntil("-->");
+        } else if (c == '[') {
+            readUntil("]]>");
+        } else {
+            // doctype, possibly with an internal subset in brackets
+            int brackets = 0;
+            while (c != '>' || brackets > 0) {
+                if (c == '[') {
+                    brackets++;
+                } else if (c == ']') {
+                    brackets--;
+                }
+                c = readInto();
+            }
+        }
+    }
+
+    private void readUntil(String terminator) throws IOException {
+        while (raw.length() < 2 + terminator.length() || !endsWith(terminator)) {
+            readInto();
+        }
+    }
+
+    private boolean endsWith(String suffix) {
+        int offset = raw.length() - suffix.length();
+        for (int i = 0; i < suffix.length(); i++) {
+            if (raw.charAt(offset + i) != suffix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int readInto() throws IOException {
+        int c = read();
+        if (c == -1) {
+            throw new IOException("Unexpected end of XML document inside " + raw);
+        }
+        raw.append((char) c);
+        return c;
+    }
+
+    private int read() throws IOException {
+        if (peeked != -2) {
+            int c = peeked;
+            peeked = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private int peek() throws IOException {
+        if (peeked == -2) {
+            peeked = reader.read();
+        }
+        return peeked;
+    }
+}
@@ -3,10 +3,18 @@ package org.wildfly.extras.creaper.commands.foundation.online;
 import com.google.common.base.Predicates;
 import com.google.common.collect.Iterables;
 import com.google.common.io.CharSource;
+import org.jboss.dmr.ModelNode;
 import org.wildfly.extras.creaper.core.CommandFailedException;
+import org.wildfly.extras.creaper.core.online.Constants;
+import org.wildfly.extras.creaper.core.online.FailuresAllowedBlock;
+import org.wildfly.extras.creaper.core.online.ModelNodeResult;
 import org.wildfly.extras.creaper.core.online.OnlineCommand;
 import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
 /**
  * <p>Apply a list of CLI operations (a CLI script), provided as a {@code String}. If you want to read the script
  * from a file or a classpath resource, use the {@link CliFile} command.</p>
@@ -16,8 +24,20 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
  * that specifies the host and port to connect to) are considered a failure. The script is scanned for the forbidden
  * {@code connect} operations <i>before</i> is it executed, so if this error happens, no operation from the script
  * has been performed yet.</p>
+ *
+ * <p>Management operations (lines that start with {@code /}, {@code :} or {@code .}) are parsed on the client
+ * and consecutive operations are sent to the server together, as {@code composite} operations of at most
+ * {@value #MAX_COMPOSITE_STEPS} steps. This means that if one operation fails, the other operations sent together
+ * with it are rolled back. Other CLI commands (such as {@code cd} or {@code data-source add}) are executed one by
+ * one, as are all lines inside {@code batch}, {@code if}, {@code try} and {@code for} blocks, because the CLI
+ * handles these blocks itself ({@code batch} blocks are sent as a single {@code composite} operation anyway).</p>
  */
 public final class CliScript implements OnlineCommand {
+    static final int MAX_COMPOSITE_STEPS = 100;
+
+    private static final Pattern BLOCK_START = Pattern.compile("^(batch|if|try|for)(\\s.*)?$");
+    private static final Pattern BLOCK_END = Pattern.compile("^(run-batch|discard-batch|end-if|end-try|done)(\\s.*)?$");
+
     private final String script;
     private final String description;
 
@@ -52,9 +72,100 @@ public final class CliScript implements OnlineCommand {
             throw new CommandFailedException("The script contains an unsupported 'connect' operation");
         }
 
+        List<String> pendingLines = new ArrayList<String>();
+        List<ModelNode> pendingOperations = new ArrayList<ModelNode>();
+        int blockDepth = 0;
         for (String line : lines) {
-            ctx.client.executeCli(line.trim());
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+
+            if (blockDepth == 0 && isOperation(line)) {
+                ModelNode operation = ctx.client.parseCliOperation(line);
+                if (canBeComposed(operation)) {
+                    pendingLines.add(line);
+                    pendingOperations.add(operation);
+                    if (pendingOperations.size() >= MAX_COMPOSITE_STEPS) {
+                        execute(ctx, pendingLines, pendingOperations);
+                    }
+                    continue;
+                }
+            }
+
+            execute(ctx, pendingLines, pendingOperations);
+            if (BLOCK_START.matcher(line).matches()) {
+                blockDepth++;
+            } else if (BLOCK_END.matcher(line).matches() && blockDepth > 0) {
+                blockDepth--;
+            }
+            ctx.client.executeCli(line);
+        }
+        execute(ctx, pendingLines, pendingOperations);
+    }
+
+    private static boolean isOperation(String line) {
+        return line.startsWith("/") || line.startsWith(":") || line.startsWith(".");
+    }
+
+    /** Reload and shutdown can't be part of a composite, and headers of composite steps are ignored. */
+    private static boolean canBeComposed(ModelNode operation) {
+        String operationName = operation.get(Constants.OP).asString();
+        return !Constants.RELOAD.equals(operationName)
+                && !Constants.SHUTDOWN.equals(operationName)
+                && !operation.hasDefined(Constants.OPERATION_HEADERS);
+    }
+
+    /** Executes the pending operations (a single one as is, more of them as a composite) and clears them. */
+    private static void execute(OnlineCommandContext ctx, List<String> lines, List<ModelNode> operations)
+            throws Exception {
+        if (operations.isEmpty()) {
+            return;
+        }
+
+        ModelNode operation;
+        if (operations.size() == 1) {
+            operation = operations.get(0);
+        } else {
+            operation = new ModelNode();
+            operation.get(Constants.OP).set(Constants.COMPOSITE);
+            operation.get(Constants.OP_ADDR).setEmptyList();
+            ModelNode steps = operation.get(Constants.STEPS).setEmptyList();
+            for (ModelNode step : operations) {
+                steps.add(step);
+            }
+        }
+
+        ModelNodeResult result;
+        FailuresAllowedBlock failuresAllowed = ctx.client.allowFailures();
+        try {
+            result = ctx.client.execute(operation);
+        } finally {
+            failuresAllowed.close();
+        }
+
+        if (result.isFailed()) {
+            throw new CommandFailedException("CLI operation failed: " + failedLine(result, lines)
+                    + ", result: " + result.asString());
+        }
+
+        lines.clear();
+        operations.clear();
+    }
+
+    private static String failedLine(ModelNodeResult result, List<String> lines) {
+        if (lines.size() == 1) {
+            return lines.get(0);
+        }
+
+        for (int i = 0; i < lines.size(); i++) {
+            String step = "step-" + (i + 1);
+            if (result.hasDefined(Constants.RESULT, step, Constants.OUTCOME)
+                    && Constants.FAILED.equals(result.get(Constants.RESULT, step, Constants.OUTCOME).asString())) {
+                return lines.get(i);
+            }
         }
+        return lines.toString();
     }
 
     @Override
@@ -0,0 +1,301 @@
+package org.wildfly.extras.creaper.commands.foundation.online;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.dmr.Property;
+import org.wildfly.extras.creaper.core.online.Constants;
+import org.wildfly.extras.creaper.core.online.operations.Address;
+import org.wildfly.extras.creaper.core.online.operations.Batch;
+import org.wildfly.extras.creaper.core.online.operations.Values;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>Computes management operations that turn the {@code current} model into the {@code baseline} model.
+ * Both models are results of a recursive {@code read-resource} with {@code include-defaults=false}.</p>
+ *
+ * <p>A model alone doesn't say which of its keys are attributes and which are child types, so the diff also
+ * needs a <i>schema</i>, which is extracted from a recursive {@code read-resource-description} by
+ * {@link #schema(ModelNode)}. The schema only contains configuration attributes, whether they are writable,
+ * and child types. Resources without a description (such as proxies to servers in managed domain) are ignored.</p>
+ *
+ * <p>The operations are:</p>
+ *
+ * <ul>
+ *     <li>{@code remove} of each resource that isn't in the baseline (only the topmost one, its children are removed
+ *     with it), in reverse order</li>
+ *     <li>{@code add} of each resource that is only in the baseline (parents before children)</li>
+ *     <li>{@code write-attribute} or {@code undefine-attribute} of each writable attribute that has a different value
+ *     </li>
+ * </ul>
+ *
+ * <p>If a read-only attribute has a different value, the difference can't be expressed by these operations
+ * and {@link #isExpressible()} returns {@code false}.</p>
+ */
+final class ModelDiff {
+    private static final String SCHEMA_ATTRIBUTES = "attributes";
+    private static final String SCHEMA_CHILDREN = "children";
+    private static final String ANY_NAME = "*";
+
+    private final List<Change> removals = new ArrayList<Change>();
+    private final List<Change> additions = new ArrayList<Change>();
+    private final List<Change> writes = new ArrayList<Change>();
+    private final List<String> inexpressible = new ArrayList<String>();
+
+    private ModelDiff() {
+    }
+
+    static ModelNode schema(ModelNode description) {
+        ModelNode result = new ModelNode();
+
+        ModelNode attributes = result.get(SCHEMA_ATTRIBUTES).setEmptyObject();
+        if (description.hasDefined(Constants.ATTRIBUTES)) {
+            for (Property attribute : description.get(Constants.ATTRIBUTES).asPropertyList()) {
+                ModelNode attributeDescription = attribute.getValue();
+                if (isConfiguration(attributeDescription)) {
+                    attributes.get(attribute.getName()).set(isWritable(attributeDescription));
+                }
+            }
+        }
+
+        ModelNode children = result.get(SCHEMA_CHILDREN).setEmptyObject();
+        if (description.hasDefined(Constants.CHILDREN)) {
+            for (Property childType : description.get(Constants.CHILDREN).asPropertyList()) {
+                ModelNode childTypeSchema = new ModelNode().setEmptyObject();
+                if (childType.getValue().hasDefined(Constants.MODEL_DESCRIPTION)) {
+                    for (Property child : childType.getValue().get(Constants.MODEL_DESCRIPTION).asPropertyList()) {
+                        if (child.getValue().isDefined()) {
+                            childTypeSchema.get(child.getName()).set(schema(child.getValue()));
+                        }
+                    }
+                }
+                children.get(childType.getName()).set(childTypeSchema);
+            }
+        }
+
+        return result;
+    }
+
+    private static boolean isConfiguration(ModelNode attributeDescription) {
+        String storage = attributeDescription.get(Constants.STORAGE).asString();
+        String accessType = attributeDescription.get(Constants.ACCESS_TYPE).asString();
+        return Constants.CONFIGURATION.equals(storage) && !Constants.METRIC.equals(accessType);
+    }
+
+    private static boolean isWritable(ModelNode attributeDescription) {
+        return Constants.READ_WRITE.equals(attributeDescription.get(Constants.ACCESS_TYPE).asString());
+    }
+
+    static ModelDiff compute(ModelNode schema, ModelNode current, ModelNode baseline) {
+        ModelDiff result = new ModelDiff();
+        result.compare(Address.root(), schema, current, baseline);
+        Collections.reverse(result.removals);
+        return result;
+    }
+
+    private void compare(Address address, ModelNode schema, ModelNode current, ModelNode baseline) {
+        for (Property attribute : schema.get(SCHEMA_ATTRIBUTES).asPropertyList()) {
+            String name = attribute.getName();
+            ModelNode currentValue = valueOf(current, name);
+            ModelNode baselineValue = valueOf(baseline, name);
+            if (currentValue.equals(baselineValue)) {
+                continue;
+            }
+
+            if (!attribute.getValue().asBoolean()) {
+                inexpressible.add(address + ":" + name);
+            } else if (baselineValue.isDefined()) {
+                writes.add(Change.writeAttribute(address, name, baselineValue));
+            } else {
+                writes.add(Change.undefineAttribute(address, name));
+            }
+        }
+
+        for (Property childType : schema.get(SCHEMA_CHILDREN).asPropertyList()) {
+            String type = childType.getName();
+            Map<String, ModelNode> currentChildren = childrenOf(current, type);
+            Map<String, ModelNode> baselineChildren = childrenOf(baseline, type);
+
+            for (Map.Entry<String, ModelNode> child : currentChildren.entrySet()) {
+                if (!baselineChildren.containsKey(child.getKey())) {
+                    removals.add(Change.remove(address.and(type, child.getKey())));
+                }
+            }
+
+            for (Map.Entry<String, ModelNode> child : baselineChildren.entrySet()) {
+                ModelNode childSchema = childSchema(childType.getValue(), child.getKey());
+                if (childSchema == null) {
+                    continue;
+                }
+
+                Address childAddress = address.and(type, child.getKey());
+                ModelNode currentChild = currentChildren.get(child.getKey());
+                if (currentChild == null) {
+                    add(childAddress, childSchema, child.getValue());
+                } else {
+                    compare(childAddress, childSchema, currentChild, child.getValue());
+                }
+            }
+        }
+    }
+
+    private void add(Address address, ModelNode schema, ModelNode baseline) {
+        Values parameters = Values.empty();
+        for (Property attribute : schema.get(SCHEMA_ATTRIBUTES).asPropertyList()) {
+            ModelNode value = valueOf(baseline, attribute.getName());
+            if (value.isDefined()) {
+                parameters = parameters.and(attribute.getName(), value);
+            }
+        }
+        additions.add(Change.add(address, parameters));
+
+        for (Property childType : schema.get(SCHEMA_CHILDREN).asPropertyList()) {
+            for (Map.Entry<String, ModelNode> child : childrenOf(baseline, childType.getName()).entrySet()) {
+                ModelNode childSchema = childSchema(childType.getValue(), child.getKey());
+                if (childSchema != null) {
+                    add(address.and(childType.getName(), child.getKey()), childSchema, child.getValue());
+                }
+            }
+        }
+    }
+
+    private static ModelNode valueOf(ModelNode resource, String name) {
+        return resource.has(name) ? resource.get(name) : new ModelNode();
+    }
+
+    private static Map<String, ModelNode> childrenOf(ModelNode resource, String type) {
+        Map<String, ModelNode> result = new LinkedHashMap<String, ModelNode>();
+        if (resource.hasDefined(type) && resource.get(type).getType() == ModelType.OBJECT) {
+            for (Property child : resource.get(type).asPropertyList()) {
+                result.put(child.getName(), child.getValue());
+            }
+        }
+        return result;
+    }
+
+    /** Schema of a child with given name, or {@code null} if the child isn't described. */
+    private static ModelNode childSchema(ModelNode childTypeSchema, String name) {
+        if (childTypeSchema.has(name)) {
+            return childTypeSchema.get(name);
+        }
+        if (childTypeSchema.has(ANY_NAME)) {
+            return childTypeSchema.get(ANY_NAME);
+        }
+        return null;
+    }
+
+    // ---
+
+    boolean isEmpty() {
+        return removals.isEmpty() && additions.isEmpty() && writes.isEmpty() && inexpressible.isEmpty();
+    }
+
+    boolean isExpressible() {
+        return inexpressible.isEmpty();
+    }
+
+    /** Read-only attributes whose values differ, in the {@code /address:attribute} form. */
+    List<String> inexpressibleChanges() {
+        return Collections.unmodifiableList(inexpressible);
+    }
+
+    Batch toBatch() {
+        Batch batch = new Batch();
+        for (Change change : changes()) {
+            change.addTo(batch);
+        }
+        return batch;
+    }
+
+    /** Human readable description of all the operations, one per operation. */
+    List<String> describe() {
+        List<String> result = new ArrayList<String>();
+        for (Change change : changes()) {
+            result.add(change.toString());
+        }
+        return result;
+    }
+
+    private List<Change> changes() {
+        List<Change> result = new ArrayList<Change>(removals.size() + additions.size() + writes.size());
+        result.addAll(removals);
+        result.addAll(additions);
+        result.addAll(writes);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "ModelDiff" + describe();
+    }
+
+    private abstract static class Change {
+        final Address address;
+
+        Change(Address address) {
+            this.address = address;
+        }
+
+        abstract void addTo(Batch batch);
+
+        static Change remove(Address address) {
+            return new Change(address) {
+                @Override
+                void addTo(Batch batch) {
+                    batch.remove(address);
+                }
+
+                @Override
+                public String toString() {
+                    return address + ":remove";
+                }
+            };
+        }
+
+        static Change add(Address address, final Values parameters) {
+            return new Change(address) {
+                @Override
+                void addTo(Batch batch) {
+                    batch.add(address, parameters);
+                }
+
+                @Override
+                public String toString() {
+                    return address + ":add" + parameters;
+                }
+            };
+        }
+
+        static Change writeAttribute(Address address, final String name, final ModelNode value) {
+            return new Change(address) {
+                @Override
+                void addTo(Batch batch) {
+                    batch.writeAttribute(address, name, value);
+                }
+
+                @Override
+                public String toString() {
+                    return address + ":write-attribute(" + name + "=" + value.asString() + ")";
+                }
+            };
+        }
+
+        static Change undefineAttribute(Address address, final String name) {
+            return new Change(address) {
+                @Override
+                void addTo(Batch batch) {
+                    batch.undefineAttribute(address, name);
+                }
+
+                @Override
+                public String toString() {
+                    return address + ":undefine-attribute(" + name + ")";
+                }
+            };
+        }
+    }
+}
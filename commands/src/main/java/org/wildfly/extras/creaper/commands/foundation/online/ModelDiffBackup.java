@@ -0,0 +1,216 @@
+package org.wildfly.extras.creaper.commands.foundation.online;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.logging.Logger;
+import org.wildfly.extras.creaper.core.CommandFailedException;
+import org.wildfly.extras.creaper.core.ServerVersion;
+import org.wildfly.extras.creaper.core.online.CliException;
+import org.wildfly.extras.creaper.core.online.Constants;
+import org.wildfly.extras.creaper.core.online.FailuresAllowedBlock;
+import org.wildfly.extras.creaper.core.online.ModelNodeResult;
+import org.wildfly.extras.creaper.core.online.OnlineCommand;
+import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
+import org.wildfly.extras.creaper.core.online.operations.Address;
+import org.wildfly.extras.creaper.core.online.operations.Operations;
+import org.wildfly.extras.creaper.core.online.operations.ReadResourceOption;
+import org.wildfly.extras.creaper.core.online.operations.Values;
+import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
+
+/**
+ * Provides a pair of online commands to backup and then restore application server configuration while the server
+ * is running, just like {@link SnapshotBackup}. Backup consists of reading the entire configuration model and storing
+ * it in a compressed file. Restore then means computing the management operations that turn the current model back
+ * into the stored one and applying them in a single batch. If nothing changed, nothing is done; there's no reload.
+ *
+ * <p>
+ * If the batch fails, if the changes can't be expressed as management operations (a read-only attribute was
+ * changed), or if the server requires reload or restart after the batch is applied, the server is reloaded from
+ * a snapshot that was also taken during backup. Snapshot reload requires WildFly Core 3; with older servers, failures
+ * result in an exception and the server is simply reloaded if it requires reload.
+ * </p>
+ *
+ * <p>
+ * The {@code backup} command must be applied before {@code restore}, {@code backup} can be applied once, and then
+ * {@code restore} can be applied many times. If any one of these rules is violated, an exception is thrown.
+ * The {@code destroy} command deletes the backup; if there was no backup acquired, it does nothing.
+ * </p>
+ */
+public final class ModelDiffBackup {
+    private static final Logger log = Logger.getLogger(ModelDiffBackup.class);
+
+    private static final String MODEL = "model";
+    private static final String SCHEMA = "schema";
+
+    private File baseline; // null <=> backup wasn't acquired, can't restore
+    private SnapshotBackup snapshot; // null <=> snapshot reload isn't supported by the server
+
+    private final OnlineCommand backupPart = new OnlineCommand() {
+        @Override
+        public void apply(OnlineCommandContext ctx) throws Exception {
+            if (baseline != null) {
+                throw new CommandFailedException("Backup was already acquired: " + baseline);
+            }
+
+            Operations ops = new Operations(ctx.client);
+            ModelNodeResult description = ops.invoke(Constants.READ_RESOURCE_DESCRIPTION, Address.root(),
+                    Values.of(Constants.RECURSIVE, true));
+            description.assertDefinedValue("Reading management model description failed.");
+
+            ModelNode stored = new ModelNode();
+            stored.get(MODEL).set(readModel(ops));
+            stored.get(SCHEMA).set(ModelDiff.schema(description.value()));
+
+            File file = File.createTempFile("creaper-model-backup", ".dmr.gz");
+            file.deleteOnExit();
+            write(stored, file);
+
+            if (ctx.version.greaterThanOrEqualTo(ServerVersion.VERSION_5_0_0)) {
+                SnapshotBackup snapshotBackup = new SnapshotBackup();
+                ctx.client.apply(snapshotBackup.backup());
+                snapshot = snapshotBackup;
+            }
+
+            baseline = file;
+        }
+
+        @Override
+        public String toString() {
+            return "ModelDiffBackup.backup";
+        }
+    };
+
+    private final OnlineCommand restorePart = new OnlineCommand() {
+        @Override
+        public void apply(OnlineCommandContext ctx) throws Exception {
+            if (baseline == null) {
+                throw new CommandFailedException("There's no backup to restore");
+            }
+
+            Operations ops = new Operations(ctx.client);
+            ModelNode stored = read(baseline);
+            ModelDiff diff = ModelDiff.compute(stored.get(SCHEMA), readModel(ops), stored.get(MODEL));
+
+            if (diff.isEmpty()) {
+                log.debug("Configuration didn't change since backup, nothing to restore");
+                return;
+            }
+
+            if (!diff.isExpressible()) {
+                reloadToSnapshot(ctx, "read-only attributes changed: " + diff.inexpressibleChanges());
+                return;
+            }
+
+            log.debugf("Restoring configuration: %s", diff);
+            ModelNodeResult result;
+            FailuresAllowedBlock allowFailures = ctx.client.allowFailures();
+            try {
+                result = ops.batch(diff.toBatch());
+            } finally {
+                allowFailures.close();
+            }
+
+            if (result.isFailed()) {
+                reloadToSnapshot(ctx, "applying the changes failed: " + result.get(Constants.FAILURE_DESCRIPTION));
+                return;
+            }
+
+            Administration administration = new Administration(ctx.client);
+            if (administration.isRestartRequired() || administration.isReloadRequired()) {
+                if (snapshot != null) {
+                    reloadToSnapshot(ctx, "the server requires reload or restart");
+                } else {
+                    administration.reload();
+                }
+            }
+        }
+
+        private void reloadToSnapshot(OnlineCommandContext ctx, String reason) throws Exception {
+            if (snapshot == null) {
+                throw new CommandFailedException("Can't restore configuration, " + reason
+                        + "; reloading to a snapshot requires WildFly Core 3");
+            }
+
+            log.infof("Restoring configuration by reloading to a snapshot, %s", reason);
+            ctx.client.apply(snapshot.restore());
+        }
+
+        @Override
+        public String toString() {
+            return "ModelDiffBackup.restore";
+        }
+    };
+
+    private final OnlineCommand destroyPart = new OnlineCommand() {
+        @Override
+        public void apply(OnlineCommandContext ctx) throws CommandFailedException, IOException, CliException {
+            if (baseline == null) {
+                return;
+            }
+
+            if (snapshot != null) {
+                ctx.client.apply(snapshot.destroy());
+                snapshot = null;
+            }
+
+            if (!baseline.delete()) {
+                log.warnf("Couldn't delete backup file %s", baseline);
+            }
+            baseline = null;
+        }
+
+        @Override
+        public String toString() {
+            return "ModelDiffBackup.destroy";
+        }
+    };
+
+    public OnlineCommand backup() {
+        return backupPart;
+    }
+
+    public OnlineCommand restore() {
+        return restorePart;
+    }
+
+    public OnlineCommand destroy() {
+        return destroyPart;
+    }
+
+    // ---
+
+    private static ModelNode readModel(Operations ops) throws IOException {
+        ModelNodeResult result = ops.readResource(Address.root(), ReadResourceOption.RECURSIVE,
+                ReadResourceOption.NOT_INCLUDE_DEFAULTS);
+        result.assertDefinedValue("Reading management model failed.");
+        return result.value();
+    }
+
+    private static void write(ModelNode node, File file) throws IOException {
+        OutputStream output = new GZIPOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+        try {
+            node.writeExternal(output);
+        } finally {
+            output.close();
+        }
+    }
+
+    private static ModelNode read(File file) throws IOException {
+        InputStream input = new GZIPInputStream(new BufferedInputStream(new FileInputStream(file)));
+        try {
+            return ModelNode.fromStream(input);
+        } finally {
+            input.close();
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package org.wildfly.extras.creaper.commands.logging;
 
+import com.google.common.xml.XmlEscapers;
 import org.wildfly.extras.creaper.commands.foundation.offline.xml.GroovyXmlTransform;
+import org.wildfly.extras.creaper.commands.foundation.offline.xml.StreamingXmlTransform;
 import org.wildfly.extras.creaper.commands.foundation.offline.xml.Subtree;
 import org.wildfly.extras.creaper.core.CommandFailedException;
 import org.wildfly.extras.creaper.core.offline.OfflineCommandContext;
@@ -42,6 +44,17 @@ public final class AddLogger extends AbstractLoggerCommand {
 
     @Override
     public void apply(OfflineCommandContext ctx) throws Exception {
+        if (StreamingXmlTransform.isEnabled(ctx)) {
+            StreamingXmlTransform.Builder transform = StreamingXmlTransform.in(Subtree.subsystem("logging"));
+            if (replaceExisting) {
+                transform.replaceElement("logger", "category", category, loggerXml());
+            } else {
+                transform.addElement("logger", "category", category, loggerXml());
+            }
+            ctx.client.apply(transform.build());
+            return;
+        }
+
         GroovyXmlTransform transform = GroovyXmlTransform.of(AddLogger.class)
                 .subtree("logging", Subtree.subsystem("logging"))
                 .parameter("category", category)
@@ -55,6 +68,37 @@ public final class AddLogger extends AbstractLoggerCommand {
         ctx.client.apply(transform);
     }
 
+    /** Same as {@code AddLogger.groovy} */
+    private String loggerXml() {
+        StringBuilder xml = new StringBuilder("<logger category=\"" + escape(category) + "\"");
+        if (useParentHandler != null) {
+            xml.append(" use-parent-handlers=\"").append(useParentHandler).append("\"");
+        }
+        if (level == null && filter == null && (handlers == null || handlers.isEmpty())) {
+            return xml.append("/>").toString();
+        }
+
+        xml.append(">");
+        if (level != null) {
+            xml.append("\n    <level name=\"").append(escape(level.value())).append("\"/>");
+        }
+        if (filter != null) {
+            xml.append("\n    <filter-spec value=\"").append(escape(filter)).append("\"/>");
+        }
+        if (handlers != null && !handlers.isEmpty()) {
+            xml.append("\n    <handlers>");
+            for (String handler : handlers) {
+                xml.append("\n        <handler name=\"").append(escape(handler)).append("\"/>");
+            }
+            xml.append("\n    </handlers>");
+        }
+        return xml.append("\n</logger>").toString();
+    }
+
+    private static String escape(String value) {
+        return XmlEscapers.xmlAttributeEscaper().escape(value);
+    }
+
     @Override
     public String toString() {
         return "AddLogger " + category;
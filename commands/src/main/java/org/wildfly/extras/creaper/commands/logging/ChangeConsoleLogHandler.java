@@ -25,10 +25,6 @@ public final class ChangeConsoleLogHandler extends AbstractConsoleLogHandlerComm
 
         Address handlerAddress = Address.subsystem("logging").and("console-handler", name);
 
-        if (!ops.exists(handlerAddress)) {
-            throw new IllegalStateException(String.format("console handler %s does not exist.", name));
-        }
-
         Batch batch = new Batch();
         if (autoflush != null) {
             batch.writeAttribute(handlerAddress, "autoflush", autoflush);
@@ -37,7 +33,7 @@ public final class ChangeConsoleLogHandler extends AbstractConsoleLogHandlerComm
             batch.writeAttribute(handlerAddress, "enabled", enabled);
         }
         if (filter != null) {
-            ops.writeAttribute(handlerAddress, "filter-spec", filter);
+            batch.writeAttribute(handlerAddress, "filter-spec", filter);
         }
         if (encoding != null) {
             batch.writeAttribute(handlerAddress, "encoding", encoding);
@@ -55,7 +51,7 @@ public final class ChangeConsoleLogHandler extends AbstractConsoleLogHandlerComm
             batch.writeAttribute(handlerAddress, "level", level.value());
         }
 
-        ops.batch(batch);
+        ops.batchIfChanged(batch);
     }
 
     @Override
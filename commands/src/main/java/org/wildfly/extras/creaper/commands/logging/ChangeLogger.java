@@ -19,10 +19,6 @@ public final class ChangeLogger extends AbstractLoggerCommand {
 
         Address loggerAddress = Address.subsystem("logging").and("logger", category);
 
-        if (!ops.exists(loggerAddress)) {
-            throw new IllegalStateException("Log category %s does not exist: " + category);
-        }
-
         Batch batch = new Batch();
         if (filter != null) {
             batch.writeAttribute(loggerAddress, "filter-spec", filter);
@@ -33,9 +29,6 @@ public final class ChangeLogger extends AbstractLoggerCommand {
         if (useParentHandler != null) {
             batch.writeAttribute(loggerAddress, "use-parent-handlers", useParentHandler);
         }
-        if (level != null) {
-            batch.writeAttribute(loggerAddress, "level", level.value());
-        }
         if (handlers != null) {
             if (handlers.isEmpty()) {
                 batch.undefineAttribute(loggerAddress, "handlers");
@@ -44,7 +37,7 @@ public final class ChangeLogger extends AbstractLoggerCommand {
             }
         }
 
-        ops.batch(batch);
+        ops.batchIfChanged(batch);
     }
 
     @Override
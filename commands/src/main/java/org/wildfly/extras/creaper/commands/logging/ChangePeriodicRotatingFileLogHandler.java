@@ -20,10 +20,6 @@ public final class ChangePeriodicRotatingFileLogHandler extends AbstractPeriodic
 
         Address handlerAddress = Address.subsystem("logging").and("periodic-rotating-file-handler", name);
 
-        if (!ops.exists(handlerAddress)) {
-            throw new IllegalStateException(String.format("periodic rotating file handler %s does not exist.", name));
-        }
-
         Batch batch = new Batch();
         if (autoflush != null) {
             batch.writeAttribute(handlerAddress, "autoflush", autoflush);
@@ -71,7 +67,7 @@ public final class ChangePeriodicRotatingFileLogHandler extends AbstractPeriodic
             batch.writeAttribute(handlerAddress, "file", node);
         }
 
-        ops.batch(batch);
+        ops.batchIfChanged(batch);
     }
 
     @Override
@@ -46,7 +46,7 @@ public final class ChangeRootLogger implements OfflineCommand, OnlineCommand {
             batch.writeAttribute(rootAddress, "filter-spec", filter);
         }
 
-        ops.batch(batch);
+        ops.batchIfChanged(batch);
     }
 
     @Override
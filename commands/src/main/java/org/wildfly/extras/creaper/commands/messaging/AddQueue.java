@@ -1,6 +1,8 @@
 package org.wildfly.extras.creaper.commands.messaging;
 
+import com.google.common.xml.XmlEscapers;
 import org.wildfly.extras.creaper.commands.foundation.offline.xml.GroovyXmlTransform;
+import org.wildfly.extras.creaper.commands.foundation.offline.xml.StreamingXmlTransform;
 import org.wildfly.extras.creaper.commands.foundation.offline.xml.Subtree;
 import org.wildfly.extras.creaper.core.CommandFailedException;
 import org.wildfly.extras.creaper.core.offline.OfflineCommand;
@@ -67,6 +69,20 @@ public final class AddQueue implements OnlineCommand, OfflineCommand {
             throw new CommandFailedException("Non-default messaging server name not yet implemented in offline mode");
         }
 
+        if (StreamingXmlTransform.isEnabled(ctx)) {
+            StreamingXmlTransform hornetq = queueTransform(StreamingXmlTransform.in(Subtree.subsystem("messaging"))
+                    .child("hornetq-server")
+                    .child("jms-destinations"), hornetqQueueXml())
+                    .build();
+            StreamingXmlTransform activemq = queueTransform(StreamingXmlTransform.in(
+                    Subtree.subsystem("messaging-activemq"))
+                    .child("server", "name", serverName), activemqQueueXml())
+                    .otherwise(hornetq)
+                    .build();
+            ctx.client.apply(activemq);
+            return;
+        }
+
         GroovyXmlTransform transform = GroovyXmlTransform.of(AddQueue.class)
                 .subtree("messagingHornetq", Subtree.subsystem("messaging"))
                 .subtree("messagingActivemq", Subtree.subsystem("messaging-activemq"))
@@ -81,6 +97,42 @@ public final class AddQueue implements OnlineCommand, OfflineCommand {
         ctx.client.apply(transform);
     }
 
+    private StreamingXmlTransform.Builder queueTransform(StreamingXmlTransform.Builder transform, String xml) {
+        if (replaceExisting) {
+            return transform.replaceElement("jms-queue", "name", name, xml);
+        }
+        return transform.addElement("jms-queue", "name", name, xml);
+    }
+
+    /** Same as {@code AddQueue.groovy} */
+    private String activemqQueueXml() {
+        StringBuilder xml = new StringBuilder("<jms-queue name=\"" + escape(name) + "\"");
+        xml.append(" entries=\"").append(escape(MessagingUtils.getStringOfEntries(jndiEntries))).append("\"");
+        xml.append(" durable=\"").append(durable).append("\"");
+        if (selector != null) {
+            xml.append(" selector=\"").append(escape(selector)).append("\"");
+        }
+        return xml.append("/>").toString();
+    }
+
+    /** Same as {@code AddQueue.groovy} */
+    private String hornetqQueueXml() {
+        StringBuilder xml = new StringBuilder("<jms-queue name=\"" + escape(name) + "\">");
+        for (String entry : jndiEntries) {
+            xml.append("\n    <entry name=\"").append(escape(entry)).append("\"/>");
+        }
+        if (selector != null) {
+            xml.append("\n    <selector>").append(XmlEscapers.xmlContentEscaper().escape(selector))
+                    .append("</selector>");
+        }
+        xml.append("\n    <durable>").append(durable).append("</durable>");
+        return xml.append("\n</jms-queue>").toString();
+    }
+
+    private static String escape(String value) {
+        return XmlEscapers.xmlAttributeEscaper().escape(value);
+    }
+
     @Override
     public String toString() {
         return "AddQueue " + name;
@@ -175,7 +175,7 @@ public final class ChangeOrb implements OfflineCommand, OnlineCommand {
                     .write("giop-minor-version", giopVersion);
         }
 
-        ops.batch(batch);
+        ops.batchIfChanged(batch);
     }
 
     public void apply(OfflineCommandContext ctx) throws Exception {
@@ -14,7 +14,6 @@ import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.OperationException;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 /**
  * Add a new security domain.
@@ -39,7 +38,7 @@ public class AddSecurityDomain implements OnlineCommand, OfflineCommand {
         if (replaceExisting) {
             try {
                 ops.removeIfExists(securityDomainAddress);
-                new Administration(ctx.client).reloadIfRequired();
+                ctx.reloadIfRequired();
             } catch (OperationException e) {
                 throw new IOException("Failed to remove existing security domain " + securityDomainName, e);
             }
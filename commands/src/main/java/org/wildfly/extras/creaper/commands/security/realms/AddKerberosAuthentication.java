@@ -11,7 +11,6 @@ import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Batch;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 /**
  * Add kerberos authentication to security realm.
@@ -53,7 +52,7 @@ public final class AddKerberosAuthentication extends AbstractAddSecurityRealmSub
                 batch.remove(securityRealmKerberosAuthnAddress);
             }
             ops.batch(batch);
-            new Administration(ctx.client).reloadIfRequired();
+            ctx.reloadIfRequired();
         }
 
         Batch batch = new Batch();
@@ -8,7 +8,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 /**
  * Add ldap authentication to security realm.
@@ -49,7 +48,7 @@ public final class AddLdapAuthentication extends AbstractAddSecurityRealmSubElem
         Address securityRealmLdapAuthnAddress = securityRealmAddress.and("authentication", "ldap");
         if (replaceExisting) {
             ops.removeIfExists(securityRealmLdapAuthnAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            ctx.reloadIfRequired();
         }
         ops.add(securityRealmLdapAuthnAddress, Values.empty()
                 .andOptional("username-attribute", usernameAttribute)
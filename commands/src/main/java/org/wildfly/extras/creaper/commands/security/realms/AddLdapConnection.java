@@ -16,7 +16,6 @@ import org.wildfly.extras.creaper.core.online.operations.Batch;
 import org.wildfly.extras.creaper.core.online.operations.OperationException;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 /**
  * Add a new LDAP outbound connection.
@@ -54,7 +53,7 @@ public final class AddLdapConnection implements OnlineCommand, OfflineCommand {
         if (replaceExisting) {
             try {
                 ops.removeIfExists(ldapConnection);
-                new Administration(ctx.client).reloadIfRequired();
+                ctx.reloadIfRequired();
             } catch (OperationException e) {
                 throw new IOException("Failed to LDAP outbound connection " + connectionName, e);
             }
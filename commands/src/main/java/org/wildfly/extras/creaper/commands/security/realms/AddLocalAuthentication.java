@@ -7,7 +7,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 /**
  * Add local authentication to security realm.
@@ -31,7 +30,7 @@ public class AddLocalAuthentication extends AbstractAddSecurityRealmSubElement {
         Address securityRealmJaasAuthnAddress = securityRealmAddress.and("authentication", "local");
         if (replaceExisting) {
             ops.removeIfExists(securityRealmJaasAuthnAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            ctx.reloadIfRequired();
         }
         ops.add(securityRealmJaasAuthnAddress, Values.empty()
                 .andOptional("allowed-users", allowedUsers)
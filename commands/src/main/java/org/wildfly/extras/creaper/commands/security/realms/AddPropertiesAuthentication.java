@@ -7,7 +7,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 /**
  * Add properties authentication to security realm.
@@ -31,7 +30,7 @@ public final class AddPropertiesAuthentication extends AbstractAddSecurityRealmS
         Address securityRealmPropertiesAuthnAddress = securityRealmAddress.and("authentication", "properties");
         if (replaceExisting) {
             ops.removeIfExists(securityRealmPropertiesAuthnAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            ctx.reloadIfRequired();
         }
         ops.add(securityRealmPropertiesAuthnAddress, Values.empty()
                 .andOptional("path", path)
@@ -7,7 +7,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 /**
  * Add properties authorization to security realm.
@@ -29,7 +28,7 @@ public final class AddPropertiesAuthorization extends AbstractAddSecurityRealmSu
         Address securityRealmPropertiesAuthzAddress = securityRealmAddress.and("authorization", "properties");
         if (replaceExisting) {
             ops.removeIfExists(securityRealmPropertiesAuthzAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            ctx.reloadIfRequired();
         }
         ops.add(securityRealmPropertiesAuthzAddress, Values.empty()
                 .andOptional("path", path)
@@ -8,7 +8,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 import java.io.IOException;
 
@@ -41,7 +40,7 @@ public final class AddSecretAuthentication extends AbstractAddSecurityRealmSubEl
             if (secretServerIdentityExists) {
                 ops.remove(secretServerIdentitiesAddress);
             }
-            new Administration(ctx.client).reloadIfRequired();
+            ctx.reloadIfRequired();
         }
 
         ops.add(secretServerIdentitiesAddress, Values.empty()
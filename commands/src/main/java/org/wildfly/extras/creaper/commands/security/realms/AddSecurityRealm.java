@@ -11,7 +11,6 @@ import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.OperationException;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 /**
  * Add a new security realm.
@@ -35,7 +34,7 @@ public final class AddSecurityRealm implements OnlineCommand, OfflineCommand {
         if (replaceExisting) {
             try {
                 ops.removeIfExists(securityRealmAddress);
-                new Administration(ctx.client).reloadIfRequired();
+                ctx.reloadIfRequired();
             } catch (OperationException e) {
                 throw new IOException("Failed to remove existing security realm " + securityRealmName, e);
             }
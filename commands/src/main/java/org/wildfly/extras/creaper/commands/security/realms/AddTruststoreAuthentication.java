@@ -7,7 +7,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public class AddTruststoreAuthentication extends AbstractAddSecurityRealmSubElement {
     private final String truststorePassword;
@@ -47,7 +46,7 @@ public class AddTruststoreAuthentication extends AbstractAddSecurityRealmSubElem
             if (truststoreAuthExist) {
                 ops.remove(truststoreAuthAddress);
             }
-            new Administration(ctx.client).reloadIfRequired();
+            ctx.reloadIfRequired();
         }
 
         ops.add(truststoreAuthAddress, Values.empty()
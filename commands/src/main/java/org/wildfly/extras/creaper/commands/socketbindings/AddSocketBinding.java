@@ -1,6 +1,11 @@
 package org.wildfly.extras.creaper.commands.socketbindings;
 
+import com.google.common.xml.XmlEscapers;
+import org.wildfly.extras.creaper.commands.foundation.offline.xml.StreamingXmlTransform;
+import org.wildfly.extras.creaper.commands.foundation.offline.xml.Subtree;
 import org.wildfly.extras.creaper.core.CommandFailedException;
+import org.wildfly.extras.creaper.core.offline.OfflineCommand;
+import org.wildfly.extras.creaper.core.offline.OfflineCommandContext;
 import org.wildfly.extras.creaper.core.online.OnlineCommand;
 import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
@@ -16,8 +21,10 @@ import java.util.List;
 /**
  * <p>A command for creating socket binding under default socket binding group if not specified else.</p>
  * <p>This command <b>does not check</b> whether the port or multicast port are available!</p>
+ * <p>In offline mode, the configuration file is always changed using a {@link StreamingXmlTransform}. Client mappings
+ * are not supported in offline mode.</p>
  */
-public final class AddSocketBinding implements OnlineCommand {
+public final class AddSocketBinding implements OnlineCommand, OfflineCommand {
 
     private final String socketBindingName;
     private final String socketBindingGroup;
@@ -71,6 +78,51 @@ public final class AddSocketBinding implements OnlineCommand {
                 .andOptional("port", port));
     }
 
+    @Override
+    public void apply(OfflineCommandContext ctx) throws CommandFailedException, IOException {
+        if (clientMappings != null) {
+            throw new CommandFailedException("Client mappings are not yet implemented in offline mode");
+        }
+
+        String socketBindingGroup = this.socketBindingGroup;
+        if (socketBindingGroup == null) {
+            socketBindingGroup = ctx.options.isDomain ? "full-sockets" : "standard-sockets";
+        }
+
+        StreamingXmlTransform.Builder transform = ctx.options.isDomain
+                ? StreamingXmlTransform.in(Subtree.socketBindingGroups())
+                : StreamingXmlTransform.in(Subtree.root());
+        transform.child("socket-binding-group", "name", socketBindingGroup);
+
+        StringBuilder xml = new StringBuilder("<socket-binding");
+        appendAttribute(xml, "name", socketBindingName);
+        appendAttribute(xml, "interface", interfaceName);
+        appendAttribute(xml, "port", port);
+        appendAttribute(xml, "fixed-port", fixedPort);
+        appendAttribute(xml, "multicast-address", multicastAddress);
+        appendAttribute(xml, "multicast-port", multicastPort);
+        xml.append("/>");
+
+        if (replaceExisting) {
+            transform.replaceElement("socket-binding", "name", socketBindingName, xml.toString());
+        } else {
+            transform.addElement("socket-binding", "name", socketBindingName, xml.toString());
+        }
+        ctx.client.apply(transform.build());
+    }
+
+    private static void appendAttribute(StringBuilder xml, String name, Object value) {
+        if (value != null) {
+            xml.append(" ").append(name).append("=\"")
+                    .append(XmlEscapers.xmlAttributeEscaper().escape(String.valueOf(value))).append("\"");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "AddSocketBinding " + socketBindingName;
+    }
+
     public static final class Builder {
 
         private final String socketBindingName;
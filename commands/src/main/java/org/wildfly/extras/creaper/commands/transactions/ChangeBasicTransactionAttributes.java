@@ -165,7 +165,7 @@ public final class ChangeBasicTransactionAttributes implements OnlineCommand, Of
             batch.writeAttribute(transatcionsAddress, "object-store-relative-to", objectStoreRelativeTo);
         }
 
-        ops.batch(batch);
+        ops.batchIfChanged(batch);
 
     }
 
@@ -101,7 +101,7 @@ public final class ChangeJdbcTransactionAttributes implements OfflineCommand, On
             batch.writeAttribute(address, "jdbc-state-store-table-prefix", stateStoreTablePrefix);
         }
 
-        ops.batch(batch);
+        ops.batchIfChanged(batch);
     }
 
     /**
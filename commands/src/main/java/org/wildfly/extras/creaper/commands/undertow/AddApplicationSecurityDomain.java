@@ -10,7 +10,6 @@ import org.wildfly.extras.creaper.core.online.operations.Values;
 import org.wildfly.extras.creaper.core.ServerVersion;
 import org.wildfly.extras.creaper.core.offline.OfflineCommand;
 import org.wildfly.extras.creaper.core.offline.OfflineCommandContext;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 /**
  * Command which adds application security domain to Undertow subsystem.
@@ -39,7 +38,7 @@ public final class AddApplicationSecurityDomain implements OnlineCommand, Offlin
         Address address = Address.subsystem("undertow").and("application-security-domain", name);
         if (replaceExisting) {
             ops.removeIfExists(address);
-            new Administration(ctx.client).reloadIfRequired();
+            ctx.reloadIfRequired();
         }
         Values params = Values.empty()
                 .and("http-authentication-factory", httpAuthenticationFactory)
@@ -0,0 +1,40 @@
+securityDomainAttrs = ['name': atrName]
+if (atrDefaultRealm != null) securityDomainAttrs['default-realm'] = atrDefaultRealm
+if (atrPreRealmPrincipalTransformer != null) securityDomainAttrs['pre-realm-principal-transformer'] = atrPreRealmPrincipalTransformer
+if (atrPostRealmPrincipalTransformer != null) securityDomainAttrs['post-realm-principal-transformer'] = atrPostRealmPrincipalTransformer
+if (atrPrincipalDecoder != null) securityDomainAttrs['principal-decoder'] = atrPrincipalDecoder
+if (atrRealmMapper != null) securityDomainAttrs['realm-mapper'] = atrRealmMapper
+if (atrRoleMapper != null) securityDomainAttrs['role-mapper'] = atrRoleMapper
+if (atrPermissionMapper != null) securityDomainAttrs['permission-mapper'] = atrPermissionMapper
+if (atrTrustedSecurityDomains != null) securityDomainAttrs['trusted-security-domains'] = atrTrustedSecurityDomains.join(' ')
+if (atrOutflowAnonymous != null) securityDomainAttrs['outflow-anonymous'] = atrOutflowAnonymous
+if (atrOutflowSecurityDomains != null) securityDomainAttrs['outflow-security-domains'] = atrOutflowSecurityDomains.join(' ')
+if (atrSecurityEventListener != null) securityDomainAttrs['security-event-listener'] = atrSecurityEventListener
+
+def securityDomainDefinition = {
+    'security-domain'(securityDomainAttrs) {
+        for (domainRealm in atrRealms) {
+            'realm'(['name': domainRealm.name,
+                     'principal-transformer': domainRealm.principalTransformer,
+                     'role-decoder': domainRealm.roleDecoder,
+                     'role-mapper': domainRealm.roleMapper].findAll { it.value })
+        }
+    }
+}
+
+def isExistingSecurityDomains = elytronSubsystem.'security-domains'.any { it.name() == 'security-domains' }
+if (! isExistingSecurityDomains) {
+    elytronSubsystem.appendNode { 'security-domains' securityDomainDefinition }
+    return
+}
+
+def existingSecurityDomain = elytronSubsystem.'security-domains'.'security-domain'.find { it.'@name' == atrName }
+if (existingSecurityDomain && !atrReplaceExisting) {
+    throw new IllegalStateException("security-domain with name $atrName already exists in configuration. Use different name.")
+} else {
+    if (existingSecurityDomain) {
+        existingSecurityDomain.replaceNode securityDomainDefinition
+    } else {
+        elytronSubsystem.'security-domains'.appendNode securityDomainDefinition
+    }
+}
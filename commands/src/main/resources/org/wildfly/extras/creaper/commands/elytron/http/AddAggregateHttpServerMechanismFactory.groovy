@@ -0,0 +1,26 @@
+aggregateHttpServerMechanismFactoryAttrs = ['name': atrName]
+
+def aggregateHttpServerMechanismFactoryDefinition = {
+    'aggregate-http-server-mechanism-factory'(aggregateHttpServerMechanismFactoryAttrs) {
+        for (factoryName in atrHttpServerMechanismFactories) {
+            'http-server-mechanism-factory'(['name': factoryName])
+        }
+    }
+}
+
+def isExistingHttp = elytronSubsystem.'http'.any { it.name() == 'http' }
+if (! isExistingHttp) {
+    elytronSubsystem.appendNode { 'http' aggregateHttpServerMechanismFactoryDefinition }
+    return
+}
+
+def existingAggregateHttpServerMechanismFactory = elytronSubsystem.'http'.'aggregate-http-server-mechanism-factory'.find { it.'@name' == atrName }
+if (existingAggregateHttpServerMechanismFactory && !atrReplaceExisting) {
+    throw new IllegalStateException("aggregate-http-server-mechanism-factory with name $atrName already exists in configuration. Use different name.")
+} else {
+    if (existingAggregateHttpServerMechanismFactory) {
+        existingAggregateHttpServerMechanismFactory.replaceNode aggregateHttpServerMechanismFactoryDefinition
+    } else {
+        elytronSubsystem.'http'.appendNode aggregateHttpServerMechanismFactoryDefinition
+    }
+}
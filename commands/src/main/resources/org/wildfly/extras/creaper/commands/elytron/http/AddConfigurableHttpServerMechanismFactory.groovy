@@ -0,0 +1,39 @@
+configurableHttpServerMechanismFactoryAttrs = ['name': atrName]
+if (atrHttpServerMechanismFactory != null) configurableHttpServerMechanismFactoryAttrs['http-server-mechanism-factory'] = atrHttpServerMechanismFactory
+
+def configurableHttpServerMechanismFactoryDefinition = {
+    'configurable-http-server-mechanism-factory'(configurableHttpServerMechanismFactoryAttrs) {
+        if (atrProperties) {
+            'properties' {
+                for (configuredProperty in atrProperties) {
+                    'property'(['name': configuredProperty.key, 'value': configuredProperty.value])
+                }
+            }
+        }
+        if (atrFilters) {
+            'filters' {
+                for (configuredFilter in atrFilters) {
+                    'filter'(['pattern-filter': configuredFilter.patternFilter,
+                              'enabling': configuredFilter.enabling].findAll { it.value != null })
+                }
+            }
+        }
+    }
+}
+
+def isExistingHttp = elytronSubsystem.'http'.any { it.name() == 'http' }
+if (! isExistingHttp) {
+    elytronSubsystem.appendNode { 'http' configurableHttpServerMechanismFactoryDefinition }
+    return
+}
+
+def existingConfigurableHttpServerMechanismFactory = elytronSubsystem.'http'.'configurable-http-server-mechanism-factory'.find { it.'@name' == atrName }
+if (existingConfigurableHttpServerMechanismFactory && !atrReplaceExisting) {
+    throw new IllegalStateException("configurable-http-server-mechanism-factory with name $atrName already exists in configuration. Use different name.")
+} else {
+    if (existingConfigurableHttpServerMechanismFactory) {
+        existingConfigurableHttpServerMechanismFactory.replaceNode configurableHttpServerMechanismFactoryDefinition
+    } else {
+        elytronSubsystem.'http'.appendNode configurableHttpServerMechanismFactoryDefinition
+    }
+}
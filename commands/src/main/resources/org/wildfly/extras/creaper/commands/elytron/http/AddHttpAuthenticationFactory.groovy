@@ -0,0 +1,47 @@
+httpAuthenticationFactoryAttrs = ['name': atrName]
+if (atrHttpServerMechanismFactory != null) httpAuthenticationFactoryAttrs['http-server-mechanism-factory'] = atrHttpServerMechanismFactory
+if (atrSecurityDomain != null) httpAuthenticationFactoryAttrs['security-domain'] = atrSecurityDomain
+
+def httpAuthenticationFactoryDefinition = {
+    'http-authentication-factory'(httpAuthenticationFactoryAttrs) {
+        if (atrMechanismConfigurations) {
+            'mechanism-configuration' {
+                for (mechanismConfiguration in atrMechanismConfigurations) {
+                    'mechanism'(['mechanism-name': mechanismConfiguration.mechanismName,
+                                 'host-name': mechanismConfiguration.hostName,
+                                 'protocol': mechanismConfiguration.protocol,
+                                 'pre-realm-principal-transformer': mechanismConfiguration.preRealmPrincipalTransformer,
+                                 'post-realm-principal-transformer': mechanismConfiguration.postRealmPrincipalTransformer,
+                                 'final-principal-transformer': mechanismConfiguration.finalPrincipalTransformer,
+                                 'realm-mapper': mechanismConfiguration.realmMapper,
+                                 'credential-security-factory': mechanismConfiguration.credentialSecurityFactory].findAll { it.value }) {
+                        for (mechanismRealm in mechanismConfiguration.mechanismRealmConfigurations) {
+                            'mechanism-realm'(['realm-name': mechanismRealm.realmName,
+                                               'pre-realm-principal-transformer': mechanismRealm.preRealmPrincipalTransformer,
+                                               'post-realm-principal-transformer': mechanismRealm.postRealmPrincipalTransformer,
+                                               'final-principal-transformer': mechanismRealm.finalPrincipalTransformer,
+                                               'realm-mapper': mechanismRealm.realmMapper].findAll { it.value })
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
+
+def isExistingHttp = elytronSubsystem.'http'.any { it.name() == 'http' }
+if (! isExistingHttp) {
+    elytronSubsystem.appendNode { 'http' httpAuthenticationFactoryDefinition }
+    return
+}
+
+def existingHttpAuthenticationFactory = elytronSubsystem.'http'.'http-authentication-factory'.find { it.'@name' == atrName }
+if (existingHttpAuthenticationFactory && !atrReplaceExisting) {
+    throw new IllegalStateException("http-authentication-factory with name $atrName already exists in configuration. Use different name.")
+} else {
+    if (existingHttpAuthenticationFactory) {
+        existingHttpAuthenticationFactory.replaceNode httpAuthenticationFactoryDefinition
+    } else {
+        elytronSubsystem.'http'.appendNode httpAuthenticationFactoryDefinition
+    }
+}
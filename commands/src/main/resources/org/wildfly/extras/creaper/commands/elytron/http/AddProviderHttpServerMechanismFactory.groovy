@@ -0,0 +1,23 @@
+providerHttpServerMechanismFactoryAttrs = ['name': atrName]
+if (atrProviders != null) providerHttpServerMechanismFactoryAttrs['providers'] = atrProviders
+
+def providerHttpServerMechanismFactoryDefinition = {
+    'provider-http-server-mechanism-factory'(providerHttpServerMechanismFactoryAttrs)
+}
+
+def isExistingHttp = elytronSubsystem.'http'.any { it.name() == 'http' }
+if (! isExistingHttp) {
+    elytronSubsystem.appendNode { 'http' providerHttpServerMechanismFactoryDefinition }
+    return
+}
+
+def existingProviderHttpServerMechanismFactory = elytronSubsystem.'http'.'provider-http-server-mechanism-factory'.find { it.'@name' == atrName }
+if (existingProviderHttpServerMechanismFactory && !atrReplaceExisting) {
+    throw new IllegalStateException("provider-http-server-mechanism-factory with name $atrName already exists in configuration. Use different name.")
+} else {
+    if (existingProviderHttpServerMechanismFactory) {
+        existingProviderHttpServerMechanismFactory.replaceNode providerHttpServerMechanismFactoryDefinition
+    } else {
+        elytronSubsystem.'http'.appendNode providerHttpServerMechanismFactoryDefinition
+    }
+}
@@ -0,0 +1,23 @@
+serviceLoaderHttpServerMechanismFactoryAttrs = ['name': atrName]
+if (atrModule != null) serviceLoaderHttpServerMechanismFactoryAttrs['module'] = atrModule
+
+def serviceLoaderHttpServerMechanismFactoryDefinition = {
+    'service-loader-http-server-mechanism-factory'(serviceLoaderHttpServerMechanismFactoryAttrs)
+}
+
+def isExistingHttp = elytronSubsystem.'http'.any { it.name() == 'http' }
+if (! isExistingHttp) {
+    elytronSubsystem.appendNode { 'http' serviceLoaderHttpServerMechanismFactoryDefinition }
+    return
+}
+
+def existingServiceLoaderHttpServerMechanismFactory = elytronSubsystem.'http'.'service-loader-http-server-mechanism-factory'.find { it.'@name' == atrName }
+if (existingServiceLoaderHttpServerMechanismFactory && !atrReplaceExisting) {
+    throw new IllegalStateException("service-loader-http-server-mechanism-factory with name $atrName already exists in configuration. Use different name.")
+} else {
+    if (existingServiceLoaderHttpServerMechanismFactory) {
+        existingServiceLoaderHttpServerMechanismFactory.replaceNode serviceLoaderHttpServerMechanismFactoryDefinition
+    } else {
+        elytronSubsystem.'http'.appendNode serviceLoaderHttpServerMechanismFactoryDefinition
+    }
+}
@@ -0,0 +1,23 @@
+addPrefixRoleMapperAttrs = ['name': atrName]
+if (atrPrefix != null) addPrefixRoleMapperAttrs['prefix'] = atrPrefix
+
+def addPrefixRoleMapperDefinition = {
+    'add-prefix-role-mapper'(addPrefixRoleMapperAttrs)
+}
+
+def isExistingMappers = elytronSubsystem.'mappers'.any { it.name() == 'mappers' }
+if (! isExistingMappers) {
+    elytronSubsystem.appendNode { 'mappers' addPrefixRoleMapperDefinition }
+    return
+}
+
+def existingAddPrefixRoleMapper = elytronSubsystem.'mappers'.'add-prefix-role-mapper'.find { it.'@name' == atrName }
+if (existingAddPrefixRoleMapper && !atrReplaceExisting) {
+    throw new IllegalStateException("add-prefix-role-mapper with name $atrName already exists in configuration. Use different name.")
+} else {
+    if (existingAddPrefixRoleMapper) {
+        existingAddPrefixRoleMapper.replaceNode addPrefixRoleMapperDefinition
+    } else {
+        elytronSubsystem.'mappers'.appendNode addPrefixRoleMapperDefinition
+    }
+}
@@ -0,0 +1,23 @@
+addSuffixRoleMapperAttrs = ['name': atrName]
+if (atrSuffix != null) addSuffixRoleMapperAttrs['suffix'] = atrSuffix
+
+def addSuffixRoleMapperDefinition = {
+    'add-suffix-role-mapper'(addSuffixRoleMapperAttrs)
+}
+
+def isExistingMappers = elytronSubsystem.'mappers'.any { it.name() == 'mappers' }
+if (! isExistingMappers) {
+    elytronSubsystem.appendNode { 'mappers' addSuffixRoleMapperDefinition }
+    return
+}
+
+def existingAddSuffixRoleMapper = elytronSubsystem.'mappers'.'add-suffix-role-mapper'.find { it.'@name' == atrName }
+if (existingAddSuffixRoleMapper && !atrReplaceExisting) {
+    throw new IllegalStateException("add-suffix-role-mapper with name $atrName already exists in configuration. Use different name.")
+} else {
+    if (existingAddSuffixRoleMapper) {
+        existingAddSuffixRoleMapper.replaceNode addSuffixRoleMapperDefinition
+    } else {
+        elytronSubsystem.'mappers'.appendNode addSuffixRoleMapperDefinition
+    }
+}
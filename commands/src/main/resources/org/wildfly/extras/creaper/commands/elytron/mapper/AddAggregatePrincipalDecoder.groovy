@@ -0,0 +1,26 @@
+aggregatePrincipalDecoderAttrs = ['name': atrName]
+
+def aggregatePrincipalDecoderDefinition = {
+    'aggregate-principal-decoder'(aggregatePrincipalDecoderAttrs) {
+        for (decoderName in atrPrincipalDecoders) {
+            'principal-decoder'(['name': decoderName])
+        }
+    }
+}
+
+def isExistingMappers = elytronSubsystem.'mappers'.any { it.name() == 'mappers' }
+if (! isExistingMappers) {
+    elytronSubsystem.appendNode { 'mappers' aggregatePrincipalDecoderDefinition }
+    return
+}
+
+def existingAggregatePrincipalDecoder = elytronSubsystem.'mappers'.'aggregate-principal-decoder'.find { it.'@name' == atrName }
+if (existingAggregatePrincipalDecoder && !atrReplaceExisting) {
+    throw new IllegalStateException("aggregate-principal-decoder with name $atrName already exists in configuration. Use different name.")
+} else {
+    if (existingAggregatePrincipalDecoder) {
+        existingAggregatePrincipalDecoder.replaceNode aggregatePrincipalDecoderDefinition
+    } else {
+        elytronSubsystem.'mappers'.appendNode aggregatePrincipalDecoderDefinition
+    }
+}
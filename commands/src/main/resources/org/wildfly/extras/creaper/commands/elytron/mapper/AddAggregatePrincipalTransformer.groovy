@@ -0,0 +1,26 @@
+aggregatePrincipalTransformerAttrs = ['name': atrName]
+
+def aggregatePrincipalTransformerDefinition = {
+    'aggregate-principal-transformer'(aggregatePrincipalTransformerAttrs) {
+        for (transformerName in atrPrincipalTransformers) {
+            'principal-transformer'(['name': transformerName])
+        }
+    }
+}
+
+def isExistingMappers = elytronSubsystem.'mappers'.any { it.name() == 'mappers' }
+if (! isExistingMappers) {
+    elytronSubsystem.appendNode { 'mappers' aggregatePrincipalTransformerDefinition }
+    return
+}
+
+def existingAggregatePrincipalTransformer = elytronSubsystem.'mappers'.'aggregate-principal-transformer'.find { it.'@name' == atrName }
+if (existingAggregatePrincipalTransformer && !atrReplaceExisting) {
+    throw new IllegalStateException("aggregate-principal-transformer with name $atrName already exists in configuration. Use different name.")
+} else {
+    if (existingAggregatePrincipalTransformer) {
+        existingAggregatePrincipalTransformer.replaceNode aggregatePrincipalTransformerDefinition
+    } else {
+        elytronSubsystem.'mappers'.appendNode aggregatePrincipalTransformerDefinition
+    }
+}
@@ -0,0 +1,26 @@
+aggregateRoleMapperAttrs = ['name': atrName]
+
+def aggregateRoleMapperDefinition = {
+    'aggregate-role-mapper'(aggregateRoleMapperAttrs) {
+        for (roleMapperName in atrRoleMappers) {
+            'role-mapper'(['name': roleMapperName])
+        }
+    }
+}
+
+def isExistingMappers = elytronSubsystem.'mappers'.any { it.name() == 'mappers' }
+if (! isExistingMappers) {
+    elytronSubsystem.appendNode { 'mappers' aggregateRoleMapperDefinition }
+    return
+}
+
+def existingAggregateRoleMapper = elytronSubsystem.'mappers'.'aggregate-role-mapper'.find { it.'@name' == atrName }
+if (existingAggregateRoleMapper && !atrReplaceExisting) {
+    throw new IllegalStateException("aggregate-role-mapper with name $atrName already exists in configuration. Use different name.")
+} else {
+    if (existingAggregateRoleMapper) {
+        existingAggregateRoleMapper.replaceNode aggregateRoleMapperDefinition
+    } else {
+        elytronSubsystem.'mappers'.appendNode aggregateRoleMapperDefinition
+    }
+}
@@ -0,0 +1,26 @@
+chainedPrincipalTransformerAttrs = ['name': atrName]
+
+def chainedPrincipalTransformerDefinition = {
+    'chained-principal-transformer'(chainedPrincipalTransformerAttrs) {
+        for (transformerName in atrPrincipalTransformers) {
+            'principal-transformer'(['name': transformerName])
+        }
+    }
+}
+
+def isExistingMappers = elytronSubsystem.'mappers'.any { it.name() == 'mappers' }
+if (! isExistingMappers) {
+    elytronSubsystem.appendNode { 'mappers' chainedPrincipalTransformerDefinition }
+    return
+}
+
+def existingChainedPrincipalTransformer = elytronSubsystem.'mappers'.'chained-principal-transformer'.find { it.'@name' == atrName }
+if (existingChainedPrincipalTransformer && !atrReplaceExisting) {
+    throw new IllegalStateException("chained-principal-transformer with name $atrName already exists in configuration. Use different name.")
+} else {
+    if (existingChainedPrincipalTransformer) {
+        existingChainedPrincipalTransformer.replaceNode chainedPrincipalTransformerDefinition
+    } else {
+        elytronSubsystem.'mappers'.appendNode chainedPrincipalTransformerDefinition
+    }
+}
@@ -0,0 +1,27 @@
+concatenatingPrincipalDecoderAttrs = ['name': atrName]
+if (atrJoiner != null) concatenatingPrincipalDecoderAttrs['joiner'] = atrJoiner
+
+def concatenatingPrincipalDecoderDefinition = {
+    'concatenating-principal-decoder'(concatenatingPrincipalDecoderAttrs) {
+        for (decoderName in atrPrincipalDecoders) {
+            'principal-decoder'(['name': decoderName])
+        }
+    }
+}
+
+def isExistingMappers = elytronSubsystem.'mappers'.any { it.name() == 'mappers' }
+if (! isExistingMappers) {
+    elytronSubsystem.appendNode { 'mappers' concatenatingPrincipalDecoderDefinition }
+    return
+}
+
+def existingConcatenatingPrincipalDecoder = elytronSubsystem.'mappers'.'concatenating-principal-decoder'.find { it.'@name' == atrName }
+if (existingConcatenatingPrincipalDecoder && !atrReplaceExisting) {
+    throw new IllegalStateException("concatenating-principal-decoder with name $atrName already exists in configuration. Use different name.")
+} else {
+    if (existingConcatenatingPrincipalDecoder) {
+        existingConcatenatingPrincipalDecoder.replaceNode concatenatingPrincipalDecoderDefinition
+    } else {
+        elytronSubsystem.'mappers'.appendNode concatenatingPrincipalDecoderDefinition
+    }
+}
@@ -0,0 +1,29 @@
+constantPermissionMapperAttrs = ['name': atrName]
+
+def constantPermissionMapperDefinition = {
+    'constant-permission-mapper'(constantPermissionMapperAttrs) {
+        for (constantPermission in atrPermissions) {
+            'permission'(['class-name': constantPermission.className,
+                          'module': constantPermission.module,
+                          'target-name': constantPermission.targetName,
+                          'action': constantPermission.action].findAll { it.value })
+        }
+    }
+}
+
+def isExistingMappers = elytronSubsystem.'mappers'.any { it.name() == 'mappers' }
+if (! isExistingMappers) {
+    elytronSubsystem.appendNode { 'mappers' constantPermissionMapperDefinition }
+    return
+}
+
+def existingConstantPermissionMapper = elytronSubsystem.'mappers'.'constant-permission-mapper'.find { it.'@name' == atrName }
+if (existingConstantPermissionMapper && !atrReplaceExisting) {
+    throw new IllegalStateException("constant-permission-mapper with name $atrName already exists in configuration. Use different name.")
+} else {
+    if (existingConstantPermissionMapper) {
+        existingConstantPermissionMapper.replaceNode constantPermissionMapperDefinition
+    } else {
+        elytronSubsystem.'mappers'.appendNode constantPermissionMapperDefinition
+    }
+}
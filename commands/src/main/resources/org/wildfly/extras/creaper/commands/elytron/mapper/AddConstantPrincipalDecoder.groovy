@@ -0,0 +1,23 @@
+constantPrincipalDecoderAttrs = ['name': atrName]
+if (atrConstant != null) constantPrincipalDecoderAttrs['constant'] = atrConstant
+
+def constantPrincipalDecoderDefinition = {
+    'constant-principal-decoder'(constantPrincipalDecoderAttrs)
+}
+
+def isExistingMappers = elytronSubsystem.'mappers'.any { it.name() == 'mappers' }
+if (! isExistingMappers) {
+    elytronSubsystem.appendNode { 'mappers' constantPrincipalDecoderDefinition }
+    return
+}
+
+def existingConstantPrincipalDecoder = elytronSubsystem.'mappers'.'constant-principal-decoder'.find { it.'@name' == atrName }
+if (existingConstantPrincipalDecoder && !atrReplaceExisting) {
+    throw new IllegalStateException("constant-principal-decoder with name $atrName already exists in configuration. Use different name.")
+} else {
+    if (existingConstantPrincipalDecoder) {
+        existingConstantPrincipalDecoder.replaceNode constantPrincipalDecoderDefinition
+    } else {
+        elytronSubsystem.'mappers'.appendNode constantPrincipalDecoderDefinition
+    }
+}
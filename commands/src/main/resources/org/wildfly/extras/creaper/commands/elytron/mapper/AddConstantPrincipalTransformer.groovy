@@ -0,0 +1,23 @@
+constantPrincipalTransformerAttrs = ['name': atrName]
+if (atrConstant != null) constantPrincipalTransformerAttrs['constant'] = atrConstant
+
+def constantPrincipalTransformerDefinition = {
+    'constant-principal-transformer'(constantPrincipalTransformerAttrs)
+}
+
+def isExistingMappers = elytronSubsystem.'mappers'.any { it.name() == 'mappers' }
+if (! isExistingMappers) {
+    elytronSubsystem.appendNode { 'mappers' constantPrincipalTransformerDefinition }
+    return
+}
+
+def existingConstantPrincipalTransformer = elytronSubsystem.'mappers'.'constant-principal-transformer'.find { it.'@name' == atrName }
+if (existingConstantPrincipalTransformer && !atrReplaceExisting) {
+    throw new IllegalStateException("constant-principal-transformer with name $atrName already exists in configuration. Use different name.")
+} else {
+    if (existingConstantPrincipalTransformer) {
+        existingConstantPrincipalTransformer.replaceNode constantPrincipalTransformerDefinition
+    } else {
+        elytronSubsystem.'mappers'.appendNode constantPrincipalTransformerDefinition
+    }
+}
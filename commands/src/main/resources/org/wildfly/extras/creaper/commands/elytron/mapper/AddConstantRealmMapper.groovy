@@ -0,0 +1,23 @@
+constantRealmMapperAttrs = ['name': atrName]
+if (atrRealmName != null) constantRealmMapperAttrs['realm-name'] = atrRealmName
+
+def constantRealmMapperDefinition = {
+    'constant-realm-mapper'(constantRealmMapperAttrs)
+}
+
+def isExistingMappers = elytronSubsystem.'mappers'.any { it.name() == 'mappers' }
+if (! isExistingMappers) {
+    elytronSubsystem.appendNode { 'mappers' constantRealmMapperDefinition }
+    return
+}
+
+def existingConstantRealmMapper = elytronSubsystem.'mappers'.'constant-realm-mapper'.find { it.'@name' == atrName }
+if (existingConstantRealmMapper && !atrReplaceExisting) {
+    throw new IllegalStateException("constant-realm-mapper with name $atrName already exists in configuration. Use different name.")
+} else {
+    if (existingConstantRealmMapper) {
+        existingConstantRealmMapper.replaceNode constantRealmMapperDefinition
+    } else {
+        elytronSubsystem.'mappers'.appendNode constantRealmMapperDefinition
+    }
+}
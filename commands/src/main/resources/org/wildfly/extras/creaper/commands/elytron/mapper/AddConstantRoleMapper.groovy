@@ -0,0 +1,26 @@
+constantRoleMapperAttrs = ['name': atrName]
+
+def constantRoleMapperDefinition = {
+    'constant-role-mapper'(constantRoleMapperAttrs) {
+        for (roleName in atrRoles) {
+            'role'(['name': roleName])
+        }
+    }
+}
+
+def isExistingMappers = elytronSubsystem.'mappers'.any { it.name() == 'mappers' }
+if (! isExistingMappers) {
+    elytronSubsystem.appendNode { 'mappers' constantRoleMapperDefinition }
+    return
+}
+
+def existingConstantRoleMapper = elytronSubsystem.'mappers'.'constant-role-mapper'.find { it.'@name' == atrName }
+if (existingConstantRoleMapper && !atrReplaceExisting) {
+    throw new IllegalStateException("constant-role-mapper with name $atrName already exists in configuration. Use different name.")
+} else {
+    if (existingConstantRoleMapper) {
+        existingConstantRoleMapper.replaceNode constantRoleMapperDefinition
+    } else {
+        elytronSubsystem.'mappers'.appendNode constantRoleMapperDefinition
+    }
+}
@@ -0,0 +1,25 @@
+logicalPermissionMapperAttrs = ['name': atrName]
+if (atrLogicalOperation != null) logicalPermissionMapperAttrs['logical-operation'] = atrLogicalOperation
+if (atrLeft != null) logicalPermissionMapperAttrs['left'] = atrLeft
+if (atrRight != null) logicalPermissionMapperAttrs['right'] = atrRight
+
+def logicalPermissionMapperDefinition = {
+    'logical-permission-mapper'(logicalPermissionMapperAttrs)
+}
+
+def isExistingMappers = elytronSubsystem.'mappers'.any { it.name() == 'mappers' }
+if (! isExistingMappers) {
+    elytronSubsystem.appendNode { 'mappers' logicalPermissionMapperDefinition }
+    return
+}
+
+def existingLogicalPermissionMapper = elytronSubsystem.'mappers'.'logical-permission-mapper'.find { it.'@name' == atrName }
+if (existingLogicalPermissionMapper && !atrReplaceExisting) {
+    throw new IllegalStateException("logical-permission-mapper with name $atrName already exists in configuration. Use different name.")
+} else {
+    if (existingLogicalPermissionMapper) {
+        existingLogicalPermissionMapper.replaceNode logicalPermissionMapperDefinition
+    } else {
+        elytronSubsystem.'mappers'.appendNode logicalPermissionMapperDefinition
+    }
+}
@@ -0,0 +1,25 @@
+logicalRoleMapperAttrs = ['name': atrName]
+if (atrLogicalOperation != null) logicalRoleMapperAttrs['logical-operation'] = atrLogicalOperation
+if (atrLeft != null) logicalRoleMapperAttrs['left'] = atrLeft
+if (atrRight != null) logicalRoleMapperAttrs['right'] = atrRight
+
+def logicalRoleMapperDefinition = {
+    'logical-role-mapper'(logicalRoleMapperAttrs)
+}
+
+def isExistingMappers = elytronSubsystem.'mappers'.any { it.name() == 'mappers' }
+if (! isExistingMappers) {
+    elytronSubsystem.appendNode { 'mappers' logicalRoleMapperDefinition }
+    return
+}
+
+def existingLogicalRoleMapper = elytronSubsystem.'mappers'.'logical-role-mapper'.find { it.'@name' == atrName }
+if (existingLogicalRoleMapper && !atrReplaceExisting) {
+    throw new IllegalStateException("logical-role-mapper with name $atrName already exists in configuration. Use different name.")
+} else {
+    if (existingLogicalRoleMapper) {
+        existingLogicalRoleMapper.replaceNode logicalRoleMapperDefinition
+    } else {
+        elytronSubsystem.'mappers'.appendNode logicalRoleMapperDefinition
+    }
+}
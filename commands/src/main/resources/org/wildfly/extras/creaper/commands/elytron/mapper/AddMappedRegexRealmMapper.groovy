@@ -0,0 +1,28 @@
+mappedRegexRealmMapperAttrs = ['name': atrName]
+if (atrPattern != null) mappedRegexRealmMapperAttrs['pattern'] = atrPattern
+if (atrDelegateRealmMapper != null) mappedRegexRealmMapperAttrs['delegate-realm-mapper'] = atrDelegateRealmMapper
+
+def mappedRegexRealmMapperDefinition = {
+    'mapped-regex-realm-mapper'(mappedRegexRealmMapperAttrs) {
+        for (realmMapping in atrRealmMappings) {
+            'realm-mapping'(['from': realmMapping.from, 'to': realmMapping.to])
+        }
+    }
+}
+
+def isExistingMappers = elytronSubsystem.'mappers'.any { it.name() == 'mappers' }
+if (! isExistingMappers) {
+    elytronSubsystem.appendNode { 'mappers' mappedRegexRealmMapperDefinition }
+    return
+}
+
+def existingMappedRegexRealmMapper = elytronSubsystem.'mappers'.'mapped-regex-realm-mapper'.find { it.'@name' == atrName }
+if (existingMappedRegexRealmMapper && !atrReplaceExisting) {
+    throw new IllegalStateException("mapped-regex-realm-mapper with name $atrName already exists in configuration. Use different name.")
+} else {
+    if (existingMappedRegexRealmMapper) {
+        existingMappedRegexRealmMapper.replaceNode mappedRegexRealmMapperDefinition
+    } else {
+        elytronSubsystem.'mappers'.appendNode mappedRegexRealmMapperDefinition
+    }
+}
@@ -0,0 +1,25 @@
+regexPrincipalTransformerAttrs = ['name': atrName]
+if (atrPattern != null) regexPrincipalTransformerAttrs['pattern'] = atrPattern
+if (atrReplacement != null) regexPrincipalTransformerAttrs['replacement'] = atrReplacement
+if (atrReplaceAll != null) regexPrincipalTransformerAttrs['replace-all'] = atrReplaceAll
+
+def regexPrincipalTransformerDefinition = {
+    'regex-principal-transformer'(regexPrincipalTransformerAttrs)
+}
+
+def isExistingMappers = elytronSubsystem.'mappers'.any { it.name() == 'mappers' }
+if (! isExistingMappers) {
+    elytronSubsystem.appendNode { 'mappers' regexPrincipalTransformerDefinition }
+    return
+}
+
+def existingRegexPrincipalTransformer = elytronSubsystem.'mappers'.'regex-principal-transformer'.find { it.'@name' == atrName }
+if (existingRegexPrincipalTransformer && !atrReplaceExisting) {
+    throw new IllegalStateException("regex-principal-transformer with name $atrName already exists in configuration. Use different name.")
+} else {
+    if (existingRegexPrincipalTransformer) {
+        existingRegexPrincipalTransformer.replaceNode regexPrincipalTransformerDefinition
+    } else {
+        elytronSubsystem.'mappers'.appendNode regexPrincipalTransformerDefinition
+    }
+}
@@ -0,0 +1,24 @@
+regexValidatingPrincipalTransformerAttrs = ['name': atrName]
+if (atrPattern != null) regexValidatingPrincipalTransformerAttrs['pattern'] = atrPattern
+if (atrMatch != null) regexValidatingPrincipalTransformerAttrs['match'] = atrMatch
+
+def regexValidatingPrincipalTransformerDefinition = {
+    'regex-validating-principal-transformer'(regexValidatingPrincipalTransformerAttrs)
+}
+
+def isExistingMappers = elytronSubsystem.'mappers'.any { it.name() == 'mappers' }
+if (! isExistingMappers) {
+    elytronSubsystem.appendNode { 'mappers' regexValidatingPrincipalTransformerDefinition }
+    return
+}
+
+def existingRegexValidatingPrincipalTransformer = elytronSubsystem.'mappers'.'regex-validating-principal-transformer'.find { it.'@name' == atrName }
+if (existingRegexValidatingPrincipalTransformer && !atrReplaceExisting) {
+    throw new IllegalStateException("regex-validating-principal-transformer with name $atrName already exists in configuration. Use different name.")
+} else {
+    if (existingRegexValidatingPrincipalTransformer) {
+        existingRegexValidatingPrincipalTransformer.replaceNode regexValidatingPrincipalTransformerDefinition
+    } else {
+        elytronSubsystem.'mappers'.appendNode regexValidatingPrincipalTransformerDefinition
+    }
+}
@@ -0,0 +1,40 @@
+simplePermissionMapperAttrs = ['name': atrName]
+if (atrMappingMode != null) simplePermissionMapperAttrs['mapping-mode'] = atrMappingMode
+
+def simplePermissionMapperDefinition = {
+    'simple-permission-mapper'(simplePermissionMapperAttrs) {
+        for (mapping in atrPermissionMappings) {
+            'permission-mapping'(['match-all': mapping.matchAll].findAll { it.value != null }) {
+                for (principalName in mapping.principals) {
+                    'principal'(['name': principalName])
+                }
+                for (roleName in mapping.roles) {
+                    'role'(['name': roleName])
+                }
+                for (mappedPermission in mapping.permissions) {
+                    'permission'(['class-name': mappedPermission.className,
+                                  'module': mappedPermission.module,
+                                  'target-name': mappedPermission.targetName,
+                                  'action': mappedPermission.action].findAll { it.value })
+                }
+            }
+        }
+    }
+}
+
+def isExistingMappers = elytronSubsystem.'mappers'.any { it.name() == 'mappers' }
+if (! isExistingMappers) {
+    elytronSubsystem.appendNode { 'mappers' simplePermissionMapperDefinition }
+    return
+}
+
+def existingSimplePermissionMapper = elytronSubsystem.'mappers'.'simple-permission-mapper'.find { it.'@name' == atrName }
+if (existingSimplePermissionMapper && !atrReplaceExisting) {
+    throw new IllegalStateException("simple-permission-mapper with name $atrName already exists in configuration. Use different name.")
+} else {
+    if (existingSimplePermissionMapper) {
+        existingSimplePermissionMapper.replaceNode simplePermissionMapperDefinition
+    } else {
+        elytronSubsystem.'mappers'.appendNode simplePermissionMapperDefinition
+    }
+}
@@ -0,0 +1,24 @@
+simpleRegexRealmMapperAttrs = ['name': atrName]
+if (atrPattern != null) simpleRegexRealmMapperAttrs['pattern'] = atrPattern
+if (atrDelegateRealmMapper != null) simpleRegexRealmMapperAttrs['delegate-realm-mapper'] = atrDelegateRealmMapper
+
+def simpleRegexRealmMapperDefinition = {
+    'simple-regex-realm-mapper'(simpleRegexRealmMapperAttrs)
+}
+
+def isExistingMappers = elytronSubsystem.'mappers'.any { it.name() == 'mappers' }
+if (! isExistingMappers) {
+    elytronSubsystem.appendNode { 'mappers' simpleRegexRealmMapperDefinition }
+    return
+}
+
+def existingSimpleRegexRealmMapper = elytronSubsystem.'mappers'.'simple-regex-realm-mapper'.find { it.'@name' == atrName }
+if (existingSimpleRegexRealmMapper && !atrReplaceExisting) {
+    throw new IllegalStateException("simple-regex-realm-mapper with name $atrName already exists in configuration. Use different name.")
+} else {
+    if (existingSimpleRegexRealmMapper) {
+        existingSimpleRegexRealmMapper.replaceNode simpleRegexRealmMapperDefinition
+    } else {
+        elytronSubsystem.'mappers'.appendNode simpleRegexRealmMapperDefinition
+    }
+}
@@ -0,0 +1,23 @@
+simpleRoleDecoderAttrs = ['name': atrName]
+if (atrAttribute != null) simpleRoleDecoderAttrs['attribute'] = atrAttribute
+
+def simpleRoleDecoderDefinition = {
+    'simple-role-decoder'(simpleRoleDecoderAttrs)
+}
+
+def isExistingMappers = elytronSubsystem.'mappers'.any { it.name() == 'mappers' }
+if (! isExistingMappers) {
+    elytronSubsystem.appendNode { 'mappers' simpleRoleDecoderDefinition }
+    return
+}
+
+def existingSimpleRoleDecoder = elytronSubsystem.'mappers'.'simple-role-decoder'.find { it.'@name' == atrName }
+if (existingSimpleRoleDecoder && !atrReplaceExisting) {
+    throw new IllegalStateException("simple-role-decoder with name $atrName already exists in configuration. Use different name.")
+} else {
+    if (existingSimpleRoleDecoder) {
+        existingSimpleRoleDecoder.replaceNode simpleRoleDecoderDefinition
+    } else {
+        elytronSubsystem.'mappers'.appendNode simpleRoleDecoderDefinition
+    }
+}
@@ -0,0 +1,31 @@
+x500AttributePrincipalDecoderAttrs = ['name': atrName]
+if (atrOid != null) x500AttributePrincipalDecoderAttrs['oid'] = atrOid
+if (atrAttributeName != null) x500AttributePrincipalDecoderAttrs['attribute-name'] = atrAttributeName
+if (atrJoiner != null) x500AttributePrincipalDecoderAttrs['joiner'] = atrJoiner
+if (atrStartSegment != null) x500AttributePrincipalDecoderAttrs['start-segment'] = atrStartSegment
+if (atrMaximumSegments != null) x500AttributePrincipalDecoderAttrs['maximum-segments'] = atrMaximumSegments
+if (atrReverse != null) x500AttributePrincipalDecoderAttrs['reverse'] = atrReverse
+if (atrConvert != null) x500AttributePrincipalDecoderAttrs['convert'] = atrConvert
+if (atrRequiredOids) x500AttributePrincipalDecoderAttrs['required-oids'] = atrRequiredOids.join(' ')
+if (atrRequiredAttributes) x500AttributePrincipalDecoderAttrs['required-attributes'] = atrRequiredAttributes.join(' ')
+
+def x500AttributePrincipalDecoderDefinition = {
+    'x500-attribute-principal-decoder'(x500AttributePrincipalDecoderAttrs)
+}
+
+def isExistingMappers = elytronSubsystem.'mappers'.any { it.name() == 'mappers' }
+if (! isExistingMappers) {
+    elytronSubsystem.appendNode { 'mappers' x500AttributePrincipalDecoderDefinition }
+    return
+}
+
+def existingX500AttributePrincipalDecoder = elytronSubsystem.'mappers'.'x500-attribute-principal-decoder'.find { it.'@name' == atrName }
+if (existingX500AttributePrincipalDecoder && !atrReplaceExisting) {
+    throw new IllegalStateException("x500-attribute-principal-decoder with name $atrName already exists in configuration. Use different name.")
+} else {
+    if (existingX500AttributePrincipalDecoder) {
+        existingX500AttributePrincipalDecoder.replaceNode x500AttributePrincipalDecoderDefinition
+    } else {
+        elytronSubsystem.'mappers'.appendNode x500AttributePrincipalDecoderDefinition
+    }
+}
@@ -0,0 +1,24 @@
+aggregateRealmAttrs = ['name': atrName]
+if (atrAuthenticationRealm != null) aggregateRealmAttrs['authentication-realm'] = atrAuthenticationRealm
+if (atrAuthorizationRealm != null) aggregateRealmAttrs['authorization-realm'] = atrAuthorizationRealm
+
+def aggregateRealmDefinition = {
+    'aggregate-realm'(aggregateRealmAttrs)
+}
+
+def isExistingSecurityRealms = elytronSubsystem.'security-realms'.any { it.name() == 'security-realms' }
+if (! isExistingSecurityRealms) {
+    elytronSubsystem.appendNode { 'security-realms' aggregateRealmDefinition }
+    return
+}
+
+def existingAggregateRealm = elytronSubsystem.'security-realms'.'aggregate-realm'.find { it.'@name' == atrName }
+if (existingAggregateRealm && !atrReplaceExisting) {
+    throw new IllegalStateException("aggregate-realm with name $atrName already exists in configuration. Use different name.")
+} else {
+    if (existingAggregateRealm) {
+        existingAggregateRealm.replaceNode aggregateRealmDefinition
+    } else {
+        elytronSubsystem.'security-realms'.appendNode aggregateRealmDefinition
+    }
+}
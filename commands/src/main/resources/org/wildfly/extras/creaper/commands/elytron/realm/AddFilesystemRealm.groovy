@@ -0,0 +1,29 @@
+filesystemRealmAttrs = ['name': atrName]
+if (atrLevels != null) filesystemRealmAttrs['levels'] = atrLevels
+if (atrEncoded != null) filesystemRealmAttrs['encoded'] = atrEncoded
+
+fileAttrs = ['path': atrPath]
+if (atrRelativeTo != null) fileAttrs['relative-to'] = atrRelativeTo
+
+def filesystemRealmDefinition = {
+    'filesystem-realm'(filesystemRealmAttrs) {
+        'file'(fileAttrs)
+    }
+}
+
+def isExistingSecurityRealms = elytronSubsystem.'security-realms'.any { it.name() == 'security-realms' }
+if (! isExistingSecurityRealms) {
+    elytronSubsystem.appendNode { 'security-realms' filesystemRealmDefinition }
+    return
+}
+
+def existingFilesystemRealm = elytronSubsystem.'security-realms'.'filesystem-realm'.find { it.'@name' == atrName }
+if (existingFilesystemRealm && !atrReplaceExisting) {
+    throw new IllegalStateException("filesystem-realm with name $atrName already exists in configuration. Use different name.")
+} else {
+    if (existingFilesystemRealm) {
+        existingFilesystemRealm.replaceNode filesystemRealmDefinition
+    } else {
+        elytronSubsystem.'security-realms'.appendNode filesystemRealmDefinition
+    }
+}
@@ -0,0 +1,25 @@
+identityRealmAttrs = ['name': atrName]
+if (atrIdentity != null) identityRealmAttrs['identity'] = atrIdentity
+if (atrAttributeName != null) identityRealmAttrs['attribute-name'] = atrAttributeName
+if (atrAttributeValues != null) identityRealmAttrs['attribute-values'] = atrAttributeValues.join(' ')
+
+def identityRealmDefinition = {
+    'identity-realm'(identityRealmAttrs)
+}
+
+def isExistingSecurityRealms = elytronSubsystem.'security-realms'.any { it.name() == 'security-realms' }
+if (! isExistingSecurityRealms) {
+    elytronSubsystem.appendNode { 'security-realms' identityRealmDefinition }
+    return
+}
+
+def existingIdentityRealm = elytronSubsystem.'security-realms'.'identity-realm'.find { it.'@name' == atrName }
+if (existingIdentityRealm && !atrReplaceExisting) {
+    throw new IllegalStateException("identity-realm with name $atrName already exists in configuration. Use different name.")
+} else {
+    if (existingIdentityRealm) {
+        existingIdentityRealm.replaceNode identityRealmDefinition
+    } else {
+        elytronSubsystem.'security-realms'.appendNode identityRealmDefinition
+    }
+}
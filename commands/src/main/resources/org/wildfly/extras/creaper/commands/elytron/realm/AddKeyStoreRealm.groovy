@@ -0,0 +1,23 @@
+keyStoreRealmAttrs = ['name': atrName]
+if (atrKeyStore != null) keyStoreRealmAttrs['key-store'] = atrKeyStore
+
+def keyStoreRealmDefinition = {
+    'key-store-realm'(keyStoreRealmAttrs)
+}
+
+def isExistingSecurityRealms = elytronSubsystem.'security-realms'.any { it.name() == 'security-realms' }
+if (! isExistingSecurityRealms) {
+    elytronSubsystem.appendNode { 'security-realms' keyStoreRealmDefinition }
+    return
+}
+
+def existingKeyStoreRealm = elytronSubsystem.'security-realms'.'key-store-realm'.find { it.'@name' == atrName }
+if (existingKeyStoreRealm && !atrReplaceExisting) {
+    throw new IllegalStateException("key-store-realm with name $atrName already exists in configuration. Use different name.")
+} else {
+    if (existingKeyStoreRealm) {
+        existingKeyStoreRealm.replaceNode keyStoreRealmDefinition
+    } else {
+        elytronSubsystem.'security-realms'.appendNode keyStoreRealmDefinition
+    }
+}
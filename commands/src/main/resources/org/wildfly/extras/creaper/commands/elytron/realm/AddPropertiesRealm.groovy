@@ -0,0 +1,36 @@
+propertiesRealmAttrs = ['name': atrName]
+if (atrGroupsAttribute != null) propertiesRealmAttrs['groups-attribute'] = atrGroupsAttribute
+
+usersPropertiesAttrs = ['path': atrUsersPropertiesPath]
+if (atrUsersPropertiesRelativeTo != null) usersPropertiesAttrs['relative-to'] = atrUsersPropertiesRelativeTo
+if (atrDigestRealmName != null) usersPropertiesAttrs['digest-realm-name'] = atrDigestRealmName
+if (atrPlainText != null) usersPropertiesAttrs['plain-text'] = atrPlainText
+
+groupsPropertiesAttrs = ['path': atrGroupsPropertiesPath]
+if (atrGroupsPropertiesRelativeTo != null) groupsPropertiesAttrs['relative-to'] = atrGroupsPropertiesRelativeTo
+
+def propertiesRealmDefinition = {
+    'properties-realm'(propertiesRealmAttrs) {
+        'users-properties'(usersPropertiesAttrs)
+        if (atrGroupsPropertiesPath != null) {
+            'groups-properties'(groupsPropertiesAttrs)
+        }
+    }
+}
+
+def isExistingSecurityRealms = elytronSubsystem.'security-realms'.any { it.name() == 'security-realms' }
+if (! isExistingSecurityRealms) {
+    elytronSubsystem.appendNode { 'security-realms' propertiesRealmDefinition }
+    return
+}
+
+def existingPropertiesRealm = elytronSubsystem.'security-realms'.'properties-realm'.find { it.'@name' == atrName }
+if (existingPropertiesRealm && !atrReplaceExisting) {
+    throw new IllegalStateException("properties-realm with name $atrName already exists in configuration. Use different name.")
+} else {
+    if (existingPropertiesRealm) {
+        existingPropertiesRealm.replaceNode propertiesRealmDefinition
+    } else {
+        elytronSubsystem.'security-realms'.appendNode propertiesRealmDefinition
+    }
+}
@@ -0,0 +1,26 @@
+aggregateSaslServerFactoryAttrs = ['name': atrName]
+
+def aggregateSaslServerFactoryDefinition = {
+    'aggregate-sasl-server-factory'(aggregateSaslServerFactoryAttrs) {
+        for (factoryName in atrSaslServerFactories) {
+            'sasl-server-factory'(['name': factoryName])
+        }
+    }
+}
+
+def isExistingSasl = elytronSubsystem.'sasl'.any { it.name() == 'sasl' }
+if (! isExistingSasl) {
+    elytronSubsystem.appendNode { 'sasl' aggregateSaslServerFactoryDefinition }
+    return
+}
+
+def existingAggregateSaslServerFactory = elytronSubsystem.'sasl'.'aggregate-sasl-server-factory'.find { it.'@name' == atrName }
+if (existingAggregateSaslServerFactory && !atrReplaceExisting) {
+    throw new IllegalStateException("aggregate-sasl-server-factory with name $atrName already exists in configuration. Use different name.")
+} else {
+    if (existingAggregateSaslServerFactory) {
+        existingAggregateSaslServerFactory.replaceNode aggregateSaslServerFactoryDefinition
+    } else {
+        elytronSubsystem.'sasl'.appendNode aggregateSaslServerFactoryDefinition
+    }
+}
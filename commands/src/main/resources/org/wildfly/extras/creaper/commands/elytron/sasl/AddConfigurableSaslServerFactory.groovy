@@ -0,0 +1,42 @@
+configurableSaslServerFactoryAttrs = ['name': atrName]
+if (atrSaslServerFactory != null) configurableSaslServerFactoryAttrs['sasl-server-factory'] = atrSaslServerFactory
+if (atrProtocol != null) configurableSaslServerFactoryAttrs['protocol'] = atrProtocol
+if (atrServerName != null) configurableSaslServerFactoryAttrs['server-name'] = atrServerName
+
+def configurableSaslServerFactoryDefinition = {
+    'configurable-sasl-server-factory'(configurableSaslServerFactoryAttrs) {
+        if (atrProperties) {
+            'properties' {
+                for (configuredProperty in atrProperties) {
+                    'property'(['name': configuredProperty.key, 'value': configuredProperty.value])
+                }
+            }
+        }
+        if (atrFilters) {
+            'filters' {
+                for (configuredFilter in atrFilters) {
+                    'filter'(['predefined-filter': configuredFilter.predefinedFilter,
+                              'pattern-filter': configuredFilter.patternFilter,
+                              'enabling': configuredFilter.enabling].findAll { it.value != null })
+                }
+            }
+        }
+    }
+}
+
+def isExistingSasl = elytronSubsystem.'sasl'.any { it.name() == 'sasl' }
+if (! isExistingSasl) {
+    elytronSubsystem.appendNode { 'sasl' configurableSaslServerFactoryDefinition }
+    return
+}
+
+def existingConfigurableSaslServerFactory = elytronSubsystem.'sasl'.'configurable-sasl-server-factory'.find { it.'@name' == atrName }
+if (existingConfigurableSaslServerFactory && !atrReplaceExisting) {
+    throw new IllegalStateException("configurable-sasl-server-factory with name $atrName already exists in configuration. Use different name.")
+} else {
+    if (existingConfigurableSaslServerFactory) {
+        existingConfigurableSaslServerFactory.replaceNode configurableSaslServerFactoryDefinition
+    } else {
+        elytronSubsystem.'sasl'.appendNode configurableSaslServerFactoryDefinition
+    }
+}
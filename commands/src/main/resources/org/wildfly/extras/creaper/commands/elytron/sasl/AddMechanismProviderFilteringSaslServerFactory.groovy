@@ -0,0 +1,36 @@
+mechanismProviderFilteringSaslServerFactoryAttrs = ['name': atrName]
+if (atrSaslServerFactory != null) mechanismProviderFilteringSaslServerFactoryAttrs['sasl-server-factory'] = atrSaslServerFactory
+if (atrEnabling != null) mechanismProviderFilteringSaslServerFactoryAttrs['enabling'] = atrEnabling
+
+def mechanismProviderFilteringSaslServerFactoryDefinition = {
+    'mechanism-provider-filtering-sasl-server-factory'(mechanismProviderFilteringSaslServerFactoryAttrs) {
+        if (atrFilters) {
+            'filters' {
+                for (providerFilter in atrFilters) {
+                    'filter'(['mechanism-name': providerFilter.mechanismName,
+                              'provider-name': providerFilter.providerName,
+                              'provider-version': providerFilter.providerVersion,
+                              'version-comparison': providerFilter.versionComparison?.versionComparisonName]
+                            .findAll { it.value != null })
+                }
+            }
+        }
+    }
+}
+
+def isExistingSasl = elytronSubsystem.'sasl'.any { it.name() == 'sasl' }
+if (! isExistingSasl) {
+    elytronSubsystem.appendNode { 'sasl' mechanismProviderFilteringSaslServerFactoryDefinition }
+    return
+}
+
+def existingMechanismProviderFilteringSaslServerFactory = elytronSubsystem.'sasl'.'mechanism-provider-filtering-sasl-server-factory'.find { it.'@name' == atrName }
+if (existingMechanismProviderFilteringSaslServerFactory && !atrReplaceExisting) {
+    throw new IllegalStateException("mechanism-provider-filtering-sasl-server-factory with name $atrName already exists in configuration. Use different name.")
+} else {
+    if (existingMechanismProviderFilteringSaslServerFactory) {
+        existingMechanismProviderFilteringSaslServerFactory.replaceNode mechanismProviderFilteringSaslServerFactoryDefinition
+    } else {
+        elytronSubsystem.'sasl'.appendNode mechanismProviderFilteringSaslServerFactoryDefinition
+    }
+}
@@ -0,0 +1,23 @@
+providerSaslServerFactoryAttrs = ['name': atrName]
+if (atrProviders != null) providerSaslServerFactoryAttrs['providers'] = atrProviders
+
+def providerSaslServerFactoryDefinition = {
+    'provider-sasl-server-factory'(providerSaslServerFactoryAttrs)
+}
+
+def isExistingSasl = elytronSubsystem.'sasl'.any { it.name() == 'sasl' }
+if (! isExistingSasl) {
+    elytronSubsystem.appendNode { 'sasl' providerSaslServerFactoryDefinition }
+    return
+}
+
+def existingProviderSaslServerFactory = elytronSubsystem.'sasl'.'provider-sasl-server-factory'.find { it.'@name' == atrName }
+if (existingProviderSaslServerFactory && !atrReplaceExisting) {
+    throw new IllegalStateException("provider-sasl-server-factory with name $atrName already exists in configuration. Use different name.")
+} else {
+    if (existingProviderSaslServerFactory) {
+        existingProviderSaslServerFactory.replaceNode providerSaslServerFactoryDefinition
+    } else {
+        elytronSubsystem.'sasl'.appendNode providerSaslServerFactoryDefinition
+    }
+}
@@ -0,0 +1,47 @@
+saslAuthenticationFactoryAttrs = ['name': atrName]
+if (atrSaslServerFactory != null) saslAuthenticationFactoryAttrs['sasl-server-factory'] = atrSaslServerFactory
+if (atrSecurityDomain != null) saslAuthenticationFactoryAttrs['security-domain'] = atrSecurityDomain
+
+def saslAuthenticationFactoryDefinition = {
+    'sasl-authentication-factory'(saslAuthenticationFactoryAttrs) {
+        if (atrMechanismConfigurations) {
+            'mechanism-configuration' {
+                for (mechanismConfiguration in atrMechanismConfigurations) {
+                    'mechanism'(['mechanism-name': mechanismConfiguration.mechanismName,
+                                 'host-name': mechanismConfiguration.hostName,
+                                 'protocol': mechanismConfiguration.protocol,
+                                 'pre-realm-principal-transformer': mechanismConfiguration.preRealmPrincipalTransformer,
+                                 'post-realm-principal-transformer': mechanismConfiguration.postRealmPrincipalTransformer,
+                                 'final-principal-transformer': mechanismConfiguration.finalPrincipalTransformer,
+                                 'realm-mapper': mechanismConfiguration.realmMapper,
+                                 'credential-security-factory': mechanismConfiguration.credentialSecurityFactory].findAll { it.value }) {
+                        for (mechanismRealm in mechanismConfiguration.mechanismRealmConfigurations) {
+                            'mechanism-realm'(['realm-name': mechanismRealm.realmName,
+                                               'pre-realm-principal-transformer': mechanismRealm.preRealmPrincipalTransformer,
+                                               'post-realm-principal-transformer': mechanismRealm.postRealmPrincipalTransformer,
+                                               'final-principal-transformer': mechanismRealm.finalPrincipalTransformer,
+                                               'realm-mapper': mechanismRealm.realmMapper].findAll { it.value })
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
+
+def isExistingSasl = elytronSubsystem.'sasl'.any { it.name() == 'sasl' }
+if (! isExistingSasl) {
+    elytronSubsystem.appendNode { 'sasl' saslAuthenticationFactoryDefinition }
+    return
+}
+
+def existingSaslAuthenticationFactory = elytronSubsystem.'sasl'.'sasl-authentication-factory'.find { it.'@name' == atrName }
+if (existingSaslAuthenticationFactory && !atrReplaceExisting) {
+    throw new IllegalStateException("sasl-authentication-factory with name $atrName already exists in configuration. Use different name.")
+} else {
+    if (existingSaslAuthenticationFactory) {
+        existingSaslAuthenticationFactory.replaceNode saslAuthenticationFactoryDefinition
+    } else {
+        elytronSubsystem.'sasl'.appendNode saslAuthenticationFactoryDefinition
+    }
+}
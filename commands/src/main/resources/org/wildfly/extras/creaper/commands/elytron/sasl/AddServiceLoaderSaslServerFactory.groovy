@@ -0,0 +1,23 @@
+serviceLoaderSaslServerFactoryAttrs = ['name': atrName]
+if (atrModule != null) serviceLoaderSaslServerFactoryAttrs['module'] = atrModule
+
+def serviceLoaderSaslServerFactoryDefinition = {
+    'service-loader-sasl-server-factory'(serviceLoaderSaslServerFactoryAttrs)
+}
+
+def isExistingSasl = elytronSubsystem.'sasl'.any { it.name() == 'sasl' }
+if (! isExistingSasl) {
+    elytronSubsystem.appendNode { 'sasl' serviceLoaderSaslServerFactoryDefinition }
+    return
+}
+
+def existingServiceLoaderSaslServerFactory = elytronSubsystem.'sasl'.'service-loader-sasl-server-factory'.find { it.'@name' == atrName }
+if (existingServiceLoaderSaslServerFactory && !atrReplaceExisting) {
+    throw new IllegalStateException("service-loader-sasl-server-factory with name $atrName already exists in configuration. Use different name.")
+} else {
+    if (existingServiceLoaderSaslServerFactory) {
+        existingServiceLoaderSaslServerFactory.replaceNode serviceLoaderSaslServerFactoryDefinition
+    } else {
+        elytronSubsystem.'sasl'.appendNode serviceLoaderSaslServerFactoryDefinition
+    }
+}
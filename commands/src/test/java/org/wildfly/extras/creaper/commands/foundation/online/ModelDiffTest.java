@@ -0,0 +1,135 @@
+package org.wildfly.extras.creaper.commands.foundation.online;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ModelDiffTest {
+    private static final ModelNode DESCRIPTION = ModelNode.fromString(""
+            + "{"
+            + "    \"attributes\" => {"
+            + "        \"name\" => {\"access-type\" => \"read-write\", \"storage\" => \"configuration\"},"
+            + "        \"server-state\" => {\"access-type\" => \"read-only\", \"storage\" => \"runtime\"}"
+            + "    },"
+            + "    \"children\" => {"
+            + "        \"subsystem\" => {\"model-description\" => {\"logging\" => {"
+            + "            \"attributes\" => {"
+            + "                \"add-logging-api-dependencies\" => {"
+            + "                    \"access-type\" => \"read-write\", \"storage\" => \"configuration\"}"
+            + "            },"
+            + "            \"children\" => {\"logger\" => {\"model-description\" => {\"*\" => {"
+            + "                \"attributes\" => {"
+            + "                    \"level\" => {\"access-type\" => \"read-write\", \"storage\" => \"configuration\"},"
+            + "                    \"category\" => {\"access-type\" => \"read-only\", \"storage\" => \"configuration\"},"
+            + "                    \"count\" => {\"access-type\" => \"metric\", \"storage\" => \"configuration\"}"
+            + "                },"
+            + "                \"children\" => {}"
+            + "            }}}}"
+            + "        }}},"
+            + "        \"host\" => {\"model-description\" => undefined}"
+            + "    }"
+            + "}");
+
+    private static final ModelNode BASELINE = ModelNode.fromString(""
+            + "{"
+            + "    \"name\" => \"server\","
+            + "    \"subsystem\" => {\"logging\" => {"
+            + "        \"add-logging-api-dependencies\" => undefined,"
+            + "        \"logger\" => {"
+            + "            \"com.arjuna\" => {\"level\" => \"WARN\", \"category\" => \"com.arjuna\"},"
+            + "            \"org.jboss\" => {\"level\" => \"INFO\", \"category\" => \"org.jboss\"}"
+            + "        }"
+            + "    }},"
+            + "    \"host\" => {\"master\" => {\"name\" => \"master\"}}"
+            + "}");
+
+    @Test
+    public void schema() {
+        ModelNode schema = ModelDiff.schema(DESCRIPTION);
+
+        assertEquals(Collections.singleton("name"), schema.get("attributes").keys());
+        assertTrue(schema.get("children", "host").keys().isEmpty());
+        ModelNode logger = schema.get("children", "subsystem", "logging", "children", "logger", "*");
+        assertTrue(logger.get("attributes", "level").asBoolean());
+        assertFalse(logger.get("attributes", "category").asBoolean());
+        assertFalse(logger.get("attributes").has("count"));
+    }
+
+    @Test
+    public void noChange() {
+        ModelDiff diff = diff(BASELINE.clone());
+
+        assertTrue(diff.isEmpty());
+        assertTrue(diff.isExpressible());
+    }
+
+    @Test
+    public void attributes() {
+        ModelNode current = BASELINE.clone();
+        current.get("name").set("changed");
+        current.get("subsystem", "logging", "add-logging-api-dependencies").set(false);
+        current.get("subsystem", "logging", "logger", "com.arjuna", "level").set("DEBUG");
+
+        assertEquals(Arrays.asList(
+                "/:write-attribute(name=server)",
+                "/subsystem=logging:undefine-attribute(add-logging-api-dependencies)",
+                "/subsystem=logging/logger=com.arjuna:write-attribute(level=WARN)"
+        ), diff(current).describe());
+    }
+
+    @Test
+    public void resources() {
+        ModelNode current = BASELINE.clone();
+        current.get("subsystem", "logging", "logger").remove("org.jboss");
+        current.get("subsystem", "logging", "logger", "foo", "level").set("INFO");
+        current.get("subsystem", "logging", "logger", "bar", "level").set("INFO");
+
+        assertEquals(Arrays.asList(
+                "/subsystem=logging/logger=bar:remove",
+                "/subsystem=logging/logger=foo:remove",
+                "/subsystem=logging/logger=org.jboss:add(level=INFO, category=org.jboss)"
+        ), diff(current).describe());
+    }
+
+    @Test
+    public void addedResourceIncludesChildren() {
+        ModelNode current = BASELINE.clone();
+        current.get("subsystem").remove("logging");
+
+        assertEquals(Arrays.asList(
+                "/subsystem=logging:add()",
+                "/subsystem=logging/logger=com.arjuna:add(level=WARN, category=com.arjuna)",
+                "/subsystem=logging/logger=org.jboss:add(level=INFO, category=org.jboss)"
+        ), diff(current).describe());
+    }
+
+    @Test
+    public void readOnlyAttributeIsInexpressible() {
+        ModelNode current = BASELINE.clone();
+        current.get("subsystem", "logging", "logger", "com.arjuna", "category").set("changed");
+
+        ModelDiff diff = diff(current);
+        assertFalse(diff.isEmpty());
+        assertFalse(diff.isExpressible());
+        assertEquals(Collections.singletonList("/subsystem=logging/logger=com.arjuna:category"),
+                diff.inexpressibleChanges());
+    }
+
+    @Test
+    public void undescribedResourcesAreIgnored() {
+        ModelNode current = BASELINE.clone();
+        current.get("host", "master", "name").set("changed");
+
+        assertTrue(diff(current).isEmpty());
+    }
+
+    private static ModelDiff diff(ModelNode current) {
+        return ModelDiff.compute(ModelDiff.schema(DESCRIPTION), current, BASELINE);
+    }
+}
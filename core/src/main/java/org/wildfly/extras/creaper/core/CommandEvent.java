@@ -0,0 +1,32 @@
+package org.wildfly.extras.creaper.core;
+
+/** A command was applied, see {@link ManagementListener#commandApplied(CommandEvent)}. */
+public final class CommandEvent {
+    public final Command command;
+    public final long durationNanos;
+    public final Throwable failure; // null <=> command succeeded
+
+    public CommandEvent(Command command, long durationNanos, Throwable failure) {
+        this.command = command;
+        this.durationNanos = durationNanos;
+        this.failure = failure;
+    }
+
+    /**
+     * Name of the command class without the package, which is a useful key for aggregating events.
+     * For anonymous classes, it's the name of the enclosing class followed by {@code $} and a number.
+     */
+    public String commandName() {
+        String name = command.getClass().getName();
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+
+    public boolean isSuccess() {
+        return failure == null;
+    }
+
+    @Override
+    public String toString() {
+        return command + " took " + durationNanos / 1000000 + " ms" + (failure != null ? ", failed: " + failure : "");
+    }
+}
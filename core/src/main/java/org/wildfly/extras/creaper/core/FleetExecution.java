@@ -0,0 +1,103 @@
+package org.wildfly.extras.creaper.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Applies a task to many targets in parallel and collects the results in the same order as the targets were given.
+ * The failure (if any) and the time it took are recorded for each target; a failure for one target doesn't affect
+ * the others. This is the shared part of
+ * {@link org.wildfly.extras.creaper.core.online.OnlineFleetExecutor OnlineFleetExecutor} and
+ * {@link org.wildfly.extras.creaper.core.offline.OfflineFleetExecutor OfflineFleetExecutor}. It has to be public,
+ * because they live in different packages, but it's not meant to be used directly.
+ */
+public final class FleetExecution {
+    private static final AtomicInteger executorCounter = new AtomicInteger();
+
+    private FleetExecution() {} // avoid instantiation
+
+    /**
+     * @param <T> type of the targets
+     * @param <R> type of the result for each target
+     */
+    public abstract static class Task<T, R> {
+        /** Applies the task to a single target. Any exception is recorded as a failure of that target. */
+        protected abstract void apply(T target) throws Exception;
+
+        /** @param failure {@code null} if the task was applied successfully */
+        protected abstract R result(T target, Throwable failure, long elapsedMillis);
+    }
+
+    /**
+     * Applies the {@code task} to all the {@code targets} using at most {@code parallelism} daemon threads
+     * and waits until it's done everywhere.
+     * @throws InterruptedException if interrupted while waiting; tasks that are already running are interrupted too
+     */
+    public static <T, R> List<R> apply(String threadNamePrefix, int parallelism, Collection<T> targets,
+                                       final Task<T, R> task) throws InterruptedException {
+        if (targets.isEmpty()) {
+            return new ArrayList<R>();
+        }
+
+        final String namePrefix = threadNamePrefix + "-" + executorCounter.incrementAndGet() + "-";
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, targets.size()),
+                new ThreadFactory() {
+                    private final AtomicInteger threadCounter = new AtomicInteger();
+
+                    @Override
+                    public Thread newThread(Runnable runnable) {
+                        Thread thread = new Thread(runnable, namePrefix + threadCounter.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+
+        try {
+            List<Future<R>> futures = new ArrayList<Future<R>>(targets.size());
+            for (final T target : targets) {
+                futures.add(executor.submit(new Callable<R>() {
+                    @Override
+                    public R call() {
+                        return applyToTarget(task, target);
+                    }
+                }));
+            }
+
+            List<R> results = new ArrayList<R>(targets.size());
+            for (Future<R> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    throw new AssertionError(e); // can't happen, applyToTarget catches everything
+                }
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static <T, R> R applyToTarget(Task<T, R> task, T target) {
+        long start = System.nanoTime();
+        Throwable failure = null;
+
+        try {
+            task.apply(target);
+        } catch (Exception e) {
+            failure = e;
+        } catch (Error e) {
+            failure = e;
+        }
+
+        return task.result(target, failure, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+}
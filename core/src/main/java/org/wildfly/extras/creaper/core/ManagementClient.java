@@ -3,6 +3,7 @@ package org.wildfly.extras.creaper.core;
 import org.wildfly.extras.creaper.core.offline.OfflineManagementClient;
 import org.wildfly.extras.creaper.core.offline.OfflineOptions;
 import org.wildfly.extras.creaper.core.online.OnlineManagementClient;
+import org.wildfly.extras.creaper.core.online.OnlineManagementClientPool;
 import org.wildfly.extras.creaper.core.online.OnlineOptions;
 
 import java.io.IOException;
@@ -13,7 +14,7 @@ import java.io.IOException;
  * {@link org.wildfly.extras.creaper.core.offline.OfflineManagementClient offline} management clients.
  * Note that creating a management client is generally fairly heavy-weight, so reusing a client is a good idea.
  * Also note that the <b>entire</b> Creaper library is meant for <b>single-threaded</b> use and <b>no</b> thread-safety
- * guarantees are made!
+ * guarantees are made! The only exception is the {@link #pooled(OnlineOptions, int) pool of online clients}.
  */
 public final class ManagementClient {
     private ManagementClient() {} // avoid instantiation
@@ -45,6 +46,20 @@ public final class ManagementClient {
         return OnlineClientFactory.instance.createLazy(options);
     }
 
+    /**
+     * Creates a {@link OnlineManagementClientPool pool} of at most {@code poolSize}
+     * {@link org.wildfly.extras.creaper.core.online.OnlineManagementClient}s, for use from multiple threads.
+     * The clients are created lazily, when they are first {@link OnlineManagementClientPool#borrow() borrowed}.
+     * Note that the pool should be {@link OnlineManagementClientPool#close() closed} when no longer needed.
+     * @param options connection options (host, port etc.); the options can't
+     * {@link OnlineOptions.ConnectionOnlineOptions#wrap(org.jboss.as.controller.client.ModelControllerClient) wrap}
+     * an existing {@code ModelControllerClient}
+     * @param poolSize maximum number of clients in the pool
+     */
+    public static OnlineManagementClientPool pooled(OnlineOptions options, int poolSize) {
+        return OnlineClientFactory.instance.createPool(options, poolSize);
+    }
+
     /**
      * Creates a {@link org.wildfly.extras.creaper.core.offline.OfflineManagementClient}.
      * @param options connection options (root directory of the application server etc.)
@@ -69,6 +84,8 @@ public final class ManagementClient {
         protected abstract OnlineManagementClient create(OnlineOptions options) throws IOException;
 
         protected abstract OnlineManagementClient createLazy(OnlineOptions options);
+
+        protected abstract OnlineManagementClientPool createPool(OnlineOptions options, int poolSize);
     }
 
     /** Ignore, this is not a part of public API. */
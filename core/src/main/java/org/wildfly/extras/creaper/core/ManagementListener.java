@@ -0,0 +1,28 @@
+package org.wildfly.extras.creaper.core;
+
+import org.wildfly.extras.creaper.core.online.OperationEvent;
+
+/**
+ * <p>Gets notified about each command applied and (in case of the online client) each management operation executed
+ * by a management client. Useful for finding out where the time is spent. Registered by
+ * {@link org.wildfly.extras.creaper.core.online.OnlineOptions.OptionalOnlineOptions#listener(ManagementListener)}
+ * or {@link org.wildfly.extras.creaper.core.offline.OfflineOptions.OptionalOfflineOptions#listener(
+ * ManagementListener)}. By default, there's no listener and nothing is measured.</p>
+ *
+ * <p>The listener is called synchronously, in the thread that applied the command or executed the operation,
+ * so it should be fast. If the listener is shared by multiple clients (e.g. clients from
+ * {@link org.wildfly.extras.creaper.core.online.OnlineManagementClientPool}), it must be thread-safe.
+ * Exceptions thrown by the listener are propagated to the caller.</p>
+ *
+ * @see ManagementMetrics
+ */
+public interface ManagementListener {
+    /**
+     * Called after an operation was executed, including operations executed by commands. Not called
+     * for {@link org.wildfly.extras.creaper.core.online.OnlineManagementClient#executeCli(String) CLI operations}.
+     */
+    void operationExecuted(OperationEvent event);
+
+    /** Called after a command was applied, both when it succeeded and when it failed. */
+    void commandApplied(CommandEvent event);
+}
@@ -0,0 +1,229 @@
+package org.wildfly.extras.creaper.core;
+
+import org.wildfly.extras.creaper.core.online.OperationEvent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>A {@link ManagementListener} that aggregates durations of operations and commands into in-memory histograms.
+ * Operations are aggregated by their name and {@link OperationEvent#addressPattern() address pattern}
+ * (e.g. {@code add /subsystem=logging/logger=*}), commands are aggregated by their
+ * {@link CommandEvent#commandName() name}. Operations whose result was found in a cache are counted, but their
+ * duration is not recorded.</p>
+ *
+ * <p>Use {@link #report()} to find out which operations and commands took the most time. The metrics are
+ * thread-safe and can be shared by multiple clients.</p>
+ */
+public final class ManagementMetrics implements ManagementListener {
+    // all guarded by "this"
+    private final Map<String, Histogram> operations = new HashMap<String, Histogram>();
+    private final Map<String, Histogram> commands = new HashMap<String, Histogram>();
+
+    @Override
+    public void operationExecuted(OperationEvent event) {
+        String key = event.operationName() + " " + event.addressPattern();
+        synchronized (this) {
+            Histogram histogram = histogram(operations, key);
+            if (event.cached) {
+                histogram.cached++;
+            } else {
+                histogram.record(event.durationNanos, event.isSuccess());
+                if (event.isReloadRequired() || event.isRestartRequired()) {
+                    histogram.reloadOrRestartRequired++;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void commandApplied(CommandEvent event) {
+        String key = event.commandName();
+        synchronized (this) {
+            histogram(commands, key).record(event.durationNanos, event.isSuccess());
+        }
+    }
+
+    private static Histogram histogram(Map<String, Histogram> histograms, String key) {
+        Histogram result = histograms.get(key);
+        if (result == null) {
+            result = new Histogram(key);
+            histograms.put(key, result);
+        }
+        return result;
+    }
+
+    /** Copies of operation histograms, sorted by the total time, in descending order. */
+    public synchronized List<Histogram> operations() {
+        return sortedCopy(operations);
+    }
+
+    /** Copies of command histograms, sorted by the total time, in descending order. */
+    public synchronized List<Histogram> commands() {
+        return sortedCopy(commands);
+    }
+
+    private static List<Histogram> sortedCopy(Map<String, Histogram> histograms) {
+        List<Histogram> result = new ArrayList<Histogram>(histograms.size());
+        for (Histogram histogram : histograms.values()) {
+            result.add(histogram.copy());
+        }
+        Collections.sort(result, new Comparator<Histogram>() {
+            @Override
+            public int compare(Histogram o1, Histogram o2) {
+                return o1.totalNanos < o2.totalNanos ? 1 : (o1.totalNanos == o2.totalNanos ? 0 : -1);
+            }
+        });
+        return result;
+    }
+
+    public synchronized void reset() {
+        operations.clear();
+        commands.clear();
+    }
+
+    /** A human readable table of all the histograms, most expensive first. */
+    public String report() {
+        StringBuilder result = new StringBuilder();
+        result.append("Commands:\n");
+        for (Histogram histogram : commands()) {
+            result.append("  ").append(histogram).append('\n');
+        }
+        result.append("Operations:\n");
+        for (Histogram histogram : operations()) {
+            result.append("  ").append(histogram).append('\n');
+        }
+        return result.toString();
+    }
+
+    @Override
+    public String toString() {
+        return report();
+    }
+
+    /**
+     * Durations of one kind of operation or command. Durations are counted in buckets with exponentially increasing
+     * bounds (the upper bound of bucket {@code i} is 2<sup>{@code i}</sup> nanoseconds), so percentiles are only
+     * approximate, but the histogram has a small fixed size.
+     */
+    public static final class Histogram {
+        private static final int BUCKETS = 64;
+
+        public final String key;
+
+        private long count;
+        private long failures;
+        private long cached;
+        private long reloadOrRestartRequired;
+        private long totalNanos;
+        private long minNanos = Long.MAX_VALUE;
+        private long maxNanos;
+        private final long[] buckets = new long[BUCKETS];
+
+        private Histogram(String key) {
+            this.key = key;
+        }
+
+        private void record(long durationNanos, boolean success) {
+            count++;
+            if (!success) {
+                failures++;
+            }
+            totalNanos += durationNanos;
+            minNanos = Math.min(minNanos, durationNanos);
+            maxNanos = Math.max(maxNanos, durationNanos);
+            buckets[bucket(durationNanos)]++;
+        }
+
+        private static int bucket(long durationNanos) {
+            return durationNanos <= 1 ? 0 : BUCKETS - Long.numberOfLeadingZeros(durationNanos - 1);
+        }
+
+        private Histogram copy() {
+            Histogram result = new Histogram(key);
+            result.count = count;
+            result.failures = failures;
+            result.cached = cached;
+            result.reloadOrRestartRequired = reloadOrRestartRequired;
+            result.totalNanos = totalNanos;
+            result.minNanos = minNanos;
+            result.maxNanos = maxNanos;
+            System.arraycopy(buckets, 0, result.buckets, 0, BUCKETS);
+            return result;
+        }
+
+        /** Number of recorded durations, that is, without cached operations. */
+        public long count() {
+            return count;
+        }
+
+        public long failures() {
+            return failures;
+        }
+
+        /** Number of operations whose result was found in a cache. Always 0 for commands. */
+        public long cached() {
+            return cached;
+        }
+
+        /** Number of operations after which the server required reload or restart. Always 0 for commands. */
+        public long reloadOrRestartRequired() {
+            return reloadOrRestartRequired;
+        }
+
+        public long total(TimeUnit unit) {
+            return unit.convert(totalNanos, TimeUnit.NANOSECONDS);
+        }
+
+        public long min(TimeUnit unit) {
+            return count == 0 ? 0 : unit.convert(minNanos, TimeUnit.NANOSECONDS);
+        }
+
+        public long max(TimeUnit unit) {
+            return unit.convert(maxNanos, TimeUnit.NANOSECONDS);
+        }
+
+        public long mean(TimeUnit unit) {
+            return count == 0 ? 0 : unit.convert(totalNanos / count, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * Approximate percentile; for example, {@code percentile(0.99, TimeUnit.MILLISECONDS)} is the duration
+         * that 99 % of the recorded durations don't exceed.
+         */
+        public long percentile(double percentile, TimeUnit unit) {
+            if (percentile < 0 || percentile > 1) {
+                throw new IllegalArgumentException("Percentile must be between 0 and 1");
+            }
+            if (count == 0) {
+                return 0;
+            }
+
+            long threshold = (long) Math.ceil(percentile * count);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += buckets[i];
+                if (seen >= threshold && seen > 0) {
+                    long upperBound = i == BUCKETS - 1 ? Long.MAX_VALUE : 1L << i;
+                    return unit.convert(Math.max(minNanos, Math.min(upperBound, maxNanos)), TimeUnit.NANOSECONDS);
+                }
+            }
+            return max(unit);
+        }
+
+        @Override
+        public String toString() {
+            TimeUnit ms = TimeUnit.MILLISECONDS;
+            return key + ": count " + count + ", total " + total(ms) + " ms, mean " + mean(ms) + " ms, p50 "
+                    + percentile(0.5, ms) + " ms, p99 " + percentile(0.99, ms) + " ms, max " + max(ms) + " ms"
+                    + (failures > 0 ? ", failures " + failures : "")
+                    + (cached > 0 ? ", cached " + cached : "")
+                    + (reloadOrRestartRequired > 0 ? ", reload/restart required " + reloadOrRestartRequired : "");
+        }
+    }
+}
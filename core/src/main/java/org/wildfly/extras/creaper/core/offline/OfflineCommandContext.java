@@ -9,11 +9,13 @@ public final class OfflineCommandContext {
     public final OfflineOptions options; // same as client.options()
     public final ServerVersion version;
     public final File configurationFile; // same as client.options().configurationFile
+    public final OfflineSession session;
 
-    OfflineCommandContext(OfflineManagementClient client, ServerVersion version) {
+    OfflineCommandContext(OfflineManagementClient client, ServerVersion version, OfflineSession session) {
         this.client = client;
         this.options = client.options();
         this.version = version;
         this.configurationFile = client.options().configurationFile;
+        this.session = session;
     }
 }
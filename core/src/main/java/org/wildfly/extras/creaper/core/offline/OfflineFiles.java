@@ -0,0 +1,158 @@
+package org.wildfly.extras.creaper.core.offline;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import org.jboss.logging.Logger;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>A shared write path for offline commands that modify files of the application server (the configuration file
+ * itself, {@code *-users.properties} etc.). The new content is first written to a temporary file in the same
+ * directory, optionally {@code fsync}-ed, and then renamed over the original file. This way, a crash in the middle
+ * of writing never leaves a truncated file behind. If the new content is byte-identical to the existing content,
+ * nothing is written at all.</p>
+ *
+ * <p>The rename is atomic on POSIX systems. On systems where a file can't be renamed over an existing file (that is,
+ * on Windows), the original file is moved aside first, so there is a short window when the file doesn't exist.
+ * If the new file can't be moved in place, the original file is moved back; if even that fails, both files are
+ * kept and named in the exception.</p>
+ *
+ * <p>The owner's read, write and execute permissions of the original file are copied to the new file, and group
+ * and other users get no permissions at all (they can't be read with the Java 6 API). So a file that is only
+ * accessible by its owner, such as {@code mgmt-users.properties}, stays that way, while access for other users
+ * may get narrower, but never wider. Ownership of the original file is not preserved.</p>
+ */
+public final class OfflineFiles {
+    private static final Logger log = Logger.getLogger(OfflineFiles.class);
+
+    private OfflineFiles() {} // avoid instantiation
+
+    /** Same as {@link #write(File, byte[], boolean)}, the {@code content} is encoded in UTF-8. */
+    public static WriteResult write(File file, String content, boolean sync) throws IOException {
+        return write(file, content.getBytes(Charsets.UTF_8), sync);
+    }
+
+    /**
+     * Atomically replaces the content of {@code file} with {@code content}, unless they are already the same.
+     * @param sync whether the new content should be forced to the storage device before the file is replaced
+     * (see {@link OfflineOptions#syncWrites})
+     */
+    public static WriteResult write(File file, byte[] content, boolean sync) throws IOException {
+        long start = System.nanoTime();
+
+        if (file.isFile() && file.length() == content.length && Arrays.equals(Files.toByteArray(file), content)) {
+            WriteResult result = new WriteResult(file, false, 0, System.nanoTime() - start);
+            log.debug(result);
+            return result;
+        }
+
+        File directory = file.getAbsoluteFile().getParentFile();
+        File tempFile = File.createTempFile("." + file.getName() + ".", ".tmp", directory);
+        boolean success = false;
+        try {
+            FileOutputStream out = new FileOutputStream(tempFile);
+            try {
+                out.write(content);
+                if (sync) {
+                    out.getFD().sync();
+                }
+            } finally {
+                out.close();
+            }
+
+            if (file.isFile()) {
+                copyOwnerPermissions(file, tempFile);
+            }
+            success = true;
+        } finally {
+            if (!success) {
+                delete(tempFile);
+            }
+        }
+
+        replace(file, tempFile);
+
+        WriteResult result = new WriteResult(file, true, content.length, System.nanoTime() - start);
+        log.debug(result);
+        return result;
+    }
+
+    private static void copyOwnerPermissions(File from, File to) throws IOException {
+        boolean ok = to.setReadable(false, false) && to.setWritable(false, false) && to.setExecutable(false, false)
+                && to.setReadable(from.canRead(), true)
+                && to.setWritable(from.canWrite(), true)
+                && to.setExecutable(from.canExecute(), true);
+        if (!ok) {
+            throw new IOException("Couldn't copy permissions of " + from + " to " + to);
+        }
+    }
+
+    /** Replaces {@code file} with {@code tempFile}. The temporary file is only deleted if the original is intact. */
+    private static void replace(File file, File tempFile) throws IOException {
+        if (tempFile.renameTo(file)) {
+            return;
+        }
+
+        if (!file.isFile()) {
+            delete(tempFile);
+            throw new IOException("Couldn't replace " + file);
+        }
+
+        // renaming over an existing file isn't possible on some systems, so the original is moved aside first
+        File original = new File(tempFile.getParentFile(), tempFile.getName() + ".original");
+        if (!file.renameTo(original)) {
+            delete(tempFile);
+            throw new IOException("Couldn't replace " + file);
+        }
+
+        if (tempFile.renameTo(file)) {
+            delete(original);
+            return;
+        }
+
+        if (original.renameTo(file)) {
+            delete(tempFile);
+            throw new IOException("Couldn't rename " + tempFile + " to " + file + ", original content was restored");
+        }
+
+        throw new IOException("Couldn't rename " + tempFile + " to " + file + " and couldn't restore the original "
+                + "content from " + original + "; the new content was kept in " + tempFile);
+    }
+
+    private static void delete(File file) {
+        if (!file.delete()) {
+            log.errorf("Couldn't delete %s, continuing", file);
+        }
+    }
+
+    public static final class WriteResult {
+        public final File file;
+        /** {@code false} if the file already had the same content and wasn't written */
+        public final boolean written;
+        public final long bytesWritten;
+        public final long elapsedNanos;
+
+        private WriteResult(File file, boolean written, long bytesWritten, long elapsedNanos) {
+            this.file = file;
+            this.written = written;
+            this.bytesWritten = bytesWritten;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public long elapsedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        }
+
+        @Override
+        public String toString() {
+            return written
+                    ? "Written " + bytesWritten + " bytes to " + file + " in " + elapsedMillis() + " ms"
+                    : "Skipped writing " + file + ", content didn't change";
+        }
+    }
+}
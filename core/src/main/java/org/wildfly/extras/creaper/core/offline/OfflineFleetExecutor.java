@@ -0,0 +1,83 @@
+package org.wildfly.extras.creaper.core.offline;
+
+import org.jboss.logging.Logger;
+import org.wildfly.extras.creaper.core.FleetExecution;
+import org.wildfly.extras.creaper.core.ManagementClient;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Applies the same list of {@link OfflineCommand}s to many configuration files in parallel, using at most
+ * {@code parallelism} threads. Each configuration file gets its own {@link OfflineManagementClient}.</p>
+ *
+ * <p>A failure for one configuration file doesn't affect the others. The result for each configuration file,
+ * including the failure (if any) and the time it took, is available in the returned {@link OfflineFleetResult}.
+ * </p>
+ *
+ * <p>The same command instances are applied to all configuration files, possibly at the same time, so they must not
+ * hold any mutable state. That is true for commands that only transform XML (compiled transformation scripts
+ * are shared by all threads).</p>
+ */
+public final class OfflineFleetExecutor {
+    private static final Logger log = Logger.getLogger(OfflineFleetExecutor.class);
+
+    private final int parallelism;
+
+    /** @param parallelism maximum number of configuration files that are being modified at the same time */
+    public OfflineFleetExecutor(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive");
+        }
+
+        this.parallelism = parallelism;
+    }
+
+    /** Uses as many threads as there are available processors. */
+    public OfflineFleetExecutor() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public OfflineFleetResult apply(Collection<OfflineOptions> configurations, OfflineCommand... commands)
+            throws InterruptedException {
+        List<OfflineCommand> commandList = new ArrayList<OfflineCommand>();
+        Collections.addAll(commandList, commands);
+        return apply(configurations, commandList);
+    }
+
+    /**
+     * Applies the {@code commands} to all the {@code configurations} and waits until it's done everywhere.
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public OfflineFleetResult apply(Collection<OfflineOptions> configurations, final List<OfflineCommand> commands)
+            throws InterruptedException {
+        long start = System.nanoTime();
+        List<OfflineFleetResult.ConfigurationResult> results = FleetExecution.apply("creaper-offline", parallelism,
+                configurations, new FleetExecution.Task<OfflineOptions, OfflineFleetResult.ConfigurationResult>() {
+                    @Override
+                    protected void apply(OfflineOptions configuration) throws Exception {
+                        ManagementClient.offline(configuration).apply(commands);
+                    }
+
+                    @Override
+                    protected OfflineFleetResult.ConfigurationResult result(OfflineOptions configuration,
+                                                                            Throwable failure, long elapsedMillis) {
+                        if (failure != null) {
+                            log.warnf(failure, "Applying commands to %s failed", configuration.configurationFile);
+                        }
+                        return new OfflineFleetResult.ConfigurationResult(configuration, failure, elapsedMillis);
+                    }
+                });
+
+        OfflineFleetResult result = new OfflineFleetResult(results,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        if (!configurations.isEmpty()) {
+            log.infof("Applied %d commands to %d configuration files: %s", commands.size(), configurations.size(),
+                    result);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,90 @@
+package org.wildfly.extras.creaper.core.offline;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result of {@link OfflineFleetExecutor#apply(java.util.Collection, java.util.List) applying} commands to many
+ * configuration files.
+ */
+public final class OfflineFleetResult {
+    private final List<ConfigurationResult> results;
+    private final long elapsedMillis;
+
+    OfflineFleetResult(List<ConfigurationResult> results, long elapsedMillis) {
+        this.results = Collections.unmodifiableList(results);
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /** Results for all configuration files, in the same order as the configuration files were given. */
+    public List<ConfigurationResult> results() {
+        return results;
+    }
+
+    /** Results for configuration files where applying the commands failed. */
+    public List<ConfigurationResult> failures() {
+        List<ConfigurationResult> failures = new ArrayList<ConfigurationResult>();
+        for (ConfigurationResult result : results) {
+            if (!result.isSuccess()) {
+                failures.add(result);
+            }
+        }
+        return failures;
+    }
+
+    public boolean isSuccess() {
+        return failures().isEmpty();
+    }
+
+    /** Time it took to apply the commands to all configuration files, in milliseconds. */
+    public long elapsedMillis() {
+        return elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "OfflineFleetResult[" + results.size() + " configuration files, " + failures().size()
+                + " failed, took " + elapsedMillis + " ms]";
+    }
+
+    public static final class ConfigurationResult {
+        private final OfflineOptions options;
+        private final Throwable failure;
+        private final long elapsedMillis;
+
+        ConfigurationResult(OfflineOptions options, Throwable failure, long elapsedMillis) {
+            this.options = options;
+            this.failure = failure;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public OfflineOptions options() {
+            return options;
+        }
+
+        public boolean isSuccess() {
+            return failure == null;
+        }
+
+        /**
+         * The failure, or {@code null} if the commands were applied successfully. Typically
+         * a {@link org.wildfly.extras.creaper.core.CommandFailedException CommandFailedException}, or
+         * an {@code IOException} if the configuration file couldn't be read.
+         */
+        public Throwable failure() {
+            return failure;
+        }
+
+        /** Time it took to apply the commands to the configuration file, in milliseconds. */
+        public long elapsedMillis() {
+            return elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            return options.configurationFile + " " + (failure == null ? "OK" : "FAILED") + " in " + elapsedMillis
+                    + " ms";
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package org.wildfly.extras.creaper.core.offline;
 
 import org.jboss.logging.Logger;
+import org.wildfly.extras.creaper.core.CommandEvent;
 import org.wildfly.extras.creaper.core.CommandFailedException;
 import org.wildfly.extras.creaper.core.ServerVersion;
 
@@ -13,6 +14,7 @@ final class OfflineManagementClientImpl implements OfflineManagementClient {
 
     private final OfflineOptions options;
     private final ServerVersion version;
+    private final OfflineSession session;
 
     OfflineManagementClientImpl(OfflineOptions options) throws IOException {
         File configurationFile = options.configurationFile;
@@ -22,6 +24,7 @@ final class OfflineManagementClientImpl implements OfflineManagementClient {
 
         this.options = options;
         this.version = OfflineServerVersion.discover(configurationFile);
+        this.session = new OfflineSession(options.inMemorySession);
     }
 
     @Override
@@ -41,17 +44,52 @@ final class OfflineManagementClientImpl implements OfflineManagementClient {
 
     @Override
     public void apply(Iterable<OfflineCommand> commands) throws CommandFailedException {
+        boolean success = false;
+        session.begin();
         try {
-            OfflineCommandContext ctx = new OfflineCommandContext(this, version);
+            OfflineCommandContext ctx = new OfflineCommandContext(this, version, session);
             for (OfflineCommand command : commands) {
                 log.infof("Applying command %s", command);
-                command.apply(ctx);
+                if (options.listener == null) {
+                    command.apply(ctx);
+                } else {
+                    applyAndNotify(command, ctx);
+                }
             }
+            success = true;
         } catch (Exception e) {
             if (e instanceof CommandFailedException) {
                 throw (CommandFailedException) e;
             }
             throw new CommandFailedException(e);
+        } finally {
+            endSession(success);
+        }
+    }
+
+    private void applyAndNotify(OfflineCommand command, OfflineCommandContext ctx) throws Exception {
+        long start = System.nanoTime();
+        Throwable failure = null;
+        try {
+            command.apply(ctx);
+        } catch (Exception e) {
+            failure = e;
+            throw e;
+        } catch (Error e) {
+            failure = e;
+            throw e;
+        } finally {
+            options.listener.commandApplied(new CommandEvent(command, System.nanoTime() - start, failure));
+        }
+    }
+
+    private void endSession(boolean success) throws CommandFailedException {
+        try {
+            session.end(success);
+        } catch (IOException e) {
+            if (success) {
+                throw new CommandFailedException("Couldn't write the configuration file", e);
+            }
         }
     }
 }
@@ -1,6 +1,7 @@
 package org.wildfly.extras.creaper.core.offline;
 
 import org.wildfly.extras.creaper.core.ManagementClient;
+import org.wildfly.extras.creaper.core.ManagementListener;
 
 import java.io.File;
 import java.io.IOException;
@@ -20,6 +21,11 @@ public final class OfflineOptions {
     private final File configurationDirectory; // can be null if configurationFile is specified directly
     public final File configurationFile;
 
+    public final boolean inMemorySession;
+    public final boolean syncWrites;
+    public final boolean streamingTransforms;
+    public final ManagementListener listener; // may be null
+
     private OfflineOptions(Data data) {
         this.isStandalone = data.isStandalone;
 
@@ -28,6 +34,11 @@ public final class OfflineOptions {
 
         this.configurationDirectory = data.configurationDirectory;
         this.configurationFile = data.configurationFile;
+
+        this.inMemorySession = data.inMemorySession;
+        this.syncWrites = data.syncWrites;
+        this.streamingTransforms = data.streamingTransforms;
+        this.listener = data.listener;
     }
 
     /**
@@ -56,6 +67,11 @@ public final class OfflineOptions {
 
         private File configurationDirectory;
         private File configurationFile;
+
+        private boolean inMemorySession;
+        private boolean syncWrites;
+        private boolean streamingTransforms;
+        private ManagementListener listener;
     }
 
     /** Connect to a standalone server. */
@@ -188,6 +204,56 @@ public final class OfflineOptions {
             this.data = data;
         }
 
+        /**
+         * <p>Apply all commands passed to a single {@code apply} call to one in-memory copy of the configuration file,
+         * which is only parsed once and written back once, after all the commands succeed. If any command fails,
+         * the configuration file is left untouched. Optional. By default, each command reads and writes
+         * the configuration file on its own.</p>
+         *
+         * <p>Commands that access the configuration file directly must call {@link OfflineSession#flush()} first,
+         * see {@link OfflineCommandContext#session}. All commands provided by Creaper do that.</p>
+         */
+        public OptionalOfflineOptions inMemorySession() {
+            data.inMemorySession = true;
+            return this;
+        }
+
+        /**
+         * Force all changes to the storage device before replacing the original files, so that they survive
+         * an operating system crash or a power loss. This makes writing slower. Optional. By default, it is left
+         * to the operating system to write the changes when it sees fit.
+         *
+         * @see OfflineFiles
+         */
+        public OptionalOfflineOptions syncWrites() {
+            data.syncWrites = true;
+            return this;
+        }
+
+        /**
+         * Commands that only perform a simple change of the configuration file (such as adding a logger) will do so
+         * in a single streaming pass over the file instead of loading the entire file into memory. The rest of the file
+         * is left intact, including its formatting. Optional. By default, commands always load the entire file.
+         * Commands applied in an {@link #inMemorySession() in-memory session} always work with the in-memory copy.
+         */
+        public OptionalOfflineOptions streamingTransforms() {
+            data.streamingTransforms = true;
+            return this;
+        }
+
+        /**
+         * Notify given {@code listener} about each command applied by the client, see {@link ManagementListener}.
+         * Optional. By default, there's no listener.
+         */
+        public OptionalOfflineOptions listener(ManagementListener listener) {
+            if (listener == null) {
+                throw new IllegalArgumentException("Listener must be set");
+            }
+
+            data.listener = listener;
+            return this;
+        }
+
         /** Build the final {@code OfflineOptions}. */
         public OfflineOptions build() {
             return new OfflineOptions(data);
@@ -1,16 +1,23 @@
 package org.wildfly.extras.creaper.core.offline;
 
-import com.google.common.base.Charsets;
-import com.google.common.io.Files;
 import org.wildfly.extras.creaper.core.ServerVersion;
 
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 final class OfflineServerVersion {
-    private static final Pattern ROOT_XMLNS = Pattern.compile("[\"']urn:jboss:domain:(\\d+)\\.(\\d+)[\"']");
+    private static final Pattern ROOT_XMLNS = Pattern.compile("urn:jboss:domain:(\\d+)\\.(\\d+)");
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
 
     private OfflineServerVersion() {} // avoid instantiation
 
@@ -20,10 +27,9 @@ final class OfflineServerVersion {
      * @throws IOException if an I/O error occurs during file operations
      */
     static ServerVersion discover(File configurationFile) throws IOException {
-        // this is not entirely cheap, but it only occurs once, during an operation that is supposed to be costly anyway
-        String content = Files.toString(configurationFile, Charsets.UTF_8);
-        Matcher matcher = ROOT_XMLNS.matcher(content);
-        if (matcher.find()) {
+        String rootNamespace = readRootNamespace(configurationFile);
+        Matcher matcher = ROOT_XMLNS.matcher(rootNamespace != null ? rootNamespace : "");
+        if (matcher.matches()) {
             String majorStr = matcher.group(1);
             String minorStr = matcher.group(2);
 
@@ -58,4 +64,40 @@ final class OfflineServerVersion {
 
         throw new IllegalArgumentException("Missing or bad schema version in configuration file " + configurationFile);
     }
+
+    /**
+     * Returns the namespace of the root element of the XML file, or {@code null} if there's none. Only reads
+     * the file up to the root element.
+     */
+    private static String readRootNamespace(File file) throws IOException {
+        InputStream input = new BufferedInputStream(new FileInputStream(file));
+        try {
+            XMLStreamReader reader;
+            synchronized (XML_INPUT_FACTORY) {
+                // XMLInputFactory isn't guaranteed to be thread-safe, but the readers it creates are independent
+                reader = XML_INPUT_FACTORY.createXMLStreamReader(input);
+            }
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+                        return reader.getNamespaceURI();
+                    }
+                }
+                return null;
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IllegalArgumentException("Couldn't parse configuration file " + file, e);
+        } finally {
+            input.close();
+        }
+    }
+
+    private static XMLInputFactory createXmlInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
 }
@@ -0,0 +1,87 @@
+package org.wildfly.extras.creaper.core.offline;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * <p>State shared by all offline commands applied in a single {@link OfflineManagementClient#apply(Iterable) apply}
+ * call, including commands applied from inside other commands. This is only active if the client was created with
+ * {@link OfflineOptions.OptionalOfflineOptions#inMemorySession() inMemorySession}; otherwise, {@link #isActive()}
+ * always returns {@code false} and each command works directly with the configuration file.</p>
+ *
+ * <p>When the session is active, commands can keep an in-memory representation of the configuration file
+ * in the session (as an {@link Attachment}) instead of reading and writing the file on their own. All attachments
+ * are {@link Attachment#flush() flushed} once, after all the commands succeed. If any command fails, the attachments
+ * are discarded and nothing is written.</p>
+ *
+ * <p>Commands that access the configuration file directly must call {@link #flush()} before doing so. This makes sure
+ * that the file on disk is up to date and that the in-memory state will be re-read afterwards.</p>
+ */
+public final class OfflineSession {
+    private final boolean enabled;
+    private final Map<Class<?>, Attachment> attachments = new LinkedHashMap<Class<?>, Attachment>();
+    private int depth; // number of nested "apply" calls that are currently in progress
+
+    OfflineSession(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /** Whether commands should keep their state in this session instead of writing it to disk right away. */
+    public boolean isActive() {
+        return enabled && depth > 0;
+    }
+
+    /** Returns an attachment of given {@code type} or {@code null} if there's none. */
+    public <T extends Attachment> T get(Class<T> type) {
+        return type.cast(attachments.get(type));
+    }
+
+    /**
+     * Stores the {@code attachment} in this session. It will be flushed when the session ends successfully.
+     * @throws IllegalStateException if the session is not {@link #isActive() active}
+     */
+    public <T extends Attachment> void put(Class<T> type, T attachment) {
+        if (!isActive()) {
+            throw new IllegalStateException("Offline session is not active");
+        }
+
+        attachments.put(type, attachment);
+    }
+
+    /**
+     * Writes all pending changes to disk right away and forgets all attachments. Does nothing if there are no
+     * attachments, most notably if the session is not active.
+     */
+    public void flush() throws IOException {
+        try {
+            for (Attachment attachment : attachments.values()) {
+                attachment.flush();
+            }
+        } finally {
+            attachments.clear();
+        }
+    }
+
+    void begin() {
+        depth++;
+    }
+
+    void end(boolean success) throws IOException {
+        depth--;
+        if (depth > 0) {
+            return;
+        }
+
+        if (success) {
+            flush();
+        } else {
+            attachments.clear();
+        }
+    }
+
+    /** In-memory state of a command that is written to disk when the session ends. */
+    public interface Attachment {
+        void flush() throws IOException;
+    }
+}
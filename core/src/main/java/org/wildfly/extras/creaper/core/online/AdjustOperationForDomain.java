@@ -64,7 +64,7 @@ final class AdjustOperationForDomain {
             }
 
             if (Constants.SUBSYSTEM.equals(property.getName())) {
-                checkProfile(operation.asString());
+                checkProfile(operation);
                 prependToAddress = new Property(Constants.PROFILE, new ModelNode(options.defaultProfile));
                 break;
             }
@@ -114,7 +114,7 @@ final class AdjustOperationForDomain {
         return cliOperation;
     }
 
-    private void checkProfile(String operation) {
+    private void checkProfile(Object operation) { // only converted to string if the check fails
         if (options.defaultProfile == null) {
             throw new IllegalArgumentException("No default profile, can't perform operation in domain: " + operation);
         }
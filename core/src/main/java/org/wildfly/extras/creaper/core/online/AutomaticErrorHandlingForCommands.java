@@ -10,18 +10,64 @@ import java.util.concurrent.TimeoutException;
 
 final class AutomaticErrorHandlingForCommands implements OnlineManagementClient {
     private final OnlineManagementClient delegate;
+    private final CoalescedReload coalescedReload; // may be null
     private boolean throwExceptionsOnOperationFailures = true;
 
     static OnlineManagementClient wrap(OnlineManagementClient client) {
+        return wrap(client, null);
+    }
+
+    static OnlineManagementClient wrap(OnlineManagementClient client, CoalescedReload coalescedReload) {
         if (client instanceof AutomaticErrorHandlingForCommands) {
             return client;
         }
 
-        return new AutomaticErrorHandlingForCommands(client);
+        return new AutomaticErrorHandlingForCommands(client, coalescedReload);
     }
 
-    private AutomaticErrorHandlingForCommands(OnlineManagementClient delegate) {
+    private AutomaticErrorHandlingForCommands(OnlineManagementClient delegate, CoalescedReload coalescedReload) {
         this.delegate = delegate;
+        this.coalescedReload = coalescedReload;
+    }
+
+    /**
+     * If the operation failed while a coalesced reload is pending, the failure might have been caused by the server
+     * not being reloaded yet (e.g. when adding a resource that was just removed). That is only the case when
+     * the runtime services are out of sync with the model and the server reports the {@code reload-required} state
+     * (or no process state at all). Then, the server is reloaded and the operation is executed again. All other
+     * failures are left to the caller.
+     */
+    private boolean reloadIfPendingAfterFailure(ModelNodeResult result)
+            throws IOException, InterruptedException, TimeoutException {
+        if (result.isFailed() && throwExceptionsOnOperationFailures
+                && coalescedReload != null && coalescedReload.isPending()
+                && isCausedByPendingReload(result)) {
+            coalescedReload.performIfPending();
+            return true;
+        }
+        return false;
+    }
+
+    /** Whether the failure comes from the server not being reloaded yet, see {@link #reloadIfPendingAfterFailure}. */
+    static boolean isCausedByPendingReload(ModelNodeResult result) {
+        boolean processStateReported = result.hasDefined(Constants.RESPONSE_HEADERS)
+                && result.get(Constants.RESPONSE_HEADERS).hasDefined(Constants.PROCESS_STATE);
+        if (processStateReported && !result.isReloadRequired()) {
+            return false;
+        }
+
+        // failures of runtime services can be nested in a composite or domain failure description,
+        // or only present in the results of the individual steps of a composite operation
+        String failureDescription = result.get(Constants.FAILURE_DESCRIPTION).asString();
+        if (result.hasDefined(Constants.RESULT)) {
+            failureDescription += result.get(Constants.RESULT).asString();
+        }
+        for (String code : Constants.RESULT_CODES_FOR_SERVICES_NOT_RELOADED) {
+            if (failureDescription.contains(code)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     @Override
@@ -56,6 +102,9 @@ final class AutomaticErrorHandlingForCommands implements OnlineManagementClient
     public ModelNodeResult execute(ModelNode operation) {
         try {
             ModelNodeResult result = delegate.execute(operation);
+            if (reloadIfPendingAfterFailure(result)) {
+                result = delegate.execute(operation);
+            }
             if (result.isFailed() && throwExceptionsOnOperationFailures) {
                 commandFailedWithMessage("Operation " + operation.asString() + " failed: " + result.asString());
             }
@@ -72,6 +121,9 @@ final class AutomaticErrorHandlingForCommands implements OnlineManagementClient
     public ModelNodeResult execute(Operation operation) {
         try {
             ModelNodeResult result = delegate.execute(operation);
+            if (reloadIfPendingAfterFailure(result)) {
+                result = delegate.execute(operation);
+            }
             if (result.isFailed() && throwExceptionsOnOperationFailures) {
                 commandFailedWithMessage("Operation " + operation.getOperation().asString() + " failed: "
                         + result.asString());
@@ -89,6 +141,9 @@ final class AutomaticErrorHandlingForCommands implements OnlineManagementClient
     public ModelNodeResult execute(String operation) {
         try {
             ModelNodeResult result = delegate.execute(operation);
+            if (reloadIfPendingAfterFailure(result)) {
+                result = delegate.execute(operation);
+            }
             if (result.isFailed() && throwExceptionsOnOperationFailures) {
                 commandFailedWithMessage("Operation " + operation + " failed: " + result.asString());
             }
@@ -101,6 +156,16 @@ final class AutomaticErrorHandlingForCommands implements OnlineManagementClient
         }
     }
 
+    @Override
+    public ModelNode parseCliOperation(String operation) {
+        try {
+            return delegate.parseCliOperation(operation);
+        } catch (Exception e) {
+            commandFailedWithCause(e);
+            return null; // dead code
+        }
+    }
+
     @Override
     public void executeCli(String cliOperation) {
         try {
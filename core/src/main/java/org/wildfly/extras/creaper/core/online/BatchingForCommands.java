@@ -0,0 +1,234 @@
+package org.wildfly.extras.creaper.core.online;
+
+import org.jboss.as.controller.client.Operation;
+import org.jboss.dmr.ModelNode;
+import org.jboss.logging.Logger;
+import org.wildfly.extras.creaper.core.CommandFailedException;
+import org.wildfly.extras.creaper.core.ServerVersion;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * <p>Records operations that only modify the management model (such as {@code add} or {@code write-attribute})
+ * instead of executing them right away. Recorded operations are sent to the server as {@code composite} operations
+ * of at most {@code maxBatchSize} steps. See {@link OnlineOptions.OptionalOnlineOptions#batchCommandOperations(int)}.
+ * </p>
+ *
+ * <p>A recorded operation is assumed to succeed and its result is a plain {@code success}. Before any other
+ * operation is executed (e.g. a {@code read-resource}, which might depend on the recorded operations), all recorded
+ * operations are sent to the server. The same happens when {@link #allowFailures()} is called; inside
+ * the {@code FailuresAllowedBlock}, all operations are executed right away, because the command needs to look
+ * at their results.</p>
+ *
+ * <p>If the {@code composite} operation fails, the failure is reported for the command that issued the failed
+ * step.</p>
+ */
+final class BatchingForCommands implements OnlineManagementClient {
+    private static final Logger log = Logger.getLogger(BatchingForCommands.class);
+
+    private static final Set<String> BATCHABLE_OPERATIONS = Collections.unmodifiableSet(new HashSet<String>(
+            Arrays.asList(Constants.ADD, Constants.REMOVE_OPERATION, Constants.WRITE_ATTRIBUTE_OPERATION,
+                    Constants.UNDEFINE_ATTRIBUTE_OPERATION)));
+
+    private final OnlineManagementClient delegate; // see AutomaticErrorHandlingForCommands
+    private final OnlineManagementClient rawClient;
+    private final CoalescedReload coalescedReload; // may be null
+    private final int maxBatchSize;
+
+    private final List<RecordedOperation> recorded = new ArrayList<RecordedOperation>();
+    private OnlineCommand currentCommand;
+    private int failuresAllowedBlocks;
+
+    BatchingForCommands(OnlineManagementClient delegate, OnlineManagementClient rawClient,
+                        CoalescedReload coalescedReload, int maxBatchSize) {
+        this.delegate = delegate;
+        this.rawClient = rawClient;
+        this.coalescedReload = coalescedReload;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /** Operations recorded from now on will be attributed to the {@code command} when reporting failures. */
+    void commandStarted(OnlineCommand command) {
+        this.currentCommand = command;
+    }
+
+    /** Sends all recorded operations to the server. */
+    void flush() throws IOException, InterruptedException, TimeoutException {
+        if (recorded.isEmpty()) {
+            return;
+        }
+
+        List<RecordedOperation> batch = new ArrayList<RecordedOperation>(recorded);
+        recorded.clear();
+
+        ModelNode composite = new ModelNode();
+        composite.get(Constants.OP).set(Constants.COMPOSITE);
+        composite.get(Constants.OP_ADDR).setEmptyList();
+        ModelNode steps = composite.get(Constants.STEPS).setEmptyList();
+        for (RecordedOperation operation : batch) {
+            steps.add(operation.operation);
+        }
+
+        log.debugf("Executing %d recorded operations as a composite operation", batch.size());
+        // the composite operation will be adjusted for domain, so the recorded operations must be left intact
+        ModelNodeResult result = rawClient.execute(composite.clone());
+        if (result.isFailed() && coalescedReload != null && coalescedReload.isPending()
+                && AutomaticErrorHandlingForCommands.isCausedByPendingReload(result)) {
+            coalescedReload.performIfPending();
+            result = rawClient.execute(composite.clone());
+        }
+
+        if (result.isFailed()) {
+            RecordedOperation failed = findFailedStep(batch, result);
+            if (failed != null) {
+                throw new RuntimeCommandFailedException(new CommandFailedException("Command " + failed.command
+                        + " failed: operation " + failed.operation.asString() + " failed: " + result.asString()));
+            }
+            throw new RuntimeCommandFailedException(new CommandFailedException("Composite operation "
+                    + composite.asString() + " failed: " + result.asString()));
+        }
+    }
+
+    /**
+     * Returns the operation whose step of the composite operation failed with a failure description
+     * ({@code null} if it can't be determined). Steps that were only rolled back don't have a failure description.
+     */
+    private static RecordedOperation findFailedStep(List<RecordedOperation> batch, ModelNodeResult result) {
+        if (!result.hasDefined(Constants.RESULT)) {
+            return null;
+        }
+
+        ModelNode stepResults = result.get(Constants.RESULT);
+        for (int i = 0; i < batch.size(); i++) {
+            String step = "step-" + (i + 1);
+            if (stepResults.hasDefined(step) && stepResults.get(step).hasDefined(Constants.FAILURE_DESCRIPTION)) {
+                return batch.get(i);
+            }
+        }
+        return null;
+    }
+
+    private boolean isBatchable(ModelNode operation) {
+        return failuresAllowedBlocks == 0
+                && BATCHABLE_OPERATIONS.contains(operation.get(Constants.OP).asString())
+                && !operation.has(Constants.OPERATION_HEADERS);
+    }
+
+    private void flushBeforeExecuting() {
+        try {
+            flush();
+        } catch (RuntimeCommandFailedException e) {
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeCommandFailedException(new CommandFailedException(e));
+        } catch (Exception e) {
+            throw new RuntimeCommandFailedException(new CommandFailedException(e));
+        }
+    }
+
+    @Override
+    public OnlineOptions options() {
+        return delegate.options();
+    }
+
+    @Override
+    public ServerVersion version() throws IOException {
+        return delegate.version();
+    }
+
+    @Override
+    public void apply(OnlineCommand... commands) throws CommandFailedException {
+        flushBeforeExecuting();
+        delegate.apply(commands);
+    }
+
+    @Override
+    public void apply(Iterable<OnlineCommand> commands) throws CommandFailedException {
+        flushBeforeExecuting();
+        delegate.apply(commands);
+    }
+
+    @Override
+    public ModelNodeResult execute(ModelNode operation) throws IOException {
+        if (isBatchable(operation)) {
+            recorded.add(new RecordedOperation(currentCommand, operation.clone()));
+            if (recorded.size() >= maxBatchSize) {
+                flushBeforeExecuting();
+            }
+
+            ModelNode result = new ModelNode();
+            result.get(Constants.OUTCOME).set(Constants.SUCCESS);
+            return new ModelNodeResult(result);
+        }
+
+        flushBeforeExecuting();
+        return delegate.execute(operation);
+    }
+
+    @Override
+    public ModelNodeResult execute(Operation operation) throws IOException {
+        flushBeforeExecuting();
+        return delegate.execute(operation);
+    }
+
+    @Override
+    public ModelNodeResult execute(String operation) throws CliException, IOException {
+        flushBeforeExecuting();
+        return delegate.execute(operation);
+    }
+
+    @Override
+    public ModelNode parseCliOperation(String operation) throws CliException, IOException {
+        return delegate.parseCliOperation(operation);
+    }
+
+    @Override
+    public void executeCli(String cliOperation) throws CliException, IOException {
+        flushBeforeExecuting();
+        delegate.executeCli(cliOperation);
+    }
+
+    @Override
+    public void reconnect(int timeoutInSeconds) throws TimeoutException, InterruptedException {
+        flushBeforeExecuting();
+        delegate.reconnect(timeoutInSeconds);
+    }
+
+    @Override
+    public FailuresAllowedBlock allowFailures() throws IOException {
+        flushBeforeExecuting();
+        final FailuresAllowedBlock block = delegate.allowFailures();
+        failuresAllowedBlocks++;
+
+        return new FailuresAllowedBlock() {
+            @Override
+            public void close() throws IOException {
+                failuresAllowedBlocks--;
+                block.close();
+            }
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+
+    private static final class RecordedOperation {
+        final OnlineCommand command;
+        final ModelNode operation;
+
+        RecordedOperation(OnlineCommand command, ModelNode operation) {
+            this.command = command;
+            this.operation = operation;
+        }
+    }
+}
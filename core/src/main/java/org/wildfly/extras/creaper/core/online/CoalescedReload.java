@@ -0,0 +1,37 @@
+package org.wildfly.extras.creaper.core.online;
+
+import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
+
+import java.io.IOException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A reload requested by commands applied in a single {@code apply} call, which is postponed until it's really
+ * needed. See {@link OnlineOptions.OptionalOnlineOptions#coalesceReloads()}.
+ */
+final class CoalescedReload {
+    private final OnlineManagementClient client;
+    private boolean pending;
+
+    CoalescedReload(OnlineManagementClient client) {
+        this.client = client;
+    }
+
+    void request() {
+        pending = true;
+    }
+
+    boolean isPending() {
+        return pending;
+    }
+
+    /** Reloads the server if the reload was requested and the server still requires it. */
+    void performIfPending() throws IOException, InterruptedException, TimeoutException {
+        if (!pending) {
+            return;
+        }
+
+        pending = false;
+        new Administration(client).reloadIfRequired();
+    }
+}
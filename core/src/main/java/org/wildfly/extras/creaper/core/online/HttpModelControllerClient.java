@@ -1,22 +1,33 @@
 package org.wildfly.extras.creaper.core.online;
 
+import com.google.common.base.Charsets;
+import org.apache.http.Header;
 import org.apache.http.HeaderElement;
+import org.apache.http.HttpEntity;
 import org.apache.http.HttpHeaders;
+import org.apache.http.HttpHost;
 import org.apache.http.HttpStatus;
+import org.apache.http.auth.AuthScheme;
 import org.apache.http.auth.AuthScope;
+import org.apache.http.auth.MalformedChallengeException;
 import org.apache.http.auth.UsernamePasswordCredentials;
+import org.apache.http.client.AuthCache;
 import org.apache.http.client.config.AuthSchemes;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.protocol.HttpClientContext;
 import org.apache.http.config.Registry;
 import org.apache.http.config.RegistryBuilder;
 import org.apache.http.conn.socket.ConnectionSocketFactory;
 import org.apache.http.conn.socket.PlainConnectionSocketFactory;
 import org.apache.http.conn.ssl.NoopHostnameVerifier;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.entity.ByteArrayEntity;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.auth.DigestScheme;
+import org.apache.http.impl.client.BasicAuthCache;
 import org.apache.http.impl.client.BasicCredentialsProvider;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
@@ -30,16 +41,20 @@ import org.jboss.dmr.ModelNode;
 import org.jboss.threads.AsyncFuture;
 import org.jboss.threads.AsyncFutureTask;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.UnsupportedEncodingException;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutionException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Controller provides execution of {@link ModelNode} or {@link Operation} over HTTP.
@@ -50,73 +65,142 @@ import java.util.concurrent.TimeoutException;
  */
 final class HttpModelControllerClient implements ModelControllerClient {
     private static final int NO_TIMEOUT = 0;
+    private static final ContentType APPLICATION_DMR_ENCODED = ContentType.create("application/dmr-encoded");
+
+    /**
+     * Management realms discovered so far, keyed by {@code host:port}, so that reconnecting to the same server
+     * doesn't need an extra unauthenticated request. An entry is removed when authentication fails.
+     */
+    private static final ConcurrentMap<String, String> MANAGEMENT_REALMS = new ConcurrentHashMap<String, String>();
 
     private final String url;
-    private final RequestConfig requestConfig;
-    private final Registry<ConnectionSocketFactory> registry;
+    private final HttpHost target;
+    private final String realmKey;
     private final CloseableHttpClient client;
-    private final int timeout;
-    private ExecutorService executorService;
-
+    private final boolean authenticated;
+    private final AuthCache authCache; // null <=> preemptive authentication is not used
+    private final boolean dmrEncoded;
+    private final int maxConcurrentRequests;
+    private ExecutorService executorService; // guarded by "this"
+
+    /**
+     * @param maxConnections maximum number of pooled connections in total, {@code <= 0} means the default
+     * @param maxConnectionsPerRoute maximum number of pooled connections to the management endpoint,
+     * {@code <= 0} means the default; this also bounds the number of asynchronous operations executed in parallel
+     * @param dmrEncoded whether to use the {@code application/dmr-encoded} content type instead of JSON
+     * @param preemptiveAuth whether to remember the digest challenge and authenticate subsequent requests preemptively
+     */
     HttpModelControllerClient(String host, int port, String username, String password, int timeoutMillis,
-                              SslOptions ssl) throws IOException {
+                              SslOptions ssl, int maxConnections, int maxConnectionsPerRoute, boolean dmrEncoded,
+                              boolean preemptiveAuth) throws IOException {
+        this.dmrEncoded = dmrEncoded;
+        this.realmKey = host + ":" + port;
+
         // timeout configuration
-        this.timeout = timeoutMillis;
         RequestConfig.Builder requestConfigBuilder = RequestConfig.custom();
         if (timeoutMillis != NO_TIMEOUT) {
             requestConfigBuilder
                     .setConnectTimeout(timeoutMillis)
                     .setSocketTimeout(timeoutMillis);
         }
-        requestConfig = requestConfigBuilder.build();
+        RequestConfig requestConfig = requestConfigBuilder.build();
 
         RegistryBuilder<ConnectionSocketFactory> registryBuilder = RegistryBuilder.<ConnectionSocketFactory>create();
         if (ssl != null) {
             url = "https://" + host + ":" + port + "/management";
+            target = new HttpHost(host, port, "https");
             SSLConnectionSocketFactory sslConnectionSocketFactory;
             if (ssl.hostnameVerification) {
-                sslConnectionSocketFactory = new SSLConnectionSocketFactory(ssl.createSslContext());
+                sslConnectionSocketFactory = new SSLConnectionSocketFactory(ssl.sslContext());
             } else {
                 sslConnectionSocketFactory = new SSLConnectionSocketFactory(
-                        ssl.createSslContext(), NoopHostnameVerifier.INSTANCE);
+                        ssl.sslContext(), NoopHostnameVerifier.INSTANCE);
             }
             registryBuilder.register("https", sslConnectionSocketFactory);
         } else {
             url = "http://" + host + ":" + port + "/management";
+            target = new HttpHost(host, port, "http");
             registryBuilder.register("http", PlainConnectionSocketFactory.getSocketFactory());
         }
-        registry = registryBuilder.build();
+        Registry<ConnectionSocketFactory> registry = registryBuilder.build();
 
-        BasicCredentialsProvider credentialsProvider = new BasicCredentialsProvider();
-        if (username != null && password != null) {
-            credentialsProvider.setCredentials(
-                    new AuthScope(host, port, getManagementRealm(url), AuthSchemes.DIGEST),
-                    new UsernamePasswordCredentials(username, password));
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(registry);
+        if (maxConnections > 0) {
+            connectionManager.setMaxTotal(maxConnections);
+        }
+        if (maxConnectionsPerRoute > 0) {
+            connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
         }
+        maxConcurrentRequests = Math.min(connectionManager.getMaxTotal(), connectionManager.getDefaultMaxPerRoute());
+
+        // credentials are added after the realm is known, the provider is thread-safe
+        BasicCredentialsProvider credentialsProvider = new BasicCredentialsProvider();
         client = HttpClients.custom()
-                .setConnectionManager(new PoolingHttpClientConnectionManager(registry))
+                .setConnectionManager(connectionManager)
                 .setDefaultCredentialsProvider(credentialsProvider)
                 .setDefaultRequestConfig(requestConfig)
                 .build();
+
+        authenticated = username != null && password != null;
+        authCache = authenticated && preemptiveAuth ? new BasicAuthCache() : null;
+        if (authenticated) {
+            try {
+                credentialsProvider.setCredentials(
+                        new AuthScope(host, port, getManagementRealm(), AuthSchemes.DIGEST),
+                        new UsernamePasswordCredentials(username, password));
+            } catch (IOException e) {
+                client.close();
+                throw e;
+            } catch (RuntimeException e) {
+                client.close();
+                throw e;
+            }
+        }
     }
 
     @Override
     public ModelNode execute(ModelNode modelNode) throws IOException {
+        return execute(buildRequest(modelNode));
+    }
+
+    private ModelNode execute(HttpPost request) throws IOException {
+        HttpClientContext context = HttpClientContext.create();
+        if (authCache != null) {
+            context.setAuthCache(authCache);
+        }
+
         ModelNode result;
-        CloseableHttpResponse response = client.execute(buildRequest(modelNode));
+        CloseableHttpResponse response = client.execute(request, context);
         try {
+            if (authenticated && response.getStatusLine().getStatusCode() == HttpStatus.SC_UNAUTHORIZED) {
+                // maybe the realm has changed, so don't trust it next time
+                MANAGEMENT_REALMS.remove(realmKey);
+            }
             result = parseResponse(response);
         } finally {
             response.close();
         }
+
+        if (authCache != null) {
+            rememberAuthScheme(context);
+        }
         return result;
     }
 
+    /**
+     * The {@code AuthCache} stores a copy of the scheme, so the nonce count must be stored again after each request.
+     * Otherwise, all requests would reuse the same nonce count and the server would reject them as replayed.
+     */
+    private void rememberAuthScheme(HttpClientContext context) {
+        AuthScheme scheme = context.getTargetAuthState().getAuthScheme();
+        if (scheme instanceof DigestScheme && scheme.isComplete()) {
+            authCache.put(target, scheme);
+        }
+    }
+
     @Override
     public ModelNode execute(Operation operation) throws IOException {
-        if (!operation.getInputStreams().isEmpty()) {
-            throw new IllegalStateException("Operation has one or more attachments which is not allowed.");
-        }
+        checkNoAttachments(operation);
         return execute(operation.getOperation());
     }
 
@@ -138,84 +222,150 @@ final class HttpModelControllerClient implements ModelControllerClient {
     @Override
     public AsyncFuture<ModelNode> executeAsync(ModelNode modelNode, OperationMessageHandler handler) {
         ExecutorService executor = obtainExecutorService();
-        Future<ModelNode> submit = executor.submit(new ModelNodeFromModelNodeCallable(modelNode));
-        ModelNode result = getFutureResult(submit);
-        return new HttpModelControllerClientAsyncFutureTask(executor, result);
+        AsyncOperation<ModelNode> operation = new AsyncOperation<ModelNode>(executor, modelNode) {
+            @Override
+            ModelNode convertResult(ModelNode result) {
+                return result;
+            }
+        };
+        executor.execute(operation);
+        return operation;
     }
 
     @Override
     public AsyncFuture<ModelNode> executeAsync(Operation operation, OperationMessageHandler handler) {
-        ExecutorService executor = obtainExecutorService();
-        Future<ModelNode> submit = executor.submit(new ModelNodeFromOperationCallable(operation));
-        ModelNode result = getFutureResult(submit);
-        return new HttpModelControllerClientAsyncFutureTask(executor, result);
+        checkNoAttachments(operation);
+        return executeAsync(operation.getOperation(), handler);
     }
 
     @Override
     public AsyncFuture<OperationResponse> executeOperationAsync(Operation operation, OperationMessageHandler handler) {
+        checkNoAttachments(operation);
         ExecutorService executor = obtainExecutorService();
-        Future<OperationResponse> submit = executor.submit(new OperationResponseFromOperationCallable(operation));
-        OperationResponse result = getFutureResult(submit);
-        return new HttpModelControllerClientAsyncFutureTask(executor, result);
+        AsyncOperation<OperationResponse> asyncOperation =
+                new AsyncOperation<OperationResponse>(executor, operation.getOperation()) {
+                    @Override
+                    OperationResponse convertResult(ModelNode result) {
+                        return OperationResponse.Factory.createSimple(result);
+                    }
+                };
+        executor.execute(asyncOperation);
+        return asyncOperation;
     }
 
     @Override
     public void close() throws IOException {
         client.close();
-        if (executorService != null) {
-            executorService.shutdown();
+        synchronized (this) {
+            if (executorService != null) {
+                executorService.shutdown();
+            }
         }
     }
 
-    private ExecutorService obtainExecutorService() {
+    /**
+     * At most {@code maxConcurrentRequests} threads, so that asynchronous operations are queued in the executor
+     * instead of blocking a thread while waiting for a pooled connection. Idle threads are discarded.
+     */
+    private synchronized ExecutorService obtainExecutorService() {
         if (executorService == null) {
-            executorService = Executors.newCachedThreadPool();
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(maxConcurrentRequests, maxConcurrentRequests,
+                    60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                        private final AtomicInteger counter = new AtomicInteger();
+
+                        @Override
+                        public Thread newThread(Runnable runnable) {
+                            Thread thread = new Thread(runnable, "creaper-http-" + counter.incrementAndGet());
+                            thread.setDaemon(true);
+                            return thread;
+                        }
+                    });
+            executor.allowCoreThreadTimeOut(true);
+            executorService = executor;
         }
         return executorService;
     }
 
+    private static void checkNoAttachments(Operation operation) {
+        if (!operation.getInputStreams().isEmpty()) {
+            throw new IllegalStateException("Operation has one or more attachments which is not allowed.");
+        }
+    }
+
     private ModelNode parseResponse(CloseableHttpResponse response) throws IOException {
-        ModelNode result;
-        String content = EntityUtils.toString(response.getEntity());
+        HttpEntity entity = response.getEntity();
         int status = response.getStatusLine().getStatusCode();
-        if (status == HttpStatus.SC_OK || status == HttpStatus.SC_INTERNAL_SERVER_ERROR) {
-            result = ModelNode.fromJSONString(content);
-        } else {
-            throw new RuntimeException(String.format("Server responded %s%nMessage:%n%s", status, content));
+        if (status != HttpStatus.SC_OK && status != HttpStatus.SC_INTERNAL_SERVER_ERROR) {
+            throw new RuntimeException(String.format("Server responded %s%nMessage:%n%s", status,
+                    EntityUtils.toString(entity)));
+        }
+
+        // parsing directly from the stream avoids copying the (possibly very large) response in memory
+        ContentType contentType = ContentType.get(entity);
+        InputStream content = entity.getContent();
+        try {
+            if (contentType != null && APPLICATION_DMR_ENCODED.getMimeType().equals(contentType.getMimeType())) {
+                return ModelNode.fromBase64(content);
+            }
+            return ModelNode.fromJSONStream(content);
+        } finally {
+            content.close();
         }
-        return result;
     }
 
-    private HttpPost buildRequest(ModelNode model) throws UnsupportedEncodingException {
+    private HttpPost buildRequest(ModelNode model) {
         HttpPost request = new HttpPost(url);
-        request.addHeader(HttpHeaders.CONTENT_TYPE, ContentType.APPLICATION_JSON.getMimeType());
-        request.setEntity(new StringEntity(model.toJSONString(true)));
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        if (dmrEncoded) {
+            request.addHeader(HttpHeaders.CONTENT_TYPE, APPLICATION_DMR_ENCODED.getMimeType());
+            request.addHeader(HttpHeaders.ACCEPT, APPLICATION_DMR_ENCODED.getMimeType());
+            try {
+                model.writeBase64(content);
+            } catch (IOException e) {
+                throw new IllegalStateException(e); // can't happen, writing to memory
+            }
+            request.setEntity(new ByteArrayEntity(content.toByteArray(), APPLICATION_DMR_ENCODED));
+        } else {
+            request.addHeader(HttpHeaders.CONTENT_TYPE, ContentType.APPLICATION_JSON.getMimeType());
+            PrintWriter writer = new PrintWriter(new OutputStreamWriter(content, Charsets.UTF_8));
+            model.writeJSONString(writer, true); // compact
+            writer.close();
+            request.setEntity(new ByteArrayEntity(content.toByteArray(), ContentType.APPLICATION_JSON));
+        }
         return request;
     }
 
-    private String getManagementRealm(String url) throws IOException {
-        // we need client without credentials
-        CloseableHttpClient defaultHttpClient = HttpClients.custom()
-                .setConnectionManager(new PoolingHttpClientConnectionManager(registry))
-                .setDefaultRequestConfig(requestConfig)
-                .build();
+    private String getManagementRealm() throws IOException {
+        String realm = MANAGEMENT_REALMS.get(realmKey);
+        if (realm == null) {
+            realm = discoverManagementRealm();
+            MANAGEMENT_REALMS.put(realmKey, realm);
+        }
+        return realm;
+    }
 
+    /**
+     * Sends an unauthenticated request and reads the realm from the challenge. The pooled client is used,
+     * so the connection (and the TLS session) is then reused for the authenticated requests.
+     * If preemptive authentication is used, the challenge is remembered right away.
+     */
+    private String discoverManagementRealm() throws IOException {
         HttpPost post = new HttpPost(url);
         post.addHeader(HttpHeaders.CONTENT_TYPE, ContentType.APPLICATION_JSON.getMimeType());
         // this is not necessary, but without this server produce parse error exception when authentication is disabled
         // which may confuse user
         post.setEntity(new StringEntity("[]"));
 
-        CloseableHttpResponse response = null;
+        // we need request without credentials
+        HttpClientContext context = HttpClientContext.create();
+        context.setCredentialsProvider(new BasicCredentialsProvider());
+
+        CloseableHttpResponse response = client.execute(post, context);
         String content;
         try {
-            response = defaultHttpClient.execute(post);
             content = EntityUtils.toString(response.getEntity());
         } finally {
-            if (response != null) {
-                response.close();
-            }
-            defaultHttpClient.close();
+            response.close();
         }
         if (response.getStatusLine().getStatusCode() == HttpStatus.SC_INTERNAL_SERVER_ERROR) {
             throw new IllegalStateException(String.format("Failed to obtain management realm name. Server responded %d instead of %d. Isn't server authentication turned off while username and password set? Content: %s",
@@ -228,80 +378,60 @@ final class HttpModelControllerClient implements ModelControllerClient {
         if (!response.containsHeader(HttpHeaders.WWW_AUTHENTICATE)) {
             throw new IllegalStateException("Failed to obtain management realm name. Missing WWW-Authenticate header in server response.");
         }
-        for (HeaderElement el : response.getHeaders(HttpHeaders.WWW_AUTHENTICATE)[0].getElements()) {
+        Header challenge = response.getHeaders(HttpHeaders.WWW_AUTHENTICATE)[0];
+        for (HeaderElement el : challenge.getElements()) {
             if (el.getName().equals("Digest realm")) {
+                if (authCache != null) {
+                    rememberChallenge(challenge);
+                }
                 return el.getValue();
             }
         }
         throw new IllegalStateException("Failed to obtain management realm name. Digest realm not found in WWW-Authenticate header.");
     }
 
-    private <T> T getFutureResult(Future<T> submit) {
-        T get = null;
+    private void rememberChallenge(Header challenge) {
+        DigestScheme scheme = new DigestScheme();
         try {
-            if (timeout == NO_TIMEOUT) {
-                get = submit.get();
-            } else {
-                get = submit.get(timeout, TimeUnit.MILLISECONDS);
-            }
-        } catch (InterruptedException ex) {
-            throw new RuntimeException(ex);
-        } catch (ExecutionException ex) {
-            throw new RuntimeException(ex);
-        } catch (TimeoutException ex) {
-            throw new RuntimeException(ex);
+            scheme.processChallenge(challenge);
+        } catch (MalformedChallengeException e) {
+            return; // the first request will be challenged again
         }
-        return get;
+        authCache.put(target, scheme);
     }
 
-    private static class HttpModelControllerClientAsyncFutureTask<T> extends AsyncFutureTask<T> {
+    /**
+     * The HTTP request is built eagerly, so that it can be aborted when the operation is cancelled.
+     * If cancelled before it started, the request is never sent.
+     */
+    private abstract class AsyncOperation<T> extends AsyncFutureTask<T> implements Runnable {
+        private final HttpPost request;
 
-        public HttpModelControllerClientAsyncFutureTask(Executor executor, T result) {
-            super(executor);
-            super.setResult(result);
+        AsyncOperation(Executor listenerExecutor, ModelNode operation) {
+            super(listenerExecutor);
+            this.request = buildRequest(operation);
         }
 
-    }
-
-    private class ModelNodeFromModelNodeCallable implements Callable<ModelNode> {
-
-        private final ModelNode modelNode;
-
-        public ModelNodeFromModelNodeCallable(ModelNode modelNode) {
-            this.modelNode = modelNode;
-        }
+        abstract T convertResult(ModelNode result);
 
         @Override
-        public ModelNode call() throws Exception {
-            return execute(modelNode);
-        }
-    }
-
-    private class ModelNodeFromOperationCallable implements Callable<ModelNode> {
-
-        private final Operation operation;
-
-        public ModelNodeFromOperationCallable(Operation operation) {
-            this.operation = operation;
-        }
-
-        @Override
-        public ModelNode call() throws Exception {
-            return execute(operation);
-        }
-    }
-
-    private class OperationResponseFromOperationCallable implements Callable<OperationResponse> {
-
-        private final Operation operation;
+        public void run() {
+            if (getStatus() != Status.WAITING) {
+                return;
+            }
 
-        public OperationResponseFromOperationCallable(Operation operation) {
-            this.operation = operation;
+            try {
+                setResult(convertResult(execute(request)));
+            } catch (Throwable e) {
+                setFailed(e);
+            }
         }
 
         @Override
-        public OperationResponse call() throws Exception {
-            return executeOperation(operation, null);
+        public void asyncCancel(boolean interruptionDesired) {
+            // cancelled first, otherwise the aborted request would fail the operation
+            setCancelled();
+            request.abort();
         }
     }
 }
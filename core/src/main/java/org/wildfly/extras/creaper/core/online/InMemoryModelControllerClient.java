@@ -0,0 +1,470 @@
+package org.wildfly.extras.creaper.core.online;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import org.jboss.as.controller.client.ModelControllerClient;
+import org.jboss.as.controller.client.Operation;
+import org.jboss.as.controller.client.OperationMessageHandler;
+import org.jboss.as.controller.client.OperationResponse;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.Property;
+import org.jboss.threads.AsyncFuture;
+import org.jboss.threads.AsyncFutureTask;
+import org.wildfly.extras.creaper.core.ManagementVersionPart;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * <p>A {@code ModelControllerClient} that doesn't connect anywhere and keeps the management model of a standalone
+ * server in memory. It is meant for testing and benchmarking the logic of commands without a real server:</p>
+ *
+ * <pre>
+ * InMemoryModelControllerClient model = new InMemoryModelControllerClient(5, 0, 0);
+ * OnlineManagementClient client = ManagementClient.online(OnlineOptions.standalone().wrap(model));
+ * </pre>
+ *
+ * <p>These operations are supported: {@code add}, {@code remove}, {@code read-resource}, {@code read-attribute},
+ * {@code write-attribute}, {@code undefine-attribute}, {@code read-children-names}, {@code read-children-types},
+ * {@code read-children-resources}, {@code composite} (which is rolled back if any step fails), {@code whoami},
+ * {@code take-snapshot}, {@code reload} (also to a snapshot, using the {@code server-config} parameter)
+ * and {@code shutdown} (also with {@code restart}). Other operations fail.</p>
+ *
+ * <p>The model knows nothing about resource descriptions. Any resource can be added under an existing resource,
+ * the parameters of the {@code add} operation become its attributes, any attribute can be written and reading
+ * an attribute that was never written returns an undefined value. Runtime attributes don't exist, with the exception
+ * of {@code server-state} of the root resource, which simulates the server lifecycle: it is {@code reload-required}
+ * after {@link #requireReload()}, {@code restart-required} after {@link #requireRestart()}, and it is
+ * {@code starting} when first read after a reload or restart. Responses carry the {@code process-state} response
+ * header when the server isn't running normally, just like responses of a real server.</p>
+ *
+ * <p>Because the server never goes down, reloading doesn't require reconnecting, so the limitations
+ * of {@link OnlineOptions.ConnectionOnlineOptions#wrap(ModelControllerClient) wrapped} clients don't apply.
+ * Asynchronous operations are executed immediately. This class is thread-safe.</p>
+ */
+public final class InMemoryModelControllerClient implements ModelControllerClient {
+    private static final List<String> ROOT_CHILD_TYPES = Arrays.asList(Constants.CORE_SERVICE, Constants.DEPLOYMENT,
+            Constants.EXTENSION, Constants.INTERFACE, Constants.PATH, Constants.SOCKET_BINDING_GROUP,
+            Constants.SUBSYSTEM);
+
+    private static final String SNAPSHOT_DIRECTORY = "/in-memory/configuration/standalone_xml_history/snapshot/";
+
+    // all guarded by "this"
+    private Resource root;
+    private final Map<String, Resource> snapshots = new HashMap<String, Resource>();
+    private String processState = Constants.CONTROLLER_PROCESS_STATE_RUNNING;
+    private boolean starting; // the server was reloaded or restarted and its state wasn't read yet
+    private boolean shutDown;
+    private int reloads;
+    private int restarts;
+
+    /** Creates an empty standalone server with given management version. */
+    public InMemoryModelControllerClient(int managementMajorVersion, int managementMinorVersion,
+                                         int managementMicroVersion) {
+        root = new Resource();
+        root.attributes.get(ManagementVersionPart.MAJOR.attributeName()).set(managementMajorVersion);
+        root.attributes.get(ManagementVersionPart.MINOR.attributeName()).set(managementMinorVersion);
+        root.attributes.get(ManagementVersionPart.MICRO.attributeName()).set(managementMicroVersion);
+        root.attributes.get(Constants.NAME).set("in-memory");
+        for (String childType : ROOT_CHILD_TYPES) {
+            root.childrenOfType(childType);
+        }
+    }
+
+    /** Simulates a change that requires reload. The next reload (or restart) brings the server back to normal. */
+    public synchronized void requireReload() {
+        if (!Constants.CONTROLLER_PROCESS_STATE_RESTART_REQUIRED.equals(processState)) {
+            processState = Constants.CONTROLLER_PROCESS_STATE_RELOAD_REQUIRED;
+        }
+    }
+
+    /** Simulates a change that requires restart. The next restart brings the server back to normal. */
+    public synchronized void requireRestart() {
+        processState = Constants.CONTROLLER_PROCESS_STATE_RESTART_REQUIRED;
+    }
+
+    /** Number of {@code reload} operations performed so far. */
+    public synchronized int reloadCount() {
+        return reloads;
+    }
+
+    /** Number of {@code shutdown(restart=true)} operations performed so far. */
+    public synchronized int restartCount() {
+        return restarts;
+    }
+
+    @Override
+    public synchronized ModelNode execute(ModelNode operation) throws IOException {
+        if (shutDown) {
+            throw new IOException("The in-memory server was shut down");
+        }
+
+        ModelNode result = executeStep(operation);
+
+        String operationName = operation.get(Constants.OP).asString();
+        if (isSuccess(result) && !Constants.CONTROLLER_PROCESS_STATE_RUNNING.equals(processState)
+                && !Constants.RELOAD.equals(operationName) && !Constants.SHUTDOWN.equals(operationName)) {
+            result.get(Constants.RESPONSE_HEADERS, Constants.PROCESS_STATE).set(processState);
+        }
+        return result;
+    }
+
+    private ModelNode executeStep(ModelNode operation) {
+        String operationName = operation.get(Constants.OP).asString();
+        ModelNode address = operation.hasDefined(Constants.OP_ADDR)
+                ? operation.get(Constants.OP_ADDR)
+                : new ModelNode().setEmptyList();
+
+        if (Constants.COMPOSITE.equals(operationName)) {
+            return composite(operation);
+        }
+        if (Constants.ADD.equals(operationName)) {
+            return add(address, operation);
+        }
+
+        Resource resource = find(address);
+        if (resource == null) {
+            return failed(String.format("WFLYCTL0216: Management resource '%s' not found", address.asString()));
+        }
+
+        if (Constants.REMOVE_OPERATION.equals(operationName)) {
+            return remove(address);
+        } else if (Constants.READ_RESOURCE_OPERATION.equals(operationName)) {
+            return success(readResource(resource, operation, depth(operation),
+                    resource == root && isTrue(operation, Constants.INCLUDE_RUNTIME)));
+        } else if (Constants.READ_ATTRIBUTE_OPERATION.equals(operationName)) {
+            return readAttribute(resource, operation.get(Constants.NAME).asString());
+        } else if (Constants.WRITE_ATTRIBUTE_OPERATION.equals(operationName)) {
+            if (operation.hasDefined(Constants.VALUE)) {
+                resource.attributes.get(operation.get(Constants.NAME).asString()).set(operation.get(Constants.VALUE));
+            } else {
+                resource.attributes.remove(operation.get(Constants.NAME).asString());
+            }
+            return success(null);
+        } else if (Constants.UNDEFINE_ATTRIBUTE_OPERATION.equals(operationName)) {
+            resource.attributes.remove(operation.get(Constants.NAME).asString());
+            return success(null);
+        } else if (Constants.READ_CHILDREN_NAMES_OPERATION.equals(operationName)) {
+            ModelNode names = new ModelNode().setEmptyList();
+            for (String name : resource.childrenOfType(operation.get(Constants.CHILD_TYPE).asString()).keySet()) {
+                names.add(name);
+            }
+            return success(names);
+        } else if (Constants.READ_CHILDREN_TYPES.equals(operationName)) {
+            ModelNode types = new ModelNode().setEmptyList();
+            for (String type : resource.children.keySet()) {
+                types.add(type);
+            }
+            return success(types);
+        } else if (Constants.READ_CHILDREN_RESOURCES.equals(operationName)) {
+            ModelNode children = new ModelNode().setEmptyObject();
+            int depth = depth(operation);
+            for (Map.Entry<String, Resource> child
+                    : resource.childrenOfType(operation.get(Constants.CHILD_TYPE).asString()).entrySet()) {
+                children.get(child.getKey()).set(readResource(child.getValue(), operation,
+                        depth == Integer.MAX_VALUE ? depth : depth - 1, false));
+            }
+            return success(children);
+        } else if (Constants.WHOAMI.equals(operationName)) {
+            ModelNode identity = new ModelNode();
+            identity.get(Constants.IDENTITY, Constants.USERNAME).set("$local");
+            return success(identity);
+        } else if (Constants.TAKE_SNAPSHOT.equals(operationName) && resource == root) {
+            String snapshot = String.format("%04dstandalone.xml", snapshots.size() + 1);
+            snapshots.put(snapshot, root.copy());
+            return success(new ModelNode(SNAPSHOT_DIRECTORY + snapshot));
+        } else if (Constants.RELOAD.equals(operationName) && resource == root) {
+            return reload(operation);
+        } else if (Constants.SHUTDOWN.equals(operationName) && resource == root) {
+            return shutdown(operation);
+        }
+
+        return failed(String.format("WFLYCTL0031: No operation named '%s' exists at address %s",
+                operationName, address.asString()));
+    }
+
+    /** Executes all steps; if one of them fails, the model is restored to the state before the first step. */
+    private ModelNode composite(ModelNode operation) {
+        Resource backup = root.copy();
+
+        ModelNode result = new ModelNode();
+        ModelNode stepResults = result.get(Constants.RESULT).setEmptyObject();
+        List<ModelNode> steps = operation.hasDefined(Constants.STEPS)
+                ? operation.get(Constants.STEPS).asList()
+                : new ArrayList<ModelNode>();
+        for (int i = 0; i < steps.size(); i++) {
+            String stepName = "step-" + (i + 1);
+            ModelNode stepResult = executeStep(steps.get(i));
+            stepResults.get(stepName).set(stepResult);
+            if (!isSuccess(stepResult)) {
+                root = backup;
+                result.get(Constants.OUTCOME).set(Constants.FAILED);
+                result.get(Constants.FAILURE_DESCRIPTION,
+                        "WFLYCTL0062: Composite operation failed and was rolled back. Steps that failed:",
+                        "Operation " + stepName).set(stepResult.get(Constants.FAILURE_DESCRIPTION));
+                result.get(Constants.ROLLED_BACK).set(true);
+                return result;
+            }
+        }
+        result.get(Constants.OUTCOME).set(Constants.SUCCESS);
+        return result;
+    }
+
+    private ModelNode add(ModelNode address, ModelNode operation) {
+        List<Property> path = address.asPropertyList();
+        if (path.isEmpty() || find(address) != null) {
+            return failed(String.format("WFLYCTL0212: Duplicate resource %s", address.asString()));
+        }
+
+        Resource parent = find(parentOf(address));
+        if (parent == null) {
+            return failed(String.format("WFLYCTL0175: Resource %s does not exist; a resource at address %s cannot be "
+                    + "created until all ancestor resources have been added", parentOf(address).asString(),
+                    address.asString()));
+        }
+
+        Resource resource = new Resource();
+        for (String key : operation.keys()) {
+            if (!Constants.OP.equals(key) && !Constants.OP_ADDR.equals(key)
+                    && !Constants.OPERATION_HEADERS.equals(key) && operation.hasDefined(key)) {
+                resource.attributes.get(key).set(operation.get(key));
+            }
+        }
+        Property last = path.get(path.size() - 1);
+        parent.childrenOfType(last.getName()).put(last.getValue().asString(), resource);
+        return success(null);
+    }
+
+    private ModelNode remove(ModelNode address) {
+        List<Property> path = address.asPropertyList();
+        if (path.isEmpty()) {
+            return failed("WFLYCTL0031: No operation named 'remove' exists at address []");
+        }
+
+        Property last = path.get(path.size() - 1);
+        find(parentOf(address)).childrenOfType(last.getName()).remove(last.getValue().asString());
+        return success(null);
+    }
+
+    private ModelNode readAttribute(Resource resource, String name) {
+        if (resource == root && Constants.SERVER_STATE.equals(name)) {
+            if (starting) {
+                starting = false;
+                return success(new ModelNode(Constants.CONTROLLER_PROCESS_STATE_STARTING));
+            }
+            return success(new ModelNode(processState));
+        }
+
+        return success(resource.attributes.has(name) ? resource.attributes.get(name) : null);
+    }
+
+    private ModelNode readResource(Resource resource, ModelNode operation, int depth, boolean includeServerState) {
+        ModelNode result = resource.attributes.clone();
+        if (includeServerState) {
+            result.get(Constants.SERVER_STATE).set(processState);
+        }
+        if (isTrue(operation, Constants.ATTRIBUTES_ONLY)) {
+            return result;
+        }
+
+        for (Map.Entry<String, Map<String, Resource>> childType : resource.children.entrySet()) {
+            ModelNode children = result.get(childType.getKey());
+            for (Map.Entry<String, Resource> child : childType.getValue().entrySet()) {
+                if (depth > 0) {
+                    children.get(child.getKey()).set(readResource(child.getValue(), operation,
+                            depth == Integer.MAX_VALUE ? depth : depth - 1, false));
+                } else {
+                    children.get(child.getKey());
+                }
+            }
+        }
+        return result;
+    }
+
+    private ModelNode reload(ModelNode operation) {
+        if (operation.hasDefined(Constants.SERVER_CONFIG)) {
+            Resource snapshot = snapshots.get(operation.get(Constants.SERVER_CONFIG).asString());
+            if (snapshot == null) {
+                return failed(String.format("Configuration file %s doesn't exist",
+                        operation.get(Constants.SERVER_CONFIG).asString()));
+            }
+            root = snapshot.copy();
+        }
+
+        reloads++;
+        if (Constants.CONTROLLER_PROCESS_STATE_RELOAD_REQUIRED.equals(processState)) {
+            processState = Constants.CONTROLLER_PROCESS_STATE_RUNNING;
+        }
+        starting = true;
+        return success(null);
+    }
+
+    private ModelNode shutdown(ModelNode operation) {
+        if (isTrue(operation, Constants.RESTART)) {
+            restarts++;
+            processState = Constants.CONTROLLER_PROCESS_STATE_RUNNING;
+            starting = true;
+        } else {
+            shutDown = true;
+        }
+        return success(null);
+    }
+
+    private Resource find(ModelNode address) {
+        Resource result = root;
+        for (Property element : address.asPropertyList()) {
+            result = result.children.containsKey(element.getName())
+                    ? result.children.get(element.getName()).get(element.getValue().asString())
+                    : null;
+            if (result == null) {
+                return null;
+            }
+        }
+        return result;
+    }
+
+    private static ModelNode parentOf(ModelNode address) {
+        ModelNode result = new ModelNode().setEmptyList();
+        List<ModelNode> elements = address.asList();
+        for (ModelNode element : elements.subList(0, elements.size() - 1)) {
+            result.add(element);
+        }
+        return result;
+    }
+
+    /** {@code Integer.MAX_VALUE} means unlimited depth. */
+    private static int depth(ModelNode operation) {
+        if (operation.hasDefined(Constants.RECURSIVE_DEPTH) && operation.get(Constants.RECURSIVE_DEPTH).asInt() > 0) {
+            return operation.get(Constants.RECURSIVE_DEPTH).asInt();
+        }
+        return isTrue(operation, Constants.RECURSIVE) ? Integer.MAX_VALUE : 0;
+    }
+
+    private static boolean isTrue(ModelNode operation, String parameter) {
+        return operation.hasDefined(parameter) && operation.get(parameter).asBoolean();
+    }
+
+    private static boolean isSuccess(ModelNode result) {
+        return Constants.SUCCESS.equals(result.get(Constants.OUTCOME).asString());
+    }
+
+    private static ModelNode success(ModelNode value) {
+        ModelNode result = new ModelNode();
+        result.get(Constants.OUTCOME).set(Constants.SUCCESS);
+        if (value != null) {
+            result.get(Constants.RESULT).set(value);
+        }
+        return result;
+    }
+
+    private static ModelNode failed(String failureDescription) {
+        ModelNode result = new ModelNode();
+        result.get(Constants.OUTCOME).set(Constants.FAILED);
+        result.get(Constants.FAILURE_DESCRIPTION).set(failureDescription);
+        result.get(Constants.ROLLED_BACK).set(true);
+        return result;
+    }
+
+    @Override
+    public ModelNode execute(Operation operation) throws IOException {
+        return execute(operation.getOperation());
+    }
+
+    @Override
+    public ModelNode execute(ModelNode operation, OperationMessageHandler messageHandler) throws IOException {
+        return execute(operation);
+    }
+
+    @Override
+    public ModelNode execute(Operation operation, OperationMessageHandler messageHandler) throws IOException {
+        return execute(operation.getOperation());
+    }
+
+    @Override
+    public OperationResponse executeOperation(Operation operation, OperationMessageHandler messageHandler)
+            throws IOException {
+        return OperationResponse.Factory.createSimple(execute(operation.getOperation()));
+    }
+
+    @Override
+    public AsyncFuture<ModelNode> executeAsync(ModelNode operation, OperationMessageHandler messageHandler) {
+        CompletedFuture<ModelNode> result = new CompletedFuture<ModelNode>();
+        try {
+            result.complete(execute(operation));
+        } catch (IOException e) {
+            result.fail(e);
+        }
+        return result;
+    }
+
+    @Override
+    public AsyncFuture<ModelNode> executeAsync(Operation operation, OperationMessageHandler messageHandler) {
+        return executeAsync(operation.getOperation(), messageHandler);
+    }
+
+    @Override
+    public AsyncFuture<OperationResponse> executeOperationAsync(Operation operation,
+                                                                OperationMessageHandler messageHandler) {
+        CompletedFuture<OperationResponse> result = new CompletedFuture<OperationResponse>();
+        try {
+            result.complete(OperationResponse.Factory.createSimple(execute(operation.getOperation())));
+        } catch (IOException e) {
+            result.fail(e);
+        }
+        return result;
+    }
+
+    /** The model is kept, so a new client can wrap this object again. */
+    @Override
+    public void close() {
+    }
+
+    private static final class Resource {
+        final ModelNode attributes = new ModelNode().setEmptyObject();
+        final Map<String, Map<String, Resource>> children = new TreeMap<String, Map<String, Resource>>();
+
+        Map<String, Resource> childrenOfType(String type) {
+            Map<String, Resource> result = children.get(type);
+            if (result == null) {
+                result = new TreeMap<String, Resource>();
+                children.put(type, result);
+            }
+            return result;
+        }
+
+        Resource copy() {
+            Resource result = new Resource();
+            result.attributes.set(attributes.clone());
+            for (Map.Entry<String, Map<String, Resource>> childType : children.entrySet()) {
+                Map<String, Resource> copiedChildren = result.childrenOfType(childType.getKey());
+                for (Map.Entry<String, Resource> child : childType.getValue().entrySet()) {
+                    copiedChildren.put(child.getKey(), child.getValue().copy());
+                }
+            }
+            return result;
+        }
+    }
+
+    private static final class CompletedFuture<T> extends AsyncFutureTask<T> {
+        CompletedFuture() {
+            super(MoreExecutors.directExecutor());
+        }
+
+        void complete(T result) {
+            setResult(result);
+        }
+
+        void fail(Exception e) {
+            setFailed(e);
+        }
+
+        @Override
+        public void asyncCancel(boolean interruptionDesired) {
+            // already completed
+        }
+    }
+}
@@ -79,6 +79,12 @@ final class LazyOnlineManagementClient implements OnlineManagementClient {
         return delegate.execute(operation);
     }
 
+    @Override
+    public ModelNode parseCliOperation(String operation) throws CliException, IOException {
+        ensureInitialized();
+        return delegate.parseCliOperation(operation);
+    }
+
     @Override
     public void executeCli(String cliOperation) throws CliException, IOException {
         ensureInitialized();
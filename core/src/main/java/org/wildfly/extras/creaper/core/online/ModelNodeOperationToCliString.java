@@ -11,6 +11,26 @@ final class ModelNodeOperationToCliString {
 
     // the implementation here is not very efficient with string handling, but it shouldn't pose a problem
 
+    /** An object whose {@code toString} performs the conversion, so that it's only done when actually logged. */
+    static Object lazy(final ModelNode op) {
+        return new Object() {
+            @Override
+            public String toString() {
+                return convert(op);
+            }
+        };
+    }
+
+    /** Same as {@link #lazy(ModelNode)}, except that the operation is converted to JSON. */
+    static Object lazyJson(final ModelNode op) {
+        return new Object() {
+            @Override
+            public String toString() {
+                return op.toJSONString(false);
+            }
+        };
+    }
+
     static String convert(ModelNode op) {
         try {
             String operation = op.get(Constants.OP).asString();
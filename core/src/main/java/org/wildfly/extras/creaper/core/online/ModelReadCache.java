@@ -0,0 +1,261 @@
+package org.wildfly.extras.creaper.core.online;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.dmr.Property;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>A cache of results of read-only management operations ({@code read-resource}, {@code read-attribute},
+ * {@code read-children-names} and {@code read-resource-description}). Commands often ask the server the same
+ * questions over and over (e.g. {@link org.wildfly.extras.creaper.core.online.operations.Operations#exists(
+ * org.wildfly.extras.creaper.core.online.operations.Address) whether a resource exists}), so caching the answers
+ * saves a lot of round trips. Used by configuring {@link OnlineOptions.OptionalOnlineOptions#cacheReads(
+ * ModelReadCache)}.</p>
+ *
+ * <p>Each cached result expires after the configured time to live. Any other operation invalidates all cached
+ * results for its address, the addresses under it and the addresses above it (e.g. adding
+ * {@code /subsystem=logging/logger=foo} invalidates reading {@code /subsystem=logging} or the root resource).
+ * Operations that can't be analyzed (e.g. {@link OnlineManagementClient#executeCli(String) CLI operations})
+ * invalidate the entire cache. Only successful results are cached, so that a failure (e.g. when the server is
+ * being reloaded) isn't replayed for the whole time to live.</p>
+ *
+ * <p>Runtime attributes and metrics are never invalidated by operations, so they would be served stale. Therefore,
+ * reading resources with {@code include-runtime} is never cached, and {@code read-attribute} is only cached for
+ * the attributes explicitly given to the constructor. Those should only be configuration attributes; the attributes
+ * that describe the state of the server process (such as {@code server-state}) are never cached.</p>
+ *
+ * <p>The cache is thread-safe and can be shared by multiple clients connected to the same server (for example,
+ * by the clients from {@link OnlineManagementClientPool}). It must <i>not</i> be shared by clients connected
+ * to different servers.</p>
+ */
+public final class ModelReadCache {
+    private static final Set<String> CACHEABLE_OPERATIONS = Collections.unmodifiableSet(new HashSet<String>(
+            Arrays.asList(Constants.READ_RESOURCE_OPERATION, Constants.READ_ATTRIBUTE_OPERATION,
+                    Constants.READ_CHILDREN_NAMES_OPERATION, Constants.READ_RESOURCE_DESCRIPTION)));
+
+    private static final Set<String> PROCESS_STATE_ATTRIBUTES = Collections.unmodifiableSet(new HashSet<String>(
+            Arrays.asList(Constants.SERVER_STATE, Constants.HOST_STATE, Constants.PROCESS_STATE,
+                    "runtime-configuration-state", "status")));
+
+    private final long ttlNanos;
+    private final Set<String> cachedAttributes;
+
+    // all guarded by "this"
+    private final Map<String, Entry> entries = new HashMap<String, Entry>();
+    private long generation; // incremented on each invalidation
+    private long hitCount;
+    private long missCount;
+    private long invalidationCount;
+
+    /**
+     * @param cachedAttributes names of the attributes whose {@code read-attribute} results are cached; reading other
+     * attributes is never cached, because they might be runtime attributes or metrics
+     */
+    public ModelReadCache(long timeToLive, TimeUnit unit, String... cachedAttributes) {
+        if (timeToLive <= 0) {
+            throw new IllegalArgumentException("Time to live must be positive");
+        }
+        this.ttlNanos = unit.toNanos(timeToLive);
+        this.cachedAttributes = Collections.unmodifiableSet(new HashSet<String>(Arrays.asList(cachedAttributes)));
+    }
+
+    /** Returns a copy of the cached result of the {@code operation} or {@code null} if it's not cached. */
+    synchronized ModelNode get(ModelNode operation) {
+        String key = cacheKey(operation);
+        if (key == null) {
+            return null;
+        }
+
+        Entry entry = entries.get(key);
+        if (entry == null || entry.isExpired(System.nanoTime())) {
+            entries.remove(key);
+            missCount++;
+            return null;
+        }
+
+        hitCount++;
+        return entry.result.clone();
+    }
+
+    /** Must be called <i>before</i> executing an operation; the value is later passed to {@link #executed}. */
+    synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * Caches the {@code result} of the {@code operation} if it's cacheable and nothing was invalidated
+     * since {@code generationBefore}; otherwise invalidates all entries affected by the {@code operation}.
+     */
+    synchronized void executed(ModelNode operation, ModelNode result, long generationBefore) {
+        String key = cacheKey(operation);
+        if (key != null) {
+            if (generation == generationBefore && isSuccess(result)) {
+                entries.put(key, new Entry(addressOf(operation), result.clone(), System.nanoTime() + ttlNanos));
+            }
+            return;
+        }
+
+        if (!isReadOnly(operation)) {
+            invalidate(operation);
+        }
+    }
+
+    /** Invalidates the entire cache. */
+    public synchronized void clear() {
+        entries.clear();
+        generation++;
+        invalidationCount++;
+    }
+
+    // must be called with "this" locked
+    private void invalidate(ModelNode operation) {
+        if (Constants.COMPOSITE.equals(operation.get(Constants.OP).asString())) {
+            if (!operation.hasDefined(Constants.STEPS) || operation.get(Constants.STEPS).getType() != ModelType.LIST) {
+                clear();
+                return;
+            }
+            for (ModelNode step : operation.get(Constants.STEPS).asList()) {
+                if (!isReadOnly(step)) {
+                    invalidate(step);
+                }
+            }
+            return;
+        }
+
+        List<String> address = addressOf(operation);
+        if (address == null || address.isEmpty()) {
+            clear();
+            return;
+        }
+
+        long now = System.nanoTime();
+        for (Iterator<Entry> it = entries.values().iterator(); it.hasNext(); ) {
+            Entry entry = it.next();
+            if (entry.isExpired(now) || isPrefix(entry.address, address) || isPrefix(address, entry.address)) {
+                it.remove();
+            }
+        }
+        generation++;
+        invalidationCount++;
+    }
+
+    private static boolean isSuccess(ModelNode result) {
+        return result.hasDefined(Constants.OUTCOME)
+                && Constants.SUCCESS.equals(result.get(Constants.OUTCOME).asString());
+    }
+
+    private static boolean isReadOnly(ModelNode operation) {
+        String name = operation.get(Constants.OP).asString();
+        return CACHEABLE_OPERATIONS.contains(name) || name.startsWith("read-") || Constants.WHOAMI.equals(name);
+    }
+
+    /** Returns {@code null} if the {@code operation} is not cacheable. */
+    private String cacheKey(ModelNode operation) {
+        String name = operation.get(Constants.OP).asString();
+        if (!CACHEABLE_OPERATIONS.contains(name)) {
+            return null;
+        }
+        if (operation.hasDefined(Constants.INCLUDE_RUNTIME) && operation.get(Constants.INCLUDE_RUNTIME).asBoolean()) {
+            return null;
+        }
+        if (Constants.READ_ATTRIBUTE_OPERATION.equals(name)) {
+            if (!operation.hasDefined(Constants.NAME)) {
+                return null;
+            }
+            String attribute = operation.get(Constants.NAME).asString();
+            if (!cachedAttributes.contains(attribute) || PROCESS_STATE_ATTRIBUTES.contains(attribute)) {
+                return null;
+            }
+        }
+        if (addressOf(operation) == null) {
+            return null;
+        }
+
+        ModelNode key = operation.clone();
+        key.remove(Constants.OPERATION_HEADERS);
+        return key.toString();
+    }
+
+    /** Returns {@code null} if the address can't be analyzed. */
+    private static List<String> addressOf(ModelNode operation) {
+        // careful, ModelNode.get would add the key if it didn't exist
+        if (!operation.hasDefined(Constants.OP_ADDR)) {
+            return Collections.emptyList();
+        }
+        ModelNode address = operation.get(Constants.OP_ADDR);
+        if (address.getType() != ModelType.LIST) {
+            return null;
+        }
+
+        List<String> result = new ArrayList<String>();
+        for (ModelNode element : address.asList()) {
+            if (element.getType() != ModelType.PROPERTY && element.getType() != ModelType.OBJECT) {
+                return null;
+            }
+            Property property = element.asProperty();
+            result.add(property.getName() + "=" + property.getValue().asString());
+        }
+        return result;
+    }
+
+    private static boolean isPrefix(List<String> prefix, List<String> address) {
+        return prefix.size() <= address.size() && prefix.equals(address.subList(0, prefix.size()));
+    }
+
+    // ---
+
+    /** Number of operations whose result was found in the cache. */
+    public synchronized long hitCount() {
+        return hitCount;
+    }
+
+    /** Number of cacheable operations whose result was not found in the cache. */
+    public synchronized long missCount() {
+        return missCount;
+    }
+
+    /** Number of operations that invalidated some part of the cache (or the entire cache). */
+    public synchronized long invalidationCount() {
+        return invalidationCount;
+    }
+
+    /** Number of results currently held in the cache, including the expired ones that weren't evicted yet. */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @Override
+    public String toString() {
+        synchronized (this) {
+            return "ModelReadCache[size " + entries.size() + ", hits " + hitCount + ", misses " + missCount
+                    + ", invalidations " + invalidationCount + "]";
+        }
+    }
+
+    private static final class Entry {
+        final List<String> address;
+        final ModelNode result;
+        final long expiresAt;
+
+        Entry(List<String> address, ModelNode result, long expiresAt) {
+            this.address = address;
+            this.result = result;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
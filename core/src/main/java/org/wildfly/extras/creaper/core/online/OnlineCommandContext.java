@@ -1,15 +1,36 @@
 package org.wildfly.extras.creaper.core.online;
 
 import org.wildfly.extras.creaper.core.ServerVersion;
+import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
+
+import java.io.IOException;
+import java.util.concurrent.TimeoutException;
 
 public final class OnlineCommandContext {
     public final OnlineManagementClient client;
     public final OnlineOptions options; // same as client.options()
     public final ServerVersion version; // same as client.version()
 
-    OnlineCommandContext(OnlineManagementClient client, ServerVersion version) {
+    private final CoalescedReload coalescedReload; // null if reloads are not coalesced
+
+    OnlineCommandContext(OnlineManagementClient client, ServerVersion version, CoalescedReload coalescedReload) {
         this.client = client;
         this.options = client.options();
         this.version = version;
+        this.coalescedReload = coalescedReload;
+    }
+
+    /**
+     * Reloads the server if it requires reload. Commands should call this method instead of using
+     * {@link Administration#reloadIfRequired()} directly, so that the reload can be
+     * {@link OnlineOptions.OptionalOnlineOptions#coalesceReloads() coalesced}. In that case, the reload is only
+     * performed after the last command, or earlier if some operation fails in the meantime.
+     */
+    public void reloadIfRequired() throws IOException, InterruptedException, TimeoutException {
+        if (coalescedReload != null) {
+            coalescedReload.request();
+        } else {
+            new Administration(client).reloadIfRequired();
+        }
     }
 }
@@ -0,0 +1,103 @@
+package org.wildfly.extras.creaper.core.online;
+
+import org.jboss.logging.Logger;
+import org.wildfly.extras.creaper.core.FleetExecution;
+import org.wildfly.extras.creaper.core.ManagementClient;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Applies the same list of {@link OnlineCommand}s to a fleet of servers in parallel. For each server, a
+ * {@link ManagementClient#onlineLazy(OnlineOptions) lazy} client is created, so connecting to the server also
+ * happens in parallel. At most {@code maxConcurrency} servers are being configured at the same time.</p>
+ *
+ * <p>A failure on one server doesn't affect the others. The result for each server, including the failure
+ * (if any) and the time it took, is available in the returned {@link OnlineFleetResult}.</p>
+ *
+ * <p>The same command instances are applied to all servers, possibly at the same time, so they must not hold
+ * any mutable state. That is true for most commands, but not for example for a command that deploys
+ * an {@code InputStream}, which can only be read once.</p>
+ */
+public final class OnlineFleetExecutor {
+    private static final Logger log = Logger.getLogger(OnlineFleetExecutor.class);
+
+    private final int maxConcurrency;
+    private final ClientFactory factory;
+
+    /** @param maxConcurrency maximum number of servers that are being configured at the same time */
+    public OnlineFleetExecutor(int maxConcurrency) {
+        this(maxConcurrency, new ClientFactory() {
+            @Override
+            public OnlineManagementClient create(OnlineOptions options) {
+                return ManagementClient.onlineLazy(options);
+            }
+        });
+    }
+
+    OnlineFleetExecutor(int maxConcurrency, ClientFactory factory) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("Maximum concurrency must be positive");
+        }
+
+        this.maxConcurrency = maxConcurrency;
+        this.factory = factory;
+    }
+
+    public OnlineFleetResult apply(Collection<OnlineOptions> servers, OnlineCommand... commands)
+            throws InterruptedException {
+        List<OnlineCommand> commandList = new ArrayList<OnlineCommand>();
+        Collections.addAll(commandList, commands);
+        return apply(servers, commandList);
+    }
+
+    /**
+     * Applies the {@code commands} to all the {@code servers} and waits until it's done everywhere.
+     * @throws InterruptedException if interrupted while waiting; commands that are already being applied
+     * are interrupted too
+     */
+    public OnlineFleetResult apply(Collection<OnlineOptions> servers, final List<OnlineCommand> commands)
+            throws InterruptedException {
+        long start = System.nanoTime();
+        List<OnlineFleetResult.ServerResult> results = FleetExecution.apply("creaper-fleet", maxConcurrency, servers,
+                new FleetExecution.Task<OnlineOptions, OnlineFleetResult.ServerResult>() {
+                    @Override
+                    protected void apply(OnlineOptions server) throws Exception {
+                        OnlineManagementClient client = factory.create(server);
+                        try {
+                            client.apply(commands);
+                        } finally {
+                            try {
+                                client.close();
+                            } catch (IOException ignored) {
+                                // closing shouldn't turn a success into a failure
+                            }
+                        }
+                    }
+
+                    @Override
+                    protected OnlineFleetResult.ServerResult result(OnlineOptions server, Throwable failure,
+                                                                    long elapsedMillis) {
+                        if (failure != null) {
+                            log.warnf(failure, "Applying commands to %s:%d failed", server.host, server.port);
+                        }
+                        return new OnlineFleetResult.ServerResult(server, failure, elapsedMillis);
+                    }
+                });
+
+        OnlineFleetResult result = new OnlineFleetResult(results,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        if (!servers.isEmpty()) {
+            log.infof("Applied %d commands to %d servers: %s", commands.size(), servers.size(), result);
+        }
+        return result;
+    }
+
+    interface ClientFactory {
+        OnlineManagementClient create(OnlineOptions options);
+    }
+}
@@ -0,0 +1,97 @@
+package org.wildfly.extras.creaper.core.online;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/** Result of {@link OnlineFleetExecutor#apply(java.util.Collection, java.util.List) applying} commands to a fleet. */
+public final class OnlineFleetResult {
+    private final List<ServerResult> results;
+    private final long elapsedMillis;
+
+    OnlineFleetResult(List<ServerResult> results, long elapsedMillis) {
+        this.results = Collections.unmodifiableList(results);
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /** Results for all servers, in the same order as the servers were given. */
+    public List<ServerResult> results() {
+        return results;
+    }
+
+    /** Results for servers where applying the commands failed. */
+    public List<ServerResult> failures() {
+        List<ServerResult> failures = new ArrayList<ServerResult>();
+        for (ServerResult result : results) {
+            if (!result.isSuccess()) {
+                failures.add(result);
+            }
+        }
+        return failures;
+    }
+
+    public boolean isSuccess() {
+        return failures().isEmpty();
+    }
+
+    /** Time it took to apply the commands to all servers, in milliseconds. */
+    public long elapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /** The longest time it took to apply the commands to a single server, in milliseconds. */
+    public long maxServerElapsedMillis() {
+        long max = 0;
+        for (ServerResult result : results) {
+            max = Math.max(max, result.elapsedMillis);
+        }
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return "OnlineFleetResult[" + results.size() + " servers, " + failures().size() + " failed, took "
+                + elapsedMillis + " ms, slowest server took " + maxServerElapsedMillis() + " ms]";
+    }
+
+    public static final class ServerResult {
+        private final OnlineOptions options;
+        private final Throwable failure;
+        private final long elapsedMillis;
+
+        ServerResult(OnlineOptions options, Throwable failure, long elapsedMillis) {
+            this.options = options;
+            this.failure = failure;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        /** Options that were used to connect to the server. */
+        public OnlineOptions options() {
+            return options;
+        }
+
+        public boolean isSuccess() {
+            return failure == null;
+        }
+
+        /**
+         * The failure, or {@code null} if the commands were applied successfully. Typically
+         * a {@link org.wildfly.extras.creaper.core.CommandFailedException CommandFailedException}; connection
+         * failures are also reported that way.
+         */
+        public Throwable failure() {
+            return failure;
+        }
+
+        /** Time it took to connect to the server and apply the commands, in milliseconds. */
+        public long elapsedMillis() {
+            return elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            return options.host + ":" + options.port + " " + (failure == null ? "OK" : "FAILED") + " in "
+                    + elapsedMillis + " ms";
+        }
+    }
+}
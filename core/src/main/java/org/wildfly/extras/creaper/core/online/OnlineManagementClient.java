@@ -61,6 +61,17 @@ public interface OnlineManagementClient extends Closeable {
      */
     ModelNodeResult execute(String operation) throws CliException, IOException;
 
+    /**
+     * Converts the management {@code operation} (given in the CLI syntax) to a {@link ModelNode} without performing
+     * it. Just like with {@link #execute(String)}, the operation must be a server-side management operation.
+     * The returned operation isn't adjusted for managed domain; that happens when it is {@code execute}d.
+     * This is useful for sending multiple CLI operations to the server in a single {@code composite} operation.
+     * @throws CliException if the {@code operation} doesn't correspond to a server-side management operation
+     * or if there is a syntax error
+     * @throws IOException if lazily connecting to the server fails
+     */
+    ModelNode parseCliOperation(String operation) throws CliException, IOException;
+
     /**
      * Performs the management operation (given in the CLI syntax) synchronously. The {@code cliOperation} can be
      * either a server-side management operation or a local CLI operation such as {@code cd} or {@code ls}. All local
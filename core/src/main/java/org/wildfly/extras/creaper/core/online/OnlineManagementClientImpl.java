@@ -14,6 +14,7 @@ import org.jboss.as.controller.client.ModelControllerClient;
 import org.jboss.as.controller.client.Operation;
 import org.jboss.dmr.ModelNode;
 import org.jboss.logging.Logger;
+import org.wildfly.extras.creaper.core.CommandEvent;
 import org.wildfly.extras.creaper.core.CommandFailedException;
 import org.wildfly.extras.creaper.core.ServerVersion;
 import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
@@ -57,8 +58,18 @@ final class OnlineManagementClientImpl implements OnlineManagementClient {
         }
 
         try {
-            this.version = OnlineServerVersion.discover(client);
-            checkStandaloneVsDomain();
+            String cacheKey = options.isWrappedClient ? null
+                    : options.host + ":" + options.port + ":" + (options.isDomain ? "domain" : "standalone");
+            OnlineServerVersion.Discovered discovered = OnlineServerVersion.discover(client, cacheKey);
+            this.version = discovered.version;
+            // if the server looks exactly the same as when it was last checked, the check can be skipped;
+            // this is mainly useful when reconnecting after reload
+            if (!discovered.alreadyVerified) {
+                checkStandaloneVsDomain();
+                if (cacheKey != null) {
+                    OnlineServerVersion.markVerified(cacheKey, discovered);
+                }
+            }
         } catch (Exception e) {
             try {
                 client.close();
@@ -129,11 +140,30 @@ final class OnlineManagementClientImpl implements OnlineManagementClient {
     public void apply(Iterable<OnlineCommand> commands) throws CommandFailedException {
         checkClosed();
         try {
-            OnlineManagementClient client = AutomaticErrorHandlingForCommands.wrap(this);
-            OnlineCommandContext ctx = new OnlineCommandContext(client, version);
+            CoalescedReload coalescedReload = options.coalesceReloads ? new CoalescedReload(this) : null;
+            OnlineManagementClient client = AutomaticErrorHandlingForCommands.wrap(this, coalescedReload);
+            BatchingForCommands batching = null;
+            if (options.commandBatchSize > 0) {
+                batching = new BatchingForCommands(client, this, coalescedReload, options.commandBatchSize);
+                client = batching;
+            }
+            OnlineCommandContext ctx = new OnlineCommandContext(client, version, coalescedReload);
             for (OnlineCommand command : commands) {
                 log.infof("Applying command %s", command);
-                command.apply(ctx);
+                if (batching != null) {
+                    batching.commandStarted(command);
+                }
+                if (options.listener == null) {
+                    command.apply(ctx);
+                } else {
+                    applyAndNotify(command, ctx);
+                }
+            }
+            if (batching != null) {
+                batching.flush(); // if some command failed, operations that weren't sent yet are simply dropped
+            }
+            if (coalescedReload != null) {
+                coalescedReload.performIfPending();
             }
         } catch (RuntimeCommandFailedException e) {
             throw e.original;
@@ -145,13 +175,29 @@ final class OnlineManagementClientImpl implements OnlineManagementClient {
         }
     }
 
+    private void applyAndNotify(OnlineCommand command, OnlineCommandContext ctx) throws Exception {
+        long start = System.nanoTime();
+        Throwable failure = null;
+        try {
+            command.apply(ctx);
+        } catch (Exception e) {
+            failure = e;
+            throw e;
+        } catch (Error e) {
+            failure = e;
+            throw e;
+        } finally {
+            options.listener.commandApplied(new CommandEvent(command, System.nanoTime() - start, failure));
+        }
+    }
+
     @Override
     public ModelNodeResult execute(ModelNode operation) throws IOException {
         checkClosed();
         operation = adjustOperationForDomain.adjust(operation);
-        log.debugf("Executing operation %s", ModelNodeOperationToCliString.convert(operation));
-        log.tracef("JSON format:%n%s", operation.toJSONString(false));
-        ModelNode result = client.execute(operation);
+        log.debugf("Executing operation %s", ModelNodeOperationToCliString.lazy(operation));
+        log.tracef("JSON format:%n%s", ModelNodeOperationToCliString.lazyJson(operation));
+        ModelNode result = executeWithCache(operation);
         return new ModelNodeResult(result);
     }
 
@@ -159,9 +205,17 @@ final class OnlineManagementClientImpl implements OnlineManagementClient {
     public ModelNodeResult execute(Operation operation) throws IOException {
         checkClosed();
         operation = adjustOperationForDomain.adjust(operation);
-        log.debugf("Executing operation %s", ModelNodeOperationToCliString.convert(operation.getOperation()));
-        log.tracef("JSON format:%n%s", operation.getOperation().toJSONString(false));
-        ModelNode result = client.execute(operation);
+        log.debugf("Executing operation %s", ModelNodeOperationToCliString.lazy(operation.getOperation()));
+        log.tracef("JSON format:%n%s", ModelNodeOperationToCliString.lazyJson(operation.getOperation()));
+        ModelNode result;
+        if (operation.getInputStreams().isEmpty()) {
+            result = executeWithCache(operation.getOperation());
+        } else {
+            result = executeAndNotify(operation);
+            if (options.readCache != null) {
+                options.readCache.executed(operation.getOperation(), result, options.readCache.generation());
+            }
+        }
         return new ModelNodeResult(result);
     }
 
@@ -177,10 +231,77 @@ final class OnlineManagementClientImpl implements OnlineManagementClient {
             throw new CliException(e);
         }
 
-        ModelNode result = client.execute(parsedOperation);
+        ModelNode result = executeWithCache(parsedOperation);
         return new ModelNodeResult(result);
     }
 
+    @Override
+    public ModelNode parseCliOperation(String operation) throws CliException {
+        checkClosed();
+        try {
+            return cliContext.buildRequest(operation);
+        } catch (CommandFormatException e) {
+            throw new CliException(e);
+        }
+    }
+
+    private ModelNode executeWithCache(ModelNode operation) throws IOException {
+        ModelReadCache readCache = options.readCache;
+        if (readCache == null) {
+            return executeAndNotify(operation);
+        }
+
+        ModelNode result = readCache.get(operation);
+        if (result != null) {
+            log.debugf("Result found in the cache");
+            if (options.listener != null) {
+                options.listener.operationExecuted(new OperationEvent(operation, result, 0, true));
+            }
+            return result;
+        }
+
+        long generation = readCache.generation();
+        result = executeAndNotify(operation);
+        readCache.executed(operation, result, generation);
+        return result;
+    }
+
+    private ModelNode executeAndNotify(ModelNode operation) throws IOException {
+        if (options.listener == null) {
+            return client.execute(operation);
+        }
+
+        long start = System.nanoTime();
+        ModelNode result = null;
+        try {
+            result = client.execute(operation);
+            return result;
+        } finally {
+            notifyExecuted(operation, result, start);
+        }
+    }
+
+    private ModelNode executeAndNotify(Operation operation) throws IOException {
+        if (options.listener == null) {
+            return client.execute(operation);
+        }
+
+        long start = System.nanoTime();
+        ModelNode result = null;
+        try {
+            result = client.execute(operation);
+            return result;
+        } finally {
+            notifyExecuted(operation.getOperation(), result, start);
+        }
+    }
+
+    private void notifyExecuted(ModelNode operation, ModelNode result, long start) {
+        // result is null if the operation failed with an exception
+        options.listener.operationExecuted(new OperationEvent(operation, result != null ? result : new ModelNode(),
+                System.nanoTime() - start, false));
+    }
+
     @Override
     public void executeCli(String cliOperation) throws CliException, IOException {
         if (cliOperation.trim().startsWith("connect")) {
@@ -210,6 +331,11 @@ final class OnlineManagementClientImpl implements OnlineManagementClient {
             throw new CliException(e);
         }
 
+        if (options.readCache != null) {
+            // can't tell what the CLI operation did
+            options.readCache.clear();
+        }
+
         if (cliContext.getExitCode() != 0 || cliContext.isTerminated()) {
             throw new CliException("CLI operation failed: " + cliOperation);
         }
@@ -223,6 +349,10 @@ final class OnlineManagementClientImpl implements OnlineManagementClient {
 
         log.info("Reconnecting the client");
 
+        if (options.readCache != null) {
+            options.readCache.clear();
+        }
+
         try {
             client.close();
             cliContext.disconnectController();
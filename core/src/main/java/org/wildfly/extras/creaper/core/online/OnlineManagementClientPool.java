@@ -0,0 +1,369 @@
+package org.wildfly.extras.creaper.core.online;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.logging.Logger;
+import org.wildfly.extras.creaper.core.ManagementClient;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>A pool of {@link OnlineManagementClient}s connected to the same server, for callers that manage the server
+ * from multiple threads. Creating a client is fairly expensive (connecting, discovering the server version,
+ * checking standalone vs. domain), so the pool creates at most {@code poolSize} clients (lazily, when they are
+ * first needed) and reuses them. Created using {@link ManagementClient#pooled(OnlineOptions, int)}.</p>
+ *
+ * <p>A client is {@link #borrow() borrowed} from the pool and returned back by calling
+ * {@link OnlineManagementClient#close() close()} on it (the underlying connection stays open). When no client
+ * is available, {@code borrow} waits until some is returned. The pool itself is thread-safe, but a borrowed client
+ * is still meant to be used by a single thread.</p>
+ *
+ * <p>Idle clients are periodically health-checked in a background thread. A client whose operation failed
+ * with an {@code IOException} is health-checked immediately after it's returned. When the health check fails,
+ * the client is reconnected (also in the background) and if that fails as well, it's discarded.</p>
+ *
+ * <p>{@link #close() Closing} the pool closes all idle clients; clients that are borrowed at that time are closed
+ * when they are returned.</p>
+ */
+public final class OnlineManagementClientPool implements Closeable {
+    private static final Logger log = Logger.getLogger(OnlineManagementClientPool.class);
+
+    private static final long HEALTH_CHECK_INTERVAL = 30; // seconds
+    private static final AtomicInteger poolCounter = new AtomicInteger();
+
+    private final ClientFactory factory;
+    private final int poolSize;
+    private final int reconnectTimeoutInSeconds;
+    private final ScheduledExecutorService maintenance;
+
+    // all guarded by "this"
+    private final Deque<IdleClient> idle = new ArrayDeque<IdleClient>();
+    private int total; // idle + borrowed + being checked/reconnected + being created
+    private int borrowed;
+    private boolean closed;
+    private long borrowCount;
+    private long totalBorrowWaitNanos;
+    private long maxBorrowWaitNanos;
+    private long reconnectCount;
+    private long discardCount;
+
+    OnlineManagementClientPool(OnlineOptions options, int poolSize) {
+        this(clientFactory(options), poolSize,
+                (int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(options.connectionTimeout)));
+    }
+
+    OnlineManagementClientPool(ClientFactory factory, int poolSize, int reconnectTimeoutInSeconds) {
+        if (poolSize <= 0) {
+            throw new IllegalArgumentException("Pool size must be positive");
+        }
+
+        this.factory = factory;
+        this.poolSize = poolSize;
+        this.reconnectTimeoutInSeconds = reconnectTimeoutInSeconds;
+
+        final String threadName = "creaper-pool-" + poolCounter.incrementAndGet();
+        this.maintenance = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, threadName);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        this.maintenance.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                checkIdleClients();
+            }
+        }, HEALTH_CHECK_INTERVAL, HEALTH_CHECK_INTERVAL, TimeUnit.SECONDS);
+    }
+
+    /** Borrows a client from the pool, waiting as long as necessary. */
+    public OnlineManagementClient borrow() throws IOException, InterruptedException {
+        try {
+            return borrow(0, false);
+        } catch (TimeoutException e) {
+            throw new AssertionError(e); // can't happen
+        }
+    }
+
+    /** Borrows a client from the pool, waiting at most given {@code timeout}. */
+    public OnlineManagementClient borrow(long timeout, TimeUnit unit) throws IOException, InterruptedException,
+            TimeoutException {
+        return borrow(unit.toNanos(timeout), true);
+    }
+
+    private OnlineManagementClient borrow(long timeoutNanos, boolean timed) throws IOException, InterruptedException,
+            TimeoutException {
+        long start = System.nanoTime();
+
+        synchronized (this) {
+            while (true) {
+                checkNotClosed();
+
+                if (!idle.isEmpty()) {
+                    OnlineManagementClient client = idle.pollFirst().client;
+                    borrowed(start);
+                    return new PooledOnlineManagementClient(client, this);
+                }
+
+                if (total < poolSize) {
+                    total++;
+                    break; // create a new client outside of the lock
+                }
+
+                if (timed) {
+                    long remaining = timeoutNanos - (System.nanoTime() - start);
+                    if (remaining <= 0) {
+                        throw new TimeoutException("Timed out waiting for a client from the pool");
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                } else {
+                    wait();
+                }
+            }
+        }
+
+        OnlineManagementClient client;
+        try {
+            client = factory.create();
+        } catch (IOException e) {
+            discarded(null);
+            throw e;
+        } catch (RuntimeException e) {
+            discarded(null);
+            throw e;
+        }
+
+        synchronized (this) {
+            borrowed(start);
+        }
+        return new PooledOnlineManagementClient(client, this);
+    }
+
+    // must be called with "this" locked
+    private void borrowed(long start) {
+        long waitNanos = System.nanoTime() - start;
+        borrowed++;
+        borrowCount++;
+        totalBorrowWaitNanos += waitNanos;
+        maxBorrowWaitNanos = Math.max(maxBorrowWaitNanos, waitNanos);
+    }
+
+    /** Called by {@link PooledOnlineManagementClient#close()}. */
+    void giveBack(final OnlineManagementClient client, boolean suspicious) {
+        synchronized (this) {
+            borrowed--;
+        }
+
+        if (suspicious) {
+            try {
+                maintenance.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        checkAndReturn(client);
+                    }
+                });
+                return;
+            } catch (RuntimeException e) {
+                // the pool was closed in the meantime
+            }
+        }
+
+        makeIdle(client);
+    }
+
+    private void makeIdle(OnlineManagementClient client) {
+        synchronized (this) {
+            if (!closed) {
+                idle.addFirst(new IdleClient(client));
+                notifyAll();
+                return;
+            }
+        }
+
+        // the pool is closed
+        discarded(client);
+    }
+
+    private void discarded(OnlineManagementClient client) {
+        synchronized (this) {
+            total--;
+            notifyAll();
+        }
+
+        if (client != null) {
+            try {
+                client.close();
+            } catch (Throwable ignored) {
+            }
+        }
+    }
+
+    private void checkIdleClients() {
+        long threshold = System.nanoTime() - TimeUnit.SECONDS.toNanos(HEALTH_CHECK_INTERVAL);
+        List<OnlineManagementClient> toCheck = new ArrayList<OnlineManagementClient>();
+        synchronized (this) {
+            for (Iterator<IdleClient> it = idle.iterator(); it.hasNext(); ) {
+                IdleClient idleClient = it.next();
+                if (idleClient.idleSince - threshold <= 0) {
+                    toCheck.add(idleClient.client);
+                    it.remove();
+                }
+            }
+        }
+
+        for (OnlineManagementClient client : toCheck) {
+            checkAndReturn(client);
+        }
+    }
+
+    private void checkAndReturn(OnlineManagementClient client) {
+        if (isHealthy(client)) {
+            makeIdle(client);
+            return;
+        }
+
+        try {
+            client.reconnect(reconnectTimeoutInSeconds);
+            synchronized (this) {
+                reconnectCount++;
+            }
+            makeIdle(client);
+        } catch (InterruptedException e) {
+            discarded(client);
+            Thread.currentThread().interrupt();
+        } catch (Throwable e) {
+            log.warn("Discarding a pooled client that couldn't be reconnected", e);
+            synchronized (this) {
+                discardCount++;
+            }
+            discarded(client);
+        }
+    }
+
+    private static boolean isHealthy(OnlineManagementClient client) {
+        ModelNode op = new ModelNode();
+        op.get(Constants.OP).set(Constants.WHOAMI);
+        op.get(Constants.OP_ADDR).setEmptyList();
+        try {
+            return client.execute(op).isSuccess();
+        } catch (Throwable e) {
+            return false;
+        }
+    }
+
+    private void checkNotClosed() {
+        if (closed) {
+            throw new IllegalStateException("The pool is already closed");
+        }
+    }
+
+    // ---
+
+    /** Maximum number of clients in the pool. */
+    public int poolSize() {
+        return poolSize;
+    }
+
+    /** Number of clients that are currently borrowed. */
+    public synchronized int activeCount() {
+        return borrowed;
+    }
+
+    /** Number of clients that are currently waiting in the pool to be borrowed. */
+    public synchronized int idleCount() {
+        return idle.size();
+    }
+
+    /** Number of successful {@link #borrow()} calls so far. */
+    public synchronized long borrowCount() {
+        return borrowCount;
+    }
+
+    /** Total time spent in {@link #borrow()} (including creating new clients), in milliseconds. */
+    public synchronized long totalBorrowWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(totalBorrowWaitNanos);
+    }
+
+    /** The longest time spent in a single {@link #borrow()} (including creating a new client), in milliseconds. */
+    public synchronized long maxBorrowWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxBorrowWaitNanos);
+    }
+
+    /** Number of clients that failed the health check and were successfully reconnected. */
+    public synchronized long reconnectCount() {
+        return reconnectCount;
+    }
+
+    /** Number of clients that failed the health check and couldn't be reconnected. */
+    public synchronized long discardCount() {
+        return discardCount;
+    }
+
+    @Override
+    public String toString() {
+        synchronized (this) {
+            return "OnlineManagementClientPool[size " + poolSize + ", active " + borrowed + ", idle " + idle.size()
+                    + ", borrowed " + borrowCount + " times]";
+        }
+    }
+
+    /** Closes all idle clients. Borrowed clients will be closed when they are returned. */
+    @Override
+    public void close() throws IOException {
+        List<IdleClient> toClose;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            toClose = new ArrayList<IdleClient>(idle);
+            idle.clear();
+            notifyAll();
+        }
+
+        maintenance.shutdownNow();
+
+        for (IdleClient idleClient : toClose) {
+            discarded(idleClient.client);
+        }
+    }
+
+    private static ClientFactory clientFactory(final OnlineOptions options) {
+        if (options.isWrappedClient) {
+            throw new IllegalArgumentException("Can't pool clients that wrap an existing ModelControllerClient");
+        }
+
+        return new ClientFactory() {
+            @Override
+            public OnlineManagementClient create() throws IOException {
+                return ManagementClient.online(options);
+            }
+        };
+    }
+
+    interface ClientFactory {
+        OnlineManagementClient create() throws IOException;
+    }
+
+    private static final class IdleClient {
+        final OnlineManagementClient client;
+        final long idleSince = System.nanoTime();
+
+        IdleClient(OnlineManagementClient client) {
+            this.client = client;
+        }
+    }
+}
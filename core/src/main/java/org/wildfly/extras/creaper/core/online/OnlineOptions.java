@@ -16,6 +16,7 @@ import javax.security.sasl.RealmCallback;
 import org.jboss.as.controller.client.ModelControllerClient;
 import org.jboss.dmr.ModelNode;
 import org.wildfly.extras.creaper.core.ManagementClient;
+import org.wildfly.extras.creaper.core.ManagementListener;
 
 /**
  * This basically follows the builder pattern, but ensures on the type level that everything that must be set is
@@ -35,7 +36,7 @@ public final class OnlineOptions {
     final String host;
     final int port;
     private final ManagementProtocol protocol; // this can be "null" for unspecified protocol
-    private final int connectionTimeout;
+    final int connectionTimeout;
     private final int bootTimeout;
 
     private final String username;
@@ -45,6 +46,16 @@ public final class OnlineOptions {
 
     private final SslOptions sslOptions;
 
+    private final int httpMaxConnections;
+    private final int httpMaxConnectionsPerRoute;
+    private final boolean httpDmrEncoding;
+    private final boolean httpPreemptiveAuth;
+
+    final boolean coalesceReloads;
+    final int commandBatchSize; // 0 means operations issued by commands are not batched
+    final ModelReadCache readCache; // may be null
+    final ManagementListener listener; // may be null
+
     private final ModelControllerClient wrappedModelControllerClient;
     final boolean isWrappedClient; // see OnlineManagementClientImpl.reconnect
 
@@ -85,6 +96,14 @@ public final class OnlineOptions {
         this.password = data.password;
         this.localAuthDisabled = data.localAuthDisabled;
         this.sslOptions = data.sslOptions;
+        this.httpMaxConnections = data.httpMaxConnections;
+        this.httpMaxConnectionsPerRoute = data.httpMaxConnectionsPerRoute;
+        this.httpDmrEncoding = data.httpDmrEncoding;
+        this.httpPreemptiveAuth = data.httpPreemptiveAuth;
+        this.coalesceReloads = data.coalesceReloads;
+        this.commandBatchSize = data.commandBatchSize;
+        this.readCache = data.readCache;
+        this.listener = data.listener;
         this.wrappedModelControllerClient = data.wrappedModelControllerClient;
         this.isWrappedClient = data.wrappedModelControllerClient != null;
 
@@ -120,6 +139,16 @@ public final class OnlineOptions {
 
         private SslOptions sslOptions;
 
+        private int httpMaxConnections; // 0 means the default of the HTTP client library
+        private int httpMaxConnectionsPerRoute; // 0 means the default of the HTTP client library
+        private boolean httpDmrEncoding;
+        private boolean httpPreemptiveAuth;
+
+        private boolean coalesceReloads;
+        private int commandBatchSize;
+        private ModelReadCache readCache;
+        private ManagementListener listener;
+
         private ModelControllerClient wrappedModelControllerClient;
     }
 
@@ -351,6 +380,123 @@ public final class OnlineOptions {
             return this;
         }
 
+        /**
+         * <p>Size of the connection pool used by the {@link ManagementProtocol#HTTP HTTP} and
+         * {@link ManagementProtocol#HTTPS HTTPS} management protocols. Optional. Ignored for other protocols.
+         * By default, the defaults of Apache HttpClient are used (at most 20 connections in total and at most
+         * 2 connections to a single host).</p>
+         *
+         * <p>All the connections go to a single management endpoint, so {@code maxConnectionsPerRoute} is what
+         * matters most. It also bounds the number of asynchronous operations (such as
+         * {@link ModelControllerClient#executeAsync(ModelNode, org.jboss.as.controller.client.OperationMessageHandler)
+         * executeAsync}) that are executed in parallel; other asynchronous operations wait in a queue.</p>
+         */
+        public OptionalOnlineOptions httpConnectionPool(int maxConnections, int maxConnectionsPerRoute) {
+            if (maxConnections <= 0) {
+                throw new IllegalArgumentException("Maximum number of connections must be positive");
+            }
+            if (maxConnectionsPerRoute <= 0 || maxConnectionsPerRoute > maxConnections) {
+                throw new IllegalArgumentException("Maximum number of connections per route must be positive "
+                        + "and must not exceed maximum number of connections");
+            }
+
+            data.httpMaxConnections = maxConnections;
+            data.httpMaxConnectionsPerRoute = maxConnectionsPerRoute;
+            return this;
+        }
+
+        /**
+         * Use the binary DMR encoding ({@code application/dmr-encoded}) instead of JSON for requests and responses
+         * of the {@link ManagementProtocol#HTTP HTTP} and {@link ManagementProtocol#HTTPS HTTPS} management
+         * protocols. This makes large responses (such as a recursive {@code read-resource}) both smaller and faster
+         * to parse. Optional. Ignored for other protocols. By default, JSON is used.
+         */
+        public OptionalOnlineOptions httpDmrEncoding() {
+            data.httpDmrEncoding = true;
+            return this;
+        }
+
+        /**
+         * Use preemptive digest authentication with the {@link ManagementProtocol#HTTP HTTP} and
+         * {@link ManagementProtocol#HTTPS HTTPS} management protocols. The digest challenge received from the server
+         * is remembered and subsequent requests are authenticated right away, so they don't have to go through
+         * the {@code 401 Unauthorized} round trip. If the server no longer accepts the remembered challenge,
+         * it sends a new one and the request is transparently repeated. Optional. Ignored for other protocols
+         * and when username and password are not set. By default, each request is challenged by the server.
+         */
+        public OptionalOnlineOptions httpPreemptiveAuth() {
+            data.httpPreemptiveAuth = true;
+            return this;
+        }
+
+        /**
+         * <p>Many commands reload the server in the middle of their work (typically when they replace an existing
+         * resource, see {@link OnlineCommandContext#reloadIfRequired()}). With this option, such reload is postponed
+         * and all reloads requested by commands applied in a single {@code apply} call are coalesced into one,
+         * which is performed after the last command. Optional. By default, each command reloads the server
+         * immediately.</p>
+         *
+         * <p>If an operation fails while a reload is pending and the failure comes from the runtime services
+         * that weren't reloaded yet (e.g. a service that is still registered or unavailable), the server is reloaded
+         * and the operation is retried once. Other failures are propagated immediately. If a command fails,
+         * the pending reload is not performed.</p>
+         */
+        public OptionalOnlineOptions coalesceReloads() {
+            data.coalesceReloads = true;
+            return this;
+        }
+
+        /**
+         * <p>Commands typically issue a lot of operations that only modify the management model ({@code add},
+         * {@code remove}, {@code write-attribute} and {@code undefine-attribute}), each of them costing a round trip
+         * to the server. With this option, such operations issued by commands applied in a single {@code apply} call
+         * are recorded and sent to the server as {@code composite} operations of at most {@code maxBatchSize} steps.
+         * Optional. By default, each operation is executed immediately.</p>
+         *
+         * <p>A recorded operation is assumed to succeed. All recorded operations are sent to the server before
+         * any other operation (such as {@code read-resource}) is executed, when a command
+         * {@link OnlineManagementClient#allowFailures() allows failures}, and after the last command. If the composite
+         * operation fails, none of its steps is applied and the failure is reported for the command that issued
+         * the failed step. If a command fails, operations that weren't sent to the server yet are discarded.</p>
+         */
+        public OptionalOnlineOptions batchCommandOperations(int maxBatchSize) {
+            if (maxBatchSize <= 1) {
+                throw new IllegalArgumentException("Maximum batch size must be greater than 1");
+            }
+
+            data.commandBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /**
+         * Cache results of read-only management operations in given {@code cache}, see {@link ModelReadCache}
+         * for details. Only successful results are cached. {@code read-attribute} is only cached for the attributes
+         * given to the {@link ModelReadCache#ModelReadCache(long, java.util.concurrent.TimeUnit, String...)
+         * constructor}, because runtime attributes and metrics would be served stale. Optional. By default, nothing
+         * is cached.
+         */
+        public OptionalOnlineOptions cacheReads(ModelReadCache cache) {
+            if (cache == null) {
+                throw new IllegalArgumentException("Cache must be set");
+            }
+
+            data.readCache = cache;
+            return this;
+        }
+
+        /**
+         * Notify given {@code listener} about each operation executed and each command applied by the client,
+         * see {@link ManagementListener}. Optional. By default, there's no listener.
+         */
+        public OptionalOnlineOptions listener(ManagementListener listener) {
+            if (listener == null) {
+                throw new IllegalArgumentException("Listener must be set");
+            }
+
+            data.listener = listener;
+            return this;
+        }
+
         /** Build the final {@code OnlineOptions}. */
         public OnlineOptions build() {
             return new OnlineOptions(data);
@@ -395,14 +541,14 @@ public final class OnlineOptions {
         }
 
         if (sslOptions != null) {
-            sslContext = sslOptions.createSslContext();
+            sslContext = sslOptions.sslContext();
         }
 
         ModelControllerClient modelControllerClient;
 
         if (protocol == ManagementProtocol.HTTP || protocol == ManagementProtocol.HTTPS) {
             modelControllerClient = new HttpModelControllerClient(host, port, username, password, connectionTimeout,
-                    sslOptions);
+                    sslOptions, httpMaxConnections, httpMaxConnectionsPerRoute, httpDmrEncoding, httpPreemptiveAuth);
             try {
                 connectAndWaitUntilServerBoots(modelControllerClient, connectionTimeout, bootTimeout);
             } catch (Exception e) {
@@ -484,6 +630,9 @@ public final class OnlineOptions {
         op.get(Constants.OP).set(Constants.WHOAMI);
         op.get(Constants.OP_ADDR).setEmptyList();
 
+        // start checking often, so that a server that is already up is detected quickly
+        long delay = 10;
+
         long endTime = System.currentTimeMillis() + connectionTimeoutInMillis;
         while (System.currentTimeMillis() < endTime) {
             try {
@@ -491,7 +640,8 @@ public final class OnlineOptions {
                 break;
             } catch (IOException e) {
                 // server is probably not up yet, keep waiting
-                Thread.sleep(100);
+                Thread.sleep(delay);
+                delay = Math.min(delay * 2, 100);
             }
         }
 
@@ -514,7 +664,8 @@ public final class OnlineOptions {
             }
 
             if (stillBooting) {
-                Thread.sleep(100);
+                Thread.sleep(delay);
+                delay = Math.min(delay * 2, 100);
             } else {
                 // shouldn't happen
                 throw new IllegalStateException("Unknown server state: " + failureDescription);
@@ -538,6 +689,11 @@ public final class OnlineOptions {
             protected OnlineManagementClient createLazy(OnlineOptions options) {
                 return new LazyOnlineManagementClient(options);
             }
+
+            @Override
+            protected OnlineManagementClientPool createPool(OnlineOptions options, int poolSize) {
+                return new OnlineManagementClientPool(options, poolSize);
+            }
         });
     }
 }
@@ -6,8 +6,13 @@ import org.wildfly.extras.creaper.core.ManagementVersionPart;
 import org.wildfly.extras.creaper.core.ServerVersion;
 
 import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 final class OnlineServerVersion {
+    // key is host:port:(standalone|domain), see OnlineManagementClientImpl.connect
+    private static final ConcurrentMap<String, Discovered> verified = new ConcurrentHashMap<String, Discovered>();
+
     private OnlineServerVersion() {} // avoid instantiation
 
     /**
@@ -15,21 +20,56 @@ final class OnlineServerVersion {
      * @throws IOException if an I/O error occurs during any management operation
      */
     static ServerVersion discover(ModelControllerClient client) throws IOException {
-        ModelNode op = new ModelNode();
-        op.get(Constants.OP).set(Constants.READ_RESOURCE_OPERATION);
-        op.get(Constants.OP_ADDR).setEmptyList();
-        // this would be preferrable, as it means transferring less data, but it is not supported on older versions
-        //op.get(Constants.ATTRIBUTES_ONLY).set(true);
+        return discover(client, null).version;
+    }
+
+    /**
+     * Discovers the management version of the server which the {@code client} is connected to. If the server
+     * was previously {@link #markVerified(String, Discovered) verified} under the same {@code cacheKey}
+     * and its root resource still has the same attributes, {@link Discovered#alreadyVerified} is {@code true}.
+     * @param cacheKey {@code null} if nothing should be cached
+     * @throws IOException if an I/O error occurs during any management operation
+     */
+    static Discovered discover(ModelControllerClient client, String cacheKey) throws IOException {
+        Discovered previous = cacheKey != null ? verified.get(cacheKey) : null;
 
-        ModelNodeResult result = new ModelNodeResult(client.execute(op));
+        boolean attributesOnly = previous == null || previous.attributesOnly;
+        ModelNodeResult result = readRootResource(client, attributesOnly);
+        if (attributesOnly && !result.isSuccess()) {
+            // attributes-only is not supported on older versions
+            attributesOnly = false;
+            result = readRootResource(client, false);
+        }
         result.assertSuccess();
 
         ModelNode resultValue = result.get(Constants.RESULT);
-        return ServerVersion.from(
+        ServerVersion version = ServerVersion.from(
                 readPart(resultValue, ManagementVersionPart.MAJOR),
                 readPart(resultValue, ManagementVersionPart.MINOR),
                 readPart(resultValue, ManagementVersionPart.MICRO)
         );
+
+        boolean alreadyVerified = previous != null && previous.rootResource.equals(resultValue);
+        return new Discovered(version, resultValue, attributesOnly, alreadyVerified);
+    }
+
+    /** Remembers that the {@code discovered} server passed all checks performed when connecting. */
+    static void markVerified(String cacheKey, Discovered discovered) {
+        verified.put(cacheKey, discovered);
+    }
+
+    private static ModelNodeResult readRootResource(ModelControllerClient client, boolean attributesOnly)
+            throws IOException {
+        ModelNode op = new ModelNode();
+        op.get(Constants.OP).set(Constants.READ_RESOURCE_OPERATION);
+        op.get(Constants.OP_ADDR).setEmptyList();
+        op.get(Constants.INCLUDE_RUNTIME).set(false);
+        if (attributesOnly) {
+            // transfers a lot less data, as names of all children (deployments etc.) are left out
+            op.get(Constants.ATTRIBUTES_ONLY).set(true);
+        }
+
+        return new ModelNodeResult(client.execute(op));
     }
 
     /** Returns the value of the {@code part} from the management model or 0 if it doesn't exist. */
@@ -40,4 +80,19 @@ final class OnlineServerVersion {
             return 0;
         }
     }
+
+    static final class Discovered {
+        final ServerVersion version;
+        final ModelNode rootResource;
+        final boolean attributesOnly;
+        final boolean alreadyVerified;
+
+        private Discovered(ServerVersion version, ModelNode rootResource, boolean attributesOnly,
+                           boolean alreadyVerified) {
+            this.version = version;
+            this.rootResource = rootResource;
+            this.attributesOnly = attributesOnly;
+            this.alreadyVerified = alreadyVerified;
+        }
+    }
 }
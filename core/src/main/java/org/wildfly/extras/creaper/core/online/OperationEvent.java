@@ -0,0 +1,120 @@
+package org.wildfly.extras.creaper.core.online;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.dmr.Property;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * <p>A management operation was executed, see
+ * {@link org.wildfly.extras.creaper.core.ManagementListener#operationExecuted(OperationEvent)}. The operation
+ * is the one that was actually sent to the server (e.g. including the profile in managed domain). If the result
+ * was found in a {@link ModelReadCache}, the operation wasn't sent to the server at all and {@link #cached}
+ * is {@code true}. If executing the operation failed with an exception, the {@link #result} is undefined.</p>
+ *
+ * <p>The {@code operation} and the {@code result} must not be modified.</p>
+ */
+public final class OperationEvent {
+    public final ModelNode operation;
+    public final ModelNode result;
+    public final long durationNanos;
+    public final boolean cached;
+
+    private int requestBytes = -1;
+    private int responseBytes = -1;
+
+    public OperationEvent(ModelNode operation, ModelNode result, long durationNanos, boolean cached) {
+        this.operation = operation;
+        this.result = result;
+        this.durationNanos = durationNanos;
+        this.cached = cached;
+    }
+
+    public String operationName() {
+        return operation.get(Constants.OP).asString();
+    }
+
+    /**
+     * Address of the operation with all values replaced by {@code *}, except of subsystem names.
+     * For example, {@code /subsystem=logging/logger=*}. This is a useful key for aggregating events.
+     */
+    public String addressPattern() {
+        if (!operation.hasDefined(Constants.OP_ADDR) || operation.get(Constants.OP_ADDR).getType() != ModelType.LIST
+                || operation.get(Constants.OP_ADDR).asList().isEmpty()) {
+            return "/";
+        }
+
+        StringBuilder result = new StringBuilder();
+        for (ModelNode element : operation.get(Constants.OP_ADDR).asList()) {
+            Property property = element.asProperty();
+            result.append('/').append(property.getName()).append('=')
+                    .append(Constants.SUBSYSTEM.equals(property.getName()) ? property.getValue().asString() : "*");
+        }
+        return result.toString();
+    }
+
+    public boolean isSuccess() {
+        return result.hasDefined(Constants.OUTCOME) && Constants.SUCCESS.equals(result.get(Constants.OUTCOME).asString());
+    }
+
+    public boolean isReloadRequired() {
+        return hasProcessState(Constants.CONTROLLER_PROCESS_STATE_RELOAD_REQUIRED);
+    }
+
+    public boolean isRestartRequired() {
+        return hasProcessState(Constants.CONTROLLER_PROCESS_STATE_RESTART_REQUIRED);
+    }
+
+    private boolean hasProcessState(String processState) {
+        return result.hasDefined(Constants.RESPONSE_HEADERS, Constants.PROCESS_STATE)
+                && processState.equals(result.get(Constants.RESPONSE_HEADERS, Constants.PROCESS_STATE).asString());
+    }
+
+    /** Size of the operation in the binary DMR encoding. Computed when first asked for. */
+    public int requestBytes() {
+        if (requestBytes < 0) {
+            requestBytes = sizeOf(operation);
+        }
+        return requestBytes;
+    }
+
+    /** Size of the result in the binary DMR encoding. Computed when first asked for. */
+    public int responseBytes() {
+        if (responseBytes < 0) {
+            responseBytes = sizeOf(result);
+        }
+        return responseBytes;
+    }
+
+    private static int sizeOf(ModelNode node) {
+        CountingOutputStream counter = new CountingOutputStream();
+        try {
+            node.writeExternal(counter);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // can't happen, nothing is actually written
+        }
+        return counter.count;
+    }
+
+    @Override
+    public String toString() {
+        return ModelNodeOperationToCliString.convert(operation) + (cached ? " (cached)" : "")
+                + " took " + durationNanos / 1000000 + " ms";
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private int count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
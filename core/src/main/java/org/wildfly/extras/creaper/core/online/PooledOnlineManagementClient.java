@@ -0,0 +1,160 @@
+package org.wildfly.extras.creaper.core.online;
+
+import org.jboss.as.controller.client.Operation;
+import org.jboss.dmr.ModelNode;
+import org.wildfly.extras.creaper.core.CommandFailedException;
+import org.wildfly.extras.creaper.core.ServerVersion;
+
+import java.io.IOException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A client borrowed from {@link OnlineManagementClientPool}. It's a wrapper that delegates to a pooled client,
+ * except for {@link #close()}, which returns the pooled client back to the pool. After that, this wrapper
+ * can no longer be used.
+ */
+final class PooledOnlineManagementClient implements OnlineManagementClient {
+    private final OnlineManagementClient delegate;
+    private final OnlineManagementClientPool pool;
+
+    private boolean suspicious; // an I/O error occured, the client should be health-checked
+    private ThisIsWhereTheClientWasClosed closedAt; // != null <=> already closed
+
+    PooledOnlineManagementClient(OnlineManagementClient delegate, OnlineManagementClientPool pool) {
+        this.delegate = delegate;
+        this.pool = pool;
+    }
+
+    private void checkClosed() {
+        if (closedAt != null) {
+            throw new ClientAlreadyClosedException(closedAt);
+        }
+    }
+
+    private IOException ioFailure(IOException e) {
+        suspicious = true;
+        return e;
+    }
+
+    private CommandFailedException commandFailure(CommandFailedException e) {
+        if (e.getCause() instanceof IOException) {
+            suspicious = true;
+        }
+        return e;
+    }
+
+    @Override
+    public OnlineOptions options() {
+        return delegate.options();
+    }
+
+    @Override
+    public ServerVersion version() throws IOException {
+        checkClosed();
+        try {
+            return delegate.version();
+        } catch (IOException e) {
+            throw ioFailure(e);
+        }
+    }
+
+    @Override
+    public void apply(OnlineCommand... commands) throws CommandFailedException {
+        checkClosed();
+        try {
+            delegate.apply(commands);
+        } catch (CommandFailedException e) {
+            throw commandFailure(e);
+        }
+    }
+
+    @Override
+    public void apply(Iterable<OnlineCommand> commands) throws CommandFailedException {
+        checkClosed();
+        try {
+            delegate.apply(commands);
+        } catch (CommandFailedException e) {
+            throw commandFailure(e);
+        }
+    }
+
+    @Override
+    public ModelNodeResult execute(ModelNode operation) throws IOException {
+        checkClosed();
+        try {
+            return delegate.execute(operation);
+        } catch (IOException e) {
+            throw ioFailure(e);
+        }
+    }
+
+    @Override
+    public ModelNodeResult execute(Operation operation) throws IOException {
+        checkClosed();
+        try {
+            return delegate.execute(operation);
+        } catch (IOException e) {
+            throw ioFailure(e);
+        }
+    }
+
+    @Override
+    public ModelNodeResult execute(String operation) throws CliException, IOException {
+        checkClosed();
+        try {
+            return delegate.execute(operation);
+        } catch (IOException e) {
+            throw ioFailure(e);
+        }
+    }
+
+    @Override
+    public ModelNode parseCliOperation(String operation) throws CliException, IOException {
+        checkClosed();
+        try {
+            return delegate.parseCliOperation(operation);
+        } catch (IOException e) {
+            throw ioFailure(e);
+        }
+    }
+
+    @Override
+    public void executeCli(String cliOperation) throws CliException, IOException {
+        checkClosed();
+        try {
+            delegate.executeCli(cliOperation);
+        } catch (IOException e) {
+            throw ioFailure(e);
+        }
+    }
+
+    @Override
+    public void reconnect(int timeoutInSeconds) throws TimeoutException, InterruptedException {
+        checkClosed();
+        delegate.reconnect(timeoutInSeconds);
+    }
+
+    @Override
+    public FailuresAllowedBlock allowFailures() throws IOException {
+        checkClosed();
+        try {
+            return delegate.allowFailures();
+        } catch (IOException e) {
+            throw ioFailure(e);
+        }
+    }
+
+    /** Returns the client back to the pool. */
+    @Override
+    public void close() {
+        if (closedAt == null) {
+            closedAt = new ThisIsWhereTheClientWasClosed();
+            pool.giveBack(delegate, suspicious);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "PooledOnlineManagementClient[" + delegate + "]";
+    }
+}
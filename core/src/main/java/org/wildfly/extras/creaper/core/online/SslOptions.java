@@ -41,6 +41,8 @@ public final class SslOptions {
     final KeyStoreType trustStoreType;
     final boolean hostnameVerification;
 
+    private SSLContext sslContext; // guarded by "this"
+
 
     private SslOptions(Builder builder) {
         this.protocol = builder.protocol != null ? builder.protocol : DEFAULT_PROTOCOL;
@@ -195,11 +197,23 @@ public final class SslOptions {
     }
 
 
+    /**
+     * The {@code SSLContext} is created when first needed and then reused, so that the keystore and the truststore
+     * are only loaded once. JSSE caches client sessions in the {@code SSLContext}, so reusing it also means that
+     * reconnecting to the same server resumes the TLS session instead of performing a full handshake.
+     */
+    synchronized SSLContext sslContext() {
+        if (sslContext == null) {
+            sslContext = createSslContext();
+        }
+        return sslContext;
+    }
+
     /**
      * System properties like {@literal javax.net.ssl.keyStore} are not taken into account.
      * See {@link http://docs.oracle.com/javase/6/docs/technotes/guides/security/jsse/JSSERefGuide.html#Customization}.
      */
-    SSLContext createSslContext() {
+    private SSLContext createSslContext() {
         final KeyManager[] keyManagers = this.getKeyManagers();
         final TrustManager[] trustManagers = this.getTrustManagers();
 
@@ -8,7 +8,11 @@ import org.wildfly.extras.creaper.core.online.ModelNodeResult;
 import org.wildfly.extras.creaper.core.online.OnlineManagementClient;
 
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * <p>A convenience for commonly performed management operations. The intent is to have a statically typed API
@@ -167,6 +171,114 @@ public final class Operations implements SharedCommonOperations<ModelNodeResult>
         return client.execute(batch.toModelNode());
     }
 
+    /**
+     * <p>Same as {@link #batch(Batch)}, except that {@code write-attribute} and {@code undefine-attribute} steps
+     * that wouldn't change anything are left out. Writing an attribute often makes the server require reload
+     * even if the value doesn't change, so this makes it possible to apply the same changes repeatedly without
+     * needless reloads.</p>
+     *
+     * <p>Each resource whose attributes are written is read once, using {@code read-resource} without defaults.
+     * A write is left out if the attribute already has the same value (comparing string representations, so that
+     * e.g. {@code "true"} and {@code true} are the same). An undefine is left out if the attribute is already
+     * undefined. Attributes that aren't returned by {@code read-resource} (such as runtime attributes) are always
+     * written. Other steps are always kept. If no step is left, nothing is executed and a successful result
+     * without a value is returned.</p>
+     *
+     * @throws OperationException if a resource whose attributes are written doesn't exist (and isn't added
+     * by the batch itself) or if reading it fails
+     */
+    public ModelNodeResult batchIfChanged(Batch batch) throws IOException, OperationException {
+        ModelNode composite = batch.toModelNode();
+        List<ModelNode> steps = composite.get(Constants.STEPS).asList();
+
+        Set<ModelNode> addedAddresses = new HashSet<ModelNode>();
+        Map<ModelNode, ModelNode> resources = new HashMap<ModelNode, ModelNode>();
+        for (ModelNode step : steps) {
+            String operation = step.get(Constants.OP).asString();
+            ModelNode address = step.get(Constants.OP_ADDR);
+            if (Constants.ADD.equals(operation)) {
+                addedAddresses.add(address);
+            } else if (isAttributeChange(operation) && !addedAddresses.contains(address)
+                    && !resources.containsKey(address)) {
+                resources.put(address, readResourceForChange(address));
+            }
+        }
+
+        ModelNode changedSteps = new ModelNode().setEmptyList();
+        for (ModelNode step : steps) {
+            ModelNode resource = resources.get(step.get(Constants.OP_ADDR));
+            if (resource == null || !isAttributeChange(step.get(Constants.OP).asString())
+                    || isChangedBy(resource, step)) {
+                changedSteps.add(step);
+            }
+        }
+
+        if (changedSteps.asList().isEmpty()) {
+            ModelNode result = new ModelNode();
+            result.get(Constants.OUTCOME).set(Constants.SUCCESS);
+            return new ModelNodeResult(result);
+        }
+
+        composite.get(Constants.STEPS).set(changedSteps);
+        return client.execute(composite);
+    }
+
+    private static boolean isAttributeChange(String operation) {
+        return Constants.WRITE_ATTRIBUTE_OPERATION.equals(operation)
+                || Constants.UNDEFINE_ATTRIBUTE_OPERATION.equals(operation);
+    }
+
+    private ModelNode readResourceForChange(ModelNode address) throws IOException, OperationException {
+        ModelNode operation = new ModelNode();
+        operation.get(Constants.OP).set(Constants.READ_RESOURCE_OPERATION);
+        operation.get(Constants.OP_ADDR).set(address);
+        operation.get(Constants.INCLUDE_DEFAULTS).set(false);
+
+        FailuresAllowedBlock expectedFailures = client.allowFailures();
+        try {
+            ModelNodeResult result = client.execute(operation);
+            if (result.isSuccess()) {
+                return result.value();
+            }
+
+            if (isResultUnknownOrNotFound(result)) {
+                throw new OperationException("Can't change attributes of " + addressToString(address)
+                        + ", the resource doesn't exist");
+            }
+
+            throw new OperationException("Reading " + addressToString(address) + " failed: " + result.asString());
+        } finally {
+            expectedFailures.close();
+        }
+    }
+
+    private static boolean isChangedBy(ModelNode resource, ModelNode step) {
+        String name = step.get(Constants.NAME).asString();
+        if (!resource.has(name)) {
+            return true;
+        }
+
+        ModelNode currentValue = resource.get(name);
+        ModelNode newValue = step.has(Constants.VALUE) ? step.get(Constants.VALUE) : new ModelNode();
+        if (!currentValue.isDefined() || !newValue.isDefined()) {
+            return currentValue.isDefined() != newValue.isDefined();
+        }
+        return !currentValue.equals(newValue) && !currentValue.asString().equals(newValue.asString());
+    }
+
+    private static String addressToString(ModelNode address) {
+        if (!address.isDefined() || address.asList().isEmpty()) {
+            return "/";
+        }
+
+        StringBuilder result = new StringBuilder();
+        for (ModelNode element : address.asList()) {
+            Property property = element.asProperty();
+            result.append("/").append(property.getName()).append("=").append(property.getValue().asString());
+        }
+        return result.toString();
+    }
+
     /**
      * @return {@code true} if the resource specified by {@code address} exists, {@code false} otherwise
      * @throws OperationException if the underlying {@code read-resource} operation fails
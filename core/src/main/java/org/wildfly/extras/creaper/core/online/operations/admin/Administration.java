@@ -27,20 +27,38 @@ public class Administration {
 
     private final OnlineManagementClient client;
     private final AdministrationOperations ops;
+    private final WaitStrategy waitStrategy;
 
     public Administration(OnlineManagementClient client) {
         this(client, DEFAULT_TIMEOUT);
     }
 
     public Administration(OnlineManagementClient client, int timeoutInSeconds) {
+        this(client, timeoutInSeconds, WaitStrategy.defaultStrategy());
+    }
+
+    /**
+     * @param waitStrategy how often the server is checked when waiting for it to become running after reload
+     * or restart
+     */
+    public Administration(OnlineManagementClient client, int timeoutInSeconds, WaitStrategy waitStrategy) {
         this.client = client;
+        this.waitStrategy = waitStrategy;
         if (client.options().isDomain) {
-            this.ops = new DomainAdministrationOperations(client, timeoutInSeconds);
+            this.ops = new DomainAdministrationOperations(client, timeoutInSeconds, waitStrategy);
         } else {
-            this.ops = new StandaloneAdministrationOperations(client, timeoutInSeconds);
+            this.ops = new StandaloneAdministrationOperations(client, timeoutInSeconds, waitStrategy);
         }
     }
 
+    /**
+     * Returns the {@link WaitStrategy} used when waiting for the server to become running. It also provides
+     * statistics about the waits performed so far, e.g. how long did the last reload take.
+     */
+    public final WaitStrategy waitStrategy() {
+        return waitStrategy;
+    }
+
     // ---
 
     /**
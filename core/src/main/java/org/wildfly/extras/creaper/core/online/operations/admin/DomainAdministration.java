@@ -13,6 +13,7 @@ import org.wildfly.extras.creaper.core.online.operations.Values;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeoutException;
 
 /**
@@ -37,10 +38,14 @@ public final class DomainAdministration extends Administration {
     }
 
     public DomainAdministration(OnlineManagementClient client, int timeoutInSeconds) {
-        super(client);
+        this(client, timeoutInSeconds, WaitStrategy.defaultStrategy());
+    }
+
+    public DomainAdministration(OnlineManagementClient client, int timeoutInSeconds, WaitStrategy waitStrategy) {
+        super(client, timeoutInSeconds, waitStrategy);
         this.client = client;
         this.ops = new Operations(client);
-        this.domainOps = new DomainAdministrationOperations(client, timeoutInSeconds);
+        this.domainOps = new DomainAdministrationOperations(client, timeoutInSeconds, waitStrategy);
     }
 
     // ---
@@ -69,6 +74,14 @@ public final class DomainAdministration extends Administration {
         return domainOps.allRunningServers(host);
     }
 
+    /**
+     * Retrieves all servers running in the domain, grouped by host. All hosts are present in the map, even if they
+     * have no running server. This takes two management operations, regardless of the number of hosts and servers.
+     */
+    public Map<String, List<String>> runningServersByHost() throws IOException {
+        return domainOps.runningServersByHost(hosts());
+    }
+
     /** @see #allServers(String) */
     public List<String> allServers() throws IOException {
         return allServers(client.options().defaultHost);
@@ -1,5 +1,7 @@
 package org.wildfly.extras.creaper.core.online.operations.admin;
 
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.Property;
 import org.wildfly.extras.creaper.core.online.Constants;
 import org.wildfly.extras.creaper.core.online.ModelNodeResult;
 import org.wildfly.extras.creaper.core.online.OnlineManagementClient;
@@ -10,19 +12,25 @@ import org.wildfly.extras.creaper.core.online.operations.Values;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.util.Map;
 import java.util.concurrent.TimeoutException;
 
 final class DomainAdministrationOperations implements AdministrationOperations {
     private final OnlineManagementClient client;
     private final Operations ops;
     private final int timeoutInSeconds;
+    private final WaitStrategy waitStrategy;
 
-    public DomainAdministrationOperations(OnlineManagementClient client, int timeoutInSeconds) {
+    public DomainAdministrationOperations(OnlineManagementClient client, int timeoutInSeconds,
+                                          WaitStrategy waitStrategy) {
         this.client = client;
         this.ops = new Operations(client);
         this.timeoutInSeconds = timeoutInSeconds;
+        this.waitStrategy = waitStrategy;
     }
 
     // ---
@@ -136,76 +144,84 @@ final class DomainAdministrationOperations implements AdministrationOperations {
     }
 
     List<String> allRunningServers(String host) throws IOException {
-        ModelNodeResult result = ops.readChildrenNames(Address.host(host), Constants.SERVER);
-        result.assertDefinedValue();
-        List<String> servers = result.stringListValue();
-
-        List<String> startedServers = new ArrayList<String>();
-        for (String server : servers) {
-            ModelNodeResult serverStatus = ops.readAttribute(Address.host(host).and(Constants.SERVER_CONFIG, server),
-                    Constants.STATUS);
-            serverStatus.assertDefinedValue();
-            if ("STARTED".equals(serverStatus.stringValue())) {
-                startedServers.add(server);
-            }
-        }
-
-        return startedServers;
+        return runningServersByHost(Collections.singletonList(host)).get(host);
     }
 
     /**
-     * If {@code servers} is {@code null} or empty, only waits for the host controller to be running.
-     * Otherwise, waits for all servers on given {@code host} to be running.
+     * Reads statuses of all servers on all given {@code hosts} using a single composite operation
+     * (with one {@code read-children-resources} step per host).
      */
-    void waitUntilServersAreRunning(String host, List<String> servers, boolean reconnect) throws IOException,
-            InterruptedException, TimeoutException {
-
-        Thread.sleep(500); // this value is taken from implementation of CLI "reload"
-
-        if (reconnect) {
-            client.reconnect(timeoutInSeconds);
+    Map<String, List<String>> runningServersByHost(List<String> hosts) throws IOException {
+        Map<String, List<String>> result = new LinkedHashMap<String, List<String>>();
+        if (hosts.isEmpty()) {
+            return result;
         }
 
-        long endTime = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(timeoutInSeconds);
-        while (System.currentTimeMillis() < endTime) {
-            try {
-                if (areServersRunning(host, servers)) {
-                    break;
+        Batch batch = new Batch();
+        for (String host : hosts) {
+            batch.invoke(Constants.READ_CHILDREN_RESOURCES, Address.host(host),
+                    Values.of(Constants.CHILD_TYPE, Constants.SERVER_CONFIG).and(Constants.INCLUDE_RUNTIME, true));
+        }
+        ModelNodeResult batchResult = ops.batch(batch);
+        batchResult.assertDefinedValue();
+
+        Iterator<String> hostsIterator = hosts.iterator();
+        for (ModelNodeResult hostResult : batchResult.forAllBatchSteps()) {
+            hostResult.assertDefinedValue();
+
+            List<String> startedServers = new ArrayList<String>();
+            for (Property server : hostResult.value().asPropertyList()) {
+                ModelNode status = server.getValue().get(Constants.STATUS);
+                if (status.isDefined() && "STARTED".equals(status.asString())) {
+                    startedServers.add(server.getName());
                 }
-            } catch (Throwable ignored) {
-                // server is probably down, will retry
             }
-
-            Thread.sleep(200); // this value is completely arbitrary
+            result.put(hostsIterator.next(), startedServers);
         }
 
-        boolean running = false;
-        try {
-            running = areServersRunning(host, servers);
-        } catch (Throwable ignored) {
-            // server probably down
-        }
-        if (!running) {
-            throw new TimeoutException("Waiting for host '" + host + "' / servers " + servers + " timed out");
-        }
+        return result;
+    }
+
+    /**
+     * If {@code servers} is {@code null} or empty, only waits for the host controller to be running.
+     * Otherwise, waits for all servers on given {@code host} to be running.
+     */
+    void waitUntilServersAreRunning(final String host, final List<String> servers, boolean reconnect)
+            throws InterruptedException, TimeoutException {
+        String what = servers == null || servers.isEmpty()
+                ? "host '" + host + "'"
+                : "host '" + host + "' / servers " + servers;
+        WaitUntilRunning.waitUntilRunning(client, waitStrategy, timeoutInSeconds, reconnect, what,
+                new WaitUntilRunning.Check() {
+                    @Override
+                    public boolean isRunning() throws IOException {
+                        return areServersRunning(host, servers);
+                    }
+                });
     }
 
+    /** Checks the host and all the {@code servers} using a single composite operation. */
     private boolean areServersRunning(String host, List<String> servers) throws IOException {
         Address hostAddress = Address.host(host);
 
-        if (servers == null || servers.isEmpty()) {
-            ModelNodeResult result = ops.readAttribute(Address.host(host), Constants.HOST_STATE);
-            result.assertDefinedValue();
-            return ServerState.isRunning(result.stringValue());
-        } else {
+        Batch batch = new Batch();
+        batch.readAttribute(hostAddress, Constants.HOST_STATE);
+        if (servers != null) {
             for (String server : servers) {
-                Address serverAddress = hostAddress.and(Constants.SERVER, server);
-                ModelNodeResult result = ops.readAttribute(serverAddress, Constants.SERVER_STATE);
-                if (!result.hasDefinedValue() || !ServerState.isRunning(result.stringValue())) {
-                    return false;
-                }
+                batch.readAttribute(hostAddress.and(Constants.SERVER, server), Constants.SERVER_STATE);
+            }
+        }
+
+        // if some server isn't running, reading its state fails and so does the entire composite operation
+        ModelNodeResult result = ops.batch(batch);
+        if (!result.isSuccess() || !result.hasDefinedValue()) {
+            return false;
+        }
+        for (ModelNodeResult stepResult : result.forAllBatchSteps()) {
+            if (!stepResult.hasDefinedValue() || !ServerState.isRunning(stepResult.stringValue())) {
+                return false;
             }
-            return true;
         }
+        return true;
     }
 }
@@ -106,7 +106,7 @@ public final class ReloadToOriginal {
     public void perform() throws InterruptedException, TimeoutException, IOException {
         checkReloadToOriginalMakesSense(client, null);
 
-        new StandaloneAdministrationOperations(client, timeoutInSeconds)
+        new StandaloneAdministrationOperations(client, timeoutInSeconds, WaitStrategy.defaultStrategy())
                 .performRestartOperation(new ReloadToOriginalRestartOperation());
     }
 
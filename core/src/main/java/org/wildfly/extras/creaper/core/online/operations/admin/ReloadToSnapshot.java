@@ -38,7 +38,7 @@ public final class ReloadToSnapshot {
      */
     public void perform() throws InterruptedException, TimeoutException, IOException {
         if (client.options().isStandalone) {
-            new StandaloneAdministrationOperations(client, timeoutInSeconds)
+            new StandaloneAdministrationOperations(client, timeoutInSeconds, WaitStrategy.defaultStrategy())
                     .performRestartOperation(new ReloadToStandaloneSnapshotRestartOperation(snapshot));
         } else {
             perform(client.options().defaultHost);
@@ -54,7 +54,7 @@ public final class ReloadToSnapshot {
                     + "' to a snapshot, but the server isn't a domain controller");
         }
 
-        new DomainAdministrationOperations(client, timeoutInSeconds)
+        new DomainAdministrationOperations(client, timeoutInSeconds, WaitStrategy.defaultStrategy())
                 .performRestartOperation(host, new ReloadToDomainSnapshotRestartOperation(snapshot));
     }
 
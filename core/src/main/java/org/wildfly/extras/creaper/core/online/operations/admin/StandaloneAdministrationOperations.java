@@ -8,18 +8,20 @@ import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
 
 import java.io.IOException;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 final class StandaloneAdministrationOperations implements AdministrationOperations {
     private final OnlineManagementClient client;
     private final Operations ops;
     private final int timeoutInSeconds;
+    private final WaitStrategy waitStrategy;
 
-    public StandaloneAdministrationOperations(OnlineManagementClient client, int timeoutInSeconds) {
+    public StandaloneAdministrationOperations(OnlineManagementClient client, int timeoutInSeconds,
+                                              WaitStrategy waitStrategy) {
         this.client = client;
         this.ops = new Operations(client);
         this.timeoutInSeconds = timeoutInSeconds;
+        this.waitStrategy = waitStrategy;
     }
 
     // ---
@@ -97,37 +99,14 @@ final class StandaloneAdministrationOperations implements AdministrationOperatio
         return restartOperation.isRequired(ops.readAttribute(Address.root(), Constants.SERVER_STATE), false);
     }
 
-    private void waitUntilServerIsRunning(boolean reconnect) throws IOException, InterruptedException,
-            TimeoutException {
-
-        Thread.sleep(500); // this value is taken from implementation of CLI "reload"
-
-        if (reconnect) {
-            client.reconnect(timeoutInSeconds);
-        }
-
-        long endTime = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(timeoutInSeconds);
-        while (System.currentTimeMillis() < endTime) {
-            try {
-                if (isServerRunning()) {
-                    break;
-                }
-            } catch (Throwable ignored) {
-                // server is probably down, will retry
-            }
-
-            Thread.sleep(200); // this value is completely arbitrary
-        }
-
-        boolean running = false;
-        try {
-            running = isServerRunning();
-        } catch (Throwable ignored) {
-            // server probably down
-        }
-        if (!running) {
-            throw new TimeoutException("Waiting for server timed out");
-        }
+    private void waitUntilServerIsRunning(boolean reconnect) throws InterruptedException, TimeoutException {
+        WaitUntilRunning.waitUntilRunning(client, waitStrategy, timeoutInSeconds, reconnect, "server",
+                new WaitUntilRunning.Check() {
+                    @Override
+                    public boolean isRunning() throws IOException {
+                        return isServerRunning();
+                    }
+                });
     }
 
     private boolean isServerRunning() throws IOException {
@@ -0,0 +1,124 @@
+package org.wildfly.extras.creaper.core.online.operations.admin;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>Determines how often the server is checked when waiting for it to become running (e.g. after reload or restart).
+ * There are two predefined strategies: {@link #fixedDelay(long) fixed delay} and
+ * {@link #exponentialBackoff(long, long) exponential backoff with jitter}. The default strategy is an exponential
+ * backoff starting at 50 ms, with the delay growing up to 400 ms.</p>
+ *
+ * <p>Checking starts right after the reload/restart operation. To make sure that the server is not considered
+ * running before it actually went down, the server is only considered running if it was seen down in the meantime
+ * or if at least 500 ms elapsed since the operation (this value is taken from implementation of CLI
+ * {@code reload}).</p>
+ *
+ * <p>Each strategy also collects simple statistics about the waits it was used for, such as the time it took
+ * for the server to become running after the last reload or restart. The statistics are updated when
+ * the wait finishes successfully. Strategies are thread-safe and can be shared.</p>
+ */
+public abstract class WaitStrategy {
+
+    private final AtomicLong waits = new AtomicLong();
+    private final AtomicLong checks = new AtomicLong();
+    private final AtomicLong totalElapsedMillis = new AtomicLong();
+    private final AtomicLong lastElapsedMillis = new AtomicLong(-1);
+
+    /** A new instance of the default strategy; each instance collects its own statistics. */
+    static WaitStrategy defaultStrategy() {
+        return exponentialBackoff(50, 400);
+    }
+
+    /** Checks the server every {@code delayInMillis}. */
+    public static WaitStrategy fixedDelay(final long delayInMillis) {
+        if (delayInMillis <= 0) {
+            throw new IllegalArgumentException("Delay must be positive");
+        }
+
+        return new WaitStrategy() {
+            @Override
+            protected long delayMillis(int attempt) {
+                return delayInMillis;
+            }
+
+            @Override
+            public String toString() {
+                return "WaitStrategy.fixedDelay(" + delayInMillis + ")";
+            }
+        };
+    }
+
+    /**
+     * The first delay is {@code initialDelayInMillis}, each subsequent delay is twice as long as the previous one,
+     * up to {@code maxDelayInMillis}. Each delay is randomly shortened by up to 20 %, so that multiple clients
+     * waiting for the same server don't check it at the same time.
+     */
+    public static WaitStrategy exponentialBackoff(final long initialDelayInMillis, final long maxDelayInMillis) {
+        if (initialDelayInMillis <= 0) {
+            throw new IllegalArgumentException("Initial delay must be positive");
+        }
+        if (maxDelayInMillis < initialDelayInMillis) {
+            throw new IllegalArgumentException("Maximum delay must not be shorter than initial delay");
+        }
+
+        return new WaitStrategy() {
+            private final Random random = new Random();
+
+            @Override
+            protected long delayMillis(int attempt) {
+                long delay = maxDelayInMillis;
+                if (attempt < 31 && initialDelayInMillis << attempt < maxDelayInMillis) {
+                    delay = initialDelayInMillis << attempt;
+                }
+
+                double jitter;
+                synchronized (random) {
+                    jitter = random.nextDouble() * 0.2;
+                }
+                return Math.max(1, (long) (delay * (1 - jitter)));
+            }
+
+            @Override
+            public String toString() {
+                return "WaitStrategy.exponentialBackoff(" + initialDelayInMillis + ", " + maxDelayInMillis + ")";
+            }
+        };
+    }
+
+    /**
+     * Returns the delay before the next check.
+     * @param attempt number of checks performed so far in current wait
+     */
+    protected abstract long delayMillis(int attempt);
+
+    void recordWait(long elapsedMillis, int checksPerformed) {
+        waits.incrementAndGet();
+        checks.addAndGet(checksPerformed);
+        totalElapsedMillis.addAndGet(elapsedMillis);
+        lastElapsedMillis.set(elapsedMillis);
+    }
+
+    /** Number of successfully finished waits. */
+    public final long waitCount() {
+        return waits.get();
+    }
+
+    /** Total number of checks performed in successfully finished waits. */
+    public final long checkCount() {
+        return checks.get();
+    }
+
+    /** Total time spent in successfully finished waits, in milliseconds. */
+    public final long totalElapsedMillis() {
+        return totalElapsedMillis.get();
+    }
+
+    /**
+     * Time it took for the server to become running in the last successfully finished wait (measured from
+     * the reload/restart operation), in milliseconds. Returns {@code -1} if there was no such wait yet.
+     */
+    public final long lastElapsedMillis() {
+        return lastElapsedMillis.get();
+    }
+}
@@ -0,0 +1,76 @@
+package org.wildfly.extras.creaper.core.online.operations.admin;
+
+import org.jboss.logging.Logger;
+import org.wildfly.extras.creaper.core.online.OnlineManagementClient;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/** Waiting for a server (or a host and its servers) to become running, see {@link WaitStrategy}. */
+final class WaitUntilRunning {
+    private static final Logger log = Logger.getLogger(WaitUntilRunning.class);
+
+    private static final long GRACE_PERIOD = 500; // this value is taken from implementation of CLI "reload"
+
+    private WaitUntilRunning() {} // avoid instantiation
+
+    interface Check {
+        /** Exceptions are treated as "not running". */
+        boolean isRunning() throws Exception;
+    }
+
+    /**
+     * Should be called right after the reload/restart operation was performed.
+     * @param reconnect whether the client must reconnect (that is, the server went down before the reload/restart
+     * operation returned)
+     */
+    static void waitUntilRunning(OnlineManagementClient client, WaitStrategy waitStrategy, int timeoutInSeconds,
+                                 boolean reconnect, String what, Check check)
+            throws InterruptedException, TimeoutException {
+        long startTime = System.currentTimeMillis();
+
+        if (reconnect) {
+            // reconnecting too soon could connect to a server that is just going down
+            Thread.sleep(GRACE_PERIOD);
+            client.reconnect(timeoutInSeconds);
+        }
+
+        boolean seenDown = reconnect;
+        int attempt = 0;
+        long endTime = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(timeoutInSeconds);
+        while (System.currentTimeMillis() < endTime) {
+            boolean running = isRunning(check);
+            attempt++;
+            if (running && (seenDown || System.currentTimeMillis() - startTime >= GRACE_PERIOD)) {
+                finished(waitStrategy, startTime, attempt, what);
+                return;
+            }
+            if (!running) {
+                seenDown = true;
+            }
+
+            Thread.sleep(waitStrategy.delayMillis(attempt - 1));
+        }
+
+        attempt++;
+        if (!isRunning(check)) {
+            throw new TimeoutException("Waiting for " + what + " timed out");
+        }
+        finished(waitStrategy, startTime, attempt, what);
+    }
+
+    private static boolean isRunning(Check check) {
+        try {
+            return check.isRunning();
+        } catch (Throwable ignored) {
+            // server is probably down
+            return false;
+        }
+    }
+
+    private static void finished(WaitStrategy waitStrategy, long startTime, int checks, String what) {
+        long elapsed = System.currentTimeMillis() - startTime;
+        waitStrategy.recordWait(elapsed, checks);
+        log.infof("Waiting for %s took %d ms (%d checks)", what, elapsed, checks);
+    }
+}
@@ -0,0 +1,115 @@
+package org.wildfly.extras.creaper.core;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+import org.wildfly.extras.creaper.core.online.OperationEvent;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ManagementMetricsTest {
+    private static final ModelNode ADD_LOGGER = ModelNode.fromString(""
+            + "{\"operation\" => \"add\", \"address\" => [(\"subsystem\" => \"logging\"), (\"logger\" => \"foo\")]}");
+
+    private static final ModelNode READ_ROOT = ModelNode.fromString(""
+            + "{\"operation\" => \"read-resource\", \"address\" => []}");
+
+    private static final ModelNode SUCCESS = ModelNode.fromString("{\"outcome\" => \"success\"}");
+
+    private static final ModelNode RELOAD_REQUIRED = ModelNode.fromString(""
+            + "{\"outcome\" => \"success\", \"response-headers\" => {"
+            + "\"operation-requires-reload\" => true, \"process-state\" => \"reload-required\"}}");
+
+    private static final ModelNode FAILED = ModelNode.fromString(""
+            + "{\"outcome\" => \"failed\", \"failure-description\" => \"oops\"}");
+
+    @Test
+    public void operationEvent() {
+        OperationEvent event = new OperationEvent(ADD_LOGGER, RELOAD_REQUIRED, 1000, false);
+
+        assertEquals("add", event.operationName());
+        assertEquals("/subsystem=logging/logger=*", event.addressPattern());
+        assertTrue(event.isSuccess());
+        assertTrue(event.isReloadRequired());
+        assertFalse(event.isRestartRequired());
+        assertTrue(event.requestBytes() > 0);
+        assertTrue(event.responseBytes() > 0);
+
+        event = new OperationEvent(READ_ROOT, new ModelNode(), 1000, false);
+        assertEquals("/", event.addressPattern());
+        assertFalse(event.isSuccess());
+        assertFalse(event.isReloadRequired());
+    }
+
+    @Test
+    public void operations() {
+        ManagementMetrics metrics = new ManagementMetrics();
+        metrics.operationExecuted(new OperationEvent(ADD_LOGGER, SUCCESS, ms(10), false));
+        metrics.operationExecuted(new OperationEvent(ADD_LOGGER, RELOAD_REQUIRED, ms(30), false));
+        metrics.operationExecuted(new OperationEvent(ADD_LOGGER, FAILED, ms(20), false));
+        metrics.operationExecuted(new OperationEvent(READ_ROOT, SUCCESS, ms(1), false));
+        metrics.operationExecuted(new OperationEvent(READ_ROOT, SUCCESS, 0, true));
+
+        List<ManagementMetrics.Histogram> operations = metrics.operations();
+        assertEquals(2, operations.size());
+
+        ManagementMetrics.Histogram addLogger = operations.get(0);
+        assertEquals("add /subsystem=logging/logger=*", addLogger.key);
+        assertEquals(3, addLogger.count());
+        assertEquals(1, addLogger.failures());
+        assertEquals(1, addLogger.reloadOrRestartRequired());
+        assertEquals(60, addLogger.total(TimeUnit.MILLISECONDS));
+        assertEquals(10, addLogger.min(TimeUnit.MILLISECONDS));
+        assertEquals(30, addLogger.max(TimeUnit.MILLISECONDS));
+        assertEquals(20, addLogger.mean(TimeUnit.MILLISECONDS));
+        assertEquals(30, addLogger.percentile(1, TimeUnit.MILLISECONDS));
+
+        ManagementMetrics.Histogram readRoot = operations.get(1);
+        assertEquals("read-resource /", readRoot.key);
+        assertEquals(1, readRoot.count());
+        assertEquals(1, readRoot.cached());
+    }
+
+    @Test
+    public void percentilesAreApproximate() {
+        ManagementMetrics metrics = new ManagementMetrics();
+        for (int i = 1; i <= 100; i++) {
+            metrics.commandApplied(new CommandEvent(new TestCommand(), ms(i), null));
+        }
+
+        ManagementMetrics.Histogram histogram = metrics.commands().get(0);
+        assertEquals(100, histogram.count());
+        long p50 = histogram.percentile(0.5, TimeUnit.MILLISECONDS);
+        assertTrue("p50 " + p50, p50 >= 50 && p50 <= 100);
+        long p99 = histogram.percentile(0.99, TimeUnit.MILLISECONDS);
+        assertTrue("p99 " + p99, p99 >= 99 && p99 <= 100);
+    }
+
+    @Test
+    public void commands() {
+        ManagementMetrics metrics = new ManagementMetrics();
+        metrics.commandApplied(new CommandEvent(new TestCommand(), ms(5), null));
+        metrics.commandApplied(new CommandEvent(new TestCommand(), ms(7), new CommandFailedException("oops")));
+
+        List<ManagementMetrics.Histogram> commands = metrics.commands();
+        assertEquals(1, commands.size());
+        assertEquals("ManagementMetricsTest$TestCommand", commands.get(0).key);
+        assertEquals(2, commands.get(0).count());
+        assertEquals(1, commands.get(0).failures());
+        assertTrue(metrics.report().contains("ManagementMetricsTest$TestCommand: count 2, total 12 ms"));
+
+        metrics.reset();
+        assertTrue(metrics.commands().isEmpty());
+    }
+
+    private static long ms(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    private static final class TestCommand implements Command {
+    }
+}
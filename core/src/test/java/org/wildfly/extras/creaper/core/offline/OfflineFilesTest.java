@@ -0,0 +1,104 @@
+package org.wildfly.extras.creaper.core.offline;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class OfflineFilesTest {
+    @Rule
+    public final TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void writeNewFile() throws IOException {
+        File file = new File(tmp.getRoot(), "standalone.xml");
+
+        OfflineFiles.WriteResult result = OfflineFiles.write(file, "<server/>", false);
+
+        assertTrue(result.written);
+        assertEquals(9, result.bytesWritten);
+        assertEquals("<server/>", Files.toString(file, Charsets.UTF_8));
+        assertEquals(1, tmp.getRoot().list().length);
+    }
+
+    @Test
+    public void replaceExistingFile() throws IOException {
+        File file = tmp.newFile("standalone.xml");
+        Files.write("<server>with a lot of content</server>", file, Charsets.UTF_8);
+
+        OfflineFiles.WriteResult result = OfflineFiles.write(file, "<server/>", true);
+
+        assertTrue(result.written);
+        assertEquals(9, result.bytesWritten);
+        assertEquals("<server/>", Files.toString(file, Charsets.UTF_8));
+        assertEquals(1, tmp.getRoot().list().length);
+    }
+
+    @Test
+    public void skipWritingSameContent() throws IOException {
+        File file = tmp.newFile("standalone.xml");
+        Files.write("<server/>", file, Charsets.UTF_8);
+        assertTrue(file.setLastModified(1000));
+
+        OfflineFiles.WriteResult result = OfflineFiles.write(file, "<server/>", false);
+
+        assertFalse(result.written);
+        assertEquals(0, result.bytesWritten);
+        assertEquals(1000, file.lastModified());
+    }
+
+    @Test
+    public void tempFileIsRemovedOnFailure() throws IOException {
+        File directory = tmp.newFolder("configuration");
+        File file = new File(directory, "standalone.xml");
+        assertTrue(file.mkdir()); // a directory can't be replaced by a file
+
+        try {
+            OfflineFiles.write(file, "<server/>", false);
+            fail("expected IOException");
+        } catch (IOException expected) {
+        }
+
+        assertTrue(file.isDirectory());
+        assertEquals(1, directory.list().length);
+    }
+
+    @Test
+    public void ownerOnlyFileStaysOwnerOnly() throws Exception {
+        Assume.assumeTrue(File.separatorChar == '/');
+
+        File file = tmp.newFile("mgmt-users.properties");
+        Files.write("admin=hash", file, Charsets.UTF_8);
+        assertTrue(file.setReadable(false, false) && file.setWritable(false, false));
+        assertTrue(file.setReadable(true, true) && file.setWritable(true, true));
+        assertEquals("-rw-------", mode(file));
+
+        OfflineFiles.write(file, "admin=another-hash", false);
+
+        assertEquals("admin=another-hash", Files.toString(file, Charsets.UTF_8));
+        assertEquals("-rw-------", mode(file));
+    }
+
+    private static String mode(File file) throws Exception {
+        Process ls = new ProcessBuilder("ls", "-l", file.getAbsolutePath()).start();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(ls.getInputStream(), Charsets.UTF_8));
+        try {
+            return reader.readLine().substring(0, 10);
+        } finally {
+            reader.close();
+            ls.waitFor();
+        }
+    }
+}
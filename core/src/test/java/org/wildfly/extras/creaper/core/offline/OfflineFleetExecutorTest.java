@@ -0,0 +1,74 @@
+package org.wildfly.extras.creaper.core.offline;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class OfflineFleetExecutorTest {
+    private static final String STANDALONE_XML = "<server xmlns=\"urn:jboss:domain:4.0\"></server>";
+
+    private static final OfflineCommand APPEND_COMMENT = new OfflineCommand() {
+        @Override
+        public void apply(OfflineCommandContext ctx) throws IOException {
+            Files.append("<!-- modified -->", ctx.configurationFile, Charsets.UTF_8);
+        }
+
+        @Override
+        public String toString() {
+            return "append comment";
+        }
+    };
+
+    @Rule
+    public final TemporaryFolder tmp = new TemporaryFolder();
+
+    private OfflineOptions configuration(String name, boolean create) throws IOException {
+        File file = new File(tmp.getRoot(), name);
+        if (create) {
+            Files.write(STANDALONE_XML, file, Charsets.UTF_8);
+        }
+        return OfflineOptions.standalone().configurationFile(file).build();
+    }
+
+    @Test
+    public void commandsAreAppliedToAllConfigurationFiles() throws Exception {
+        List<OfflineOptions> configurations = new ArrayList<OfflineOptions>();
+        for (int i = 0; i < 20; i++) {
+            configurations.add(configuration("standalone-" + i + ".xml", true));
+        }
+
+        OfflineFleetResult result = new OfflineFleetExecutor(4).apply(configurations, APPEND_COMMENT);
+
+        assertTrue(result.isSuccess());
+        assertEquals(20, result.results().size());
+        for (OfflineOptions configuration : configurations) {
+            String content = Files.toString(configuration.configurationFile, Charsets.UTF_8);
+            assertTrue(content, content.endsWith("<!-- modified -->"));
+        }
+    }
+
+    @Test
+    public void failureIsReportedForTheFailingConfigurationFileOnly() throws Exception {
+        List<OfflineOptions> configurations = new ArrayList<OfflineOptions>();
+        configurations.add(configuration("standalone.xml", true));
+        configurations.add(configuration("missing.xml", false));
+
+        OfflineFleetResult result = new OfflineFleetExecutor(2).apply(configurations, APPEND_COMMENT);
+
+        assertFalse(result.isSuccess());
+        assertTrue(result.results().get(0).isSuccess());
+        assertEquals(1, result.failures().size());
+        assertTrue(result.failures().get(0).failure() instanceof IOException);
+    }
+}
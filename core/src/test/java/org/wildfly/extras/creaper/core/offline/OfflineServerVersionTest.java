@@ -154,6 +154,28 @@ public class OfflineServerVersionTest {
         test(ServerVersion.VERSION_7_0_0, DOMAIN_XML, WFLY13_ROOT, EAP7_LOGGING, EAP7_EE);
     }
 
+    @Test
+    public void onlyRootElementIsRead() throws IOException {
+        String xml = "<?xml version='1.0' encoding='UTF-8'?>\n"
+                + "<!-- urn:jboss:domain:1.0 -->\n"
+                + "<server xmlns=\"urn:jboss:domain:4.0\">\n"
+                + "    this is not <well-formed XML, but it's never read\n";
+
+        File configurationFile = tmp.newFile("test.xml");
+        Files.write(xml, configurationFile, Charsets.UTF_8);
+
+        assertEquals(ServerVersion.VERSION_4_0_0, OfflineServerVersion.discover(configurationFile));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void missingRootNamespace() throws IOException {
+        File configurationFile = tmp.newFile("test.xml");
+        Files.write("<server><extensions xmlns=\"urn:jboss:domain:4.0\"/></server>", configurationFile,
+                Charsets.UTF_8);
+
+        OfflineServerVersion.discover(configurationFile);
+    }
+
     private void test(ServerVersion expected, String xmlPattern,
                       String rootVersion, String loggingVersion, String eeVersion) throws IOException {
         String xml = xmlPattern
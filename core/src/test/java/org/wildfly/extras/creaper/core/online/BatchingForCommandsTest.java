@@ -0,0 +1,199 @@
+package org.wildfly.extras.creaper.core.online;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.wildfly.extras.creaper.core.CommandFailedException;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BatchingForCommandsTest {
+    private OnlineManagementClient rawClient;
+    private BatchingForCommands batching;
+    private String failingStep; // null if all operations succeed
+    private String failureDescription = "Duplicate resource";
+    private boolean failOnlyOnce;
+
+    @Before
+    public void setUp() throws Exception {
+        rawClient = mock(OnlineManagementClient.class);
+        when(rawClient.options()).thenReturn(OnlineOptions.standalone().localDefault().build());
+        when(rawClient.execute(any(ModelNode.class))).thenAnswer(new Answer<ModelNode>() {
+            @Override
+            public ModelNode answer(InvocationOnMock invocation) throws Throwable {
+                ModelNode operation = (ModelNode) invocation.getArguments()[0];
+                ModelNode result = new ModelNode();
+                if (Constants.READ_ATTRIBUTE_OPERATION.equals(operation.get(Constants.OP).asString())) {
+                    result.get(Constants.OUTCOME).set(Constants.SUCCESS);
+                    result.get(Constants.RESULT).set(Constants.CONTROLLER_PROCESS_STATE_RUNNING);
+                } else if (failingStep == null) {
+                    result.get(Constants.OUTCOME).set(Constants.SUCCESS);
+                } else {
+                    result.get(Constants.OUTCOME).set(Constants.FAILED);
+                    result.get(Constants.FAILURE_DESCRIPTION).set("Composite operation failed and was rolled back");
+                    result.get(Constants.RESULT, "step-1", Constants.OUTCOME).set(Constants.FAILED);
+                    result.get(Constants.RESULT, failingStep, Constants.OUTCOME).set(Constants.FAILED);
+                    result.get(Constants.RESULT, failingStep, Constants.FAILURE_DESCRIPTION).set(failureDescription);
+                    if (failOnlyOnce) {
+                        failingStep = null;
+                    }
+                }
+                return new ModelNodeResult(result);
+            }
+        });
+
+        batching = new BatchingForCommands(AutomaticErrorHandlingForCommands.wrap(rawClient), rawClient, null, 3);
+    }
+
+    @Test
+    public void modifyingOperationsAreSentAsComposite() throws Exception {
+        assertTrue(batching.execute(operation(Constants.ADD, "a")).isSuccess());
+        assertTrue(batching.execute(operation(Constants.WRITE_ATTRIBUTE_OPERATION, "b")).isSuccess());
+        verify(rawClient, never()).execute(any(ModelNode.class));
+
+        batching.flush();
+
+        ArgumentCaptor<ModelNode> captor = ArgumentCaptor.forClass(ModelNode.class);
+        verify(rawClient).execute(captor.capture());
+        ModelNode composite = captor.getValue();
+        assertEquals(Constants.COMPOSITE, composite.get(Constants.OP).asString());
+        assertEquals(2, composite.get(Constants.STEPS).asList().size());
+    }
+
+    @Test
+    public void compositesAreChunked() throws Exception {
+        for (int i = 0; i < 7; i++) {
+            batching.execute(operation(Constants.ADD, "resource" + i));
+        }
+        batching.flush();
+
+        ArgumentCaptor<ModelNode> captor = ArgumentCaptor.forClass(ModelNode.class);
+        verify(rawClient, times(3)).execute(captor.capture());
+        List<ModelNode> composites = captor.getAllValues();
+        assertEquals(3, composites.get(0).get(Constants.STEPS).asList().size());
+        assertEquals(3, composites.get(1).get(Constants.STEPS).asList().size());
+        assertEquals(1, composites.get(2).get(Constants.STEPS).asList().size());
+    }
+
+    @Test
+    public void readingOperationFlushesRecordedOperations() throws Exception {
+        batching.execute(operation(Constants.ADD, "a"));
+        batching.execute(operation(Constants.READ_RESOURCE_OPERATION, "a"));
+
+        ArgumentCaptor<ModelNode> captor = ArgumentCaptor.forClass(ModelNode.class);
+        verify(rawClient, times(2)).execute(captor.capture());
+        assertEquals(Constants.COMPOSITE, captor.getAllValues().get(0).get(Constants.OP).asString());
+        assertEquals(Constants.READ_RESOURCE_OPERATION, captor.getAllValues().get(1).get(Constants.OP).asString());
+    }
+
+    @Test
+    public void operationsAreNotRecordedWhenFailuresAreAllowed() throws Exception {
+        FailuresAllowedBlock block = batching.allowFailures();
+        try {
+            batching.execute(operation(Constants.REMOVE_OPERATION, "a"));
+            verify(rawClient).execute(any(ModelNode.class));
+        } finally {
+            block.close();
+        }
+
+        batching.execute(operation(Constants.REMOVE_OPERATION, "b"));
+        verify(rawClient).execute(any(ModelNode.class));
+    }
+
+    @Test
+    public void failureIsReportedForCommandThatIssuedFailedStep() throws Exception {
+        OnlineCommand first = new NamedCommand("first");
+        OnlineCommand second = new NamedCommand("second");
+
+        batching.commandStarted(first);
+        batching.execute(operation(Constants.ADD, "a"));
+        batching.commandStarted(second);
+        batching.execute(operation(Constants.ADD, "b"));
+
+        failingStep = "step-2";
+        try {
+            batching.flush();
+            fail("Expected CommandFailedException");
+        } catch (RuntimeCommandFailedException e) {
+            CommandFailedException original = e.original;
+            assertTrue(original.getMessage(), original.getMessage().startsWith("Command second failed"));
+            assertTrue(original.getMessage(), original.getMessage().contains("\"b\""));
+        }
+    }
+
+    @Test
+    public void failedBatchIsRetriedAfterPendingReload() throws Exception {
+        CoalescedReload coalescedReload = batchingWithCoalescedReload();
+        batching.execute(operation(Constants.ADD, "a"));
+
+        failingStep = "step-1";
+        failureDescription = "WFLYCTL0436: Cannot register capability 'test.a', it is already registered";
+        failOnlyOnce = true;
+        batching.flush();
+
+        assertFalse(coalescedReload.isPending());
+        verify(rawClient, times(3)).execute(any(ModelNode.class)); // failed composite, check, composite
+    }
+
+    @Test
+    public void unrelatedFailureOfBatchDoesNotReload() throws Exception {
+        CoalescedReload coalescedReload = batchingWithCoalescedReload();
+        batching.execute(operation(Constants.ADD, "a"));
+
+        failingStep = "step-1";
+        try {
+            batching.flush();
+            fail("Expected CommandFailedException");
+        } catch (RuntimeCommandFailedException expected) {
+        }
+
+        assertTrue(coalescedReload.isPending());
+        verify(rawClient, times(1)).execute(any(ModelNode.class));
+    }
+
+    private CoalescedReload batchingWithCoalescedReload() {
+        CoalescedReload coalescedReload = new CoalescedReload(rawClient);
+        coalescedReload.request();
+        batching = new BatchingForCommands(AutomaticErrorHandlingForCommands.wrap(rawClient, coalescedReload),
+                rawClient, coalescedReload, 3);
+        return coalescedReload;
+    }
+
+    private static ModelNode operation(String name, String resource) {
+        ModelNode operation = new ModelNode();
+        operation.get(Constants.OP).set(name);
+        operation.get(Constants.OP_ADDR).add("subsystem", "test").add("resource", resource);
+        return operation;
+    }
+
+    private static final class NamedCommand implements OnlineCommand {
+        private final String name;
+
+        NamedCommand(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void apply(OnlineCommandContext ctx) {
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
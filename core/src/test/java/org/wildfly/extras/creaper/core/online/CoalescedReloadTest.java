@@ -0,0 +1,116 @@
+package org.wildfly.extras.creaper.core.online;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.wildfly.extras.creaper.core.ServerVersion;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CoalescedReloadTest {
+    private OnlineManagementClient client;
+    private CoalescedReload coalescedReload;
+    private OnlineCommandContext ctx;
+    private int failuresBeforeSuccess;
+    private String failureDescription;
+
+    @Before
+    public void setUp() throws Exception {
+        client = mock(OnlineManagementClient.class);
+        when(client.options()).thenReturn(OnlineOptions.standalone().localDefault().build());
+        when(client.execute(any(ModelNode.class))).thenAnswer(new Answer<ModelNode>() {
+            @Override
+            public ModelNode answer(InvocationOnMock invocation) throws Throwable {
+                ModelNode operation = (ModelNode) invocation.getArguments()[0];
+                ModelNode result = new ModelNode();
+                if (Constants.READ_ATTRIBUTE_OPERATION.equals(operation.get(Constants.OP).asString())) {
+                    result.get(Constants.OUTCOME).set(Constants.SUCCESS);
+                    result.get(Constants.RESULT).set(Constants.CONTROLLER_PROCESS_STATE_RUNNING);
+                } else if (failuresBeforeSuccess > 0) {
+                    failuresBeforeSuccess--;
+                    result.get(Constants.OUTCOME).set(Constants.FAILED);
+                    result.get(Constants.FAILURE_DESCRIPTION).set(failureDescription);
+                    result.get(Constants.RESPONSE_HEADERS, Constants.PROCESS_STATE)
+                            .set(Constants.CONTROLLER_PROCESS_STATE_RELOAD_REQUIRED);
+                } else {
+                    result.get(Constants.OUTCOME).set(Constants.SUCCESS);
+                }
+                return new ModelNodeResult(result);
+            }
+        });
+
+        coalescedReload = new CoalescedReload(client);
+        ctx = new OnlineCommandContext(AutomaticErrorHandlingForCommands.wrap(client, coalescedReload),
+                ServerVersion.VERSION_2_0_0, coalescedReload);
+    }
+
+    @Test
+    public void reloadIsOnlyRequested() throws Exception {
+        ctx.reloadIfRequired();
+        ctx.reloadIfRequired();
+
+        assertTrue(coalescedReload.isPending());
+        verify(client, never()).execute(any(ModelNode.class));
+
+        coalescedReload.performIfPending();
+        assertFalse(coalescedReload.isPending());
+        verify(client, times(1)).execute(any(ModelNode.class)); // checking whether reload is required
+    }
+
+    @Test
+    public void failedOperationIsRetriedAfterPendingReload() throws Exception {
+        failuresBeforeSuccess = 1;
+        failureDescription = "WFLYCTL0158: Operation handler failed: "
+                + "org.jboss.msc.service.DuplicateServiceException: Service jboss.logging is already registered";
+        ctx.reloadIfRequired();
+
+        assertTrue(ctx.client.execute(addOperation()).isSuccess());
+        assertFalse(coalescedReload.isPending());
+        verify(client, times(3)).execute(any(ModelNode.class)); // failed add, check, add
+    }
+
+    @Test
+    public void unrelatedFailureIsNotRetriedWithPendingReload() throws Exception {
+        failuresBeforeSuccess = 1;
+        failureDescription = "WFLYCTL0212: Duplicate resource [(\"subsystem\" => \"logging\")]";
+        ctx.reloadIfRequired();
+
+        try {
+            ctx.client.execute(addOperation());
+            fail("Expected CommandFailedException");
+        } catch (RuntimeException expected) {
+        }
+        assertTrue(coalescedReload.isPending());
+        verify(client, times(1)).execute(any(ModelNode.class));
+    }
+
+    @Test
+    public void failedOperationIsNotRetriedWithoutPendingReload() throws Exception {
+        failuresBeforeSuccess = 1;
+        failureDescription = "WFLYCTL0158: Operation handler failed";
+
+        try {
+            ctx.client.execute(addOperation());
+            fail("Expected CommandFailedException");
+        } catch (RuntimeException expected) {
+        }
+        verify(client, times(1)).execute(any(ModelNode.class));
+    }
+
+    private static ModelNode addOperation() {
+        ModelNode operation = new ModelNode();
+        operation.get(Constants.OP).set(Constants.ADD);
+        operation.get(Constants.OP_ADDR).add("subsystem", "logging");
+        return operation;
+    }
+}
@@ -0,0 +1,119 @@
+package org.wildfly.extras.creaper.core.online;
+
+import com.google.common.base.Charsets;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.jboss.dmr.ModelNode;
+import org.jboss.threads.AsyncFuture;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/** Runs the asynchronous operations against a trivial HTTP server that doesn't require authentication. */
+public class HttpModelControllerClientTest {
+    private static final String SUCCESS = "{\"outcome\" : \"success\", \"result\" : \"foo\"}";
+
+    private final CountDownLatch requestReceived = new CountDownLatch(1);
+    private final CountDownLatch responseAllowed = new CountDownLatch(1);
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile int status = 200;
+    private volatile boolean blocking;
+
+    private HttpServer server;
+    private HttpModelControllerClient client;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/management", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                requests.incrementAndGet();
+                requestReceived.countDown();
+                if (blocking) {
+                    try {
+                        responseAllowed.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+
+                byte[] body = SUCCESS.getBytes(Charsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(status, body.length);
+                OutputStream out = exchange.getResponseBody();
+                try {
+                    out.write(body);
+                } finally {
+                    out.close();
+                }
+            }
+        });
+        server.start();
+
+        // a single connection, so that the second asynchronous operation waits for the first one
+        client = new HttpModelControllerClient("localhost", server.getAddress().getPort(), null, null, 0, null,
+                1, 1, false, false);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        responseAllowed.countDown();
+        client.close();
+        server.stop(0);
+    }
+
+    @Test
+    public void completesWithResult() throws Exception {
+        AsyncFuture<ModelNode> future = client.executeAsync(new ModelNode(), null);
+
+        ModelNode result = future.get(10, TimeUnit.SECONDS);
+        assertEquals(AsyncFuture.Status.COMPLETE, future.getStatus());
+        assertEquals("foo", result.get(Constants.RESULT).asString());
+    }
+
+    @Test
+    public void fails() throws Exception {
+        status = 404;
+        AsyncFuture<ModelNode> future = client.executeAsync(new ModelNode(), null);
+
+        try {
+            future.get(10, TimeUnit.SECONDS);
+            fail("expected ExecutionException");
+        } catch (ExecutionException expected) {
+            assertTrue(expected.getCause() instanceof RuntimeException);
+        }
+        assertEquals(AsyncFuture.Status.FAILED, future.getStatus());
+    }
+
+    @Test
+    public void cancelled() throws Exception {
+        blocking = true;
+        AsyncFuture<ModelNode> running = client.executeAsync(new ModelNode(), null);
+        assertTrue(requestReceived.await(10, TimeUnit.SECONDS));
+        AsyncFuture<ModelNode> queued = client.executeAsync(new ModelNode(), null);
+
+        queued.asyncCancel(true);
+        running.asyncCancel(true);
+        assertEquals(AsyncFuture.Status.CANCELLED, running.await(10, TimeUnit.SECONDS));
+        assertEquals(AsyncFuture.Status.CANCELLED, queued.await(10, TimeUnit.SECONDS));
+
+        // the cancelled request must not be sent once the connection is free
+        responseAllowed.countDown();
+        assertEquals("foo", client.execute(new ModelNode()).get(Constants.RESULT).asString());
+        assertEquals(2, requests.get());
+    }
+}
@@ -0,0 +1,123 @@
+package org.wildfly.extras.creaper.core.online;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.wildfly.extras.creaper.core.ServerVersion;
+import org.wildfly.extras.creaper.core.online.operations.Address;
+import org.wildfly.extras.creaper.core.online.operations.Batch;
+import org.wildfly.extras.creaper.core.online.operations.Operations;
+import org.wildfly.extras.creaper.core.online.operations.Values;
+import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class InMemoryModelControllerClientTest {
+    private static final Address LOGGING = Address.subsystem("logging");
+    private static final Address LOGGER = LOGGING.and("logger", "foo");
+
+    private InMemoryModelControllerClient model;
+    private OnlineManagementClient client;
+    private Operations ops;
+
+    /**
+     * Creating a real {@code OnlineManagementClient} also creates a CLI context, which is heavyweight,
+     * so the in-memory model is wrapped in a mock that only delegates operations.
+     */
+    @Before
+    public void setUp() throws Exception {
+        model = new InMemoryModelControllerClient(5, 0, 0);
+        client = mock(OnlineManagementClient.class);
+        when(client.options()).thenReturn(OnlineOptions.standalone().wrap(model));
+        when(client.allowFailures()).thenReturn(NoopCloseFailuresAllowedBlock.INSTANCE);
+        when(client.execute(any(ModelNode.class))).thenAnswer(new Answer<ModelNodeResult>() {
+            @Override
+            public ModelNodeResult answer(InvocationOnMock invocation) throws Throwable {
+                return new ModelNodeResult(model.execute((ModelNode) invocation.getArguments()[0]));
+            }
+        });
+        ops = new Operations(client);
+    }
+
+    @Test
+    public void version() throws Exception {
+        assertEquals(ServerVersion.VERSION_5_0_0, OnlineServerVersion.discover(model));
+        assertTrue(ops.invoke(Constants.READ_CHILDREN_TYPES, Address.root()).stringListValue().contains(Constants.SUBSYSTEM));
+    }
+
+    @Test
+    public void resourcesAndAttributes() throws Exception {
+        ops.add(LOGGING).assertSuccess();
+        ops.add(LOGGER, Values.of("level", "INFO")).assertSuccess();
+        assertTrue(ops.exists(LOGGER));
+        assertFalse(ops.add(LOGGER).isSuccess());
+        assertFalse(ops.add(LOGGING.and("logger", "bar").and("child", "baz")).isSuccess());
+
+        assertEquals("INFO", ops.readAttribute(LOGGER, "level").stringValue());
+        ops.writeAttribute(LOGGER, "level", "DEBUG").assertSuccess();
+        assertEquals("DEBUG", ops.readAttribute(LOGGER, "level").stringValue());
+        ops.undefineAttribute(LOGGER, "level").assertSuccess();
+        assertFalse(ops.readAttribute(LOGGER, "level").hasDefinedValue());
+
+        assertEquals(Collections.singletonList("foo"), ops.readChildrenNames(LOGGING, "logger").stringListValue());
+        assertTrue(ops.readResource(Address.root()).value().has("subsystem", "logging"));
+
+        ops.remove(LOGGER).assertSuccess();
+        assertFalse(ops.exists(LOGGER));
+        assertTrue(ops.exists(LOGGING));
+    }
+
+    @Test
+    public void failedCompositeIsRolledBack() throws Exception {
+        ops.add(LOGGING).assertSuccess();
+
+        ModelNodeResult result = ops.batch(new Batch()
+                .add(LOGGER)
+                .add(LOGGER));
+        assertTrue(result.isFailed());
+        assertFalse(ops.exists(LOGGER));
+
+        ops.batch(new Batch()
+                .add(LOGGER)
+                .add(LOGGING.and("logger", "bar"))).assertSuccess();
+        assertEquals(Arrays.asList("bar", "foo"), ops.readChildrenNames(LOGGING, "logger").stringListValue());
+    }
+
+    @Test
+    public void reloadToSnapshot() throws Exception {
+        String snapshot = ops.invoke(Constants.TAKE_SNAPSHOT, Address.root()).stringValue();
+        ops.add(LOGGING).assertSuccess();
+        model.requireReload();
+
+        Administration administration = new Administration(client);
+        assertTrue(administration.isReloadRequired());
+        ops.invoke(Constants.RELOAD, Address.root(),
+                Values.of(Constants.SERVER_CONFIG, snapshot.substring(snapshot.lastIndexOf('/') + 1))).assertSuccess();
+
+        assertFalse(administration.isReloadRequired());
+        assertFalse(ops.exists(LOGGING));
+        assertEquals(1, model.reloadCount());
+    }
+
+    @Test
+    public void reload() throws Exception {
+        model.requireReload();
+        assertTrue(ops.add(LOGGING).isReloadRequired());
+
+        Administration administration = new Administration(client);
+        assertTrue(administration.reloadIfRequired());
+        assertFalse(administration.reloadIfRequired());
+        assertEquals(1, model.reloadCount());
+        assertTrue(ops.exists(LOGGING));
+    }
+}
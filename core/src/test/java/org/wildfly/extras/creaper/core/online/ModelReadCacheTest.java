@@ -0,0 +1,150 @@
+package org.wildfly.extras.creaper.core.online;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class ModelReadCacheTest {
+    private final ModelReadCache cache = new ModelReadCache(1, TimeUnit.HOURS);
+
+    @Test
+    public void readIsCached() {
+        ModelNode read = operation(Constants.READ_RESOURCE_OPERATION, "logging", "foo");
+        assertNull(cache.get(read));
+        cache.executed(read, success("foo"), cache.generation());
+
+        ModelNode result = cache.get(read);
+        assertNotNull(result);
+        assertEquals("foo", result.get(Constants.RESULT).asString());
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.missCount());
+    }
+
+    @Test
+    public void writeInvalidatesSubtreeAndAncestors() {
+        ModelNode readRoot = operation(Constants.READ_RESOURCE_OPERATION);
+        ModelNode readSubsystem = operation(Constants.READ_RESOURCE_OPERATION, "logging");
+        ModelNode readLogger = operation(Constants.READ_RESOURCE_OPERATION, "logging", "foo");
+        ModelNode readOtherLogger = operation(Constants.READ_RESOURCE_OPERATION, "logging", "bar");
+        for (ModelNode read : new ModelNode[] {readRoot, readSubsystem, readLogger, readOtherLogger}) {
+            cache.executed(read, success("x"), cache.generation());
+        }
+
+        cache.executed(operation(Constants.ADD, "logging", "foo"), success("x"), cache.generation());
+
+        assertNull(cache.get(readRoot));
+        assertNull(cache.get(readSubsystem));
+        assertNull(cache.get(readLogger));
+        assertNotNull(cache.get(readOtherLogger));
+        assertEquals(1, cache.invalidationCount());
+    }
+
+    @Test
+    public void compositeInvalidatesAddressesOfItsSteps() {
+        ModelNode readLogger = operation(Constants.READ_RESOURCE_OPERATION, "logging", "foo");
+        cache.executed(readLogger, success("x"), cache.generation());
+
+        ModelNode composite = new ModelNode();
+        composite.get(Constants.OP).set(Constants.COMPOSITE);
+        composite.get(Constants.OP_ADDR).setEmptyList();
+        composite.get(Constants.STEPS).add(operation(Constants.WRITE_ATTRIBUTE_OPERATION, "logging", "foo"));
+        cache.executed(composite, success("x"), cache.generation());
+
+        assertNull(cache.get(readLogger));
+    }
+
+    @Test
+    public void resultIsNotCachedIfInvalidatedInTheMeantime() {
+        ModelNode read = operation(Constants.READ_RESOURCE_OPERATION, "logging", "foo");
+        long generation = cache.generation();
+        cache.executed(operation(Constants.REMOVE_OPERATION, "logging", "foo"), success("x"), cache.generation());
+        cache.executed(read, success("stale"), generation);
+
+        assertNull(cache.get(read));
+    }
+
+    @Test
+    public void failureIsNotCached() {
+        ModelNode read = operation(Constants.READ_RESOURCE_OPERATION, "logging", "foo");
+        ModelNode failure = new ModelNode();
+        failure.get(Constants.OUTCOME).set(Constants.FAILED);
+        failure.get(Constants.FAILURE_DESCRIPTION).set("WFLYCTL0379: System boot is in process");
+        cache.executed(read, failure, cache.generation());
+
+        assertNull(cache.get(read));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void onlyGivenAttributesAreCached() {
+        ModelReadCache attributeCache = new ModelReadCache(1, TimeUnit.HOURS, "level");
+        ModelNode readLevel = operation(Constants.READ_ATTRIBUTE_OPERATION, "logging", "foo");
+        readLevel.get(Constants.NAME).set("level");
+        ModelNode readMetric = operation(Constants.READ_ATTRIBUTE_OPERATION, "messaging", "queue");
+        readMetric.get(Constants.NAME).set("message-count");
+        attributeCache.executed(readLevel, success("DEBUG"), attributeCache.generation());
+        attributeCache.executed(readMetric, success("42"), attributeCache.generation());
+
+        assertNotNull(attributeCache.get(readLevel));
+        assertNull(attributeCache.get(readMetric));
+        assertNull(cache.get(readLevel)); // not given to the constructor
+    }
+
+    @Test
+    public void serverStateIsNotCached() {
+        ModelReadCache attributeCache = new ModelReadCache(1, TimeUnit.HOURS, Constants.SERVER_STATE);
+        ModelNode read = operation(Constants.READ_ATTRIBUTE_OPERATION);
+        read.get(Constants.NAME).set(Constants.SERVER_STATE);
+        attributeCache.executed(read, success("running"), attributeCache.generation());
+
+        assertNull(attributeCache.get(read));
+        assertEquals(0, attributeCache.size());
+    }
+
+    @Test
+    public void expiredResultIsNotReturned() throws InterruptedException {
+        ModelReadCache shortLived = new ModelReadCache(1, TimeUnit.MILLISECONDS);
+        ModelNode read = operation(Constants.READ_CHILDREN_NAMES_OPERATION, "logging");
+        shortLived.executed(read, success("x"), shortLived.generation());
+        Thread.sleep(10);
+
+        assertNull(shortLived.get(read));
+    }
+
+    @Test
+    public void operationIsNotModified() {
+        ModelNode read = new ModelNode();
+        read.get(Constants.OP).set(Constants.READ_ATTRIBUTE_OPERATION);
+        cache.get(read);
+        cache.executed(read, success("x"), cache.generation());
+
+        assertFalse(read.has(Constants.OP_ADDR));
+        assertFalse(read.has(Constants.NAME));
+    }
+
+    private static ModelNode operation(String name, String... address) {
+        ModelNode operation = new ModelNode();
+        operation.get(Constants.OP).set(name);
+        operation.get(Constants.OP_ADDR).setEmptyList();
+        if (address.length > 0) {
+            operation.get(Constants.OP_ADDR).add(Constants.SUBSYSTEM, address[0]);
+        }
+        if (address.length > 1) {
+            operation.get(Constants.OP_ADDR).add("logger", address[1]);
+        }
+        return operation;
+    }
+
+    private static ModelNode success(String value) {
+        ModelNode result = new ModelNode();
+        result.get(Constants.OUTCOME).set(Constants.SUCCESS);
+        result.get(Constants.RESULT).set(value);
+        return result;
+    }
+}
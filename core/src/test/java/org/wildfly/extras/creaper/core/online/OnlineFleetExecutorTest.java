@@ -0,0 +1,117 @@
+package org.wildfly.extras.creaper.core.online;
+
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.wildfly.extras.creaper.core.CommandFailedException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+public class OnlineFleetExecutorTest {
+    private static final OnlineCommand NOOP = new OnlineCommand() {
+        @Override
+        public void apply(OnlineCommandContext ctx) {
+        }
+
+        @Override
+        public String toString() {
+            return "noop";
+        }
+    };
+
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+    // if set, each server waits until the barrier trips, which only happens if enough servers run at the same time
+    private volatile CyclicBarrier barrier;
+
+    private OnlineFleetExecutor executor(int maxConcurrency, final int failingPort) {
+        return new OnlineFleetExecutor(maxConcurrency, new OnlineFleetExecutor.ClientFactory() {
+            @Override
+            public OnlineManagementClient create(final OnlineOptions options) {
+                OnlineManagementClient client = mock(OnlineManagementClient.class);
+                try {
+                    doAnswer(new Answer<Void>() {
+                        @Override
+                        public Void answer(InvocationOnMock invocation) throws Throwable {
+                            int current = running.incrementAndGet();
+                            synchronized (maxRunning) {
+                                maxRunning.set(Math.max(maxRunning.get(), current));
+                            }
+                            try {
+                                if (barrier != null) {
+                                    barrier.await(10, TimeUnit.SECONDS);
+                                }
+                            } catch (Exception e) {
+                                throw new CommandFailedException("Servers weren't processed in parallel", e);
+                            } finally {
+                                running.decrementAndGet();
+                            }
+                            if (options.port == failingPort) {
+                                throw new CommandFailedException("Failed on purpose");
+                            }
+                            return null;
+                        }
+                    }).when(client).apply(Matchers.<Iterable<OnlineCommand>>any());
+                } catch (CommandFailedException e) {
+                    throw new AssertionError(e);
+                }
+                return client;
+            }
+        });
+    }
+
+    private static List<OnlineOptions> servers(int count) {
+        List<OnlineOptions> servers = new ArrayList<OnlineOptions>();
+        for (int i = 0; i < count; i++) {
+            servers.add(OnlineOptions.standalone().hostAndPort("localhost", 10000 + i).build());
+        }
+        return servers;
+    }
+
+    @Test
+    public void commandsAreAppliedInParallel() throws Exception {
+        barrier = new CyclicBarrier(8);
+        List<OnlineOptions> servers = servers(8);
+        OnlineFleetResult result = executor(8, -1).apply(servers, NOOP);
+
+        assertTrue(result.isSuccess());
+        assertEquals(8, result.results().size());
+        for (int i = 0; i < servers.size(); i++) {
+            assertSame(servers.get(i), result.results().get(i).options());
+        }
+        assertEquals(8, maxRunning.get());
+    }
+
+    @Test
+    public void concurrencyIsBounded() throws Exception {
+        barrier = new CyclicBarrier(3);
+        OnlineFleetResult result = executor(3, -1).apply(servers(9), NOOP);
+
+        assertTrue(result.isSuccess());
+        assertEquals(3, maxRunning.get());
+    }
+
+    @Test
+    public void failureIsReportedForTheFailingServerOnly() throws Exception {
+        OnlineFleetResult result = executor(4, 10002).apply(servers(4), NOOP);
+
+        assertFalse(result.isSuccess());
+        assertEquals(1, result.failures().size());
+        OnlineFleetResult.ServerResult failed = result.failures().get(0);
+        assertEquals(10002, failed.options().port);
+        assertTrue(failed.failure() instanceof CommandFailedException);
+        assertTrue(result.results().get(0).isSuccess());
+    }
+}
@@ -0,0 +1,144 @@
+package org.wildfly.extras.creaper.core.online;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class OnlineManagementClientPoolTest {
+    private final List<OnlineManagementClient> created = new ArrayList<OnlineManagementClient>();
+
+    private OnlineManagementClientPool pool;
+
+    private OnlineManagementClientPool pool(int poolSize) {
+        pool = new OnlineManagementClientPool(new OnlineManagementClientPool.ClientFactory() {
+            @Override
+            public OnlineManagementClient create() throws IOException {
+                OnlineManagementClient client = mock(OnlineManagementClient.class);
+                created.add(client);
+                return client;
+            }
+        }, poolSize, 1);
+        return pool;
+    }
+
+    @After
+    public void closePool() throws IOException {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    @Test
+    public void clientsAreReused() throws Exception {
+        pool(2);
+
+        OnlineManagementClient first = pool.borrow();
+        assertEquals(1, pool.activeCount());
+        first.close();
+        assertEquals(0, pool.activeCount());
+        assertEquals(1, pool.idleCount());
+
+        OnlineManagementClient second = pool.borrow();
+        assertNotSame(first, second);
+        assertEquals(1, created.size());
+        assertEquals(2, pool.borrowCount());
+        second.close();
+    }
+
+    @Test
+    public void borrowWaitsUntilClientIsReturned() throws Exception {
+        pool(1);
+
+        final OnlineManagementClient first = pool.borrow();
+        try {
+            pool.borrow(50, TimeUnit.MILLISECONDS);
+            fail("Expected TimeoutException");
+        } catch (TimeoutException expected) {
+        }
+
+        Thread returner = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(100);
+                    first.close();
+                } catch (Exception e) {
+                    throw new AssertionError(e);
+                }
+            }
+        };
+        returner.start();
+
+        OnlineManagementClient second = pool.borrow(10, TimeUnit.SECONDS);
+        returner.join();
+
+        assertNotSame(first, second);
+        assertEquals(1, created.size());
+        assertTrue(pool.maxBorrowWaitMillis() >= 50);
+        second.close();
+    }
+
+    @Test(expected = ClientAlreadyClosedException.class)
+    public void returnedClientCantBeUsed() throws Exception {
+        pool(1);
+
+        OnlineManagementClient client = pool.borrow();
+        client.close();
+        client.execute(new ModelNode());
+    }
+
+    @Test
+    public void brokenClientIsReconnected() throws Exception {
+        pool(1);
+
+        OnlineManagementClient client = pool.borrow();
+        OnlineManagementClient delegate = created.get(0);
+        when(delegate.execute(any(ModelNode.class))).thenThrow(new IOException("connection reset"));
+        try {
+            client.execute(new ModelNode());
+            fail("Expected IOException");
+        } catch (IOException expected) {
+        }
+        client.close();
+
+        verify(delegate, timeout(5000)).reconnect(anyInt());
+        OnlineManagementClient borrowedAgain = pool.borrow(5, TimeUnit.SECONDS);
+        assertEquals(1, created.size());
+        assertEquals(1, pool.reconnectCount());
+        borrowedAgain.close();
+    }
+
+    @Test
+    public void closingPoolClosesClients() throws Exception {
+        pool(2);
+
+        OnlineManagementClient idle = pool.borrow();
+        OnlineManagementClient borrowed = pool.borrow();
+        idle.close();
+
+        pool.close();
+        verify(created.get(0)).close();
+        verify(created.get(1), never()).close();
+
+        borrowed.close();
+        verify(created.get(1)).close();
+    }
+}
@@ -4,13 +4,18 @@ import org.jboss.as.controller.client.ModelControllerClient;
 import org.jboss.dmr.ModelNode;
 import org.wildfly.extras.creaper.core.ManagementVersionPart;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.wildfly.extras.creaper.core.ServerVersion;
 
 import java.io.IOException;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class OnlineServerVersionTest {
@@ -107,4 +112,54 @@ public class OnlineServerVersionTest {
 
         OnlineServerVersion.discover(mock);
     }
+
+    @Test
+    public void attributesOnlyIsUsedIfSupported() throws IOException {
+        ModelControllerClient client = mockFor(4, 1, 0);
+
+        assertEquals(ServerVersion.VERSION_4_1_0, OnlineServerVersion.discover(client));
+
+        ArgumentCaptor<ModelNode> operation = ArgumentCaptor.forClass(ModelNode.class);
+        verify(client, times(1)).execute(operation.capture());
+        assertTrue(operation.getValue().get(Constants.ATTRIBUTES_ONLY).asBoolean());
+    }
+
+    @Test
+    public void attributesOnlyNotSupported() throws IOException {
+        ModelNode failure = new ModelNode();
+        failure.get(Constants.OUTCOME).set(Constants.FAILED);
+        failure.get(Constants.FAILURE_DESCRIPTION).set("JBAS014739: Unknown parameter attributes-only");
+        ModelNode success = new ModelNode();
+        success.get(Constants.OUTCOME).set(Constants.SUCCESS);
+        success.get(Constants.RESULT, ManagementVersionPart.MAJOR.attributeName()).set(1);
+        success.get(Constants.RESULT, ManagementVersionPart.MINOR.attributeName()).set(2);
+
+        ModelControllerClient client = mock(ModelControllerClient.class);
+        when(client.execute(any(ModelNode.class))).thenReturn(failure, success);
+
+        OnlineServerVersion.Discovered discovered = OnlineServerVersion.discover(client, "old-server:9999:standalone");
+        assertEquals(ServerVersion.VERSION_1_2_0, discovered.version);
+        assertFalse(discovered.attributesOnly);
+        OnlineServerVersion.markVerified("old-server:9999:standalone", discovered);
+
+        // attributes-only isn't attempted again for the same server
+        when(client.execute(any(ModelNode.class))).thenReturn(success);
+        assertTrue(OnlineServerVersion.discover(client, "old-server:9999:standalone").alreadyVerified);
+        ArgumentCaptor<ModelNode> operation = ArgumentCaptor.forClass(ModelNode.class);
+        verify(client, times(3)).execute(operation.capture());
+        assertFalse(operation.getValue().has(Constants.ATTRIBUTES_ONLY));
+    }
+
+    @Test
+    public void verifiedServerIsRecognized() throws IOException {
+        String cacheKey = "verified-server:9990:standalone";
+
+        OnlineServerVersion.Discovered first = OnlineServerVersion.discover(mockFor(5, 0, 0), cacheKey);
+        assertFalse(first.alreadyVerified);
+        OnlineServerVersion.markVerified(cacheKey, first);
+
+        assertTrue(OnlineServerVersion.discover(mockFor(5, 0, 0), cacheKey).alreadyVerified);
+        assertFalse(OnlineServerVersion.discover(mockFor(4, 0, 0), cacheKey).alreadyVerified);
+        assertFalse(OnlineServerVersion.discover(mockFor(5, 0, 0), "other-server:9990:standalone").alreadyVerified);
+    }
 }
@@ -0,0 +1,120 @@
+package org.wildfly.extras.creaper.core.online.operations;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.wildfly.extras.creaper.core.online.Constants;
+import org.wildfly.extras.creaper.core.online.FailuresAllowedBlock;
+import org.wildfly.extras.creaper.core.online.ModelNodeResult;
+import org.wildfly.extras.creaper.core.online.OnlineManagementClient;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BatchIfChangedTest {
+    private static final Address LOGGER = Address.subsystem("logging").and("logger", "foo");
+
+    private static final ModelNode LOGGER_RESOURCE = ModelNode.fromString(""
+            + "{"
+            + "    \"category\" => \"foo\","
+            + "    \"filter-spec\" => undefined,"
+            + "    \"handlers\" => [\"CONSOLE\"],"
+            + "    \"level\" => \"INFO\","
+            + "    \"use-parent-handlers\" => true"
+            + "}");
+
+    private OnlineManagementClient client;
+    private Operations ops;
+    private final List<ModelNode> executed = new ArrayList<ModelNode>();
+
+    @Before
+    public void setUp() throws Exception {
+        client = mock(OnlineManagementClient.class);
+        when(client.allowFailures()).thenReturn(mock(FailuresAllowedBlock.class));
+        when(client.execute(any(ModelNode.class))).thenAnswer(new Answer<ModelNodeResult>() {
+            @Override
+            public ModelNodeResult answer(InvocationOnMock invocation) throws Throwable {
+                ModelNode operation = (ModelNode) invocation.getArguments()[0];
+                executed.add(operation);
+
+                ModelNode result = new ModelNode();
+                if (Constants.READ_RESOURCE_OPERATION.equals(operation.get(Constants.OP).asString())) {
+                    if (operation.get(Constants.OP_ADDR).equals(LOGGER.toModelNode())) {
+                        result.get(Constants.OUTCOME).set(Constants.SUCCESS);
+                        result.get(Constants.RESULT).set(LOGGER_RESOURCE);
+                    } else {
+                        result.get(Constants.OUTCOME).set(Constants.FAILED);
+                        result.get(Constants.FAILURE_DESCRIPTION).set("WFLYCTL0216: Management resource not found");
+                    }
+                } else {
+                    result.get(Constants.OUTCOME).set(Constants.SUCCESS);
+                }
+                return new ModelNodeResult(result);
+            }
+        });
+        ops = new Operations(client);
+    }
+
+    @Test
+    public void unchangedValuesAreNotWritten() throws Exception {
+        ModelNodeResult result = ops.batchIfChanged(new Batch()
+                .writeAttribute(LOGGER, "level", "INFO")
+                .writeAttribute(LOGGER, "use-parent-handlers", "true")
+                .writeListAttribute(LOGGER, "handlers", "CONSOLE")
+                .undefineAttribute(LOGGER, "filter-spec"));
+
+        assertTrue(result.isSuccess());
+        assertEquals(1, executed.size());
+        assertEquals(Constants.READ_RESOURCE_OPERATION, executed.get(0).get(Constants.OP).asString());
+        assertEquals(false, executed.get(0).get(Constants.INCLUDE_DEFAULTS).asBoolean());
+    }
+
+    @Test
+    public void onlyChangedValuesAreWritten() throws Exception {
+        ops.batchIfChanged(new Batch()
+                .writeAttribute(LOGGER, "level", "DEBUG")
+                .writeAttribute(LOGGER, "use-parent-handlers", true)
+                .writeAttribute(LOGGER, "filter-spec", "match(\"x\")")
+                .undefineAttribute(LOGGER, "handlers")
+                .writeAttribute(LOGGER, "runtime-attribute", 1));
+
+        ArgumentCaptor<ModelNode> captor = ArgumentCaptor.forClass(ModelNode.class);
+        verify(client, times(2)).execute(captor.capture());
+        ModelNode composite = captor.getAllValues().get(1);
+        assertEquals(Constants.COMPOSITE, composite.get(Constants.OP).asString());
+        List<ModelNode> steps = composite.get(Constants.STEPS).asList();
+        assertEquals(4, steps.size());
+        assertEquals("level", steps.get(0).get(Constants.NAME).asString());
+        assertEquals("filter-spec", steps.get(1).get(Constants.NAME).asString());
+        assertEquals(Constants.UNDEFINE_ATTRIBUTE_OPERATION, steps.get(2).get(Constants.OP).asString());
+        assertEquals("runtime-attribute", steps.get(3).get(Constants.NAME).asString());
+    }
+
+    @Test
+    public void addedResourcesAreNotRead() throws Exception {
+        Address handler = Address.subsystem("logging").and("console-handler", "bar");
+        ops.batchIfChanged(new Batch()
+                .add(handler)
+                .writeAttribute(handler, "level", "INFO"));
+
+        assertEquals(1, executed.size());
+        assertEquals(2, executed.get(0).get(Constants.STEPS).asList().size());
+    }
+
+    @Test(expected = OperationException.class)
+    public void missingResource() throws Exception {
+        ops.batchIfChanged(new Batch()
+                .writeAttribute(Address.subsystem("logging").and("logger", "bar"), "level", "INFO"));
+    }
+}
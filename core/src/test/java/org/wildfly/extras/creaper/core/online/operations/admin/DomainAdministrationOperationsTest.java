@@ -0,0 +1,82 @@
+package org.wildfly.extras.creaper.core.online.operations.admin;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.wildfly.extras.creaper.core.online.Constants;
+import org.wildfly.extras.creaper.core.online.ModelNodeResult;
+import org.wildfly.extras.creaper.core.online.OnlineManagementClient;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class DomainAdministrationOperationsTest {
+    private static ModelNode serverConfigs(String... namesAndStatuses) {
+        ModelNode result = new ModelNode();
+        result.get(Constants.OUTCOME).set(Constants.SUCCESS);
+        result.get(Constants.RESULT).setEmptyObject();
+        for (int i = 0; i < namesAndStatuses.length; i += 2) {
+            ModelNode serverConfig = result.get(Constants.RESULT, namesAndStatuses[i]);
+            serverConfig.get(Constants.GROUP).set("main-server-group");
+            serverConfig.get(Constants.STATUS).set(namesAndStatuses[i + 1]);
+        }
+        return result;
+    }
+
+    private static OnlineManagementClient mockFor(ModelNode... steps) throws IOException {
+        ModelNode result = new ModelNode();
+        result.get(Constants.OUTCOME).set(Constants.SUCCESS);
+        for (int i = 0; i < steps.length; i++) {
+            result.get(Constants.RESULT, "step-" + (i + 1)).set(steps[i]);
+        }
+
+        OnlineManagementClient client = mock(OnlineManagementClient.class);
+        when(client.execute(any(ModelNode.class))).thenReturn(new ModelNodeResult(result));
+        return client;
+    }
+
+    @Test
+    public void runningServersByHostUsesSingleOperation() throws IOException {
+        OnlineManagementClient client = mockFor(
+                serverConfigs("server-one", "STARTED", "server-two", "STOPPED", "server-three", "STARTED"),
+                serverConfigs(),
+                serverConfigs("server-four", "DISABLED", "server-five", "STARTED")
+        );
+        DomainAdministrationOperations ops = new DomainAdministrationOperations(client, 10, WaitStrategy.fixedDelay(10));
+
+        Map<String, List<String>> result = ops.runningServersByHost(Arrays.asList("master", "empty", "slave"));
+
+        assertEquals(Arrays.asList("master", "empty", "slave"), Arrays.asList(result.keySet().toArray()));
+        assertEquals(Arrays.asList("server-one", "server-three"), result.get("master"));
+        assertEquals(Collections.<String>emptyList(), result.get("empty"));
+        assertEquals(Collections.singletonList("server-five"), result.get("slave"));
+
+        ArgumentCaptor<ModelNode> operation = ArgumentCaptor.forClass(ModelNode.class);
+        verify(client, times(1)).execute(operation.capture());
+        assertEquals(Constants.COMPOSITE, operation.getValue().get(Constants.OP).asString());
+        List<ModelNode> steps = operation.getValue().get(Constants.STEPS).asList();
+        assertEquals(3, steps.size());
+        assertEquals(Constants.READ_CHILDREN_RESOURCES, steps.get(0).get(Constants.OP).asString());
+        assertEquals(Constants.SERVER_CONFIG, steps.get(0).get(Constants.CHILD_TYPE).asString());
+        assertEquals(true, steps.get(0).get(Constants.INCLUDE_RUNTIME).asBoolean());
+    }
+
+    @Test
+    public void allRunningServers() throws IOException {
+        OnlineManagementClient client = mockFor(serverConfigs("server-one", "STOPPED", "server-two", "STARTED"));
+        DomainAdministrationOperations ops = new DomainAdministrationOperations(client, 10, WaitStrategy.fixedDelay(10));
+
+        assertEquals(Collections.singletonList("server-two"), ops.allRunningServers("master"));
+        verify(client, times(1)).execute(any(ModelNode.class));
+    }
+}
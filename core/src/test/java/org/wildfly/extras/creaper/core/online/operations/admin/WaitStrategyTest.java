@@ -0,0 +1,100 @@
+package org.wildfly.extras.creaper.core.online.operations.admin;
+
+import org.junit.Test;
+import org.wildfly.extras.creaper.core.online.OnlineManagementClient;
+
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+
+public class WaitStrategyTest {
+    @Test
+    public void fixedDelay() {
+        WaitStrategy strategy = WaitStrategy.fixedDelay(100);
+        assertEquals(100, strategy.delayMillis(0));
+        assertEquals(100, strategy.delayMillis(10));
+    }
+
+    @Test
+    public void exponentialBackoff() {
+        WaitStrategy strategy = WaitStrategy.exponentialBackoff(50, 400);
+        for (int i = 0; i < 100; i++) {
+            assertBetween(40, 50, strategy.delayMillis(0));
+            assertBetween(80, 100, strategy.delayMillis(1));
+            assertBetween(160, 200, strategy.delayMillis(2));
+            assertBetween(320, 400, strategy.delayMillis(3));
+            assertBetween(320, 400, strategy.delayMillis(4));
+            assertBetween(320, 400, strategy.delayMillis(100));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void exponentialBackoffMaxShorterThanInitial() {
+        WaitStrategy.exponentialBackoff(100, 50);
+    }
+
+    @Test
+    public void statistics() throws Exception {
+        WaitStrategy strategy = WaitStrategy.fixedDelay(10);
+        assertEquals(-1, strategy.lastElapsedMillis());
+
+        final AtomicInteger checks = new AtomicInteger();
+        WaitUntilRunning.waitUntilRunning(mock(OnlineManagementClient.class), strategy, 10, false, "server",
+                new WaitUntilRunning.Check() {
+                    @Override
+                    public boolean isRunning() {
+                        // down for the first 3 checks, then running
+                        return checks.incrementAndGet() > 3;
+                    }
+                });
+
+        assertEquals(4, checks.get());
+        assertEquals(1, strategy.waitCount());
+        assertEquals(4, strategy.checkCount());
+        assertTrue(strategy.lastElapsedMillis() >= 0);
+        assertEquals(strategy.lastElapsedMillis(), strategy.totalElapsedMillis());
+    }
+
+    @Test
+    public void runningServerIsOnlyAcceptedAfterGracePeriod() throws Exception {
+        WaitStrategy strategy = WaitStrategy.fixedDelay(50);
+
+        // the server never goes down, as if the reload operation didn't take effect yet
+        WaitUntilRunning.waitUntilRunning(mock(OnlineManagementClient.class), strategy, 10, false, "server",
+                new WaitUntilRunning.Check() {
+                    @Override
+                    public boolean isRunning() {
+                        return true;
+                    }
+                });
+
+        assertTrue(strategy.lastElapsedMillis() >= 500);
+    }
+
+    @Test
+    public void timeout() throws Exception {
+        WaitStrategy strategy = WaitStrategy.fixedDelay(100);
+        try {
+            WaitUntilRunning.waitUntilRunning(mock(OnlineManagementClient.class), strategy, 1, false, "server",
+                    new WaitUntilRunning.Check() {
+                        @Override
+                        public boolean isRunning() throws Exception {
+                            throw new IllegalStateException("server is down");
+                        }
+                    });
+            fail("Expected TimeoutException");
+        } catch (TimeoutException expected) {
+        }
+
+        assertEquals(0, strategy.waitCount());
+        assertEquals(-1, strategy.lastElapsedMillis());
+    }
+
+    private static void assertBetween(long min, long max, long actual) {
+        assertTrue(actual + " not in [" + min + ", " + max + "]", actual >= min && actual <= max);
+    }
+}
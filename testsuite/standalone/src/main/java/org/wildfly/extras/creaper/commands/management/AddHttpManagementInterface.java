@@ -11,7 +11,6 @@ import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.OperationException;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 /**
  * <b>Only for tests!</b>
@@ -39,7 +38,7 @@ public final class AddHttpManagementInterface implements OnlineCommand, OfflineC
         if (this.replaceExisting) {
             try {
                 ops.removeIfExists(interfaceAddress);
-                new Administration(ctx.client).reloadIfRequired();
+                ctx.reloadIfRequired();
             } catch (OperationException e) {
                 throw new IOException("Failed to remove existing http-interface.", e);
             }
@@ -94,6 +94,34 @@ public class DeployUndeployCmdTest {
         ops.removeIfExists(TEST_DEPLOYMENT_ADDRESS);
     }
 
+    @Test
+    public void deploySameFileAgain_commandSucceeds() throws Exception {
+        File testDeploymentFile = exportToFile(TEST_DEPLOYMENT);
+        client.apply(new Deploy.Builder(testDeploymentFile).build());
+        // same content is already deployed, so nothing is uploaded and nothing fails
+        client.apply(new Deploy.Builder(testDeploymentFile).build());
+        Assert.assertTrue(ops.readAttribute(TEST_DEPLOYMENT_ADDRESS, "enabled").booleanValue());
+        undeploy(TEST_DEPLOYMENT.getName());
+    }
+
+    @Test
+    public void deployAfterUndeployKeepContent_deploysExistingContent() throws Exception {
+        File testDeploymentFile = exportToFile(TEST_DEPLOYMENT);
+        client.apply(new Deploy.Builder(testDeploymentFile).build());
+        client.apply(new Undeploy.Builder(TEST_DEPLOYMENT.getName()).keepContent().build());
+        Assert.assertFalse(ops.readAttribute(TEST_DEPLOYMENT_ADDRESS, "enabled").booleanValue());
+
+        client.apply(new Deploy.Builder(testDeploymentFile).build());
+        Assert.assertTrue(ops.readAttribute(TEST_DEPLOYMENT_ADDRESS, "enabled").booleanValue());
+        undeploy(TEST_DEPLOYMENT.getName());
+    }
+
+    private File exportToFile(Archive archive) {
+        File testDeploymentFile = new File(tmp.getRoot(), archive.getName());
+        archive.as(ZipExporter.class).exportTo(testDeploymentFile, true);
+        return testDeploymentFile;
+    }
+
     private void assertDeploymentExists(String deploymentName, boolean shouldExist)
             throws IOException, OperationException {
         boolean exists = ops.exists(Address.deployment(deploymentName));
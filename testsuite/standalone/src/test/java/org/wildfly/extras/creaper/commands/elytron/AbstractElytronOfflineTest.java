@@ -0,0 +1,81 @@
+package org.wildfly.extras.creaper.commands.elytron;
+
+import static org.junit.Assert.fail;
+import static org.wildfly.extras.creaper.XmlAssert.assertXmlIdentical;
+
+import java.io.File;
+
+import org.custommonkey.xmlunit.XMLUnit;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.rules.TemporaryFolder;
+import org.wildfly.extras.creaper.core.CommandFailedException;
+import org.wildfly.extras.creaper.core.ManagementClient;
+import org.wildfly.extras.creaper.core.offline.OfflineCommand;
+import org.wildfly.extras.creaper.core.offline.OfflineOptions;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+
+/**
+ * Shared fixture of the offline tests of Elytron commands. The configuration file contains nothing but the Elytron
+ * subsystem, so that each test only has to specify the elements that the command works with.
+ */
+public abstract class AbstractElytronOfflineTest {
+
+    @Rule
+    public final TemporaryFolder tmp = new TemporaryFolder();
+
+    @Before
+    public void setUpXmlUnit() {
+        XMLUnit.setNormalizeWhitespace(true);
+    }
+
+    /** Configuration file with the Elytron subsystem that contains given {@code elements}. */
+    protected static String subsystem(String... elements) {
+        StringBuilder result = new StringBuilder()
+                .append("<server xmlns=\"urn:jboss:domain:5.0\">\n")
+                .append("    <profile>\n")
+                .append("        <subsystem xmlns=\"urn:wildfly:elytron:1.0\">\n");
+        for (String element : elements) {
+            result.append(element).append("\n");
+        }
+        return result
+                .append("        </subsystem>\n")
+                .append("    </profile>\n")
+                .append("</server>")
+                .toString();
+    }
+
+    /** Container element of given {@code name} (e.g. {@code mappers}) with given {@code children}. */
+    protected static String container(String name, String... children) {
+        StringBuilder result = new StringBuilder().append("<").append(name).append(">\n");
+        for (String child : children) {
+            result.append(child).append("\n");
+        }
+        return result.append("</").append(name).append(">").toString();
+    }
+
+    protected final void assertApplied(String before, OfflineCommand command, String expected) throws Exception {
+        File cfg = configurationFile(before);
+        ManagementClient.offline(OfflineOptions.standalone().configurationFile(cfg).build()).apply(command);
+        assertXmlIdentical(expected, Files.toString(cfg, Charsets.UTF_8));
+    }
+
+    protected final void assertFails(String before, OfflineCommand command) throws Exception {
+        File cfg = configurationFile(before);
+        try {
+            ManagementClient.offline(OfflineOptions.standalone().configurationFile(cfg).build()).apply(command);
+            fail("Applying " + command + " should fail");
+        } catch (CommandFailedException expected) {
+            // expected
+        }
+        assertXmlIdentical(before, Files.toString(cfg, Charsets.UTF_8));
+    }
+
+    private File configurationFile(String content) throws Exception {
+        File cfg = tmp.newFile("xmlTransform.xml");
+        Files.write(content, cfg, Charsets.UTF_8);
+        return cfg;
+    }
+}
@@ -0,0 +1,91 @@
+package org.wildfly.extras.creaper.commands.elytron.domain;
+
+import org.junit.Test;
+import org.wildfly.extras.creaper.commands.elytron.AbstractElytronOfflineTest;
+
+public class AddSecurityDomainOfflineTest extends AbstractElytronOfflineTest {
+
+    private static final String DOMAIN = domain("creaperSecurityDomain");
+
+    private static String domain(String name) {
+        return "<security-domain name=\"" + name + "\">\n"
+                + "    <realm name=\"creaperRealm\"/>\n"
+                + "</security-domain>";
+    }
+
+    @Test
+    public void addSimpleToEmpty() throws Exception {
+        assertApplied(subsystem(),
+                new AddSecurityDomain.Builder("creaperSecurityDomain")
+                        .realms(new AddSecurityDomain.RealmBuilder("creaperRealm").build())
+                        .build(),
+                subsystem(container("security-domains", DOMAIN)));
+    }
+
+    @Test
+    public void addSecond() throws Exception {
+        assertApplied(subsystem(container("security-domains", DOMAIN)),
+                new AddSecurityDomain.Builder("creaperSecurityDomain2")
+                        .realms(new AddSecurityDomain.RealmBuilder("creaperRealm").build())
+                        .build(),
+                subsystem(container("security-domains", DOMAIN, domain("creaperSecurityDomain2"))));
+    }
+
+    @Test
+    public void existing() throws Exception {
+        assertFails(subsystem(container("security-domains", DOMAIN)),
+                new AddSecurityDomain.Builder("creaperSecurityDomain")
+                        .realms(new AddSecurityDomain.RealmBuilder("creaperRealm").build())
+                        .build());
+    }
+
+    @Test
+    public void overrideExisting() throws Exception {
+        assertApplied(subsystem(container("security-domains", DOMAIN)),
+                new AddSecurityDomain.Builder("creaperSecurityDomain")
+                        .defaultRealm("creaperRealm2")
+                        .realms(new AddSecurityDomain.RealmBuilder("creaperRealm2").build())
+                        .replaceExisting()
+                        .build(),
+                subsystem(container("security-domains", ""
+                        + "<security-domain name=\"creaperSecurityDomain\" default-realm=\"creaperRealm2\">\n"
+                        + "    <realm name=\"creaperRealm2\"/>\n"
+                        + "</security-domain>")));
+    }
+
+    @Test
+    public void addFullToEmpty() throws Exception {
+        assertApplied(subsystem(),
+                new AddSecurityDomain.Builder("creaperSecurityDomain")
+                        .defaultRealm("creaperRealm")
+                        .permissionMapper("creaperPermissionMapper")
+                        .preRealmPrincipalTransformer("preTransformer")
+                        .postRealmPrincipalTransformer("postTransformer")
+                        .principalDecoder("creaperDecoder")
+                        .realmMapper("creaperRealmMapper")
+                        .roleMapper("creaperRoleMapper")
+                        .trustedSecurityDomains("domain1", "domain2")
+                        .outflowAnonymous(true)
+                        .outflowSecurityDomains("domain3")
+                        .securityEventListener("creaperListener")
+                        .realms(new AddSecurityDomain.RealmBuilder("creaperRealm")
+                                        .roleDecoder("groups-to-roles")
+                                        .roleMapper("realmRoleMapper")
+                                        .principalTransformer("realmTransformer")
+                                        .build(),
+                                new AddSecurityDomain.RealmBuilder("creaperRealm2").build())
+                        .build(),
+                subsystem(container("security-domains", ""
+                        + "<security-domain name=\"creaperSecurityDomain\" default-realm=\"creaperRealm\""
+                        + " pre-realm-principal-transformer=\"preTransformer\""
+                        + " post-realm-principal-transformer=\"postTransformer\" principal-decoder=\"creaperDecoder\""
+                        + " realm-mapper=\"creaperRealmMapper\" role-mapper=\"creaperRoleMapper\""
+                        + " permission-mapper=\"creaperPermissionMapper\" trusted-security-domains=\"domain1 domain2\""
+                        + " outflow-anonymous=\"true\" outflow-security-domains=\"domain3\""
+                        + " security-event-listener=\"creaperListener\">\n"
+                        + "    <realm name=\"creaperRealm\" principal-transformer=\"realmTransformer\""
+                        + " role-decoder=\"groups-to-roles\" role-mapper=\"realmRoleMapper\"/>\n"
+                        + "    <realm name=\"creaperRealm2\"/>\n"
+                        + "</security-domain>")));
+    }
+}
@@ -0,0 +1,60 @@
+package org.wildfly.extras.creaper.commands.elytron.http;
+
+import org.junit.Test;
+import org.wildfly.extras.creaper.commands.elytron.AbstractElytronOfflineTest;
+
+public class AddAggregateHttpServerMechanismFactoryOfflineTest extends AbstractElytronOfflineTest {
+
+    private static final String FACTORY = ""
+            + "<aggregate-http-server-mechanism-factory name=\"creaperAggregateHttpServerMechanismFactory\">\n"
+            + "    <http-server-mechanism-factory name=\"factory1\"/>\n"
+            + "    <http-server-mechanism-factory name=\"factory2\"/>\n"
+            + "</aggregate-http-server-mechanism-factory>";
+    private static final String FACTORY_SECOND = ""
+            + "<aggregate-http-server-mechanism-factory name=\"creaperAggregateHttpServerMechanismFactory2\">\n"
+            + "    <http-server-mechanism-factory name=\"factory1\"/>\n"
+            + "    <http-server-mechanism-factory name=\"factory2\"/>\n"
+            + "</aggregate-http-server-mechanism-factory>";
+    private static final String FACTORY_REPLACED = ""
+            + "<aggregate-http-server-mechanism-factory name=\"creaperAggregateHttpServerMechanismFactory\">\n"
+            + "    <http-server-mechanism-factory name=\"factory1\"/>\n"
+            + "    <http-server-mechanism-factory name=\"factory2\"/>\n"
+            + "    <http-server-mechanism-factory name=\"factory3\"/>\n"
+            + "</aggregate-http-server-mechanism-factory>";
+
+    @Test
+    public void addSimpleToEmpty() throws Exception {
+        assertApplied(subsystem(),
+                new AddAggregateHttpServerMechanismFactory.Builder("creaperAggregateHttpServerMechanismFactory")
+                        .addHttpServerMechanismFactories("factory1", "factory2")
+                        .build(),
+                subsystem(container("http", FACTORY)));
+    }
+
+    @Test
+    public void addSecond() throws Exception {
+        assertApplied(subsystem(container("http", FACTORY)),
+                new AddAggregateHttpServerMechanismFactory.Builder("creaperAggregateHttpServerMechanismFactory2")
+                        .addHttpServerMechanismFactories("factory1", "factory2")
+                        .build(),
+                subsystem(container("http", FACTORY, FACTORY_SECOND)));
+    }
+
+    @Test
+    public void existing() throws Exception {
+        assertFails(subsystem(container("http", FACTORY)),
+                new AddAggregateHttpServerMechanismFactory.Builder("creaperAggregateHttpServerMechanismFactory")
+                        .addHttpServerMechanismFactories("factory1", "factory2")
+                        .build());
+    }
+
+    @Test
+    public void overrideExisting() throws Exception {
+        assertApplied(subsystem(container("http", FACTORY)),
+                new AddAggregateHttpServerMechanismFactory.Builder("creaperAggregateHttpServerMechanismFactory")
+                        .addHttpServerMechanismFactories("factory1", "factory2", "factory3")
+                        .replaceExisting()
+                        .build(),
+                subsystem(container("http", FACTORY_REPLACED)));
+    }
+}
@@ -0,0 +1,74 @@
+package org.wildfly.extras.creaper.commands.elytron.http;
+
+import org.junit.Test;
+import org.wildfly.extras.creaper.commands.elytron.AbstractElytronOfflineTest;
+import org.wildfly.extras.creaper.commands.elytron.Property;
+
+public class AddConfigurableHttpServerMechanismFactoryOfflineTest extends AbstractElytronOfflineTest {
+
+    private static final String FACTORY = "<configurable-http-server-mechanism-factory name=\"creaperConfigurableHttpServerMechanismFactory\" http-server-mechanism-factory=\"global\"/>";
+    private static final String FACTORY_SECOND = "<configurable-http-server-mechanism-factory name=\"creaperConfigurableHttpServerMechanismFactory2\" http-server-mechanism-factory=\"global\"/>";
+    private static final String FACTORY_REPLACED = "<configurable-http-server-mechanism-factory name=\"creaperConfigurableHttpServerMechanismFactory\" http-server-mechanism-factory=\"undertow\"/>";
+
+    @Test
+    public void addSimpleToEmpty() throws Exception {
+        assertApplied(subsystem(),
+                new AddConfigurableHttpServerMechanismFactory.Builder("creaperConfigurableHttpServerMechanismFactory")
+                        .httpServerMechanismFactory("global")
+                        .build(),
+                subsystem(container("http", FACTORY)));
+    }
+
+    @Test
+    public void addSecond() throws Exception {
+        assertApplied(subsystem(container("http", FACTORY)),
+                new AddConfigurableHttpServerMechanismFactory.Builder("creaperConfigurableHttpServerMechanismFactory2")
+                        .httpServerMechanismFactory("global")
+                        .build(),
+                subsystem(container("http", FACTORY, FACTORY_SECOND)));
+    }
+
+    @Test
+    public void existing() throws Exception {
+        assertFails(subsystem(container("http", FACTORY)),
+                new AddConfigurableHttpServerMechanismFactory.Builder("creaperConfigurableHttpServerMechanismFactory")
+                        .httpServerMechanismFactory("global")
+                        .build());
+    }
+
+    @Test
+    public void overrideExisting() throws Exception {
+        assertApplied(subsystem(container("http", FACTORY)),
+                new AddConfigurableHttpServerMechanismFactory.Builder("creaperConfigurableHttpServerMechanismFactory")
+                        .httpServerMechanismFactory("undertow")
+                        .replaceExisting()
+                        .build(),
+                subsystem(container("http", FACTORY_REPLACED)));
+    }
+
+    @Test
+    public void addFullToEmpty() throws Exception {
+        assertApplied(subsystem(),
+                new AddConfigurableHttpServerMechanismFactory.Builder("creaperConfigurableHttpServerMechanismFactory")
+                        .httpServerMechanismFactory("global")
+                        .addProperties(new Property("org.wildfly.security.http.validate-digest-uri", "false"))
+                        .addFilters(new AddConfigurableHttpServerMechanismFactory.FilterBuilder()
+                                        .patternFilter("DIGEST")
+                                        .enabling(false)
+                                        .build(),
+                                new AddConfigurableHttpServerMechanismFactory.FilterBuilder()
+                                        .patternFilter("BASIC")
+                                        .build())
+                        .build(),
+                subsystem(container("http", ""
+                                + "<configurable-http-server-mechanism-factory name=\"creaperConfigurableHttpServerMechanismFactory\" http-server-mechanism-factory=\"global\">\n"
+                                + "    <properties>\n"
+                                + "        <property name=\"org.wildfly.security.http.validate-digest-uri\" value=\"false\"/>\n"
+                                + "    </properties>\n"
+                                + "    <filters>\n"
+                                + "        <filter pattern-filter=\"DIGEST\" enabling=\"false\"/>\n"
+                                + "        <filter pattern-filter=\"BASIC\"/>\n"
+                                + "    </filters>\n"
+                                + "</configurable-http-server-mechanism-factory>")));
+    }
+}
@@ -0,0 +1,80 @@
+package org.wildfly.extras.creaper.commands.elytron.http;
+
+import org.junit.Test;
+import org.wildfly.extras.creaper.commands.elytron.AbstractElytronOfflineTest;
+import org.wildfly.extras.creaper.commands.elytron.Mechanism;
+
+public class AddHttpAuthenticationFactoryOfflineTest extends AbstractElytronOfflineTest {
+
+    private static final String FACTORY = factory("creaperHttpAuthenticationFactory", "creaperFactory");
+
+    private static String factory(String name, String serverFactory) {
+        return "<http-authentication-factory name=\"" + name + "\" http-server-mechanism-factory=\"" + serverFactory
+                + "\" security-domain=\"creaperSecurityDomain\"/>";
+    }
+
+    @Test
+    public void addSimpleToEmpty() throws Exception {
+        assertApplied(subsystem(),
+                new AddHttpAuthenticationFactory.Builder("creaperHttpAuthenticationFactory")
+                        .httpServerMechanismFactory("creaperFactory")
+                        .securityDomain("creaperSecurityDomain")
+                        .build(),
+                subsystem(container("http", FACTORY)));
+    }
+
+    @Test
+    public void addSecond() throws Exception {
+        assertApplied(subsystem(container("http", FACTORY)),
+                new AddHttpAuthenticationFactory.Builder("creaperHttpAuthenticationFactory2")
+                        .httpServerMechanismFactory("creaperFactory")
+                        .securityDomain("creaperSecurityDomain")
+                        .build(),
+                subsystem(container("http", FACTORY, factory("creaperHttpAuthenticationFactory2", "creaperFactory"))));
+    }
+
+    @Test
+    public void existing() throws Exception {
+        assertFails(subsystem(container("http", FACTORY)),
+                new AddHttpAuthenticationFactory.Builder("creaperHttpAuthenticationFactory")
+                        .httpServerMechanismFactory("creaperFactory")
+                        .securityDomain("creaperSecurityDomain")
+                        .build());
+    }
+
+    @Test
+    public void overrideExisting() throws Exception {
+        assertApplied(subsystem(container("http", FACTORY)),
+                new AddHttpAuthenticationFactory.Builder("creaperHttpAuthenticationFactory")
+                        .httpServerMechanismFactory("creaperFactory2")
+                        .securityDomain("creaperSecurityDomain")
+                        .replaceExisting()
+                        .build(),
+                subsystem(container("http", factory("creaperHttpAuthenticationFactory", "creaperFactory2"))));
+    }
+
+    @Test
+    public void addFullToEmpty() throws Exception {
+        assertApplied(subsystem(),
+                new AddHttpAuthenticationFactory.Builder("creaperHttpAuthenticationFactory")
+                        .httpServerMechanismFactory("creaperFactory")
+                        .securityDomain("creaperSecurityDomain")
+                        .addMechanismConfigurations(new Mechanism.Builder()
+                                .mechanismName("BASIC")
+                                .addMechanismRealmConfigurations(new Mechanism.MechanismRealmBuilder()
+                                        .realmName("creaperRealm")
+                                        .build())
+                                .build())
+                        .build(),
+                subsystem(container("http", ""
+                        + "<http-authentication-factory name=\"creaperHttpAuthenticationFactory\""
+                        + " http-server-mechanism-factory=\"creaperFactory\""
+                        + " security-domain=\"creaperSecurityDomain\">\n"
+                        + "    <mechanism-configuration>\n"
+                        + "        <mechanism mechanism-name=\"BASIC\">\n"
+                        + "            <mechanism-realm realm-name=\"creaperRealm\"/>\n"
+                        + "        </mechanism>\n"
+                        + "    </mechanism-configuration>\n"
+                        + "</http-authentication-factory>")));
+    }
+}
@@ -0,0 +1,47 @@
+package org.wildfly.extras.creaper.commands.elytron.http;
+
+import org.junit.Test;
+import org.wildfly.extras.creaper.commands.elytron.AbstractElytronOfflineTest;
+
+public class AddProviderHttpServerMechanismFactoryOfflineTest extends AbstractElytronOfflineTest {
+
+    private static final String FACTORY = "<provider-http-server-mechanism-factory name=\"creaperProviderHttpServerMechanismFactory\" providers=\"elytron\"/>";
+    private static final String FACTORY_SECOND = "<provider-http-server-mechanism-factory name=\"creaperProviderHttpServerMechanismFactory2\" providers=\"elytron\"/>";
+    private static final String FACTORY_REPLACED = "<provider-http-server-mechanism-factory name=\"creaperProviderHttpServerMechanismFactory\" providers=\"openssl\"/>";
+
+    @Test
+    public void addSimpleToEmpty() throws Exception {
+        assertApplied(subsystem(),
+                new AddProviderHttpServerMechanismFactory.Builder("creaperProviderHttpServerMechanismFactory")
+                        .providers("elytron")
+                        .build(),
+                subsystem(container("http", FACTORY)));
+    }
+
+    @Test
+    public void addSecond() throws Exception {
+        assertApplied(subsystem(container("http", FACTORY)),
+                new AddProviderHttpServerMechanismFactory.Builder("creaperProviderHttpServerMechanismFactory2")
+                        .providers("elytron")
+                        .build(),
+                subsystem(container("http", FACTORY, FACTORY_SECOND)));
+    }
+
+    @Test
+    public void existing() throws Exception {
+        assertFails(subsystem(container("http", FACTORY)),
+                new AddProviderHttpServerMechanismFactory.Builder("creaperProviderHttpServerMechanismFactory")
+                        .providers("elytron")
+                        .build());
+    }
+
+    @Test
+    public void overrideExisting() throws Exception {
+        assertApplied(subsystem(container("http", FACTORY)),
+                new AddProviderHttpServerMechanismFactory.Builder("creaperProviderHttpServerMechanismFactory")
+                        .providers("openssl")
+                        .replaceExisting()
+                        .build(),
+                subsystem(container("http", FACTORY_REPLACED)));
+    }
+}
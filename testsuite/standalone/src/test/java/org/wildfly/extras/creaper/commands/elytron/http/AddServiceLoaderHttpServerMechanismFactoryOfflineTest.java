@@ -0,0 +1,47 @@
+package org.wildfly.extras.creaper.commands.elytron.http;
+
+import org.junit.Test;
+import org.wildfly.extras.creaper.commands.elytron.AbstractElytronOfflineTest;
+
+public class AddServiceLoaderHttpServerMechanismFactoryOfflineTest extends AbstractElytronOfflineTest {
+
+    private static final String FACTORY = "<service-loader-http-server-mechanism-factory name=\"creaperServiceLoaderHttpServerMechanismFactory\" module=\"org.wildfly.security.elytron\"/>";
+    private static final String FACTORY_SECOND = "<service-loader-http-server-mechanism-factory name=\"creaperServiceLoaderHttpServerMechanismFactory2\" module=\"org.wildfly.security.elytron\"/>";
+    private static final String FACTORY_REPLACED = "<service-loader-http-server-mechanism-factory name=\"creaperServiceLoaderHttpServerMechanismFactory\" module=\"org.example.http\"/>";
+
+    @Test
+    public void addSimpleToEmpty() throws Exception {
+        assertApplied(subsystem(),
+                new AddServiceLoaderHttpServerMechanismFactory.Builder("creaperServiceLoaderHttpServerMechanismFactory")
+                        .module("org.wildfly.security.elytron")
+                        .build(),
+                subsystem(container("http", FACTORY)));
+    }
+
+    @Test
+    public void addSecond() throws Exception {
+        assertApplied(subsystem(container("http", FACTORY)),
+                new AddServiceLoaderHttpServerMechanismFactory.Builder("creaperServiceLoaderHttpServerMechanismFactory2")
+                        .module("org.wildfly.security.elytron")
+                        .build(),
+                subsystem(container("http", FACTORY, FACTORY_SECOND)));
+    }
+
+    @Test
+    public void existing() throws Exception {
+        assertFails(subsystem(container("http", FACTORY)),
+                new AddServiceLoaderHttpServerMechanismFactory.Builder("creaperServiceLoaderHttpServerMechanismFactory")
+                        .module("org.wildfly.security.elytron")
+                        .build());
+    }
+
+    @Test
+    public void overrideExisting() throws Exception {
+        assertApplied(subsystem(container("http", FACTORY)),
+                new AddServiceLoaderHttpServerMechanismFactory.Builder("creaperServiceLoaderHttpServerMechanismFactory")
+                        .module("org.example.http")
+                        .replaceExisting()
+                        .build(),
+                subsystem(container("http", FACTORY_REPLACED)));
+    }
+}
@@ -0,0 +1,47 @@
+package org.wildfly.extras.creaper.commands.elytron.mapper;
+
+import org.junit.Test;
+import org.wildfly.extras.creaper.commands.elytron.AbstractElytronOfflineTest;
+
+public class AddAddPrefixRoleMapperOfflineTest extends AbstractElytronOfflineTest {
+
+    private static final String MAPPER = "<add-prefix-role-mapper name=\"creaperAddPrefixRoleMapper\" prefix=\"pre\"/>";
+    private static final String MAPPER_SECOND = "<add-prefix-role-mapper name=\"creaperAddPrefixRoleMapper2\" prefix=\"pre\"/>";
+    private static final String MAPPER_REPLACED = "<add-prefix-role-mapper name=\"creaperAddPrefixRoleMapper\" prefix=\"pre2\"/>";
+
+    @Test
+    public void addSimpleToEmpty() throws Exception {
+        assertApplied(subsystem(),
+                new AddAddPrefixRoleMapper.Builder("creaperAddPrefixRoleMapper")
+                        .prefix("pre")
+                        .build(),
+                subsystem(container("mappers", MAPPER)));
+    }
+
+    @Test
+    public void addSecond() throws Exception {
+        assertApplied(subsystem(container("mappers", MAPPER)),
+                new AddAddPrefixRoleMapper.Builder("creaperAddPrefixRoleMapper2")
+                        .prefix("pre")
+                        .build(),
+                subsystem(container("mappers", MAPPER, MAPPER_SECOND)));
+    }
+
+    @Test
+    public void existing() throws Exception {
+        assertFails(subsystem(container("mappers", MAPPER)),
+                new AddAddPrefixRoleMapper.Builder("creaperAddPrefixRoleMapper")
+                        .prefix("pre")
+                        .build());
+    }
+
+    @Test
+    public void overrideExisting() throws Exception {
+        assertApplied(subsystem(container("mappers", MAPPER)),
+                new AddAddPrefixRoleMapper.Builder("creaperAddPrefixRoleMapper")
+                        .prefix("pre2")
+                        .replaceExisting()
+                        .build(),
+                subsystem(container("mappers", MAPPER_REPLACED)));
+    }
+}
@@ -0,0 +1,47 @@
+package org.wildfly.extras.creaper.commands.elytron.mapper;
+
+import org.junit.Test;
+import org.wildfly.extras.creaper.commands.elytron.AbstractElytronOfflineTest;
+
+public class AddAddSuffixRoleMapperOfflineTest extends AbstractElytronOfflineTest {
+
+    private static final String MAPPER = "<add-suffix-role-mapper name=\"creaperAddSuffixRoleMapper\" suffix=\"suf\"/>";
+    private static final String MAPPER_SECOND = "<add-suffix-role-mapper name=\"creaperAddSuffixRoleMapper2\" suffix=\"suf\"/>";
+    private static final String MAPPER_REPLACED = "<add-suffix-role-mapper name=\"creaperAddSuffixRoleMapper\" suffix=\"suf2\"/>";
+
+    @Test
+    public void addSimpleToEmpty() throws Exception {
+        assertApplied(subsystem(),
+                new AddAddSuffixRoleMapper.Builder("creaperAddSuffixRoleMapper")
+                        .suffix("suf")
+                        .build(),
+                subsystem(container("mappers", MAPPER)));
+    }
+
+    @Test
+    public void addSecond() throws Exception {
+        assertApplied(subsystem(container("mappers", MAPPER)),
+                new AddAddSuffixRoleMapper.Builder("creaperAddSuffixRoleMapper2")
+                        .suffix("suf")
+                        .build(),
+                subsystem(container("mappers", MAPPER, MAPPER_SECOND)));
+    }
+
+    @Test
+    public void existing() throws Exception {
+        assertFails(subsystem(container("mappers", MAPPER)),
+                new AddAddSuffixRoleMapper.Builder("creaperAddSuffixRoleMapper")
+                        .suffix("suf")
+                        .build());
+    }
+
+    @Test
+    public void overrideExisting() throws Exception {
+        assertApplied(subsystem(container("mappers", MAPPER)),
+                new AddAddSuffixRoleMapper.Builder("creaperAddSuffixRoleMapper")
+                        .suffix("suf2")
+                        .replaceExisting()
+                        .build(),
+                subsystem(container("mappers", MAPPER_REPLACED)));
+    }
+}
@@ -0,0 +1,60 @@
+package org.wildfly.extras.creaper.commands.elytron.mapper;
+
+import org.junit.Test;
+import org.wildfly.extras.creaper.commands.elytron.AbstractElytronOfflineTest;
+
+public class AddAggregatePrincipalDecoderOfflineTest extends AbstractElytronOfflineTest {
+
+    private static final String DECODER = ""
+            + "<aggregate-principal-decoder name=\"creaperAggregatePrincipalDecoder\">\n"
+            + "    <principal-decoder name=\"decoder1\"/>\n"
+            + "    <principal-decoder name=\"decoder2\"/>\n"
+            + "</aggregate-principal-decoder>";
+    private static final String DECODER_SECOND = ""
+            + "<aggregate-principal-decoder name=\"creaperAggregatePrincipalDecoder2\">\n"
+            + "    <principal-decoder name=\"decoder1\"/>\n"
+            + "    <principal-decoder name=\"decoder2\"/>\n"
+            + "</aggregate-principal-decoder>";
+    private static final String DECODER_REPLACED = ""
+            + "<aggregate-principal-decoder name=\"creaperAggregatePrincipalDecoder\">\n"
+            + "    <principal-decoder name=\"decoder1\"/>\n"
+            + "    <principal-decoder name=\"decoder2\"/>\n"
+            + "    <principal-decoder name=\"decoder3\"/>\n"
+            + "</aggregate-principal-decoder>";
+
+    @Test
+    public void addSimpleToEmpty() throws Exception {
+        assertApplied(subsystem(),
+                new AddAggregatePrincipalDecoder.Builder("creaperAggregatePrincipalDecoder")
+                        .principalDecoders("decoder1", "decoder2")
+                        .build(),
+                subsystem(container("mappers", DECODER)));
+    }
+
+    @Test
+    public void addSecond() throws Exception {
+        assertApplied(subsystem(container("mappers", DECODER)),
+                new AddAggregatePrincipalDecoder.Builder("creaperAggregatePrincipalDecoder2")
+                        .principalDecoders("decoder1", "decoder2")
+                        .build(),
+                subsystem(container("mappers", DECODER, DECODER_SECOND)));
+    }
+
+    @Test
+    public void existing() throws Exception {
+        assertFails(subsystem(container("mappers", DECODER)),
+                new AddAggregatePrincipalDecoder.Builder("creaperAggregatePrincipalDecoder")
+                        .principalDecoders("decoder1", "decoder2")
+                        .build());
+    }
+
+    @Test
+    public void overrideExisting() throws Exception {
+        assertApplied(subsystem(container("mappers", DECODER)),
+                new AddAggregatePrincipalDecoder.Builder("creaperAggregatePrincipalDecoder")
+                        .principalDecoders("decoder1", "decoder2", "decoder3")
+                        .replaceExisting()
+                        .build(),
+                subsystem(container("mappers", DECODER_REPLACED)));
+    }
+}
@@ -0,0 +1,60 @@
+package org.wildfly.extras.creaper.commands.elytron.mapper;
+
+import org.junit.Test;
+import org.wildfly.extras.creaper.commands.elytron.AbstractElytronOfflineTest;
+
+public class AddAggregateRoleMapperOfflineTest extends AbstractElytronOfflineTest {
+
+    private static final String MAPPER = ""
+            + "<aggregate-role-mapper name=\"creaperAggregateRoleMapper\">\n"
+            + "    <role-mapper name=\"mapper1\"/>\n"
+            + "    <role-mapper name=\"mapper2\"/>\n"
+            + "</aggregate-role-mapper>";
+    private static final String MAPPER_SECOND = ""
+            + "<aggregate-role-mapper name=\"creaperAggregateRoleMapper2\">\n"
+            + "    <role-mapper name=\"mapper1\"/>\n"
+            + "    <role-mapper name=\"mapper2\"/>\n"
+            + "</aggregate-role-mapper>";
+    private static final String MAPPER_REPLACED = ""
+            + "<aggregate-role-mapper name=\"creaperAggregateRoleMapper\">\n"
+            + "    <role-mapper name=\"mapper1\"/>\n"
+            + "    <role-mapper name=\"mapper2\"/>\n"
+            + "    <role-mapper name=\"mapper3\"/>\n"
+            + "</aggregate-role-mapper>";
+
+    @Test
+    public void addSimpleToEmpty() throws Exception {
+        assertApplied(subsystem(),
+                new AddAggregateRoleMapper.Builder("creaperAggregateRoleMapper")
+                        .addRoleMappers("mapper1", "mapper2")
+                        .build(),
+                subsystem(container("mappers", MAPPER)));
+    }
+
+    @Test
+    public void addSecond() throws Exception {
+        assertApplied(subsystem(container("mappers", MAPPER)),
+                new AddAggregateRoleMapper.Builder("creaperAggregateRoleMapper2")
+                        .addRoleMappers("mapper1", "mapper2")
+                        .build(),
+                subsystem(container("mappers", MAPPER, MAPPER_SECOND)));
+    }
+
+    @Test
+    public void existing() throws Exception {
+        assertFails(subsystem(container("mappers", MAPPER)),
+                new AddAggregateRoleMapper.Builder("creaperAggregateRoleMapper")
+                        .addRoleMappers("mapper1", "mapper2")
+                        .build());
+    }
+
+    @Test
+    public void overrideExisting() throws Exception {
+        assertApplied(subsystem(container("mappers", MAPPER)),
+                new AddAggregateRoleMapper.Builder("creaperAggregateRoleMapper")
+                        .addRoleMappers("mapper1", "mapper2", "mapper3")
+                        .replaceExisting()
+                        .build(),
+                subsystem(container("mappers", MAPPER_REPLACED)));
+    }
+}
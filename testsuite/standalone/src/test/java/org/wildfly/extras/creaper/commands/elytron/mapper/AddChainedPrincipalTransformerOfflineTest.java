@@ -0,0 +1,60 @@
+package org.wildfly.extras.creaper.commands.elytron.mapper;
+
+import org.junit.Test;
+import org.wildfly.extras.creaper.commands.elytron.AbstractElytronOfflineTest;
+
+public class AddChainedPrincipalTransformerOfflineTest extends AbstractElytronOfflineTest {
+
+    private static final String TRANSFORMER = ""
+            + "<chained-principal-transformer name=\"creaperChainedPrincipalTransformer\">\n"
+            + "    <principal-transformer name=\"transformer1\"/>\n"
+            + "    <principal-transformer name=\"transformer2\"/>\n"
+            + "</chained-principal-transformer>";
+    private static final String TRANSFORMER_SECOND = ""
+            + "<chained-principal-transformer name=\"creaperChainedPrincipalTransformer2\">\n"
+            + "    <principal-transformer name=\"transformer1\"/>\n"
+            + "    <principal-transformer name=\"transformer2\"/>\n"
+            + "</chained-principal-transformer>";
+    private static final String TRANSFORMER_REPLACED = ""
+            + "<chained-principal-transformer name=\"creaperChainedPrincipalTransformer\">\n"
+            + "    <principal-transformer name=\"transformer1\"/>\n"
+            + "    <principal-transformer name=\"transformer2\"/>\n"
+            + "    <principal-transformer name=\"transformer3\"/>\n"
+            + "</chained-principal-transformer>";
+
+    @Test
+    public void addSimpleToEmpty() throws Exception {
+        assertApplied(subsystem(),
+                new AddChainedPrincipalTransformer.Builder("creaperChainedPrincipalTransformer")
+                        .principalTransformers("transformer1", "transformer2")
+                        .build(),
+                subsystem(container("mappers", TRANSFORMER)));
+    }
+
+    @Test
+    public void addSecond() throws Exception {
+        assertApplied(subsystem(container("mappers", TRANSFORMER)),
+                new AddChainedPrincipalTransformer.Builder("creaperChainedPrincipalTransformer2")
+                        .principalTransformers("transformer1", "transformer2")
+                        .build(),
+                subsystem(container("mappers", TRANSFORMER, TRANSFORMER_SECOND)));
+    }
+
+    @Test
+    public void existing() throws Exception {
+        assertFails(subsystem(container("mappers", TRANSFORMER)),
+                new AddChainedPrincipalTransformer.Builder("creaperChainedPrincipalTransformer")
+                        .principalTransformers("transformer1", "transformer2")
+                        .build());
+    }
+
+    @Test
+    public void overrideExisting() throws Exception {
+        assertApplied(subsystem(container("mappers", TRANSFORMER)),
+                new AddChainedPrincipalTransformer.Builder("creaperChainedPrincipalTransformer")
+                        .principalTransformers("transformer1", "transformer2", "transformer3")
+                        .replaceExisting()
+                        .build(),
+                subsystem(container("mappers", TRANSFORMER_REPLACED)));
+    }
+}
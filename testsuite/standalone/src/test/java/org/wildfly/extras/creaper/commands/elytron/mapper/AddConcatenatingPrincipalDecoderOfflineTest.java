@@ -0,0 +1,61 @@
+package org.wildfly.extras.creaper.commands.elytron.mapper;
+
+import org.junit.Test;
+import org.wildfly.extras.creaper.commands.elytron.AbstractElytronOfflineTest;
+
+public class AddConcatenatingPrincipalDecoderOfflineTest extends AbstractElytronOfflineTest {
+
+    private static final String DECODER = ""
+            + "<concatenating-principal-decoder name=\"creaperConcatenatingPrincipalDecoder\">\n"
+            + "    <principal-decoder name=\"decoder1\"/>\n"
+            + "    <principal-decoder name=\"decoder2\"/>\n"
+            + "</concatenating-principal-decoder>";
+    private static final String DECODER_SECOND = ""
+            + "<concatenating-principal-decoder name=\"creaperConcatenatingPrincipalDecoder2\">\n"
+            + "    <principal-decoder name=\"decoder1\"/>\n"
+            + "    <principal-decoder name=\"decoder2\"/>\n"
+            + "</concatenating-principal-decoder>";
+    private static final String DECODER_REPLACED = ""
+            + "<concatenating-principal-decoder name=\"creaperConcatenatingPrincipalDecoder\" joiner=\",\">\n"
+            + "    <principal-decoder name=\"decoder1\"/>\n"
+            + "    <principal-decoder name=\"decoder2\"/>\n"
+            + "    <principal-decoder name=\"decoder3\"/>\n"
+            + "</concatenating-principal-decoder>";
+
+    @Test
+    public void addSimpleToEmpty() throws Exception {
+        assertApplied(subsystem(),
+                new AddConcatenatingPrincipalDecoder.Builder("creaperConcatenatingPrincipalDecoder")
+                        .principalDecoders("decoder1", "decoder2")
+                        .build(),
+                subsystem(container("mappers", DECODER)));
+    }
+
+    @Test
+    public void addSecond() throws Exception {
+        assertApplied(subsystem(container("mappers", DECODER)),
+                new AddConcatenatingPrincipalDecoder.Builder("creaperConcatenatingPrincipalDecoder2")
+                        .principalDecoders("decoder1", "decoder2")
+                        .build(),
+                subsystem(container("mappers", DECODER, DECODER_SECOND)));
+    }
+
+    @Test
+    public void existing() throws Exception {
+        assertFails(subsystem(container("mappers", DECODER)),
+                new AddConcatenatingPrincipalDecoder.Builder("creaperConcatenatingPrincipalDecoder")
+                        .principalDecoders("decoder1", "decoder2")
+                        .build());
+    }
+
+    @Test
+    public void overrideExisting() throws Exception {
+        assertApplied(subsystem(container("mappers", DECODER)),
+                new AddConcatenatingPrincipalDecoder.Builder("creaperConcatenatingPrincipalDecoder")
+                        .principalDecoders("decoder1", "decoder2", "decoder3")
+                        .joiner(",")
+                        .replaceExisting()
+                        .build(),
+                subsystem(container("mappers", DECODER_REPLACED)));
+    }
+}
@@ -0,0 +1,69 @@
+package org.wildfly.extras.creaper.commands.elytron.mapper;
+
+import org.junit.Test;
+import org.wildfly.extras.creaper.commands.elytron.AbstractElytronOfflineTest;
+
+public class AddConstantPermissionMapperOfflineTest extends AbstractElytronOfflineTest {
+
+    private static final String MAPPER = ""
+            + "<constant-permission-mapper name=\"creaperConstantPermissionMapper\">\n"
+            + "    <permission class-name=\"org.wildfly.security.auth.permission.LoginPermission\"/>\n"
+            + "</constant-permission-mapper>";
+    private static final String MAPPER_SECOND = ""
+            + "<constant-permission-mapper name=\"creaperConstantPermissionMapper2\">\n"
+            + "    <permission class-name=\"org.wildfly.security.auth.permission.LoginPermission\"/>\n"
+            + "</constant-permission-mapper>";
+    private static final String MAPPER_REPLACED = ""
+            + "<constant-permission-mapper name=\"creaperConstantPermissionMapper\">\n"
+            + "    <permission class-name=\"org.wildfly.security.auth.permission.LoginPermission\"/>\n"
+            + "    <permission class-name=\"org.wildfly.security.auth.permission.RunAsPrincipalPermission\" target-name=\"admin\"/>\n"
+            + "</constant-permission-mapper>";
+
+    @Test
+    public void addSimpleToEmpty() throws Exception {
+        assertApplied(subsystem(),
+                new AddConstantPermissionMapper.Builder("creaperConstantPermissionMapper")
+                        .addPermissions(new AddConstantPermissionMapper.PermissionBuilder()
+                                        .className("org.wildfly.security.auth.permission.LoginPermission")
+                                        .build())
+                        .build(),
+                subsystem(container("mappers", MAPPER)));
+    }
+
+    @Test
+    public void addSecond() throws Exception {
+        assertApplied(subsystem(container("mappers", MAPPER)),
+                new AddConstantPermissionMapper.Builder("creaperConstantPermissionMapper2")
+                        .addPermissions(new AddConstantPermissionMapper.PermissionBuilder()
+                                        .className("org.wildfly.security.auth.permission.LoginPermission")
+                                        .build())
+                        .build(),
+                subsystem(container("mappers", MAPPER, MAPPER_SECOND)));
+    }
+
+    @Test
+    public void existing() throws Exception {
+        assertFails(subsystem(container("mappers", MAPPER)),
+                new AddConstantPermissionMapper.Builder("creaperConstantPermissionMapper")
+                        .addPermissions(new AddConstantPermissionMapper.PermissionBuilder()
+                                        .className("org.wildfly.security.auth.permission.LoginPermission")
+                                        .build())
+                        .build());
+    }
+
+    @Test
+    public void overrideExisting() throws Exception {
+        assertApplied(subsystem(container("mappers", MAPPER)),
+                new AddConstantPermissionMapper.Builder("creaperConstantPermissionMapper")
+                        .addPermissions(new AddConstantPermissionMapper.PermissionBuilder()
+                                        .className("org.wildfly.security.auth.permission.LoginPermission")
+                                        .build(),
+                                new AddConstantPermissionMapper.PermissionBuilder()
+                                        .className("org.wildfly.security.auth.permission.RunAsPrincipalPermission")
+                                        .targetName("admin")
+                                        .build())
+                        .replaceExisting()
+                        .build(),
+                subsystem(container("mappers", MAPPER_REPLACED)));
+    }
+}
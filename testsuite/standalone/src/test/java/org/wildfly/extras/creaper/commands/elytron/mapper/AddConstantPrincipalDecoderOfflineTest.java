@@ -0,0 +1,47 @@
+package org.wildfly.extras.creaper.commands.elytron.mapper;
+
+import org.junit.Test;
+import org.wildfly.extras.creaper.commands.elytron.AbstractElytronOfflineTest;
+
+public class AddConstantPrincipalDecoderOfflineTest extends AbstractElytronOfflineTest {
+
+    private static final String DECODER = "<constant-principal-decoder name=\"creaperConstantPrincipalDecoder\" constant=\"admin\"/>";
+    private static final String DECODER_SECOND = "<constant-principal-decoder name=\"creaperConstantPrincipalDecoder2\" constant=\"admin\"/>";
+    private static final String DECODER_REPLACED = "<constant-principal-decoder name=\"creaperConstantPrincipalDecoder\" constant=\"guest\"/>";
+
+    @Test
+    public void addSimpleToEmpty() throws Exception {
+        assertApplied(subsystem(),
+                new AddConstantPrincipalDecoder.Builder("creaperConstantPrincipalDecoder")
+                        .constant("admin")
+                        .build(),
+                subsystem(container("mappers", DECODER)));
+    }
+
+    @Test
+    public void addSecond() throws Exception {
+        assertApplied(subsystem(container("mappers", DECODER)),
+                new AddConstantPrincipalDecoder.Builder("creaperConstantPrincipalDecoder2")
+                        .constant("admin")
+                        .build(),
+                subsystem(container("mappers", DECODER, DECODER_SECOND)));
+    }
+
+    @Test
+    public void existing() throws Exception {
+        assertFails(subsystem(container("mappers", DECODER)),
+                new AddConstantPrincipalDecoder.Builder("creaperConstantPrincipalDecoder")
+                        .constant("admin")
+                        .build());
+    }
+
+    @Test
+    public void overrideExisting() throws Exception {
+        assertApplied(subsystem(container("mappers", DECODER)),
+                new AddConstantPrincipalDecoder.Builder("creaperConstantPrincipalDecoder")
+                        .constant("guest")
+                        .replaceExisting()
+                        .build(),
+                subsystem(container("mappers", DECODER_REPLACED)));
+    }
+}
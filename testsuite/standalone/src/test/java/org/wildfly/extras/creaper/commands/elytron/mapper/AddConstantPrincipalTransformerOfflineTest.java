@@ -0,0 +1,47 @@
+package org.wildfly.extras.creaper.commands.elytron.mapper;
+
+import org.junit.Test;
+import org.wildfly.extras.creaper.commands.elytron.AbstractElytronOfflineTest;
+
+public class AddConstantPrincipalTransformerOfflineTest extends AbstractElytronOfflineTest {
+
+    private static final String TRANSFORMER = "<constant-principal-transformer name=\"creaperConstantPrincipalTransformer\" constant=\"admin\"/>";
+    private static final String TRANSFORMER_SECOND = "<constant-principal-transformer name=\"creaperConstantPrincipalTransformer2\" constant=\"admin\"/>";
+    private static final String TRANSFORMER_REPLACED = "<constant-principal-transformer name=\"creaperConstantPrincipalTransformer\" constant=\"guest\"/>";
+
+    @Test
+    public void addSimpleToEmpty() throws Exception {
+        assertApplied(subsystem(),
+                new AddConstantPrincipalTransformer.Builder("creaperConstantPrincipalTransformer")
+                        .constant("admin")
+                        .build(),
+                subsystem(container("mappers", TRANSFORMER)));
+    }
+
+    @Test
+    public void addSecond() throws Exception {
+        assertApplied(subsystem(container("mappers", TRANSFORMER)),
+                new AddConstantPrincipalTransformer.Builder("creaperConstantPrincipalTransformer2")
+                        .constant("admin")
+                        .build(),
+                subsystem(container("mappers", TRANSFORMER, TRANSFORMER_SECOND)));
+    }
+
+    @Test
+    public void existing() throws Exception {
+        assertFails(subsystem(container("mappers", TRANSFORMER)),
+                new AddConstantPrincipalTransformer.Builder("creaperConstantPrincipalTransformer")
+                        .constant("admin")
+                        .build());
+    }
+
+    @Test
+    public void overrideExisting() throws Exception {
+        assertApplied(subsystem(container("mappers", TRANSFORMER)),
+                new AddConstantPrincipalTransformer.Builder("creaperConstantPrincipalTransformer")
+                        .constant("guest")
+                        .replaceExisting()
+                        .build(),
+                subsystem(container("mappers", TRANSFORMER_REPLACED)));
+    }
+}
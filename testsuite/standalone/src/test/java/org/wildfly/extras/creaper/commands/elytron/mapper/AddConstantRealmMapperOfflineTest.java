@@ -0,0 +1,47 @@
+package org.wildfly.extras.creaper.commands.elytron.mapper;
+
+import org.junit.Test;
+import org.wildfly.extras.creaper.commands.elytron.AbstractElytronOfflineTest;
+
+public class AddConstantRealmMapperOfflineTest extends AbstractElytronOfflineTest {
+
+    private static final String MAPPER = "<constant-realm-mapper name=\"creaperConstantRealmMapper\" realm-name=\"creaperRealm\"/>";
+    private static final String MAPPER_SECOND = "<constant-realm-mapper name=\"creaperConstantRealmMapper2\" realm-name=\"creaperRealm\"/>";
+    private static final String MAPPER_REPLACED = "<constant-realm-mapper name=\"creaperConstantRealmMapper\" realm-name=\"creaperRealm2\"/>";
+
+    @Test
+    public void addSimpleToEmpty() throws Exception {
+        assertApplied(subsystem(),
+                new AddConstantRealmMapper.Builder("creaperConstantRealmMapper")
+                        .realmName("creaperRealm")
+                        .build(),
+                subsystem(container("mappers", MAPPER)));
+    }
+
+    @Test
+    public void addSecond() throws Exception {
+        assertApplied(subsystem(container("mappers", MAPPER)),
+                new AddConstantRealmMapper.Builder("creaperConstantRealmMapper2")
+                        .realmName("creaperRealm")
+                        .build(),
+                subsystem(container("mappers", MAPPER, MAPPER_SECOND)));
+    }
+
+    @Test
+    public void existing() throws Exception {
+        assertFails(subsystem(container("mappers", MAPPER)),
+                new AddConstantRealmMapper.Builder("creaperConstantRealmMapper")
+                        .realmName("creaperRealm")
+                        .build());
+    }
+
+    @Test
+    public void overrideExisting() throws Exception {
+        assertApplied(subsystem(container("mappers", MAPPER)),
+                new AddConstantRealmMapper.Builder("creaperConstantRealmMapper")
+                        .realmName("creaperRealm2")
+                        .replaceExisting()
+                        .build(),
+                subsystem(container("mappers", MAPPER_REPLACED)));
+    }
+}
@@ -0,0 +1,55 @@
+package org.wildfly.extras.creaper.commands.elytron.mapper;
+
+import org.junit.Test;
+import org.wildfly.extras.creaper.commands.elytron.AbstractElytronOfflineTest;
+
+public class AddConstantRoleMapperOfflineTest extends AbstractElytronOfflineTest {
+
+    private static final String MAPPER = ""
+            + "<constant-role-mapper name=\"creaperConstantRoleMapper\">\n"
+            + "    <role name=\"Admin\"/>\n"
+            + "</constant-role-mapper>";
+
+    @Test
+    public void addSimpleToEmpty() throws Exception {
+        assertApplied(subsystem(),
+                new AddConstantRoleMapper.Builder("creaperConstantRoleMapper")
+                        .addRoles("Admin")
+                        .build(),
+                subsystem(container("mappers", MAPPER)));
+    }
+
+    @Test
+    public void addSecond() throws Exception {
+        assertApplied(subsystem(container("mappers", MAPPER)),
+                new AddConstantRoleMapper.Builder("creaperConstantRoleMapper2")
+                        .addRoles("Admin")
+                        .build(),
+                subsystem(container("mappers", MAPPER, ""
+                        + "<constant-role-mapper name=\"creaperConstantRoleMapper2\">\n"
+                        + "    <role name=\"Admin\"/>\n"
+                        + "</constant-role-mapper>")));
+    }
+
+    @Test
+    public void existing() throws Exception {
+        assertFails(subsystem(container("mappers", MAPPER)),
+                new AddConstantRoleMapper.Builder("creaperConstantRoleMapper")
+                        .addRoles("Admin")
+                        .build());
+    }
+
+    @Test
+    public void overrideExisting() throws Exception {
+        assertApplied(subsystem(container("mappers", MAPPER)),
+                new AddConstantRoleMapper.Builder("creaperConstantRoleMapper")
+                        .addRoles("Admin", "Guest")
+                        .replaceExisting()
+                        .build(),
+                subsystem(container("mappers", ""
+                        + "<constant-role-mapper name=\"creaperConstantRoleMapper\">\n"
+                        + "    <role name=\"Admin\"/>\n"
+                        + "    <role name=\"Guest\"/>\n"
+                        + "</constant-role-mapper>")));
+    }
+}
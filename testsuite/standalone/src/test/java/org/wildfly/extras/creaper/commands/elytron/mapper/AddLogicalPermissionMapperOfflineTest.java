@@ -0,0 +1,55 @@
+package org.wildfly.extras.creaper.commands.elytron.mapper;
+
+import org.junit.Test;
+import org.wildfly.extras.creaper.commands.elytron.AbstractElytronOfflineTest;
+
+public class AddLogicalPermissionMapperOfflineTest extends AbstractElytronOfflineTest {
+
+    private static final String MAPPER = "<logical-permission-mapper name=\"creaperLogicalPermissionMapper\" logical-operation=\"AND\" left=\"mapper1\" right=\"mapper2\"/>";
+    private static final String MAPPER_SECOND = "<logical-permission-mapper name=\"creaperLogicalPermissionMapper2\" logical-operation=\"AND\" left=\"mapper1\" right=\"mapper2\"/>";
+    private static final String MAPPER_REPLACED = "<logical-permission-mapper name=\"creaperLogicalPermissionMapper\" logical-operation=\"OR\" left=\"mapper1\" right=\"mapper2\"/>";
+
+    @Test
+    public void addSimpleToEmpty() throws Exception {
+        assertApplied(subsystem(),
+                new AddLogicalPermissionMapper.Builder("creaperLogicalPermissionMapper")
+                        .logicalOperation(AddLogicalPermissionMapper.LogicalOperation.AND)
+                        .left("mapper1")
+                        .right("mapper2")
+                        .build(),
+                subsystem(container("mappers", MAPPER)));
+    }
+
+    @Test
+    public void addSecond() throws Exception {
+        assertApplied(subsystem(container("mappers", MAPPER)),
+                new AddLogicalPermissionMapper.Builder("creaperLogicalPermissionMapper2")
+                        .logicalOperation(AddLogicalPermissionMapper.LogicalOperation.AND)
+                        .left("mapper1")
+                        .right("mapper2")
+                        .build(),
+                subsystem(container("mappers", MAPPER, MAPPER_SECOND)));
+    }
+
+    @Test
+    public void existing() throws Exception {
+        assertFails(subsystem(container("mappers", MAPPER)),
+                new AddLogicalPermissionMapper.Builder("creaperLogicalPermissionMapper")
+                        .logicalOperation(AddLogicalPermissionMapper.LogicalOperation.AND)
+                        .left("mapper1")
+                        .right("mapper2")
+                        .build());
+    }
+
+    @Test
+    public void overrideExisting() throws Exception {
+        assertApplied(subsystem(container("mappers", MAPPER)),
+                new AddLogicalPermissionMapper.Builder("creaperLogicalPermissionMapper")
+                        .logicalOperation(AddLogicalPermissionMapper.LogicalOperation.OR)
+                        .left("mapper1")
+                        .right("mapper2")
+                        .replaceExisting()
+                        .build(),
+                subsystem(container("mappers", MAPPER_REPLACED)));
+    }
+}
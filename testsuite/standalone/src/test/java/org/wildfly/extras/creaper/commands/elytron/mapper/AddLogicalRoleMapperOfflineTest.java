@@ -0,0 +1,49 @@
+package org.wildfly.extras.creaper.commands.elytron.mapper;
+
+import org.junit.Test;
+import org.wildfly.extras.creaper.commands.elytron.AbstractElytronOfflineTest;
+
+public class AddLogicalRoleMapperOfflineTest extends AbstractElytronOfflineTest {
+
+    private static final String MAPPER = "<logical-role-mapper name=\"creaperLogicalRoleMapper\" logical-operation=\"AND\"/>";
+    private static final String MAPPER_SECOND = "<logical-role-mapper name=\"creaperLogicalRoleMapper2\" logical-operation=\"AND\"/>";
+    private static final String MAPPER_REPLACED = "<logical-role-mapper name=\"creaperLogicalRoleMapper\" logical-operation=\"OR\" left=\"mapper1\" right=\"mapper2\"/>";
+
+    @Test
+    public void addSimpleToEmpty() throws Exception {
+        assertApplied(subsystem(),
+                new AddLogicalRoleMapper.Builder("creaperLogicalRoleMapper")
+                        .logicalOperation(AddLogicalRoleMapper.LogicalOperation.AND)
+                        .build(),
+                subsystem(container("mappers", MAPPER)));
+    }
+
+    @Test
+    public void addSecond() throws Exception {
+        assertApplied(subsystem(container("mappers", MAPPER)),
+                new AddLogicalRoleMapper.Builder("creaperLogicalRoleMapper2")
+                        .logicalOperation(AddLogicalRoleMapper.LogicalOperation.AND)
+                        .build(),
+                subsystem(container("mappers", MAPPER, MAPPER_SECOND)));
+    }
+
+    @Test
+    public void existing() throws Exception {
+        assertFails(subsystem(container("mappers", MAPPER)),
+                new AddLogicalRoleMapper.Builder("creaperLogicalRoleMapper")
+                        .logicalOperation(AddLogicalRoleMapper.LogicalOperation.AND)
+                        .build());
+    }
+
+    @Test
+    public void overrideExisting() throws Exception {
+        assertApplied(subsystem(container("mappers", MAPPER)),
+                new AddLogicalRoleMapper.Builder("creaperLogicalRoleMapper")
+                        .logicalOperation(AddLogicalRoleMapper.LogicalOperation.OR)
+                        .left("mapper1")
+                        .right("mapper2")
+                        .replaceExisting()
+                        .build(),
+                subsystem(container("mappers", MAPPER_REPLACED)));
+    }
+}
@@ -0,0 +1,63 @@
+package org.wildfly.extras.creaper.commands.elytron.mapper;
+
+import org.junit.Test;
+import org.wildfly.extras.creaper.commands.elytron.AbstractElytronOfflineTest;
+
+public class AddMappedRegexRealmMapperOfflineTest extends AbstractElytronOfflineTest {
+
+    private static final String MAPPER = ""
+            + "<mapped-regex-realm-mapper name=\"creaperMappedRegexRealmMapper\" pattern=\".*@(.*)\">\n"
+            + "    <realm-mapping from=\"example.com\" to=\"realm1\"/>\n"
+            + "</mapped-regex-realm-mapper>";
+    private static final String MAPPER_SECOND = ""
+            + "<mapped-regex-realm-mapper name=\"creaperMappedRegexRealmMapper2\" pattern=\".*@(.*)\">\n"
+            + "    <realm-mapping from=\"example.com\" to=\"realm1\"/>\n"
+            + "</mapped-regex-realm-mapper>";
+    private static final String MAPPER_REPLACED = ""
+            + "<mapped-regex-realm-mapper name=\"creaperMappedRegexRealmMapper\" pattern=\".*@(.*)\" delegate-realm-mapper=\"delegateMapper\">\n"
+            + "    <realm-mapping from=\"example.com\" to=\"realm1\"/>\n"
+            + "    <realm-mapping from=\"example.org\" to=\"realm2\"/>\n"
+            + "</mapped-regex-realm-mapper>";
+
+    @Test
+    public void addSimpleToEmpty() throws Exception {
+        assertApplied(subsystem(),
+                new AddMappedRegexRealmMapper.Builder("creaperMappedRegexRealmMapper")
+                        .pattern(".*@(.*)")
+                        .addRealmMappings(new AddMappedRegexRealmMapper.RealmMapping("example.com", "realm1"))
+                        .build(),
+                subsystem(container("mappers", MAPPER)));
+    }
+
+    @Test
+    public void addSecond() throws Exception {
+        assertApplied(subsystem(container("mappers", MAPPER)),
+                new AddMappedRegexRealmMapper.Builder("creaperMappedRegexRealmMapper2")
+                        .pattern(".*@(.*)")
+                        .addRealmMappings(new AddMappedRegexRealmMapper.RealmMapping("example.com", "realm1"))
+                        .build(),
+                subsystem(container("mappers", MAPPER, MAPPER_SECOND)));
+    }
+
+    @Test
+    public void existing() throws Exception {
+        assertFails(subsystem(container("mappers", MAPPER)),
+                new AddMappedRegexRealmMapper.Builder("creaperMappedRegexRealmMapper")
+                        .pattern(".*@(.*)")
+                        .addRealmMappings(new AddMappedRegexRealmMapper.RealmMapping("example.com", "realm1"))
+                        .build());
+    }
+
+    @Test
+    public void overrideExisting() throws Exception {
+        assertApplied(subsystem(container("mappers", MAPPER)),
+                new AddMappedRegexRealmMapper.Builder("creaperMappedRegexRealmMapper")
+                        .pattern(".*@(.*)")
+                        .delegateRealmMapper("delegateMapper")
+                        .addRealmMappings(new AddMappedRegexRealmMapper.RealmMapping("example.com", "realm1"),
+                                new AddMappedRegexRealmMapper.RealmMapping("example.org", "realm2"))
+                        .replaceExisting()
+                        .build(),
+                subsystem(container("mappers", MAPPER_REPLACED)));
+    }
+}
@@ -0,0 +1,52 @@
+package org.wildfly.extras.creaper.commands.elytron.mapper;
+
+import org.junit.Test;
+import org.wildfly.extras.creaper.commands.elytron.AbstractElytronOfflineTest;
+
+public class AddRegexPrincipalTransformerOfflineTest extends AbstractElytronOfflineTest {
+
+    private static final String TRANSFORMER = "<regex-principal-transformer name=\"creaperRegexPrincipalTransformer\" pattern=\"(.*)@example.com\" replacement=\"$1\"/>";
+    private static final String TRANSFORMER_SECOND = "<regex-principal-transformer name=\"creaperRegexPrincipalTransformer2\" pattern=\"(.*)@example.com\" replacement=\"$1\"/>";
+    private static final String TRANSFORMER_REPLACED = "<regex-principal-transformer name=\"creaperRegexPrincipalTransformer\" pattern=\"(.*)@example.org\" replacement=\"$1\" replace-all=\"true\"/>";
+
+    @Test
+    public void addSimpleToEmpty() throws Exception {
+        assertApplied(subsystem(),
+                new AddRegexPrincipalTransformer.Builder("creaperRegexPrincipalTransformer")
+                        .pattern("(.*)@example.com")
+                        .replacement("$1")
+                        .build(),
+                subsystem(container("mappers", TRANSFORMER)));
+    }
+
+    @Test
+    public void addSecond() throws Exception {
+        assertApplied(subsystem(container("mappers", TRANSFORMER)),
+                new AddRegexPrincipalTransformer.Builder("creaperRegexPrincipalTransformer2")
+                        .pattern("(.*)@example.com")
+                        .replacement("$1")
+                        .build(),
+                subsystem(container("mappers", TRANSFORMER, TRANSFORMER_SECOND)));
+    }
+
+    @Test
+    public void existing() throws Exception {
+        assertFails(subsystem(container("mappers", TRANSFORMER)),
+                new AddRegexPrincipalTransformer.Builder("creaperRegexPrincipalTransformer")
+                        .pattern("(.*)@example.com")
+                        .replacement("$1")
+                        .build());
+    }
+
+    @Test
+    public void overrideExisting() throws Exception {
+        assertApplied(subsystem(container("mappers", TRANSFORMER)),
+                new AddRegexPrincipalTransformer.Builder("creaperRegexPrincipalTransformer")
+                        .pattern("(.*)@example.org")
+                        .replacement("$1")
+                        .replaceAll(true)
+                        .replaceExisting()
+                        .build(),
+                subsystem(container("mappers", TRANSFORMER_REPLACED)));
+    }
+}
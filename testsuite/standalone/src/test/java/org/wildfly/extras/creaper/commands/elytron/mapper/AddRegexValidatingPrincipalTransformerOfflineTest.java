@@ -0,0 +1,48 @@
+package org.wildfly.extras.creaper.commands.elytron.mapper;
+
+import org.junit.Test;
+import org.wildfly.extras.creaper.commands.elytron.AbstractElytronOfflineTest;
+
+public class AddRegexValidatingPrincipalTransformerOfflineTest extends AbstractElytronOfflineTest {
+
+    private static final String TRANSFORMER = "<regex-validating-principal-transformer name=\"creaperRegexValidatingPrincipalTransformer\" pattern=\"[a-z]+\"/>";
+    private static final String TRANSFORMER_SECOND = "<regex-validating-principal-transformer name=\"creaperRegexValidatingPrincipalTransformer2\" pattern=\"[a-z]+\"/>";
+    private static final String TRANSFORMER_REPLACED = "<regex-validating-principal-transformer name=\"creaperRegexValidatingPrincipalTransformer\" pattern=\"[a-z0-9]+\" match=\"false\"/>";
+
+    @Test
+    public void addSimpleToEmpty() throws Exception {
+        assertApplied(subsystem(),
+                new AddRegexValidatingPrincipalTransformer.Builder("creaperRegexValidatingPrincipalTransformer")
+                        .pattern("[a-z]+")
+                        .build(),
+                subsystem(container("mappers", TRANSFORMER)));
+    }
+
+    @Test
+    public void addSecond() throws Exception {
+        assertApplied(subsystem(container("mappers", TRANSFORMER)),
+                new AddRegexValidatingPrincipalTransformer.Builder("creaperRegexValidatingPrincipalTransformer2")
+                        .pattern("[a-z]+")
+                        .build(),
+                subsystem(container("mappers", TRANSFORMER, TRANSFORMER_SECOND)));
+    }
+
+    @Test
+    public void existing() throws Exception {
+        assertFails(subsystem(container("mappers", TRANSFORMER)),
+                new AddRegexValidatingPrincipalTransformer.Builder("creaperRegexValidatingPrincipalTransformer")
+                        .pattern("[a-z]+")
+                        .build());
+    }
+
+    @Test
+    public void overrideExisting() throws Exception {
+        assertApplied(subsystem(container("mappers", TRANSFORMER)),
+                new AddRegexValidatingPrincipalTransformer.Builder("creaperRegexValidatingPrincipalTransformer")
+                        .pattern("[a-z0-9]+")
+                        .match(false)
+                        .replaceExisting()
+                        .build(),
+                subsystem(container("mappers", TRANSFORMER_REPLACED)));
+    }
+}
@@ -0,0 +1,126 @@
+package org.wildfly.extras.creaper.commands.elytron.mapper;
+
+import org.junit.Test;
+import org.wildfly.extras.creaper.commands.elytron.AbstractElytronOfflineTest;
+
+public class AddSimplePermissionMapperOfflineTest extends AbstractElytronOfflineTest {
+
+    private static final String MAPPER = ""
+            + "<simple-permission-mapper name=\"creaperSimplePermissionMapper\">\n"
+            + "    <permission-mapping>\n"
+            + "        <principal name=\"admin\"/>\n"
+            + "        <permission class-name=\"org.wildfly.security.auth.permission.LoginPermission\"/>\n"
+            + "    </permission-mapping>\n"
+            + "</simple-permission-mapper>";
+    private static final String MAPPER_SECOND = ""
+            + "<simple-permission-mapper name=\"creaperSimplePermissionMapper2\">\n"
+            + "    <permission-mapping>\n"
+            + "        <principal name=\"admin\"/>\n"
+            + "        <permission class-name=\"org.wildfly.security.auth.permission.LoginPermission\"/>\n"
+            + "    </permission-mapping>\n"
+            + "</simple-permission-mapper>";
+    private static final String MAPPER_REPLACED = ""
+            + "<simple-permission-mapper name=\"creaperSimplePermissionMapper\" mapping-mode=\"OR\">\n"
+            + "    <permission-mapping>\n"
+            + "        <principal name=\"guest\"/>\n"
+            + "        <permission class-name=\"org.wildfly.security.auth.permission.LoginPermission\"/>\n"
+            + "    </permission-mapping>\n"
+            + "</simple-permission-mapper>";
+
+    @Test
+    public void addSimpleToEmpty() throws Exception {
+        assertApplied(subsystem(),
+                new AddSimplePermissionMapper.Builder("creaperSimplePermissionMapper")
+                        .addPermissionMappings(new AddSimplePermissionMapper.PermissionMappingBuilder()
+                                .addPrincipals("admin")
+                                .addPermissions(new AddSimplePermissionMapper.PermissionBuilder()
+                                        .className("org.wildfly.security.auth.permission.LoginPermission")
+                                        .build())
+                                .build())
+                        .build(),
+                subsystem(container("mappers", MAPPER)));
+    }
+
+    @Test
+    public void addSecond() throws Exception {
+        assertApplied(subsystem(container("mappers", MAPPER)),
+                new AddSimplePermissionMapper.Builder("creaperSimplePermissionMapper2")
+                        .addPermissionMappings(new AddSimplePermissionMapper.PermissionMappingBuilder()
+                                .addPrincipals("admin")
+                                .addPermissions(new AddSimplePermissionMapper.PermissionBuilder()
+                                        .className("org.wildfly.security.auth.permission.LoginPermission")
+                                        .build())
+                                .build())
+                        .build(),
+                subsystem(container("mappers", MAPPER, MAPPER_SECOND)));
+    }
+
+    @Test
+    public void existing() throws Exception {
+        assertFails(subsystem(container("mappers", MAPPER)),
+                new AddSimplePermissionMapper.Builder("creaperSimplePermissionMapper")
+                        .addPermissionMappings(new AddSimplePermissionMapper.PermissionMappingBuilder()
+                                .addPrincipals("admin")
+                                .addPermissions(new AddSimplePermissionMapper.PermissionBuilder()
+                                        .className("org.wildfly.security.auth.permission.LoginPermission")
+                                        .build())
+                                .build())
+                        .build());
+    }
+
+    @Test
+    public void overrideExisting() throws Exception {
+        assertApplied(subsystem(container("mappers", MAPPER)),
+                new AddSimplePermissionMapper.Builder("creaperSimplePermissionMapper")
+                        .mappingMode(AddSimplePermissionMapper.MappingMode.OR)
+                        .addPermissionMappings(new AddSimplePermissionMapper.PermissionMappingBuilder()
+                                .addPrincipals("guest")
+                                .addPermissions(new AddSimplePermissionMapper.PermissionBuilder()
+                                        .className("org.wildfly.security.auth.permission.LoginPermission")
+                                        .build())
+                                .build())
+                        .replaceExisting()
+                        .build(),
+                subsystem(container("mappers", MAPPER_REPLACED)));
+    }
+
+    @Test
+    public void addFullToEmpty() throws Exception {
+        assertApplied(subsystem(),
+                new AddSimplePermissionMapper.Builder("creaperSimplePermissionMapper")
+                        .mappingMode(AddSimplePermissionMapper.MappingMode.FIRST)
+                        .addPermissionMappings(new AddSimplePermissionMapper.PermissionMappingBuilder()
+                                        .addPrincipals("admin")
+                                        .addRoles("Admin", "Monitor")
+                                        .addPermissions(new AddSimplePermissionMapper.PermissionBuilder()
+                                                        .className("org.wildfly.extension.batch.jberet.deployment.BatchPermission")
+                                                        .module("org.wildfly.extension.batch.jberet")
+                                                        .targetName("*")
+                                                        .action("read")
+                                                        .build(),
+                                                new AddSimplePermissionMapper.PermissionBuilder()
+                                                        .className("org.wildfly.security.auth.permission.LoginPermission")
+                                                        .build())
+                                        .build(),
+                                new AddSimplePermissionMapper.PermissionMappingBuilder()
+                                        .matchAll(true)
+                                        .addPermissions(new AddSimplePermissionMapper.PermissionBuilder()
+                                                        .className("org.wildfly.security.auth.permission.LoginPermission")
+                                                        .build())
+                                        .build())
+                        .build(),
+                subsystem(container("mappers", ""
+                                + "<simple-permission-mapper name=\"creaperSimplePermissionMapper\" mapping-mode=\"FIRST\">\n"
+                                + "    <permission-mapping>\n"
+                                + "        <principal name=\"admin\"/>\n"
+                                + "        <role name=\"Admin\"/>\n"
+                                + "        <role name=\"Monitor\"/>\n"
+                                + "        <permission class-name=\"org.wildfly.extension.batch.jberet.deployment.BatchPermission\" module=\"org.wildfly.extension.batch.jberet\" target-name=\"*\" action=\"read\"/>\n"
+                                + "        <permission class-name=\"org.wildfly.security.auth.permission.LoginPermission\"/>\n"
+                                + "    </permission-mapping>\n"
+                                + "    <permission-mapping match-all=\"true\">\n"
+                                + "        <permission class-name=\"org.wildfly.security.auth.permission.LoginPermission\"/>\n"
+                                + "    </permission-mapping>\n"
+                                + "</simple-permission-mapper>")));
+    }
+}
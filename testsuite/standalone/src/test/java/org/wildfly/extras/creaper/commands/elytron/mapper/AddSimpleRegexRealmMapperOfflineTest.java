@@ -0,0 +1,48 @@
+package org.wildfly.extras.creaper.commands.elytron.mapper;
+
+import org.junit.Test;
+import org.wildfly.extras.creaper.commands.elytron.AbstractElytronOfflineTest;
+
+public class AddSimpleRegexRealmMapperOfflineTest extends AbstractElytronOfflineTest {
+
+    private static final String MAPPER = "<simple-regex-realm-mapper name=\"creaperSimpleRegexRealmMapper\" pattern=\".*@(.*)\"/>";
+    private static final String MAPPER_SECOND = "<simple-regex-realm-mapper name=\"creaperSimpleRegexRealmMapper2\" pattern=\".*@(.*)\"/>";
+    private static final String MAPPER_REPLACED = "<simple-regex-realm-mapper name=\"creaperSimpleRegexRealmMapper\" pattern=\"(.*)#(.*)\" delegate-realm-mapper=\"delegateMapper\"/>";
+
+    @Test
+    public void addSimpleToEmpty() throws Exception {
+        assertApplied(subsystem(),
+                new AddSimpleRegexRealmMapper.Builder("creaperSimpleRegexRealmMapper")
+                        .pattern(".*@(.*)")
+                        .build(),
+                subsystem(container("mappers", MAPPER)));
+    }
+
+    @Test
+    public void addSecond() throws Exception {
+        assertApplied(subsystem(container("mappers", MAPPER)),
+                new AddSimpleRegexRealmMapper.Builder("creaperSimpleRegexRealmMapper2")
+                        .pattern(".*@(.*)")
+                        .build(),
+                subsystem(container("mappers", MAPPER, MAPPER_SECOND)));
+    }
+
+    @Test
+    public void existing() throws Exception {
+        assertFails(subsystem(container("mappers", MAPPER)),
+                new AddSimpleRegexRealmMapper.Builder("creaperSimpleRegexRealmMapper")
+                        .pattern(".*@(.*)")
+                        .build());
+    }
+
+    @Test
+    public void overrideExisting() throws Exception {
+        assertApplied(subsystem(container("mappers", MAPPER)),
+                new AddSimpleRegexRealmMapper.Builder("creaperSimpleRegexRealmMapper")
+                        .pattern("(.*)#(.*)")
+                        .delegateRealmMapper("delegateMapper")
+                        .replaceExisting()
+                        .build(),
+                subsystem(container("mappers", MAPPER_REPLACED)));
+    }
+}
@@ -0,0 +1,47 @@
+package org.wildfly.extras.creaper.commands.elytron.mapper;
+
+import org.junit.Test;
+import org.wildfly.extras.creaper.commands.elytron.AbstractElytronOfflineTest;
+
+public class AddSimpleRoleDecoderOfflineTest extends AbstractElytronOfflineTest {
+
+    private static final String DECODER = "<simple-role-decoder name=\"creaperSimpleRoleDecoder\" attribute=\"groups\"/>";
+    private static final String DECODER_SECOND = "<simple-role-decoder name=\"creaperSimpleRoleDecoder2\" attribute=\"groups\"/>";
+    private static final String DECODER_REPLACED = "<simple-role-decoder name=\"creaperSimpleRoleDecoder\" attribute=\"roles\"/>";
+
+    @Test
+    public void addSimpleToEmpty() throws Exception {
+        assertApplied(subsystem(),
+                new AddSimpleRoleDecoder.Builder("creaperSimpleRoleDecoder")
+                        .attribute("groups")
+                        .build(),
+                subsystem(container("mappers", DECODER)));
+    }
+
+    @Test
+    public void addSecond() throws Exception {
+        assertApplied(subsystem(container("mappers", DECODER)),
+                new AddSimpleRoleDecoder.Builder("creaperSimpleRoleDecoder2")
+                        .attribute("groups")
+                        .build(),
+                subsystem(container("mappers", DECODER, DECODER_SECOND)));
+    }
+
+    @Test
+    public void existing() throws Exception {
+        assertFails(subsystem(container("mappers", DECODER)),
+                new AddSimpleRoleDecoder.Builder("creaperSimpleRoleDecoder")
+                        .attribute("groups")
+                        .build());
+    }
+
+    @Test
+    public void overrideExisting() throws Exception {
+        assertApplied(subsystem(container("mappers", DECODER)),
+                new AddSimpleRoleDecoder.Builder("creaperSimpleRoleDecoder")
+                        .attribute("roles")
+                        .replaceExisting()
+                        .build(),
+                subsystem(container("mappers", DECODER_REPLACED)));
+    }
+}
@@ -0,0 +1,63 @@
+package org.wildfly.extras.creaper.commands.elytron.mapper;
+
+import org.junit.Test;
+import org.wildfly.extras.creaper.commands.elytron.AbstractElytronOfflineTest;
+
+public class AddX500AttributePrincipalDecoderOfflineTest extends AbstractElytronOfflineTest {
+
+    private static final String DECODER = "<x500-attribute-principal-decoder name=\"creaperX500AttributePrincipalDecoder\" oid=\"2.5.4.3\"/>";
+    private static final String DECODER_SECOND = "<x500-attribute-principal-decoder name=\"creaperX500AttributePrincipalDecoder2\" oid=\"2.5.4.3\"/>";
+    private static final String DECODER_REPLACED = "<x500-attribute-principal-decoder name=\"creaperX500AttributePrincipalDecoder\" oid=\"2.5.4.11\"/>";
+
+    @Test
+    public void addSimpleToEmpty() throws Exception {
+        assertApplied(subsystem(),
+                new AddX500AttributePrincipalDecoder.Builder("creaperX500AttributePrincipalDecoder")
+                        .oid("2.5.4.3")
+                        .build(),
+                subsystem(container("mappers", DECODER)));
+    }
+
+    @Test
+    public void addSecond() throws Exception {
+        assertApplied(subsystem(container("mappers", DECODER)),
+                new AddX500AttributePrincipalDecoder.Builder("creaperX500AttributePrincipalDecoder2")
+                        .oid("2.5.4.3")
+                        .build(),
+                subsystem(container("mappers", DECODER, DECODER_SECOND)));
+    }
+
+    @Test
+    public void existing() throws Exception {
+        assertFails(subsystem(container("mappers", DECODER)),
+                new AddX500AttributePrincipalDecoder.Builder("creaperX500AttributePrincipalDecoder")
+                        .oid("2.5.4.3")
+                        .build());
+    }
+
+    @Test
+    public void overrideExisting() throws Exception {
+        assertApplied(subsystem(container("mappers", DECODER)),
+                new AddX500AttributePrincipalDecoder.Builder("creaperX500AttributePrincipalDecoder")
+                        .oid("2.5.4.11")
+                        .replaceExisting()
+                        .build(),
+                subsystem(container("mappers", DECODER_REPLACED)));
+    }
+
+    @Test
+    public void addFullToEmpty() throws Exception {
+        assertApplied(subsystem(),
+                new AddX500AttributePrincipalDecoder.Builder("creaperX500AttributePrincipalDecoder")
+                        .attributeName("cn")
+                        .joiner(",")
+                        .startSegment(1)
+                        .maximumSegments(2)
+                        .reverse(true)
+                        .convert(true)
+                        .addRequiredOids("2.5.4.3", "2.5.4.11")
+                        .addRequiredAttributes("cn", "ou")
+                        .build(),
+                subsystem(container("mappers", "<x500-attribute-principal-decoder name=\"creaperX500AttributePrincipalDecoder\" attribute-name=\"cn\" joiner=\",\" start-segment=\"1\" maximum-segments=\"2\" reverse=\"true\" convert=\"true\" required-oids=\"2.5.4.3 2.5.4.11\" required-attributes=\"cn ou\"/>")));
+    }
+}
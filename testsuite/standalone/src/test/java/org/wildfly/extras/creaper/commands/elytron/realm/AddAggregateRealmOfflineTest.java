@@ -0,0 +1,52 @@
+package org.wildfly.extras.creaper.commands.elytron.realm;
+
+import org.junit.Test;
+import org.wildfly.extras.creaper.commands.elytron.AbstractElytronOfflineTest;
+
+public class AddAggregateRealmOfflineTest extends AbstractElytronOfflineTest {
+
+    private static final String REALM = "<aggregate-realm name=\"creaperAggregateRealm\" "
+            + "authentication-realm=\"authnRealm\" authorization-realm=\"authzRealm\"/>";
+
+    @Test
+    public void addSimpleToEmpty() throws Exception {
+        assertApplied(subsystem(),
+                new AddAggregateRealm.Builder("creaperAggregateRealm")
+                        .authenticationRealm("authnRealm")
+                        .authorizationRealm("authzRealm")
+                        .build(),
+                subsystem(container("security-realms", REALM)));
+    }
+
+    @Test
+    public void addSecond() throws Exception {
+        assertApplied(subsystem(container("security-realms", REALM)),
+                new AddAggregateRealm.Builder("creaperAggregateRealm2")
+                        .authenticationRealm("authnRealm")
+                        .authorizationRealm("authzRealm")
+                        .build(),
+                subsystem(container("security-realms", REALM, "<aggregate-realm name=\"creaperAggregateRealm2\" "
+                        + "authentication-realm=\"authnRealm\" authorization-realm=\"authzRealm\"/>")));
+    }
+
+    @Test
+    public void existing() throws Exception {
+        assertFails(subsystem(container("security-realms", REALM)),
+                new AddAggregateRealm.Builder("creaperAggregateRealm")
+                        .authenticationRealm("authnRealm")
+                        .authorizationRealm("authzRealm")
+                        .build());
+    }
+
+    @Test
+    public void overrideExisting() throws Exception {
+        assertApplied(subsystem(container("security-realms", REALM)),
+                new AddAggregateRealm.Builder("creaperAggregateRealm")
+                        .authenticationRealm("authnRealm")
+                        .authorizationRealm("authzRealm2")
+                        .replaceExisting()
+                        .build(),
+                subsystem(container("security-realms", "<aggregate-realm name=\"creaperAggregateRealm\" "
+                        + "authentication-realm=\"authnRealm\" authorization-realm=\"authzRealm2\"/>")));
+    }
+}
@@ -0,0 +1,66 @@
+package org.wildfly.extras.creaper.commands.elytron.realm;
+
+import org.junit.Test;
+import org.wildfly.extras.creaper.commands.elytron.AbstractElytronOfflineTest;
+
+public class AddFilesystemRealmOfflineTest extends AbstractElytronOfflineTest {
+
+    private static final String REALM = realm("creaperFilesystemRealm", "fs-realm");
+
+    private static String realm(String name, String path) {
+        return "<filesystem-realm name=\"" + name + "\">\n"
+                + "    <file path=\"" + path + "\"/>\n"
+                + "</filesystem-realm>";
+    }
+
+    @Test
+    public void addSimpleToEmpty() throws Exception {
+        assertApplied(subsystem(),
+                new AddFilesystemRealm.Builder("creaperFilesystemRealm")
+                        .path("fs-realm")
+                        .build(),
+                subsystem(container("security-realms", REALM)));
+    }
+
+    @Test
+    public void addSecond() throws Exception {
+        assertApplied(subsystem(container("security-realms", REALM)),
+                new AddFilesystemRealm.Builder("creaperFilesystemRealm2")
+                        .path("fs-realm")
+                        .build(),
+                subsystem(container("security-realms", REALM, realm("creaperFilesystemRealm2", "fs-realm"))));
+    }
+
+    @Test
+    public void existing() throws Exception {
+        assertFails(subsystem(container("security-realms", REALM)),
+                new AddFilesystemRealm.Builder("creaperFilesystemRealm")
+                        .path("fs-realm")
+                        .build());
+    }
+
+    @Test
+    public void overrideExisting() throws Exception {
+        assertApplied(subsystem(container("security-realms", REALM)),
+                new AddFilesystemRealm.Builder("creaperFilesystemRealm")
+                        .path("fs-realm2")
+                        .replaceExisting()
+                        .build(),
+                subsystem(container("security-realms", realm("creaperFilesystemRealm", "fs-realm2"))));
+    }
+
+    @Test
+    public void addFullToEmpty() throws Exception {
+        assertApplied(subsystem(),
+                new AddFilesystemRealm.Builder("creaperFilesystemRealm")
+                        .path("fs-realm")
+                        .relativeTo("jboss.server.config.dir")
+                        .levels(2)
+                        .encoded(false)
+                        .build(),
+                subsystem(container("security-realms", ""
+                        + "<filesystem-realm name=\"creaperFilesystemRealm\" levels=\"2\" encoded=\"false\">\n"
+                        + "    <file path=\"fs-realm\" relative-to=\"jboss.server.config.dir\"/>\n"
+                        + "</filesystem-realm>")));
+    }
+}
@@ -0,0 +1,59 @@
+package org.wildfly.extras.creaper.commands.elytron.realm;
+
+import org.junit.Test;
+import org.wildfly.extras.creaper.commands.elytron.AbstractElytronOfflineTest;
+
+public class AddIdentityRealmOfflineTest extends AbstractElytronOfflineTest {
+
+    private static final String REALM = "<identity-realm name=\"creaperIdentityRealm\" identity=\"$local\"/>";
+
+    @Test
+    public void addSimpleToEmpty() throws Exception {
+        assertApplied(subsystem(),
+                new AddIdentityRealm.Builder("creaperIdentityRealm")
+                        .identity("$local")
+                        .build(),
+                subsystem(container("security-realms", REALM)));
+    }
+
+    @Test
+    public void addSecond() throws Exception {
+        assertApplied(subsystem(container("security-realms", REALM)),
+                new AddIdentityRealm.Builder("creaperIdentityRealm2")
+                        .identity("$local")
+                        .build(),
+                subsystem(container("security-realms", REALM,
+                        "<identity-realm name=\"creaperIdentityRealm2\" identity=\"$local\"/>")));
+    }
+
+    @Test
+    public void existing() throws Exception {
+        assertFails(subsystem(container("security-realms", REALM)),
+                new AddIdentityRealm.Builder("creaperIdentityRealm")
+                        .identity("$local")
+                        .build());
+    }
+
+    @Test
+    public void overrideExisting() throws Exception {
+        assertApplied(subsystem(container("security-realms", REALM)),
+                new AddIdentityRealm.Builder("creaperIdentityRealm")
+                        .identity("someIdentity")
+                        .replaceExisting()
+                        .build(),
+                subsystem(container("security-realms",
+                        "<identity-realm name=\"creaperIdentityRealm\" identity=\"someIdentity\"/>")));
+    }
+
+    @Test
+    public void addFullToEmpty() throws Exception {
+        assertApplied(subsystem(),
+                new AddIdentityRealm.Builder("creaperIdentityRealm")
+                        .identity("$local")
+                        .attributeName("groups")
+                        .attributeValues("SuperUser", "Monitor")
+                        .build(),
+                subsystem(container("security-realms", "<identity-realm name=\"creaperIdentityRealm\" "
+                        + "identity=\"$local\" attribute-name=\"groups\" attribute-values=\"SuperUser Monitor\"/>")));
+    }
+}
@@ -0,0 +1,47 @@
+package org.wildfly.extras.creaper.commands.elytron.realm;
+
+import org.junit.Test;
+import org.wildfly.extras.creaper.commands.elytron.AbstractElytronOfflineTest;
+
+public class AddKeyStoreRealmOfflineTest extends AbstractElytronOfflineTest {
+
+    private static final String REALM = "<key-store-realm name=\"creaperKeyStoreRealm\" key-store=\"creaperKeyStore\"/>";
+    private static final String REALM_SECOND = "<key-store-realm name=\"creaperKeyStoreRealm2\" key-store=\"creaperKeyStore\"/>";
+    private static final String REALM_REPLACED = "<key-store-realm name=\"creaperKeyStoreRealm\" key-store=\"creaperKeyStore2\"/>";
+
+    @Test
+    public void addSimpleToEmpty() throws Exception {
+        assertApplied(subsystem(),
+                new AddKeyStoreRealm.Builder("creaperKeyStoreRealm")
+                        .keyStore("creaperKeyStore")
+                        .build(),
+                subsystem(container("security-realms", REALM)));
+    }
+
+    @Test
+    public void addSecond() throws Exception {
+        assertApplied(subsystem(container("security-realms", REALM)),
+                new AddKeyStoreRealm.Builder("creaperKeyStoreRealm2")
+                        .keyStore("creaperKeyStore")
+                        .build(),
+                subsystem(container("security-realms", REALM, REALM_SECOND)));
+    }
+
+    @Test
+    public void existing() throws Exception {
+        assertFails(subsystem(container("security-realms", REALM)),
+                new AddKeyStoreRealm.Builder("creaperKeyStoreRealm")
+                        .keyStore("creaperKeyStore")
+                        .build());
+    }
+
+    @Test
+    public void overrideExisting() throws Exception {
+        assertApplied(subsystem(container("security-realms", REALM)),
+                new AddKeyStoreRealm.Builder("creaperKeyStoreRealm")
+                        .keyStore("creaperKeyStore2")
+                        .replaceExisting()
+                        .build(),
+                subsystem(container("security-realms", REALM_REPLACED)));
+    }
+}
@@ -0,0 +1,71 @@
+package org.wildfly.extras.creaper.commands.elytron.realm;
+
+import org.junit.Test;
+import org.wildfly.extras.creaper.commands.elytron.AbstractElytronOfflineTest;
+
+public class AddPropertiesRealmOfflineTest extends AbstractElytronOfflineTest {
+
+    private static final String REALM = realm("creaperPropertiesRealm", "users.properties");
+
+    private static String realm(String name, String usersPath) {
+        return "<properties-realm name=\"" + name + "\">\n"
+                + "    <users-properties path=\"" + usersPath + "\"/>\n"
+                + "</properties-realm>";
+    }
+
+    @Test
+    public void addSimpleToEmpty() throws Exception {
+        assertApplied(subsystem(),
+                new AddPropertiesRealm.Builder("creaperPropertiesRealm")
+                        .userProperiesPath("users.properties")
+                        .build(),
+                subsystem(container("security-realms", REALM)));
+    }
+
+    @Test
+    public void addSecond() throws Exception {
+        assertApplied(subsystem(container("security-realms", REALM)),
+                new AddPropertiesRealm.Builder("creaperPropertiesRealm2")
+                        .userProperiesPath("users.properties")
+                        .build(),
+                subsystem(container("security-realms", REALM, realm("creaperPropertiesRealm2", "users.properties"))));
+    }
+
+    @Test
+    public void existing() throws Exception {
+        assertFails(subsystem(container("security-realms", REALM)),
+                new AddPropertiesRealm.Builder("creaperPropertiesRealm")
+                        .userProperiesPath("users.properties")
+                        .build());
+    }
+
+    @Test
+    public void overrideExisting() throws Exception {
+        assertApplied(subsystem(container("security-realms", REALM)),
+                new AddPropertiesRealm.Builder("creaperPropertiesRealm")
+                        .userProperiesPath("users2.properties")
+                        .replaceExisting()
+                        .build(),
+                subsystem(container("security-realms", realm("creaperPropertiesRealm", "users2.properties"))));
+    }
+
+    @Test
+    public void addFullToEmpty() throws Exception {
+        assertApplied(subsystem(),
+                new AddPropertiesRealm.Builder("creaperPropertiesRealm")
+                        .groupsAttribute("groups")
+                        .userProperiesPath("users.properties")
+                        .userPropertiesRelativeTo("jboss.server.config.dir")
+                        .digestRealmName("ApplicationRealm")
+                        .plainText(true)
+                        .groupsProperiesPath("roles.properties")
+                        .groupsPropertiesRelativeTo("jboss.server.config.dir")
+                        .build(),
+                subsystem(container("security-realms", ""
+                        + "<properties-realm name=\"creaperPropertiesRealm\" groups-attribute=\"groups\">\n"
+                        + "    <users-properties path=\"users.properties\" relative-to=\"jboss.server.config.dir\""
+                        + " digest-realm-name=\"ApplicationRealm\" plain-text=\"true\"/>\n"
+                        + "    <groups-properties path=\"roles.properties\" relative-to=\"jboss.server.config.dir\"/>\n"
+                        + "</properties-realm>")));
+    }
+}
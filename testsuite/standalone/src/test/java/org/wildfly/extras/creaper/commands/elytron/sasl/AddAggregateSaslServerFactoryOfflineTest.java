@@ -0,0 +1,60 @@
+package org.wildfly.extras.creaper.commands.elytron.sasl;
+
+import org.junit.Test;
+import org.wildfly.extras.creaper.commands.elytron.AbstractElytronOfflineTest;
+
+public class AddAggregateSaslServerFactoryOfflineTest extends AbstractElytronOfflineTest {
+
+    private static final String FACTORY = ""
+            + "<aggregate-sasl-server-factory name=\"creaperAggregateSaslServerFactory\">\n"
+            + "    <sasl-server-factory name=\"factory1\"/>\n"
+            + "    <sasl-server-factory name=\"factory2\"/>\n"
+            + "</aggregate-sasl-server-factory>";
+    private static final String FACTORY_SECOND = ""
+            + "<aggregate-sasl-server-factory name=\"creaperAggregateSaslServerFactory2\">\n"
+            + "    <sasl-server-factory name=\"factory1\"/>\n"
+            + "    <sasl-server-factory name=\"factory2\"/>\n"
+            + "</aggregate-sasl-server-factory>";
+    private static final String FACTORY_REPLACED = ""
+            + "<aggregate-sasl-server-factory name=\"creaperAggregateSaslServerFactory\">\n"
+            + "    <sasl-server-factory name=\"factory1\"/>\n"
+            + "    <sasl-server-factory name=\"factory2\"/>\n"
+            + "    <sasl-server-factory name=\"factory3\"/>\n"
+            + "</aggregate-sasl-server-factory>";
+
+    @Test
+    public void addSimpleToEmpty() throws Exception {
+        assertApplied(subsystem(),
+                new AddAggregateSaslServerFactory.Builder("creaperAggregateSaslServerFactory")
+                        .addSaslServerFactories("factory1", "factory2")
+                        .build(),
+                subsystem(container("sasl", FACTORY)));
+    }
+
+    @Test
+    public void addSecond() throws Exception {
+        assertApplied(subsystem(container("sasl", FACTORY)),
+                new AddAggregateSaslServerFactory.Builder("creaperAggregateSaslServerFactory2")
+                        .addSaslServerFactories("factory1", "factory2")
+                        .build(),
+                subsystem(container("sasl", FACTORY, FACTORY_SECOND)));
+    }
+
+    @Test
+    public void existing() throws Exception {
+        assertFails(subsystem(container("sasl", FACTORY)),
+                new AddAggregateSaslServerFactory.Builder("creaperAggregateSaslServerFactory")
+                        .addSaslServerFactories("factory1", "factory2")
+                        .build());
+    }
+
+    @Test
+    public void overrideExisting() throws Exception {
+        assertApplied(subsystem(container("sasl", FACTORY)),
+                new AddAggregateSaslServerFactory.Builder("creaperAggregateSaslServerFactory")
+                        .addSaslServerFactories("factory1", "factory2", "factory3")
+                        .replaceExisting()
+                        .build(),
+                subsystem(container("sasl", FACTORY_REPLACED)));
+    }
+}
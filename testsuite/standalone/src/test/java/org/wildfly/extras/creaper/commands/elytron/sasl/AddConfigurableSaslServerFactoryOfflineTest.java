@@ -0,0 +1,76 @@
+package org.wildfly.extras.creaper.commands.elytron.sasl;
+
+import org.junit.Test;
+import org.wildfly.extras.creaper.commands.elytron.AbstractElytronOfflineTest;
+import org.wildfly.extras.creaper.commands.elytron.Property;
+
+public class AddConfigurableSaslServerFactoryOfflineTest extends AbstractElytronOfflineTest {
+
+    private static final String FACTORY = "<configurable-sasl-server-factory name=\"creaperConfigurableSaslServerFactory\" sasl-server-factory=\"elytron\"/>";
+    private static final String FACTORY_SECOND = "<configurable-sasl-server-factory name=\"creaperConfigurableSaslServerFactory2\" sasl-server-factory=\"elytron\"/>";
+    private static final String FACTORY_REPLACED = "<configurable-sasl-server-factory name=\"creaperConfigurableSaslServerFactory\" sasl-server-factory=\"global\"/>";
+
+    @Test
+    public void addSimpleToEmpty() throws Exception {
+        assertApplied(subsystem(),
+                new AddConfigurableSaslServerFactory.Builder("creaperConfigurableSaslServerFactory")
+                        .saslServerFactory("elytron")
+                        .build(),
+                subsystem(container("sasl", FACTORY)));
+    }
+
+    @Test
+    public void addSecond() throws Exception {
+        assertApplied(subsystem(container("sasl", FACTORY)),
+                new AddConfigurableSaslServerFactory.Builder("creaperConfigurableSaslServerFactory2")
+                        .saslServerFactory("elytron")
+                        .build(),
+                subsystem(container("sasl", FACTORY, FACTORY_SECOND)));
+    }
+
+    @Test
+    public void existing() throws Exception {
+        assertFails(subsystem(container("sasl", FACTORY)),
+                new AddConfigurableSaslServerFactory.Builder("creaperConfigurableSaslServerFactory")
+                        .saslServerFactory("elytron")
+                        .build());
+    }
+
+    @Test
+    public void overrideExisting() throws Exception {
+        assertApplied(subsystem(container("sasl", FACTORY)),
+                new AddConfigurableSaslServerFactory.Builder("creaperConfigurableSaslServerFactory")
+                        .saslServerFactory("global")
+                        .replaceExisting()
+                        .build(),
+                subsystem(container("sasl", FACTORY_REPLACED)));
+    }
+
+    @Test
+    public void addFullToEmpty() throws Exception {
+        assertApplied(subsystem(),
+                new AddConfigurableSaslServerFactory.Builder("creaperConfigurableSaslServerFactory")
+                        .saslServerFactory("elytron")
+                        .protocol("remote")
+                        .serverName("localhost")
+                        .addProperties(new Property("wildfly.sasl.local-user.default-user", "$local"))
+                        .addFilters(new AddConfigurableSaslServerFactory.FilterBuilder()
+                                        .predefinedFilter("HASH_MD5")
+                                        .enabling(false)
+                                        .build(),
+                                new AddConfigurableSaslServerFactory.FilterBuilder()
+                                        .patternFilter("DIGEST-.*")
+                                        .build())
+                        .build(),
+                subsystem(container("sasl", ""
+                                + "<configurable-sasl-server-factory name=\"creaperConfigurableSaslServerFactory\" sasl-server-factory=\"elytron\" protocol=\"remote\" server-name=\"localhost\">\n"
+                                + "    <properties>\n"
+                                + "        <property name=\"wildfly.sasl.local-user.default-user\" value=\"$local\"/>\n"
+                                + "    </properties>\n"
+                                + "    <filters>\n"
+                                + "        <filter predefined-filter=\"HASH_MD5\" enabling=\"false\"/>\n"
+                                + "        <filter pattern-filter=\"DIGEST-.*\"/>\n"
+                                + "    </filters>\n"
+                                + "</configurable-sasl-server-factory>")));
+    }
+}
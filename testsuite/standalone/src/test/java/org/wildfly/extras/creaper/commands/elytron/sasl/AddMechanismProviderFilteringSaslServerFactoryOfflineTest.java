@@ -0,0 +1,73 @@
+package org.wildfly.extras.creaper.commands.elytron.sasl;
+
+import org.junit.Test;
+import org.wildfly.extras.creaper.commands.elytron.AbstractElytronOfflineTest;
+
+public class AddMechanismProviderFilteringSaslServerFactoryOfflineTest extends AbstractElytronOfflineTest {
+
+    private static final String FACTORY = "<mechanism-provider-filtering-sasl-server-factory name=\"creaperMechanismProviderFilteringSaslServerFactory\" sasl-server-factory=\"elytron\"/>";
+    private static final String FACTORY_SECOND = "<mechanism-provider-filtering-sasl-server-factory name=\"creaperMechanismProviderFilteringSaslServerFactory2\" sasl-server-factory=\"elytron\"/>";
+    private static final String FACTORY_REPLACED = "<mechanism-provider-filtering-sasl-server-factory name=\"creaperMechanismProviderFilteringSaslServerFactory\" sasl-server-factory=\"global\"/>";
+
+    @Test
+    public void addSimpleToEmpty() throws Exception {
+        assertApplied(subsystem(),
+                new AddMechanismProviderFilteringSaslServerFactory.Builder("creaperMechanismProviderFilteringSaslServerFactory")
+                        .saslServerFactory("elytron")
+                        .build(),
+                subsystem(container("sasl", FACTORY)));
+    }
+
+    @Test
+    public void addSecond() throws Exception {
+        assertApplied(subsystem(container("sasl", FACTORY)),
+                new AddMechanismProviderFilteringSaslServerFactory.Builder("creaperMechanismProviderFilteringSaslServerFactory2")
+                        .saslServerFactory("elytron")
+                        .build(),
+                subsystem(container("sasl", FACTORY, FACTORY_SECOND)));
+    }
+
+    @Test
+    public void existing() throws Exception {
+        assertFails(subsystem(container("sasl", FACTORY)),
+                new AddMechanismProviderFilteringSaslServerFactory.Builder("creaperMechanismProviderFilteringSaslServerFactory")
+                        .saslServerFactory("elytron")
+                        .build());
+    }
+
+    @Test
+    public void overrideExisting() throws Exception {
+        assertApplied(subsystem(container("sasl", FACTORY)),
+                new AddMechanismProviderFilteringSaslServerFactory.Builder("creaperMechanismProviderFilteringSaslServerFactory")
+                        .saslServerFactory("global")
+                        .replaceExisting()
+                        .build(),
+                subsystem(container("sasl", FACTORY_REPLACED)));
+    }
+
+    @Test
+    public void addFullToEmpty() throws Exception {
+        assertApplied(subsystem(),
+                new AddMechanismProviderFilteringSaslServerFactory.Builder("creaperMechanismProviderFilteringSaslServerFactory")
+                        .saslServerFactory("elytron")
+                        .enabling(false)
+                        .addFilters(new AddMechanismProviderFilteringSaslServerFactory.FilterBuilder()
+                                        .mechanismName("DIGEST-MD5")
+                                        .providerName("WildFlyElytron")
+                                        .providerVersion(1.0)
+                                        .versionComparison(
+                                                AddMechanismProviderFilteringSaslServerFactory.VersionComparison.GREATER_THAN)
+                                        .build(),
+                                new AddMechanismProviderFilteringSaslServerFactory.FilterBuilder()
+                                        .providerName("SunSASL")
+                                        .build())
+                        .build(),
+                subsystem(container("sasl", ""
+                                + "<mechanism-provider-filtering-sasl-server-factory name=\"creaperMechanismProviderFilteringSaslServerFactory\" sasl-server-factory=\"elytron\" enabling=\"false\">\n"
+                                + "    <filters>\n"
+                                + "        <filter mechanism-name=\"DIGEST-MD5\" provider-name=\"WildFlyElytron\" provider-version=\"1.0\" version-comparison=\"greater-than\"/>\n"
+                                + "        <filter provider-name=\"SunSASL\"/>\n"
+                                + "    </filters>\n"
+                                + "</mechanism-provider-filtering-sasl-server-factory>")));
+    }
+}
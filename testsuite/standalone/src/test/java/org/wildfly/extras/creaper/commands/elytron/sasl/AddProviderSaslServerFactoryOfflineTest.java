@@ -0,0 +1,47 @@
+package org.wildfly.extras.creaper.commands.elytron.sasl;
+
+import org.junit.Test;
+import org.wildfly.extras.creaper.commands.elytron.AbstractElytronOfflineTest;
+
+public class AddProviderSaslServerFactoryOfflineTest extends AbstractElytronOfflineTest {
+
+    private static final String FACTORY = "<provider-sasl-server-factory name=\"creaperProviderSaslServerFactory\" providers=\"elytron\"/>";
+    private static final String FACTORY_SECOND = "<provider-sasl-server-factory name=\"creaperProviderSaslServerFactory2\" providers=\"elytron\"/>";
+    private static final String FACTORY_REPLACED = "<provider-sasl-server-factory name=\"creaperProviderSaslServerFactory\" providers=\"openssl\"/>";
+
+    @Test
+    public void addSimpleToEmpty() throws Exception {
+        assertApplied(subsystem(),
+                new AddProviderSaslServerFactory.Builder("creaperProviderSaslServerFactory")
+                        .providers("elytron")
+                        .build(),
+                subsystem(container("sasl", FACTORY)));
+    }
+
+    @Test
+    public void addSecond() throws Exception {
+        assertApplied(subsystem(container("sasl", FACTORY)),
+                new AddProviderSaslServerFactory.Builder("creaperProviderSaslServerFactory2")
+                        .providers("elytron")
+                        .build(),
+                subsystem(container("sasl", FACTORY, FACTORY_SECOND)));
+    }
+
+    @Test
+    public void existing() throws Exception {
+        assertFails(subsystem(container("sasl", FACTORY)),
+                new AddProviderSaslServerFactory.Builder("creaperProviderSaslServerFactory")
+                        .providers("elytron")
+                        .build());
+    }
+
+    @Test
+    public void overrideExisting() throws Exception {
+        assertApplied(subsystem(container("sasl", FACTORY)),
+                new AddProviderSaslServerFactory.Builder("creaperProviderSaslServerFactory")
+                        .providers("openssl")
+                        .replaceExisting()
+                        .build(),
+                subsystem(container("sasl", FACTORY_REPLACED)));
+    }
+}
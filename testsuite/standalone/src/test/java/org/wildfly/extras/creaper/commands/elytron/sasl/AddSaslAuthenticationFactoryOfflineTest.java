@@ -0,0 +1,79 @@
+package org.wildfly.extras.creaper.commands.elytron.sasl;
+
+import org.junit.Test;
+import org.wildfly.extras.creaper.commands.elytron.AbstractElytronOfflineTest;
+import org.wildfly.extras.creaper.commands.elytron.Mechanism;
+
+public class AddSaslAuthenticationFactoryOfflineTest extends AbstractElytronOfflineTest {
+
+    private static final String FACTORY = factory("creaperSaslAuthenticationFactory", "creaperFactory");
+
+    private static String factory(String name, String serverFactory) {
+        return "<sasl-authentication-factory name=\"" + name + "\" sasl-server-factory=\"" + serverFactory
+                + "\" security-domain=\"creaperSecurityDomain\"/>";
+    }
+
+    @Test
+    public void addSimpleToEmpty() throws Exception {
+        assertApplied(subsystem(),
+                new AddSaslAuthenticationFactory.Builder("creaperSaslAuthenticationFactory")
+                        .saslServerFactory("creaperFactory")
+                        .securityDomain("creaperSecurityDomain")
+                        .build(),
+                subsystem(container("sasl", FACTORY)));
+    }
+
+    @Test
+    public void addSecond() throws Exception {
+        assertApplied(subsystem(container("sasl", FACTORY)),
+                new AddSaslAuthenticationFactory.Builder("creaperSaslAuthenticationFactory2")
+                        .saslServerFactory("creaperFactory")
+                        .securityDomain("creaperSecurityDomain")
+                        .build(),
+                subsystem(container("sasl", FACTORY, factory("creaperSaslAuthenticationFactory2", "creaperFactory"))));
+    }
+
+    @Test
+    public void existing() throws Exception {
+        assertFails(subsystem(container("sasl", FACTORY)),
+                new AddSaslAuthenticationFactory.Builder("creaperSaslAuthenticationFactory")
+                        .saslServerFactory("creaperFactory")
+                        .securityDomain("creaperSecurityDomain")
+                        .build());
+    }
+
+    @Test
+    public void overrideExisting() throws Exception {
+        assertApplied(subsystem(container("sasl", FACTORY)),
+                new AddSaslAuthenticationFactory.Builder("creaperSaslAuthenticationFactory")
+                        .saslServerFactory("creaperFactory2")
+                        .securityDomain("creaperSecurityDomain")
+                        .replaceExisting()
+                        .build(),
+                subsystem(container("sasl", factory("creaperSaslAuthenticationFactory", "creaperFactory2"))));
+    }
+
+    @Test
+    public void addFullToEmpty() throws Exception {
+        assertApplied(subsystem(),
+                new AddSaslAuthenticationFactory.Builder("creaperSaslAuthenticationFactory")
+                        .saslServerFactory("creaperFactory")
+                        .securityDomain("creaperSecurityDomain")
+                        .addMechanismConfigurations(new Mechanism.Builder()
+                                .mechanismName("DIGEST-MD5")
+                                .addMechanismRealmConfigurations(new Mechanism.MechanismRealmBuilder()
+                                        .realmName("creaperRealm")
+                                        .build())
+                                .build())
+                        .build(),
+                subsystem(container("sasl", ""
+                        + "<sasl-authentication-factory name=\"creaperSaslAuthenticationFactory\""
+                        + " sasl-server-factory=\"creaperFactory\" security-domain=\"creaperSecurityDomain\">\n"
+                        + "    <mechanism-configuration>\n"
+                        + "        <mechanism mechanism-name=\"DIGEST-MD5\">\n"
+                        + "            <mechanism-realm realm-name=\"creaperRealm\"/>\n"
+                        + "        </mechanism>\n"
+                        + "    </mechanism-configuration>\n"
+                        + "</sasl-authentication-factory>")));
+    }
+}
@@ -0,0 +1,47 @@
+package org.wildfly.extras.creaper.commands.elytron.sasl;
+
+import org.junit.Test;
+import org.wildfly.extras.creaper.commands.elytron.AbstractElytronOfflineTest;
+
+public class AddServiceLoaderSaslServerFactoryOfflineTest extends AbstractElytronOfflineTest {
+
+    private static final String FACTORY = "<service-loader-sasl-server-factory name=\"creaperServiceLoaderSaslServerFactory\" module=\"org.wildfly.security.elytron\"/>";
+    private static final String FACTORY_SECOND = "<service-loader-sasl-server-factory name=\"creaperServiceLoaderSaslServerFactory2\" module=\"org.wildfly.security.elytron\"/>";
+    private static final String FACTORY_REPLACED = "<service-loader-sasl-server-factory name=\"creaperServiceLoaderSaslServerFactory\" module=\"org.example.sasl\"/>";
+
+    @Test
+    public void addSimpleToEmpty() throws Exception {
+        assertApplied(subsystem(),
+                new AddServiceLoaderSaslServerFactory.Builder("creaperServiceLoaderSaslServerFactory")
+                        .module("org.wildfly.security.elytron")
+                        .build(),
+                subsystem(container("sasl", FACTORY)));
+    }
+
+    @Test
+    public void addSecond() throws Exception {
+        assertApplied(subsystem(container("sasl", FACTORY)),
+                new AddServiceLoaderSaslServerFactory.Builder("creaperServiceLoaderSaslServerFactory2")
+                        .module("org.wildfly.security.elytron")
+                        .build(),
+                subsystem(container("sasl", FACTORY, FACTORY_SECOND)));
+    }
+
+    @Test
+    public void existing() throws Exception {
+        assertFails(subsystem(container("sasl", FACTORY)),
+                new AddServiceLoaderSaslServerFactory.Builder("creaperServiceLoaderSaslServerFactory")
+                        .module("org.wildfly.security.elytron")
+                        .build());
+    }
+
+    @Test
+    public void overrideExisting() throws Exception {
+        assertApplied(subsystem(container("sasl", FACTORY)),
+                new AddServiceLoaderSaslServerFactory.Builder("creaperServiceLoaderSaslServerFactory")
+                        .module("org.example.sasl")
+                        .replaceExisting()
+                        .build(),
+                subsystem(container("sasl", FACTORY_REPLACED)));
+    }
+}
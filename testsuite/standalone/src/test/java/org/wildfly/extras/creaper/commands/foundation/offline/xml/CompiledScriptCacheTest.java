@@ -0,0 +1,61 @@
+package org.wildfly.extras.creaper.commands.foundation.offline.xml;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.wildfly.extras.creaper.core.CommandFailedException;
+import org.wildfly.extras.creaper.core.ManagementClient;
+import org.wildfly.extras.creaper.core.offline.OfflineManagementClient;
+import org.wildfly.extras.creaper.core.offline.OfflineOptions;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CompiledScriptCacheTest {
+    private static final String ORIGINAL = "<server xmlns='urn:jboss:domain:1.7'><foo/></server>";
+
+    @Rule
+    public final TemporaryFolder tmp = new TemporaryFolder();
+
+    private OfflineManagementClient client;
+
+    @Before
+    public void setUp() throws IOException {
+        File cfg = tmp.newFile("xmlTransform.xml");
+        Files.write(ORIGINAL, cfg, Charsets.UTF_8);
+
+        client = ManagementClient.offline(OfflineOptions.standalone().configurationFile(cfg).build());
+    }
+
+    @Test
+    public void scriptIsCompiledOnlyOnce() throws CommandFailedException {
+        CompiledScriptCache.clear();
+        long misses = CompiledScriptCache.missCount();
+        long hits = CompiledScriptCache.hitCount();
+
+        client.apply(new ExampleParameterizedTransformation("foo"));
+        assertEquals(misses + 1, CompiledScriptCache.missCount());
+        assertEquals(hits, CompiledScriptCache.hitCount());
+
+        client.apply(new ExampleParameterizedTransformation("bar"), new ExampleParameterizedTransformation("baz"));
+        assertEquals(misses + 1, CompiledScriptCache.missCount());
+        assertEquals(hits + 2, CompiledScriptCache.hitCount());
+        assertTrue(CompiledScriptCache.size() >= 1);
+    }
+
+    @Test
+    public void differentScriptsAreCachedSeparately() throws CommandFailedException {
+        CompiledScriptCache.clear();
+        long misses = CompiledScriptCache.missCount();
+
+        client.apply(new ExampleSimpleTransformation(), new ExampleSubtreeTransformation());
+        assertEquals(misses + 2, CompiledScriptCache.missCount());
+        assertEquals(2, CompiledScriptCache.size());
+    }
+}
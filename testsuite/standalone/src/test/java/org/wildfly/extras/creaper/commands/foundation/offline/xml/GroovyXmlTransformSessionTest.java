@@ -0,0 +1,167 @@
+package org.wildfly.extras.creaper.commands.foundation.offline.xml;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import org.custommonkey.xmlunit.XMLUnit;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.wildfly.extras.creaper.commands.foundation.offline.ConfigurationFileBackup;
+import org.wildfly.extras.creaper.commands.logging.Logging;
+import org.wildfly.extras.creaper.core.CommandFailedException;
+import org.wildfly.extras.creaper.core.ManagementClient;
+import org.wildfly.extras.creaper.core.offline.OfflineCommand;
+import org.wildfly.extras.creaper.core.offline.OfflineCommandContext;
+import org.wildfly.extras.creaper.core.offline.OfflineManagementClient;
+import org.wildfly.extras.creaper.core.offline.OfflineOptions;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.wildfly.extras.creaper.XmlAssert.assertXmlIdentical;
+
+public class GroovyXmlTransformSessionTest {
+    private static final String ORIGINAL = ""
+            + "<server xmlns=\"urn:jboss:domain:4.0\">\n"
+            + "    <extensions>\n"
+            + "        <extension module=\"org.jboss.as.ee\"/>\n"
+            + "    </extensions>\n"
+            + "    <management></management>\n"
+            + "    <profile>\n"
+            + "        <subsystem xmlns=\"urn:jboss:domain:logging:3.0\">\n"
+            + "            <logger category=\"existing\"/>\n"
+            + "        </subsystem>\n"
+            + "    </profile>\n"
+            + "</server>";
+
+    private static final String EXPECTED = ""
+            + "<server xmlns=\"urn:jboss:domain:4.0\">\n"
+            + "    <extensions>\n"
+            + "        <extension module=\"org.jboss.as.ee\"/>\n"
+            + "    </extensions>\n"
+            + "    <system-properties>\n"
+            + "        <property name=\"foo\" value=\"bar\"/>\n"
+            + "    </system-properties>\n"
+            + "    <paths>\n"
+            + "        <path name=\"foobar\" path=\"foobar\" relative-to=\"jboss.home.dir\"/>\n"
+            + "    </paths>\n"
+            + "    <management></management>\n"
+            + "    <profile>\n"
+            + "        <subsystem xmlns=\"urn:jboss:domain:logging:3.0\">\n"
+            + "            <logger category=\"added\"/>\n"
+            + "        </subsystem>\n"
+            + "    </profile>\n"
+            + "</server>";
+
+    @Rule
+    public final TemporaryFolder tmp = new TemporaryFolder();
+
+    private File cfg;
+    private OfflineManagementClient client;
+
+    @BeforeClass
+    public static void setUpXmlUnit() {
+        XMLUnit.setIgnoreWhitespace(true);
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        cfg = tmp.newFile("xmlTransform.xml");
+        Files.write(ORIGINAL, cfg, Charsets.UTF_8);
+
+        client = ManagementClient.offline(
+                OfflineOptions.standalone().configurationFile(cfg).inMemorySession().build());
+    }
+
+    @Test
+    public void commandsSeeChangesOfPreviousCommands() throws Exception {
+        client.apply(
+                new ExampleSubtreePathsTransformation(),
+                Logging.logger().add("temporary").build(),
+                Logging.logger().remove("existing"),
+                new ExampleSubtreeSystemPropertiesTransformation(),
+                Logging.logger().add("added").build(),
+                Logging.logger().remove("temporary")
+        );
+
+        assertXmlIdentical(EXPECTED, Files.toString(cfg, Charsets.UTF_8));
+    }
+
+    @Test
+    public void fileIsWrittenOnlyOnce() throws Exception {
+        final long lastModified = cfg.lastModified();
+        OfflineCommand checkFileUntouched = new OfflineCommand() {
+            @Override
+            public void apply(OfflineCommandContext ctx) throws CommandFailedException {
+                assertEquals(ORIGINAL, read(ctx.configurationFile));
+                assertEquals(lastModified, ctx.configurationFile.lastModified());
+            }
+        };
+
+        client.apply(
+                new ExampleSubtreeSystemPropertiesTransformation(),
+                checkFileUntouched,
+                new ExampleSubtreePathsTransformation(),
+                checkFileUntouched
+        );
+
+        assertXmlIdentical(EXPECTED.replace("added", "existing"), Files.toString(cfg, Charsets.UTF_8));
+    }
+
+    @Test
+    public void nothingIsWrittenOnFailure() throws Exception {
+        try {
+            client.apply(
+                    new ExampleSubtreeSystemPropertiesTransformation(),
+                    Logging.logger().add("existing").build() // already exists
+            );
+            fail("Adding an existing logger should fail");
+        } catch (CommandFailedException expected) {
+        }
+
+        assertEquals(ORIGINAL, Files.toString(cfg, Charsets.UTF_8));
+    }
+
+    @Test
+    public void sessionIsFlushedBeforeDirectFileAccess() throws Exception {
+        ConfigurationFileBackup backup = new ConfigurationFileBackup();
+        client.apply(
+                new ExampleSubtreeSystemPropertiesTransformation(),
+                backup.backup(),
+                new ExampleSubtreePathsTransformation(),
+                Logging.logger().remove("existing"),
+                backup.restore(),
+                Logging.logger().add("added").build()
+        );
+
+        String expected = ""
+                + "<server xmlns=\"urn:jboss:domain:4.0\">\n"
+                + "    <extensions>\n"
+                + "        <extension module=\"org.jboss.as.ee\"/>\n"
+                + "    </extensions>\n"
+                + "    <system-properties>\n"
+                + "        <property name=\"foo\" value=\"bar\"/>\n"
+                + "    </system-properties>\n"
+                + "    <management></management>\n"
+                + "    <profile>\n"
+                + "        <subsystem xmlns=\"urn:jboss:domain:logging:3.0\">\n"
+                + "            <logger category=\"existing\"/>\n"
+                + "            <logger category=\"added\"/>\n"
+                + "        </subsystem>\n"
+                + "    </profile>\n"
+                + "</server>";
+        assertXmlIdentical(expected, Files.toString(cfg, Charsets.UTF_8));
+    }
+
+    private static String read(File file) {
+        try {
+            return Files.toString(file, Charsets.UTF_8);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package org.wildfly.extras.creaper.commands.foundation.offline.xml;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.wildfly.extras.creaper.core.CommandFailedException;
+import org.wildfly.extras.creaper.core.ManagementClient;
+import org.wildfly.extras.creaper.core.offline.OfflineManagementClient;
+import org.wildfly.extras.creaper.core.offline.OfflineOptions;
+
+import java.io.File;
+
+import static org.junit.Assert.assertEquals;
+
+public class StreamingXmlTransformTest {
+    private static final String STANDALONE = ""
+            + "<?xml version='1.0' encoding='UTF-8'?>\n"
+            + "\n"
+            + "<server xmlns=\"urn:jboss:domain:4.0\">\n"
+            + "  <!-- formatting of the file <is> preserved -->\n"
+            + "  <profile>\n"
+            + "    <subsystem xmlns=\"urn:jboss:domain:logging:3.0\">\n"
+            + "      <logger category=\"com.arjuna\"   >\n"
+            + "        <level name='WARN'/>\n"
+            + "      </logger>\n"
+            + "      <logger category=\"a &amp; b\"/>\n"
+            + "    </subsystem>\n"
+            + "    <subsystem xmlns=\"urn:jboss:domain:naming:1.4\"/>\n"
+            + "  </profile>\n"
+            + "  <socket-binding-group name=\"standard-sockets\" default-interface=\"public\">\n"
+            + "    <socket-binding name=\"http\" port=\"${jboss.http.port:8080}\"/>\n"
+            + "  </socket-binding-group>\n"
+            + "</server>\n";
+
+    private static final String DOMAIN = ""
+            + "<domain xmlns=\"urn:jboss:domain:4.0\">\n"
+            + "    <profiles>\n"
+            + "        <profile name=\"default\">\n"
+            + "            <subsystem xmlns=\"urn:jboss:domain:logging:3.0\"/>\n"
+            + "        </profile>\n"
+            + "        <profile name=\"full\">\n"
+            + "            <subsystem xmlns=\"urn:jboss:domain:logging:3.0\">\n"
+            + "            </subsystem>\n"
+            + "        </profile>\n"
+            + "    </profiles>\n"
+            + "</domain>\n";
+
+    @Rule
+    public final TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void addElement() throws Exception {
+        String expected = STANDALONE.replace(""
+                + "      <logger category=\"a &amp; b\"/>\n"
+                + "    </subsystem>\n", ""
+                + "      <logger category=\"a &amp; b\"/>\n"
+                + "      <logger category=\"foo\">\n"
+                + "          <level name=\"INFO\"/>\n"
+                + "      </logger>\n"
+                + "    </subsystem>\n");
+
+        assertEquals(expected, transform(STANDALONE, OfflineOptions.standalone(), StreamingXmlTransform
+                .in(Subtree.subsystem("logging"))
+                .addElement("logger", "category", "foo",
+                        "<logger category=\"foo\">\n    <level name=\"INFO\"/>\n</logger>")
+                .build()));
+    }
+
+    @Test
+    public void addElementToEmptyParent() throws Exception {
+        String expected = STANDALONE.replace(""
+                + "    <subsystem xmlns=\"urn:jboss:domain:naming:1.4\"/>\n", ""
+                + "    <subsystem xmlns=\"urn:jboss:domain:naming:1.4\">\n"
+                + "        <bindings/>\n"
+                + "    </subsystem>\n");
+
+        assertEquals(expected, transform(STANDALONE, OfflineOptions.standalone(), StreamingXmlTransform
+                .in(Subtree.subsystem("naming"))
+                .addElement("bindings", "name", "x", "<bindings/>")
+                .build()));
+    }
+
+    @Test(expected = CommandFailedException.class)
+    public void addExistingElement() throws Exception {
+        transform(STANDALONE, OfflineOptions.standalone(), StreamingXmlTransform
+                .in(Subtree.subsystem("logging"))
+                .addElement("logger", "category", "a & b", "<logger category=\"a &amp; b\"/>")
+                .build());
+    }
+
+    @Test
+    public void replaceElement() throws Exception {
+        String expected = STANDALONE.replace(""
+                + "      <logger category=\"com.arjuna\"   >\n"
+                + "        <level name='WARN'/>\n"
+                + "      </logger>\n", ""
+                + "      <logger category=\"com.arjuna\">\n"
+                + "          <level name=\"ERROR\"/>\n"
+                + "      </logger>\n");
+
+        assertEquals(expected, transform(STANDALONE, OfflineOptions.standalone(), StreamingXmlTransform
+                .in(Subtree.subsystem("logging"))
+                .replaceElement("logger", "category", "com.arjuna",
+                        "<logger category=\"com.arjuna\">\n    <level name=\"ERROR\"/>\n</logger>")
+                .build()));
+    }
+
+    @Test
+    public void removeElement() throws Exception {
+        String expected = STANDALONE.replace(""
+                + "      <logger category=\"com.arjuna\"   >\n"
+                + "        <level name='WARN'/>\n"
+                + "      </logger>\n", "");
+
+        assertEquals(expected, transform(STANDALONE, OfflineOptions.standalone(), StreamingXmlTransform
+                .in(Subtree.subsystem("logging"))
+                .removeElement("logger", "category", "com.arjuna")
+                .build()));
+    }
+
+    @Test(expected = CommandFailedException.class)
+    public void removeMissingElement() throws Exception {
+        transform(STANDALONE, OfflineOptions.standalone(), StreamingXmlTransform
+                .in(Subtree.subsystem("logging"))
+                .removeElement("logger", "category", "foo")
+                .build());
+    }
+
+    @Test
+    public void setAttribute() throws Exception {
+        String expected = STANDALONE.replace(""
+                + "    <socket-binding name=\"http\" port=\"${jboss.http.port:8080}\"/>\n", ""
+                + "    <socket-binding name=\"http\" port=\"${jboss.http.port:8080}\" interface=\"&lt;any&gt;\"/>\n");
+
+        assertEquals(expected, transform(STANDALONE, OfflineOptions.standalone(), StreamingXmlTransform
+                .in(Subtree.socketBindingGroup())
+                .setAttribute("socket-binding", "name", "http", "interface", "<any>")
+                .build()));
+
+        expected = STANDALONE.replace("8080", "8180");
+
+        assertEquals(expected, transform(STANDALONE, OfflineOptions.standalone(), StreamingXmlTransform
+                .in(Subtree.socketBindingGroup())
+                .setAttribute("socket-binding", "name", "http", "port", "${jboss.http.port:8180}")
+                .build()));
+    }
+
+    @Test
+    public void childPath() throws Exception {
+        String expected = STANDALONE.replace(""
+                + "        <level name='WARN'/>\n", ""
+                + "        <level name='WARN'/>\n"
+                + "        <handlers/>\n");
+
+        assertEquals(expected, transform(STANDALONE, OfflineOptions.standalone(), StreamingXmlTransform
+                .in(Subtree.subsystem("logging"))
+                .child("logger", "category", "com.arjuna")
+                .addElement("handlers", "name", "x", "<handlers/>")
+                .build()));
+    }
+
+    @Test
+    public void domainUsesDefaultProfile() throws Exception {
+        String expected = DOMAIN.replace(""
+                + "            <subsystem xmlns=\"urn:jboss:domain:logging:3.0\">\n"
+                + "            </subsystem>\n", ""
+                + "            <subsystem xmlns=\"urn:jboss:domain:logging:3.0\">\n"
+                + "                <logger category=\"foo\"/>\n"
+                + "            </subsystem>\n");
+
+        assertEquals(expected, transform(DOMAIN, OfflineOptions.domain().forProfile("full").build(),
+                StreamingXmlTransform
+                        .in(Subtree.subsystem("logging"))
+                        .addElement("logger", "category", "foo", "<logger category=\"foo\"/>")
+                        .build()));
+    }
+
+    @Test
+    public void alternative() throws Exception {
+        String expected = STANDALONE.replace(""
+                + "    <subsystem xmlns=\"urn:jboss:domain:naming:1.4\"/>\n", ""
+                + "    <subsystem xmlns=\"urn:jboss:domain:naming:1.4\">\n"
+                + "        <bindings/>\n"
+                + "    </subsystem>\n");
+
+        StreamingXmlTransform naming = StreamingXmlTransform
+                .in(Subtree.subsystem("naming"))
+                .addElement("bindings", "name", "x", "<bindings/>")
+                .build();
+        assertEquals(expected, transform(STANDALONE, OfflineOptions.standalone(), StreamingXmlTransform
+                .in(Subtree.subsystem("messaging"))
+                .addElement("bindings", "name", "x", "<bindings/>")
+                .otherwise(naming)
+                .build()));
+    }
+
+    @Test(expected = CommandFailedException.class)
+    public void missingSubtree() throws Exception {
+        transform(STANDALONE, OfflineOptions.standalone(), StreamingXmlTransform
+                .in(Subtree.subsystem("messaging"))
+                .addElement("bindings", "name", "x", "<bindings/>")
+                .build());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void changeMustBeSpecified() {
+        StreamingXmlTransform.in(Subtree.subsystem("logging")).build();
+    }
+
+    private String transform(String xml, OfflineOptions.RootDirectoryOfflineOptions options,
+                             StreamingXmlTransform transform) throws Exception {
+        File cfg = tmp.newFile();
+        Files.write(xml, cfg, Charsets.UTF_8);
+
+        OfflineManagementClient client = ManagementClient.offline(options.configurationFile(cfg).build());
+        client.apply(transform);
+
+        return Files.toString(cfg, Charsets.UTF_8);
+    }
+}
@@ -0,0 +1,86 @@
+package org.wildfly.extras.creaper.commands.foundation.offline.xml;
+
+import groovy.util.XmlSlurper;
+import groovy.util.slurpersupport.GPathResult;
+import groovy.util.slurpersupport.NoChildren;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SubtreeIndexTest {
+    private static final String DOMAIN = ""
+            + "<domain xmlns=\"urn:jboss:domain:4.0\">\n"
+            + "    <profiles>\n"
+            + "        <profile name=\"default\">\n"
+            + "            <subsystem xmlns=\"urn:jboss:domain:messaging-activemq:1.0\" id=\"default-activemq\"/>\n"
+            + "            <subsystem xmlns=\"urn:jboss:domain:messaging:1.0\" id=\"default-messaging\"/>\n"
+            + "        </profile>\n"
+            + "        <profile name=\"full\">\n"
+            + "            <subsystem xmlns=\"urn:wildfly:elytron:1.0\" id=\"full-elytron-wildfly\"/>\n"
+            + "            <subsystem xmlns=\"urn:jboss:domain:elytron:1.0\" id=\"full-elytron-jboss\"/>\n"
+            + "        </profile>\n"
+            + "        <profile name=\"full\">\n"
+            + "            <subsystem xmlns=\"urn:jboss:domain:logging:3.0\" id=\"duplicate\"/>\n"
+            + "        </profile>\n"
+            + "    </profiles>\n"
+            + "    <socket-binding-groups>\n"
+            + "        <socket-binding-group name=\"standard-sockets\" id=\"standard\"/>\n"
+            + "        <socket-binding-group name=\"full-sockets\" id=\"full\"/>\n"
+            + "    </socket-binding-groups>\n"
+            + "</domain>";
+
+    private static final String STANDALONE = ""
+            + "<server xmlns=\"urn:jboss:domain:4.0\">\n"
+            + "    <profile>\n"
+            + "        <subsystem xmlns=\"urn:jboss:domain:logging:3.0\" id=\"logging\"/>\n"
+            + "    </profile>\n"
+            + "    <socket-binding-group name=\"standard-sockets\" id=\"standard\"/>\n"
+            + "</server>";
+
+    @Test
+    public void domain() throws Exception {
+        SubtreeIndex index = new SubtreeIndex(new XmlSlurper(false, false).parseText(DOMAIN));
+
+        assertEquals(Subtree.Type.DOMAIN, index.type());
+        assertEquals("full", index.domainProfile("full").getProperty("@name").toString());
+        assertEquals("default-messaging",
+                id(index.domainSubsystem("default", "urn:jboss:domain:messaging:")));
+        assertEquals("default-activemq",
+                id(index.domainSubsystem("default", "urn:jboss:domain:messaging-activemq:")));
+        assertEquals("full-elytron-wildfly",
+                id(index.domainSubsystem("full", "urn:jboss:domain:elytron:", "urn:wildfly:elytron:")));
+        assertEquals("full", id(index.domainSocketBindingGroup("full-sockets")));
+    }
+
+    @Test
+    public void domainFirstProfileWins() throws Exception {
+        SubtreeIndex index = new SubtreeIndex(new XmlSlurper(false, false).parseText(DOMAIN));
+
+        assertTrue(index.domainSubsystem("full", "urn:jboss:domain:logging:") instanceof NoChildren);
+    }
+
+    @Test
+    public void missing() throws Exception {
+        SubtreeIndex index = new SubtreeIndex(new XmlSlurper(false, false).parseText(DOMAIN));
+
+        assertTrue(index.domainProfile("ha") instanceof NoChildren);
+        assertTrue(index.domainSubsystem("ha", "urn:jboss:domain:logging:") instanceof NoChildren);
+        assertTrue(index.domainSubsystem("default", "urn:jboss:domain:logging:") instanceof NoChildren);
+        assertTrue(index.domainSocketBindingGroup("ha-sockets") instanceof NoChildren);
+    }
+
+    @Test
+    public void standalone() throws Exception {
+        SubtreeIndex index = new SubtreeIndex(new XmlSlurper(false, false).parseText(STANDALONE));
+
+        assertEquals(Subtree.Type.SERVER, index.type());
+        assertEquals("logging", id(index.subsystem("urn:jboss:domain:logging:", "urn:wildfly:logging:")));
+        assertTrue(index.subsystem("urn:jboss:domain:log:") instanceof NoChildren);
+        assertEquals("standard", id(index.child("socket-binding-group")));
+    }
+
+    private static String id(GPathResult element) {
+        return element.getProperty("@id").toString();
+    }
+}
@@ -9,10 +9,14 @@ import org.wildfly.extras.creaper.core.CommandFailedException;
 import org.wildfly.extras.creaper.core.ManagementClient;
 import org.wildfly.extras.creaper.core.online.OnlineManagementClient;
 import org.wildfly.extras.creaper.core.online.OnlineOptions;
+import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 
 import java.io.IOException;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 @RunWith(Arquillian.class)
@@ -97,4 +101,55 @@ public class CliTest {
 
         assertStillValid();
     }
+
+    @Test
+    public void cliScript_moreOperationsThanFitIntoOneComposite() throws Exception {
+        int count = CliScript.MAX_COMPOSITE_STEPS + 10;
+        StringBuilder add = new StringBuilder();
+        StringBuilder remove = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            add.append("/system-property=creaper-cli-").append(i).append(":add(value=").append(i).append(")\n");
+            remove.append("/system-property=creaper-cli-").append(i).append(":remove\n");
+        }
+
+        Operations ops = new Operations(client);
+        try {
+            client.apply(new CliScript(add.toString()));
+            assertEquals(String.valueOf(count - 1), ops.readAttribute(
+                    Address.root().and("system-property", "creaper-cli-" + (count - 1)), "value").stringValue());
+        } finally {
+            client.apply(new CliScript(remove.toString()));
+        }
+        assertFalse(ops.exists(Address.root().and("system-property", "creaper-cli-0")));
+    }
+
+    @Test
+    public void cliScript_failedOperationRollsBackOperationsSentTogether() throws IOException {
+        try {
+            client.apply(new CliScript(""
+                    + "/system-property=creaper-cli:add(value=foo)\n"
+                    + ":write-attribute(name=management-major-version, value=42)\n"));
+            fail();
+        } catch (CommandFailedException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("management-major-version"));
+        }
+
+        assertFalse(new Operations(client).exists(Address.root().and("system-property", "creaper-cli")));
+    }
+
+    @Test
+    public void cliScript_batch() throws Exception {
+        Operations ops = new Operations(client);
+        try {
+            client.apply(new CliScript(""
+                    + "batch\n"
+                    + "/system-property=creaper-cli:add(value=foo)\n"
+                    + "/system-property=creaper-cli:write-attribute(name=value, value=bar)\n"
+                    + "run-batch\n"));
+            assertEquals("bar", ops.readAttribute(Address.root().and("system-property", "creaper-cli"), "value")
+                    .stringValue());
+        } finally {
+            ops.removeIfExists(Address.root().and("system-property", "creaper-cli"));
+        }
+    }
 }
@@ -104,6 +104,33 @@ public class AddLoggerOfflineTest {
         assertXmlIdentical(LOGGER_ADD_EXPECTED, Files.toString(cfg, Charsets.UTF_8));
     }
 
+    @Test
+    public void replaceExistingStreaming() throws Exception {
+        File cfg = tmp.newFile("xmlTransform.xml");
+        String loggingXmlOriginal = String.format(LOGGER_ORIGINAL, ""
+                + "            <logger category=\"creaper.category\" use-parent-handlers=\"true\">\n"
+                + "                <level name=\"FINE\"/>\n"
+                + "            </logger>\n"
+        );
+
+        Files.write(loggingXmlOriginal, cfg, Charsets.UTF_8);
+
+        OfflineManagementClient client = ManagementClient.offline(
+                OfflineOptions.standalone().configurationFile(cfg).streamingTransforms().build());
+
+        AddLogger addLogger = Logging.logger().add("creaper.category")
+                .level(LogLevel.OFF)
+                .filter("match(\"filter\")")
+                .handlers("HANDLER-1", "HANDLER-2")
+                .useParentHandler(true)
+                .replaceExisting()
+                .build();
+
+        client.apply(addLogger);
+
+        assertXmlIdentical(LOGGER_ADD_EXPECTED, Files.toString(cfg, Charsets.UTF_8));
+    }
+
     @Test(expected = CommandFailedException.class)
     public void replaceExisting2() throws Exception {
         File cfg = tmp.newFile("xmlTransform.xml");
@@ -0,0 +1,88 @@
+package org.wildfly.extras.creaper.commands.socketbindings;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import org.custommonkey.xmlunit.XMLUnit;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.wildfly.extras.creaper.core.CommandFailedException;
+import org.wildfly.extras.creaper.core.ManagementClient;
+import org.wildfly.extras.creaper.core.offline.OfflineManagementClient;
+import org.wildfly.extras.creaper.core.offline.OfflineOptions;
+
+import java.io.File;
+
+import static org.wildfly.extras.creaper.XmlAssert.assertXmlIdentical;
+
+public class AddSocketBindingOfflineTest {
+    private static final String SOCKET_BINDINGS_ORIGINAL = ""
+            + "<server xmlns=\"urn:jboss:domain:4.0\">\n"
+            + "    <socket-binding-group name=\"standard-sockets\" default-interface=\"public\">\n"
+            + "        <socket-binding name=\"http\" port=\"8080\"/>\n"
+            + "    </socket-binding-group>\n"
+            + "</server>";
+
+    private static final String SOCKET_BINDINGS_EXPECTED = ""
+            + "<server xmlns=\"urn:jboss:domain:4.0\">\n"
+            + "    <socket-binding-group name=\"standard-sockets\" default-interface=\"public\">\n"
+            + "        <socket-binding name=\"http\" port=\"8080\"/>\n"
+            + "        <socket-binding name=\"creaper\" interface=\"management\" port=\"12345\" fixed-port=\"true\"/>\n"
+            + "    </socket-binding-group>\n"
+            + "</server>";
+
+    @Rule
+    public final TemporaryFolder tmp = new TemporaryFolder();
+
+    @Before
+    public void setUp() {
+        XMLUnit.setNormalizeWhitespace(true);
+    }
+
+    @Test
+    public void addSocketBinding() throws Exception {
+        File cfg = tmp.newFile("xmlTransform.xml");
+        Files.write(SOCKET_BINDINGS_ORIGINAL, cfg, Charsets.UTF_8);
+
+        OfflineManagementClient client = ManagementClient.offline(
+                OfflineOptions.standalone().configurationFile(cfg).build());
+
+        client.apply(new AddSocketBinding.Builder("creaper")
+                .interfaceName("management")
+                .port(12345)
+                .fixedPort(true)
+                .build());
+
+        assertXmlIdentical(SOCKET_BINDINGS_EXPECTED, Files.toString(cfg, Charsets.UTF_8));
+    }
+
+    @Test(expected = CommandFailedException.class)
+    public void addExistingSocketBinding() throws Exception {
+        File cfg = tmp.newFile("xmlTransform.xml");
+        Files.write(SOCKET_BINDINGS_ORIGINAL, cfg, Charsets.UTF_8);
+
+        OfflineManagementClient client = ManagementClient.offline(
+                OfflineOptions.standalone().configurationFile(cfg).build());
+
+        client.apply(new AddSocketBinding.Builder("http")
+                .port(8180)
+                .build());
+    }
+
+    @Test
+    public void replaceExistingSocketBinding() throws Exception {
+        File cfg = tmp.newFile("xmlTransform.xml");
+        Files.write(SOCKET_BINDINGS_ORIGINAL, cfg, Charsets.UTF_8);
+
+        OfflineManagementClient client = ManagementClient.offline(
+                OfflineOptions.standalone().configurationFile(cfg).build());
+
+        client.apply(new AddSocketBinding.Builder("http")
+                .port(8180)
+                .replaceExisting(true)
+                .build());
+
+        assertXmlIdentical(SOCKET_BINDINGS_ORIGINAL.replace("8080", "8180"), Files.toString(cfg, Charsets.UTF_8));
+    }
+}